@@ -59,6 +59,15 @@ public class CellController {
         }
     }
 
+    /** Outlines the cell as a hint (green = safe, red = mine) until the next init(). */
+    public void showHint(boolean mine) {
+        String color = mine ? "#EF4444" : "#22C55E";
+        cellView.setStyle(cellView.getStyle() +
+                "-fx-border-color: " + color + ";" +
+                "-fx-border-width: 3;" +
+                "-fx-effect: dropshadow(gaussian, " + color + ", 10, 0.5, 0, 0);");
+    }
+
     // ---------------------------------------------------------------------
     // CLOSED / FLAGGED
     // ---------------------------------------------------------------------
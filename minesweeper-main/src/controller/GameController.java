@@ -2,12 +2,13 @@ package controller;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -30,20 +31,34 @@ import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 
 import model.Board;
+import model.BoardMetrics;
 import model.Cell;
 import model.GameHistoryEntry;
 import model.GameModel;
 import model.GameModelObserver;
 import model.Question;
-import model.QuestionDifficulty;
+import model.QuestionBank;
+import model.QuestionDeck;
+import model.QuestionSource;
 import model.SysData;
 import view.GameView;
 
-import service.RevealService;
-import service.SpecialAction;
-import service.SpecialCellResult;
-import service.SpecialCellService;
-
+import service.AiPartner;
+import service.BotPolicy;
+import service.GameEngine;
+import service.GameEvent;
+import service.GameReplay;
+import service.HintEngine;
+import service.RevealResult;
+
+/**
+ * The game window. The rules live in service.GameEngine; this class turns
+ * mouse clicks into engine moves and renders the events they return
+ * (repaint cells, dialogs, turn highlight), and owns the timer and history.
+ *
+ * The same window plays back a recorded game (getReplayInstance): the moves
+ * come from a GameReplay on a timer and the boards take no clicks.
+ */
 public class GameController implements GameModelObserver {
 
     private static GameController instance;
@@ -59,45 +74,100 @@ public class GameController implements GameModelObserver {
     public String player1Name = "Player 1";
     public String player2Name = "Player 2";
 
-    private int currentPlayer = 1;
-    private boolean gameActive = true;
-
-    // Prevent endGame running twice (fixes double save: WIN + LOSE)
-    private boolean endGameTriggered = false;
-
     private Timer gameTimer;
     private int elapsedTime = 0;
 
     private String difficulty;
-    private int mineCount;
-    private int sharedLives;
 
     private final Stage primaryStage;
 
     private final Random rng = new Random();
 
-    private final RevealService revealService = new RevealService();
-    private final SpecialCellService specialCellService = new SpecialCellService(rng);
+    private final GameEngine engine;
+
+    // computer player in one seat, or null for two humans
+    private final AiPartner ai;
+
+    // kept up to date move by move, so a hint is ready at once
+    private final HintEngine hints = new HintEngine();
+    private CellController hintedCell;
+
+    // recorded game being played back (null for a live game), one move per REPLAY_STEP_MS
+    private final GameReplay replay;
+    private final Timer replayTimer;
+    private static final long REPLAY_STEP_MS = 600;
 
-    private BoardController board1Controller;
-    private BoardController board2Controller;
+    // per-game shuffle bags over the question bank (no repeats until a bag runs out)
+    private QuestionDeck questionDeck;
+
+    // built once per game window and reused for every question cell
+    private QuestionPopup questionPopup;
+
+    // picks the next questions off the FX thread (see QuestionDeck.prefetch)
+    private static final ExecutorService questionPrefetcher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "question-prefetch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * @param aiPlayer   seat taken by the computer (1 or 2), 0 for two humans
+     * @param aiBudgetMs the computer's thinking time per move
+     */
+    public static GameController getInstance(String difficulty, String p1Name, String p2Name,
+                                             boolean noGuess, int aiPlayer, long aiBudgetMs, Stage stage) {
+        if (instance == null) {
+            instance = new GameController(difficulty, p1Name, p2Name, noGuess, aiPlayer, aiBudgetMs, null, stage);
+        }
+        return instance;
+    }
 
-    public static GameController getInstance(String difficulty, String p1Name, String p2Name, Stage stage) {
+    /** A window that plays `replay` back, move by move (from the History screen). */
+    public static GameController getReplayInstance(GameReplay replay, String p1Name, String p2Name, Stage stage) {
         if (instance == null) {
-            instance = new GameController(difficulty, p1Name, p2Name, stage);
+            GameEngine recorded = replay.getEngine();
+            instance = new GameController(recorded.getDifficulty(), p1Name, p2Name, recorded.isNoGuess(),
+                    0, 0, replay, stage);
         }
         return instance;
     }
 
     public static void resetInstance() {
+        if (instance != null && instance.ai != null) instance.ai.cancel();
+        if (instance != null && instance.replayTimer != null) instance.replayTimer.cancel();
         instance = null;
     }
 
-    private GameController(String difficulty, String p1Name, String p2Name, Stage stage) {
+    private GameController(String difficulty, String p1Name, String p2Name, boolean noGuess,
+                           int aiPlayer, long aiBudgetMs, GameReplay replay, Stage stage) {
         this.primaryStage = stage;
         this.difficulty = difficulty;
         this.player1Name = p1Name;
         this.player2Name = p2Name;
+        this.ai = (aiPlayer == 1 || aiPlayer == 2) ? new AiPartner(aiPlayer, aiBudgetMs) : null;
+        this.replay = replay;
+        this.replayTimer = (replay != null) ? new Timer("replay", true) : null;
+
+        // the engine asks the current game's deck; the next question is prefetched after each use
+        QuestionSource questions = new QuestionSource() {
+            @Override
+            public Question draw() {
+                Question q = questionDeck.draw();
+                if (q != null) prefetchQuestions(); // replace the one just taken while the player reads
+                return q;
+            }
+
+            @Override
+            public void recordAnswer(Question q, boolean correct) {
+                // answer statistics steer which questions come up next (see QuestionDeck)
+                questionDeck.recordAnswer(q, correct);
+                prefetchQuestions();
+            }
+        };
+
+        engine = (replay != null) ? replay.getEngine() : new GameEngine(difficulty, rng, questions, noGuess);
+        N = engine.getSettings().rows;
+        M = engine.getSettings().cols;
 
         Rectangle2D bounds = Screen.getPrimary().getVisualBounds();
         double screenHeight = bounds.getHeight();
@@ -108,31 +178,11 @@ public class GameController implements GameModelObserver {
             boardHeightBudget = 220;
         }
 
-        int baseCellSize;
-
-        switch (difficulty) {
-            case "Easy":
-                N = M = 9;
-                mineCount = 10;
-                sharedLives = 10;
-                baseCellSize = 36;
-                break;
-
-            case "Medium":
-                N = M = 13;
-                mineCount = 26;
-                sharedLives = 8;
-                baseCellSize = 28;
-                break;
-
-            case "Hard":
-            default:
-                N = M = 16;
-                mineCount = 44;
-                sharedLives = 6;
-                baseCellSize = 26;
-                break;
-        }
+        int baseCellSize = switch (difficulty) {
+            case "Easy" -> 36;
+            case "Medium" -> 28;
+            default -> 26; // Hard
+        };
 
         int maxByHeight = (int) Math.floor(boardHeightBudget / N);
 
@@ -153,10 +203,14 @@ public class GameController implements GameModelObserver {
 
         CellController.setCellSide(cellSize);
 
-        gameModel = new GameModel(this, mineCount, sharedLives);
+        gameModel = engine.getModel();
         gameModel.addObserver(this); // observe model changes
 
+        // warm the question cache while the board is being built
+        QuestionBank.getInstance().preloadAsync();
+
         gameView = new GameView(this);
+        questionPopup = new QuestionPopup(primaryStage);
 
         init();
         setupEventHandlers();
@@ -170,32 +224,29 @@ public class GameController implements GameModelObserver {
     }
 
     public void init() {
-        gameActive = true;
-        endGameTriggered = false;
-        currentPlayer = 1;
         elapsedTime = 0;
 
-        BoardController.resetInstances();
+        questionDeck = QuestionBank.getInstance().newDeck(rng);
+        prefetchQuestions();
 
-        gameModel.initializeBoards(N, M);
+        if (replay == null) engine.newGame(); // a replay's engine already holds the recorded boards
+        hints.newGame(engine);
+        hintedCell = null;
+        if (ai != null) ai.newGame(engine);
 
-        Board logicalBoard1 = gameModel.getBoard1();
-        Board logicalBoard2 = gameModel.getBoard2();
-
-        board1 = createUiBoard(logicalBoard1);
-        board2 = createUiBoard(logicalBoard2);
+        board1 = createUiBoard(engine.getBoard(1));
+        board2 = createUiBoard(engine.getBoard(2));
 
         createCellsGrid(board1, gameView.gridPane1);
         createCellsGrid(board2, gameView.gridPane2);
 
-        board1Controller = BoardController.getInstance(1, this, gameModel, logicalBoard1, board1, revealService);
-        board2Controller = BoardController.getInstance(2, this, gameModel, logicalBoard2, board2, revealService);
-
-        addEventHandlersToBoard(board1Controller);
-        addEventHandlersToBoard(board2Controller);
+        addEventHandlersToBoard(board1, 1);
+        addEventHandlersToBoard(board2, 2);
 
         updateUI();
         highlightCurrentPlayer();
+        nextAiMove();
+        scheduleReplayStep();
     }
 
     private CellController[][] createUiBoard(Board logicalBoard) {
@@ -231,6 +282,16 @@ public class GameController implements GameModelObserver {
     }
 
     private void setupEventHandlers() {
+        gameView.hintBtn.setOnAction(e -> showHint());
+
+        // nothing to hint at or restart while watching a recorded game
+        if (replay != null) {
+            for (Button b : new Button[]{gameView.hintBtn, gameView.restartBtn}) {
+                b.setVisible(false);
+                b.setManaged(false);
+            }
+        }
+
         // Restart
         gameView.restartBtn.addEventHandler(MouseEvent.MOUSE_CLICKED, e -> {
             boolean ok = showConfirmation("Start New Game",
@@ -261,376 +322,231 @@ public class GameController implements GameModelObserver {
             if (!ok) return;
 
             if (gameTimer != null) gameTimer.cancel();
+            if (ai != null) ai.cancel();
+            if (replayTimer != null) replayTimer.cancel();
             Main.showMainMenu(primaryStage);
         });
     }
 
-    private void addEventHandlersToBoard(BoardController bc) {
-        CellController[][] board = bc.getUiBoard();
-        int playerNum = bc.getPlayerNum();
-
+    private void addEventHandlersToBoard(CellController[][] board, int playerNum) {
         for (int i = 0; i < board.length; i++) {
             for (int j = 0; j < board[0].length; j++) {
                 int row = i;
                 int col = j;
 
+                // the engine ignores clicks out of turn / after the game
                 board[i][j].cellView.setOnMouseClicked(event -> {
-                    if (!gameActive || endGameTriggered) return;
-                    if (currentPlayer != playerNum) return;
+                    if (replay != null) return; // watching, not playing
+                    if (ai != null && ai.plays(playerNum)) return; // the computer's board
 
                     if (event.getButton() == MouseButton.PRIMARY) {
-                        bc.handleLeftClick(row, col);
+                        handleLeftClick(playerNum, row, col);
                     } else if (event.getButton() == MouseButton.SECONDARY) {
-                        bc.handleRightClick(row, col);
+                        handleRightClick(playerNum, row, col);
                     }
                 });
             }
         }
     }
 
-    public boolean isGameActive() {
-        return gameActive && !endGameTriggered;
-    }
-
-    public int getCurrentPlayer() {
-        return currentPlayer;
+    private void handleLeftClick(int playerNum, int row, int col) {
+        render(engine.click(playerNum, row, col));
     }
 
-    public void switchPlayer() {
-        if (!isGameActive()) return;
-
-        currentPlayer = (currentPlayer == 1 ? 2 : 1);
-        highlightCurrentPlayer();
-        updateUI();
+    private void handleRightClick(int playerNum, int row, int col) {
+        render(engine.flag(playerNum, row, col));
     }
 
-    private void highlightCurrentPlayer() {
-        String activeBorder = "-fx-border-color: #22C55E;" + "-fx-border-width: 3;" + "-fx-padding: 18;"
-                + "-fx-background-color: #111827;" + "-fx-border-radius: 14;" + "-fx-background-radius: 14;"
-                + "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.6), 12,0,0,6);";
-
-        String inactiveBorder = "-fx-border-color: #374151;" + "-fx-border-width: 2;" + "-fx-padding: 18;"
-                + "-fx-background-color: #111827;" + "-fx-border-radius: 14;" + "-fx-background-radius: 14;"
-                + "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.4), 8,0,0,4);";
+    /** If it is the computer's turn, let it think; its move comes back as a normal click. */
+    private void nextAiMove() {
+        if (ai == null || engine.isOver() || engine.isQuestionPending()) return;
+        if (!ai.plays(engine.getCurrentPlayer())) return;
 
-        if (currentPlayer == 1) {
-            gameView.player1Panel.setStyle(activeBorder);
-            gameView.player2Panel.setStyle(inactiveBorder);
-        } else {
-            gameView.player1Panel.setStyle(inactiveBorder);
-            gameView.player2Panel.setStyle(activeBorder);
-        }
+        ai.requestMove(engine, Platform::runLater, this::playAiMove);
     }
 
-    public void updateUI() {
-        gameView.sharedScoreLabel.setText("" + gameModel.getSharedScore());
-        gameView.sharedLivesLabel.setText("" + gameModel.getSharedLives());
-        gameView.currentPlayerLabel.setText((currentPlayer == 1 ? player1Name : player2Name) + "'s Turn");
-
-        gameView.difficultyLabel.setText(difficulty);
-        gameView.timeLabel.setText(formatTime(elapsedTime));
-
-        if (board1Controller != null) {
-            gameView.player1MinesLeftLabel.setText("Mines Left: " + board1Controller.getMinesLeft());
-        }
-        if (board2Controller != null) {
-            gameView.player2MinesLeftLabel.setText("Mines Left: " + board2Controller.getMinesLeft());
-        }
+    private void playAiMove(BotPolicy.Move move) {
+        if (engine.isOver() || !ai.plays(engine.getCurrentPlayer())) return;
 
-        if (gameModel.getSharedLives() <= 3) {
-            gameView.sharedLivesLabel.setTextFill(Color.web("#FCA5A5"));
-        } else {
-            gameView.sharedLivesLabel.setTextFill(Color.web("#A5B4FC"));
+        // AiPartner falls back to any closed or flagged cell, so this means a board with neither
+        if (move == null) {
+            System.err.println("AI found no move on board " + ai.getPlayer());
+            showMessage("Computer Stuck", "The computer has no move left on its board.");
+            return;
         }
-    }
-
-    private String formatTime(int sec) {
-        int m = sec / 60;
-        int s = sec % 60;
-        return String.format("%02d:%02d", m, s);
-    }
 
-    public void handleMineHit() {
-        if (!isGameActive()) return;
-
-        gameModel.addLives(-1);
-        showMessage("Mine Hit!",
-                "You hit a mine! -1 life.\nShared Lives Remaining: " + gameModel.getSharedLives());
-
-        if (gameModel.getSharedLives() <= 0) {
-            endGame(false);
-        }
+        if (move.flag) handleRightClick(ai.getPlayer(), move.row, move.col);
+        else handleLeftClick(ai.getPlayer(), move.row, move.col);
     }
 
-    public boolean activateSurpriseCell(CellController cellCtrl) {
-        if (!isGameActive()) return false;
-
-        Cell cell = cellCtrl.getCell();
-
-        SpecialCellResult res = specialCellService.processSurprise(
-                difficulty,
-                gameModel.getSharedScore(),
-                gameModel.getSharedLives()
-        );
-
-        if (!res.allowed) {
-            showMessage(res.title, res.message);
-            return false;
-        }
-
-        gameModel.setSharedScore(res.newScore);
-        gameModel.setSharedLives(res.newLives);
-
-        showMessage(res.title, res.message);
-
-        cell.setActivated(true);
-        cellCtrl.init();
-
-        if (res.gameOver) {
-            endGame(false);
-            return false;
-        }
+    /** Plays the next recorded move after a pause; called again once its dialogs are closed. */
+    private void scheduleReplayStep() {
+        if (replay == null) return;
 
-        return true;
+        replayTimer.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                Platform.runLater(() -> {
+                    if (instance == GameController.this) replayStep();
+                });
+            }
+        }, REPLAY_STEP_MS);
     }
 
-    public void activateQuestionCell(CellController cellCtrl) {
-        if (!isGameActive()) return;
-
-        List<Question> all = SysData.loadQuestions();
-        if (all == null || all.isEmpty()) {
-            showMessage("No Questions", "No questions found in QuestionsCSV.csv");
+    private void replayStep() {
+        if (!replay.hasNext()) {
+            stopTimer();
+            if (!engine.isOver()) showMessage("Replay Finished", "That is where this game was left.");
             return;
         }
 
-        Question q = all.get(rng.nextInt(all.size()));
-        String qDiffLabel = mapDifficultyLabel(q.getDifficulty());
-
-        Optional<Boolean> result = QuestionPopup.show(primaryStage, q, qDiffLabel);
-
-        if (!isGameActive()) return;
-
-        if (result.isPresent()) {
-            boolean correct = result.get();
-
-            applyQuestionReward(correct, qDiffLabel);
-
-            Cell cell = cellCtrl.getCell();
-            cell.setActivated(true);
-            cellCtrl.init();
-
-            if (gameModel.getSharedLives() <= 0) {
-                endGame(false);
-            }
+        List<GameEvent> events;
+        try {
+            events = replay.step();
+        } catch (IllegalArgumentException e) {
+            stopTimer();
+            showMessage("Replay Stopped", "The rest of this game could not be played back.\n" + e.getMessage());
+            return;
         }
-    }
 
-    private String mapDifficultyLabel(QuestionDifficulty diff) {
-        if (diff == null) return "Easy";
-        switch (diff) {
-            case EASY: return "Easy";
-            case MEDIUM: return "Intermediate";
-            case HARD: return "Hard";
-            case EXPERT: return "Expert";
-            default: return "Easy";
-        }
+        render(events);
+        scheduleReplayStep();
     }
 
-    private void applyQuestionReward(boolean correct, String qDiff) {
-
-        SpecialCellResult res = specialCellService.processQuestion(
-                difficulty, qDiff, correct,
-                gameModel.getSharedScore(),
-                gameModel.getSharedLives()
-        );
-
-        gameModel.setSharedScore(res.newScore);
-        gameModel.setSharedLives(res.newLives);
-
-        StringBuilder extraInfo = new StringBuilder();
-
-        if (res.actions.contains(SpecialAction.MINE_GIFT)) {
-            boolean done = revealMineGiftCell();
-            if (done) extraInfo.append("\nMine gift: one hidden mine has been marked on your board.");
-            else      extraInfo.append("\nMine gift: no hidden mines left to mark.");
-        }
-
-        if (res.actions.contains(SpecialAction.REVEAL_AREA_3X3)) {
-            int revealed = revealBestAvailableBlockForCurrentPlayer();
-            extraInfo.append("\nReveal bonus: ")
-                     .append(revealed)
-                     .append(" cells have been uncovered.");
-        }
-
-
-        String msg = res.message;
-        if (extraInfo.length() > 0) msg += "\n" + extraInfo;
-
-        showMessage(res.title, msg);
-
-        if (res.gameOver) {
-            endGame(false);
-        }
+    public boolean isGameActive() {
+        return !engine.isOver();
     }
 
-    private boolean revealMineGiftCell() {
-
-        BoardController bc = (currentPlayer == 1) ? board1Controller : board2Controller;
-        CellController[][] uiBoard = (currentPlayer == 1) ? board1 : board2;
-
-        if (bc == null || uiBoard == null) return false;
-
-        class Pos {
-            final int row, col;
-            Pos(int r, int c) { row = r; col = c; }
-        }
-
-        List<Pos> candidates = new ArrayList<>();
-
-        for (int r = 0; r < N; r++) {
-            for (int c = 0; c < M; c++) {
-                Cell cell = uiBoard[r][c].getCell();
-                if (cell.isMine() && !cell.isOpen() && !cell.isFlag()) {
-                    candidates.add(new Pos(r, c));
-                }
-            }
-        }
-
-        if (candidates.isEmpty()) return false;
-
-        Pos chosen = candidates.get(rng.nextInt(candidates.size()));
-        return bc.applyMineGiftFlag(chosen.row, chosen.col);
+    public int getCurrentPlayer() {
+        return engine.getCurrentPlayer();
     }
-    
-    private int revealBestAvailableBlockForCurrentPlayer() {
-        CellController[][] board = getCurrentBoard();
-        if (board == null) return 0;
-
-        int rows = board.length;
-        int cols = board[0].length;
-
-        // shapes are (height, width) - ordered from best to worst
-        int[][] shapes = {
-                {3,3},               // 9
-                {3,2}, {2,3},        // 6
-                {2,2},               // 4
-                {3,1}, {1,3},        // 3
-                {2,1}, {1,2},        // 2
-                {1,1}                // 1
-        };
-
-
-        List<int[]> bestCells = null;
 
-        for (int[] shape : shapes) {
-            int h = shape[0];
-            int w = shape[1];
+    // ---------------- Rendering engine events ----------------
 
-            for (int r = 0; r <= rows - h; r++) {
-                for (int c = 0; c <= cols - w; c++) {
+    private void render(List<GameEvent> events) {
+        if (ai != null) ai.observe(events);
+        hints.observe(events);
+        clearHint();
 
-                    List<int[]> cells = new ArrayList<>();
-
-                    for (int i = 0; i < h; i++) {
-                        for (int j = 0; j < w; j++) {
-                            Cell cell = board[r + i][c + j].getCell();
-                            if (!cell.isOpen() && !cell.isFlag()) {
-                                cells.add(new int[]{r + i, c + j});
-                            }
-                        }
-                    }
-
-                    // Must reveal at least 1 cell
-                    if (!cells.isEmpty()) {
-                        // Keep the rectangle with the MOST available cells
-                        if (bestCells == null || cells.size() > bestCells.size()) {
-                            bestCells = cells;
-                        }
+        for (GameEvent e : events) {
+            switch (e.type) {
+                case CELLS_OPENED -> {
+                    CellController[][] board = uiBoard(e.player);
+                    for (RevealResult.CellPos p : e.cells) {
+                        board[p.row][p.col].init();
                     }
                 }
-            }
-
-            // If we found a candidate for this shape, use it immediately (best-first)
-            if (bestCells != null) {
-                for (int[] pos : bestCells) {
-                    revealCellFromGift(board, pos[0], pos[1]);
+                case CELL_CHANGED -> uiBoard(e.player)[e.row][e.col].init();
+                case MINE_HIT, SURPRISE, QUESTION_RESULT, NO_QUESTIONS -> showMessage(e.title, e.message);
+                case QUESTION_ASKED -> {
+                    if (replay == null) askQuestion(e.question, e.label); // a replay's next move answers it
+                }
+                case TURN_CHANGED -> highlightCurrentPlayer();
+                case GAME_OVER -> {
+                    stopTimer();
+                    if (replay == null) {
+                        saveGameToHistory(e.won, e.finalScore);
+                        showEndGameDialog(e.won, e.lifeBonus, e.finalScore);
+                    } else {
+                        showMessage("Replay Finished", (e.won ? "Victory!" : "Game Over")
+                                + "\nFinal score: " + e.finalScore + " (lives bonus +" + e.lifeBonus + ")");
+                    }
                 }
-                checkWinCondition();
-                return bestCells.size();
             }
         }
+        updateUI();
 
-        return 0;
+        // after any dialogs above were closed
+        nextAiMove();
     }
 
+    private void askQuestion(Question q, String qDiffLabel) {
+        int player = engine.getCurrentPlayer();
+        if (ai != null && ai.plays(player)) {
+            render(engine.answer(player, ai.answer(q)));
+            return;
+        }
 
+        Optional<Integer> choice = questionPopup.show(q, qDiffLabel);
 
-    
-    private void revealCellFromGift(CellController[][] board, int row, int col) {
-        if (row < 0 || row >= board.length || col < 0 || col >= board[0].length) return;
-
-        CellController cellCtrl = board[row][col];
-        Cell cell = cellCtrl.getCell();
-
-        if (cell.isOpen() || cell.isFlag()) return;
-
-        cell.setOpen(true);
-        gameModel.revealedCells++;
-
-        if (cell.isMine()) {
-            BoardController bc =
-                    (currentPlayer == 1) ? board1Controller : board2Controller;
-            if (bc != null) {
-                bc.onMineOpenedByGift();
-            }
+        if (choice.isPresent()) {
+            render(engine.answer(player, choice.get()));
+        } else {
+            render(engine.dismissQuestion(player));
         }
+    }
 
+    private void showHint() {
+        int player = engine.getCurrentPlayer();
+        if (engine.isOver() || engine.isQuestionPending() || (ai != null && ai.plays(player))) return;
 
-        if (cell.isSpecial() && !cell.isDiscovered()) {
-            cell.setDiscovered(true);
+        HintEngine.Hint hint = hints.hint(player);
+        if (hint == null) {
+            showMessage("No Hint", "Nothing on this board can be proven right now.\nYou'll have to take a guess.");
+            return;
         }
 
-        cellCtrl.init();
+        clearHint();
+        hintedCell = uiBoard(player)[hint.row][hint.col];
+        hintedCell.showHint(hint.mine);
     }
 
-    private CellController[][] getCurrentBoard() {
-        return (currentPlayer == 1) ? board1 : board2;
+    private void clearHint() {
+        if (hintedCell != null) {
+            hintedCell.init();
+            hintedCell = null;
+        }
     }
 
-    private boolean isAllMinesCorrectlyFlagged(BoardController bc) {
-        return bc != null && bc.getMinesLeft() == 0;
+    private CellController[][] uiBoard(int player) {
+        return (player == 1) ? board1 : board2;
     }
 
-    public void checkWinCondition() {
-        if (!isGameActive()) return;
+    private void prefetchQuestions() {
+        QuestionDeck deck = questionDeck;
+        questionPrefetcher.execute(deck::prefetch);
+    }
 
-        boolean clearedByOpen = isBoardCleared(board1) || isBoardCleared(board2);
+    private void highlightCurrentPlayer() {
+        String activeBorder = "-fx-border-color: #22C55E;" + "-fx-border-width: 3;" + "-fx-padding: 18;"
+                + "-fx-background-color: #111827;" + "-fx-border-radius: 14;" + "-fx-background-radius: 14;"
+                + "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.6), 12,0,0,6);";
 
-        boolean clearedByFlags = isAllMinesCorrectlyFlagged(board1Controller)
-                || isAllMinesCorrectlyFlagged(board2Controller);
+        String inactiveBorder = "-fx-border-color: #374151;" + "-fx-border-width: 2;" + "-fx-padding: 18;"
+                + "-fx-background-color: #111827;" + "-fx-border-radius: 14;" + "-fx-background-radius: 14;"
+                + "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.4), 8,0,0,4);";
 
-        if (clearedByOpen || clearedByFlags) {
-            endGame(true);
+        if (engine.getCurrentPlayer() == 1) {
+            gameView.player1Panel.setStyle(activeBorder);
+            gameView.player2Panel.setStyle(inactiveBorder);
+        } else {
+            gameView.player1Panel.setStyle(inactiveBorder);
+            gameView.player2Panel.setStyle(activeBorder);
         }
     }
 
-    private boolean isBoardCleared(CellController[][] board) {
-        if (board == null) return false;
+    public void updateUI() {
+        gameView.sharedScoreLabel.setText("" + gameModel.getSharedScore());
+        gameView.sharedLivesLabel.setText("" + gameModel.getSharedLives());
+        gameView.currentPlayerLabel.setText((engine.getCurrentPlayer() == 1 ? player1Name : player2Name) + "'s Turn");
+
+        gameView.difficultyLabel.setText(replay != null ? difficulty + " (Replay)" : difficulty);
+        gameView.timeLabel.setText(formatTime(elapsedTime));
 
-        int safeCells = 0;
-        int openedSafeCells = 0;
+        gameView.player1MinesLeftLabel.setText("Mines Left: " + engine.getMinesLeft(1));
+        gameView.player2MinesLeftLabel.setText("Mines Left: " + engine.getMinesLeft(2));
 
-        for (int r = 0; r < N; r++) {
-            for (int c = 0; c < M; c++) {
-                Cell cell = board[r][c].getCell();
-                if (!cell.isMine()) {
-                    safeCells++;
-                    if (cell.isOpen()) openedSafeCells++;
-                }
-            }
+        if (gameModel.getSharedLives() <= 3) {
+            gameView.sharedLivesLabel.setTextFill(Color.web("#FCA5A5"));
+        } else {
+            gameView.sharedLivesLabel.setTextFill(Color.web("#A5B4FC"));
         }
+    }
 
-        return safeCells > 0 && openedSafeCells == safeCells;
+    private String formatTime(int sec) {
+        int m = sec / 60;
+        int s = sec % 60;
+        return String.format("%02d:%02d", m, s);
     }
 
     private void startTimer() {
@@ -657,34 +573,20 @@ public class GameController implements GameModelObserver {
         }
     }
 
-    private void endGame(boolean won) {
-        if (endGameTriggered) return;
-
-        endGameTriggered = true;
-        gameActive = false;
-
-        stopTimer();
-
-        if (board1Controller != null) board1Controller.forceRevealAll();
-        if (board2Controller != null) board2Controller.forceRevealAll();
-
-        int lifeBonus = gameModel.getSharedLives() *
-                (difficulty.equals("Easy") ? 5 : difficulty.equals("Medium") ? 8 : 12);
-
-        int finalScore = gameModel.getSharedScore() + lifeBonus;
-
-        saveGameToHistory(won, finalScore);
-        showEndGameDialog(won, lifeBonus, finalScore);
-    }
-
     private void saveGameToHistory(boolean won, int finalScore) {
         String dateTime = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
         String result = won ? "WIN" : "LOSE";
 
+        // how hard the board that won the game was, for 3BV/s; a lost game cleared no board (0 = none)
+        int cleared = engine.getClearedBoard();
+        BoardMetrics m = (cleared == 0) ? null : engine.getBoard(cleared).getMetrics();
+
         GameHistoryEntry entry = new GameHistoryEntry(dateTime, difficulty, player1Name, player2Name, result,
-                finalScore, elapsedTime);
+                finalScore, elapsedTime,
+                m == null ? 0 : m.getThreeBV(), m == null ? 0 : m.getOpenings());
 
         SysData.saveGame(entry);
+        SysData.saveJournal(dateTime, engine.getJournal()); // lets the History screen replay it
     }
 
     // ---------------- UI dialogs (unchanged) ----------------
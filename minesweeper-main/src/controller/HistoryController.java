@@ -2,18 +2,25 @@ package controller;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.scene.Scene;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Tooltip;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import model.GameHistoryEntry;
+import model.HistoryArchive;
+import model.HistoryPage;
+import model.HistoryQuery;
+import model.ProgressListener;
 import model.SysData;
+import service.GameReplay;
 import view.HistoryView;
 import view.dialogs.ConfirmDialog;
 import view.dialogs.ErrorDialog;
 import view.dialogs.InfoDialog;
 
-import java.util.List;
+import java.io.File;
 
 /**
  * HistoryController
@@ -31,17 +38,18 @@ public class HistoryController {
     private final Tooltip deleteDisabledTooltip =
             new Tooltip("Select a row to delete");
 
+    // Running export/import (null when idle)
+    private Task<Long> transferTask;
+
     public HistoryController(Stage primaryStage) {
         this.primaryStage = primaryStage;
         this.view = new HistoryView();
 
-        List<GameHistoryEntry> loaded = SysData.loadHistory();
-        loaded.sort((a, b) -> b.getDateTime().compareTo(a.getDateTime()));
-
-        this.historyList = FXCollections.observableArrayList(loaded);
+        this.historyList = FXCollections.observableArrayList();
         view.table.setItems(historyList);
 
         setupHandlers();
+        reloadHistory();
         refreshState();
     }
 
@@ -50,6 +58,15 @@ public class HistoryController {
      */
     private void setupHandlers() {
 
+        // -------------------- FILTERS --------------------
+        // Every change re-runs the indexed query (cheap - no file access)
+        view.playerFilterField.textProperty().addListener((obs, o, n) -> applyFilters());
+        view.difficultyFilter.valueProperty().addListener((obs, o, n) -> applyFilters());
+        view.resultFilter.valueProperty().addListener((obs, o, n) -> applyFilters());
+        view.fromDatePicker.valueProperty().addListener((obs, o, n) -> applyFilters());
+        view.toDatePicker.valueProperty().addListener((obs, o, n) -> applyFilters());
+        view.sortBox.valueProperty().addListener((obs, o, n) -> applyFilters());
+
         // Back to main menu
         view.backBtn.setOnAction(e ->
                 Main.showMainMenu(primaryStage)
@@ -66,7 +83,7 @@ public class HistoryController {
             if (dialog.show() != ButtonType.OK) return;
 
             SysData.clearHistory();
-            historyList.clear();
+            reloadHistory();
             refreshState();
             success("History cleared.");
         });
@@ -74,7 +91,7 @@ public class HistoryController {
         // -------------------- TRIM HISTORY --------------------
         view.trimHistoryBtn.setOnAction(e -> {
 
-            if (historyList.isEmpty()) {
+            if (SysData.historySize() == 0) {
                 new ErrorDialog(
                         "Invalid Action",
                         "No history available."
@@ -85,7 +102,7 @@ public class HistoryController {
             int keepK = view.showTrimHistoryDialog(); // -1 if cancelled
             if (keepK <= 0) return;
 
-            int currentSize = historyList.size();
+            int currentSize = SysData.historySize();
 
             if (keepK >= currentSize) {
                 new ErrorDialog(
@@ -110,10 +127,18 @@ public class HistoryController {
             success("Kept last " + keepK + " games. Removed " + removed + " older entries.");
         });
 
+        // -------------------- EXPORT / IMPORT --------------------
+        view.exportBtn.setOnAction(e -> exportHistory());
+        view.importBtn.setOnAction(e -> importHistory());
+        view.cancelTransferBtn.setOnAction(e -> {
+            if (transferTask != null) transferTask.cancel();
+        });
+
         // -------------------- TABLE SELECTION --------------------
         view.table.getSelectionModel().selectedItemProperty().addListener((obs, oldSel, newSel) -> {
             boolean hasSelection = newSel != null;
             view.deleteSelectedBtn.setDisable(!hasSelection);
+            view.replayBtn.setDisable(!hasSelection);
 
             if (!hasSelection) {
                 Tooltip.install(view.deleteBtnWrapper, deleteDisabledTooltip);
@@ -142,27 +167,195 @@ public class HistoryController {
             refreshState();
             success("Entry deleted.");
         });
+
+        // -------------------- REPLAY SELECTED --------------------
+        view.replayBtn.setOnAction(e -> replaySelected());
+    }
+
+    /**
+     * Plays the selected game back move by move in the game window.
+     * Only games saved since journals were introduced can be replayed.
+     */
+    private void replaySelected() {
+        GameHistoryEntry selected = view.table.getSelectionModel().getSelectedItem();
+        if (selected == null) return;
+
+        byte[] journal = SysData.loadJournal(selected.getDateTime());
+        if (journal == null) {
+            new ErrorDialog(
+                    "No Replay",
+                    "This game was saved without its moves, so it cannot be replayed."
+            ).show();
+            return;
+        }
+
+        GameReplay replay;
+        try {
+            replay = new GameReplay(journal);
+        } catch (IllegalArgumentException ex) {
+            new ErrorDialog("No Replay", "The saved moves of this game are damaged:\n" + ex.getMessage()).show();
+            return;
+        }
+
+        Main.startReplay(replay, selected.getPlayer1Name(), selected.getPlayer2Name());
+    }
+
+    /**
+     * Asks for a target file and streams the history into it on a background thread.
+     * The format follows the chosen extension filter (.csv.gz or .mshb).
+     */
+    private void exportHistory() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Game History");
+        FileChooser.ExtensionFilter gz = new FileChooser.ExtensionFilter("Compressed CSV (*.csv.gz)", "*.csv.gz");
+        FileChooser.ExtensionFilter bin = new FileChooser.ExtensionFilter("Binary archive (*.mshb)", "*.mshb");
+        chooser.getExtensionFilters().addAll(gz, bin);
+        chooser.setInitialFileName("game_history.csv.gz");
+
+        File target = chooser.showSaveDialog(primaryStage);
+        if (target == null) return;
+
+        HistoryArchive.Format format =
+                (chooser.getSelectedExtensionFilter() == bin || target.getName().endsWith(".mshb"))
+                        ? HistoryArchive.Format.BINARY
+                        : HistoryArchive.Format.CSV_GZIP;
+
+        runTransfer(new TransferTask() {
+            @Override
+            protected Long call() throws Exception {
+                return SysData.exportHistory(target, format, this);
+            }
+        }, "Exported %d games to " + target.getName() + ".");
+    }
+
+    /**
+     * Asks for an archive and appends its games to the history on a background thread.
+     */
+    private void importHistory() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Game History");
+        chooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("History archives", "*.csv.gz", "*.mshb", "*.csv"));
+
+        File source = chooser.showOpenDialog(primaryStage);
+        if (source == null) return;
+
+        runTransfer(new TransferTask() {
+            @Override
+            protected Long call() throws Exception {
+                return SysData.importHistory(source, this);
+            }
+        }, "Imported %d games from " + source.getName() + ".");
+    }
+
+    /**
+     * Background task that is also the archive's progress listener:
+     * progress goes to the ProgressBar, Cancel aborts the stream
+     * (FutureTask.isCancelled satisfies the listener's isCancelled).
+     */
+    private abstract static class TransferTask extends Task<Long> implements ProgressListener {
+        @Override
+        public void onProgress(long done, long total) {
+            updateProgress(done, Math.max(total, 1));
+        }
+    }
+
+    private void runTransfer(Task<Long> task, String successFormat) {
+        if (transferTask != null) return;
+        transferTask = task;
+
+        setTransferUi(true);
+        view.transferProgress.progressProperty().bind(task.progressProperty());
+
+        task.setOnSucceeded(ev -> {
+            finishTransfer();
+            reloadHistory();
+            refreshState();
+            success(String.format(successFormat, task.getValue()));
+        });
+
+        task.setOnCancelled(ev -> {
+            finishTransfer();
+            reloadHistory(); // a cancel that lands after the import returned must not leave a stale table
+            refreshState();
+            view.statusLabel.setText("Transfer cancelled. History was not changed.");
+            view.statusLabel.setStyle("-fx-text-fill: #FBBF24;");
+        });
+
+        task.setOnFailed(ev -> {
+            finishTransfer();
+            Throwable err = task.getException();
+            new ErrorDialog("Transfer Failed",
+                    (err == null || err.getMessage() == null) ? "Unknown error." : err.getMessage()).show();
+        });
+
+        Thread t = new Thread(task, "history-transfer");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void finishTransfer() {
+        view.transferProgress.progressProperty().unbind();
+        transferTask = null;
+        setTransferUi(false);
+    }
+
+    private void setTransferUi(boolean running) {
+        view.transferBox.setVisible(running);
+        view.transferBox.setManaged(running);
+        view.exportBtn.setDisable(running);
+        view.importBtn.setDisable(running);
+        view.clearHistoryBtn.setDisable(running || SysData.historySize() == 0);
+        view.trimHistoryBtn.setDisable(running || SysData.historySize() == 0);
     }
 
     /**
-     * Reloads history data from persistent storage.
+     * Reloads history data from persistent storage (through the current filters).
      */
     private void reloadHistory() {
-        List<GameHistoryEntry> loaded = SysData.loadHistory();
-        loaded.sort((a, b) -> b.getDateTime().compareTo(a.getDateTime()));
-        historyList.setAll(loaded);
+        applyFilters();
+    }
+
+    /**
+     * Runs the current filter/sort selection against the history index
+     * and shows the matching rows.
+     */
+    private void applyFilters() {
+        HistoryQuery query = new HistoryQuery()
+                .playerName(view.playerFilterField.getText())
+                .difficulty(view.difficultyFilter.getValue())
+                .result(view.resultFilter.getValue())
+                .fromDate(view.fromDatePicker.getValue())
+                .toDate(view.toDatePicker.getValue())
+                .sortBy(sortFromLabel(view.sortBox.getValue()));
+
+        HistoryPage page = SysData.queryHistory(query);
+        historyList.setAll(page.entries);
+
+        int total = SysData.historySize();
+        view.emptyLabel.setText(total == 0 ? "No history yet." : "No games match the current filters.");
+        view.emptyLabel.setVisible(historyList.isEmpty());
+    }
+
+    private HistoryQuery.Sort sortFromLabel(String label) {
+        HistoryQuery.Sort[] sorts = HistoryQuery.Sort.values();
+        for (int i = 0; i < HistoryView.SORT_LABELS.length && i < sorts.length; i++) {
+            if (HistoryView.SORT_LABELS[i].equals(label)) return sorts[i];
+        }
+        return HistoryQuery.Sort.NEWEST_FIRST;
     }
 
     /**
      * Updates UI state based on data availability and selection.
      */
     private void refreshState() {
-        boolean empty = historyList.isEmpty();
+        boolean empty = SysData.historySize() == 0;
 
-        view.emptyLabel.setVisible(empty);
+        view.emptyLabel.setVisible(historyList.isEmpty());
         view.clearHistoryBtn.setDisable(empty);
         view.trimHistoryBtn.setDisable(empty);
         view.deleteSelectedBtn.setDisable(true);
+        view.replayBtn.setDisable(true);
 
         Tooltip.install(view.deleteBtnWrapper, deleteDisabledTooltip);
     }
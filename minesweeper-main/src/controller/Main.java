@@ -6,8 +6,9 @@ import javafx.geometry.Rectangle2D;
 import javafx.scene.Scene;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
-import model.QuestionsFileStatus;
+import model.QuestionsLoadResult;
 import model.SysData;
+import service.GameReplay;
 import view.Menu;
 import view.SetupView;
 
@@ -29,6 +30,9 @@ public class Main extends Application {
         primaryStage = stage;
         primaryStage.setTitle("Cooperative Minesweeper");
 
+        // pick up edits made to QuestionsCSV.csv while the game is running
+        SysData.watchQuestionsFile();
+
         // Show the main menu
         showMainMenu(primaryStage);
 
@@ -66,6 +70,13 @@ public class Main extends Application {
         }
     }
 
+    /** Plays a recorded game back in the game window (History screen's Replay button). */
+    public static void startReplay(GameReplay replay, String p1, String p2) {
+        if (instance != null) {
+            instance.startReplayInstance(replay, p1, p2);
+        }
+    }
+
     /** ✅ NEW: go to Question Management from anywhere (Menu button uses it). */
     public static void showQuestionManagement(Stage stage) {
         if (instance != null) {
@@ -155,14 +166,15 @@ public class Main extends Application {
         double width = size[0];
         double height = size[1];
 
-        QuestionsFileStatus status = SysData.getQuestionsFileStatus();
+        // Validate + load in one pass; the controller reuses the loaded questions
+        QuestionsLoadResult loadResult = SysData.loadQuestionsWithStatus();
 
-        if (status == QuestionsFileStatus.MALFORMED) {
-            showQuestionsFileError(stage, width, height);
+        if (loadResult.isMalformed()) {
+            showQuestionsFileError(stage, width, height, loadResult);
             return; // do NOT navigate
         }
 
-        QuestionManagementController qm = new QuestionManagementController(stage);
+        QuestionManagementController qm = new QuestionManagementController(stage, loadResult);
         Scene qmScene = new Scene(qm.view, width, height);
         stage.setScene(qmScene);
         stage.sizeToScene();
@@ -172,13 +184,25 @@ public class Main extends Application {
 
     /**
      * Called from SetupView after validation is done.
+     *
+     * @param aiPlayer seat played by the computer (1 or 2), 0 for two humans
      */
-    public void startGameFromSetup(String p1, String p2, String difficulty) {
+    public void startGameFromSetup(String p1, String p2, String difficulty, boolean noGuess,
+                                   int aiPlayer, long aiBudgetMs) {
 
         // ✅ start a fresh game controller for this new run from setup
         GameController.resetInstance();
-        GameController controller = GameController.getInstance(difficulty, p1, p2, primaryStage);
+        GameController controller = GameController.getInstance(difficulty, p1, p2, noGuess,
+                aiPlayer, aiBudgetMs, primaryStage);
+        showGameWindow(controller);
+    }
+
+    private void startReplayInstance(GameReplay replay, String p1, String p2) {
+        GameController.resetInstance();
+        showGameWindow(GameController.getReplayInstance(replay, p1, p2, primaryStage));
+    }
 
+    private void showGameWindow(GameController controller) {
         // Get full usable screen area (excludes taskbar)
         Rectangle2D bounds = Screen.getPrimary().getVisualBounds();
         double screenX = bounds.getMinX();
@@ -220,7 +244,7 @@ public class Main extends Application {
 
     // Displays a blocking dialog when the questions file is malformed
     // Allows the user to either fix the file manually or recreate it automatically
-    private void showQuestionsFileError(Stage stage, double width, double height) {
+    private void showQuestionsFileError(Stage stage, double width, double height, QuestionsLoadResult loadResult) {
 
         javafx.scene.control.Alert alert = new javafx.scene.control.Alert(
                 javafx.scene.control.Alert.AlertType.CONFIRMATION);
@@ -228,6 +252,7 @@ public class Main extends Application {
         alert.setTitle("Invalid Questions File");
         alert.setHeaderText(null);
         alert.setContentText("The questions file is not formatted correctly.\n\n"
+                + loadResult.describeErrors(5) + "\n\n"
                 + "You can fix the file manually, or recreate a clean file automatically.");
 
         // Define available user actions
@@ -7,8 +7,8 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import model.Question;
+import model.QuestionBank;
 import model.QuestionDifficulty;
-import model.SysData;
 
 import java.util.List;
 import java.util.Optional;
@@ -34,8 +34,8 @@ public class QuestionDialog {
         dialog = new Dialog<>();
         dialog.initModality(Modality.APPLICATION_MODAL);
 
-        // Load all questions from CSV
-        List<Question> allQuestions = SysData.loadQuestions();
+        // Questions come from the session cache (loaded from CSV once)
+        List<Question> allQuestions = QuestionBank.getInstance().getQuestions();
         Question chosen = null;
 
         if (allQuestions != null && !allQuestions.isEmpty()) {
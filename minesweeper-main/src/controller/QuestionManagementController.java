@@ -1,14 +1,20 @@
 package controller;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.scene.control.ButtonType;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import model.ImportReport;
+import model.ProgressListener;
 import model.Question;
+import model.QuestionBank;
+import model.QuestionBankObserver;
 import model.QuestionsFileStatus;
+import model.QuestionsLoadResult;
 import model.SysData;
 
 import view.QuestionFormDialog;
@@ -19,8 +25,10 @@ import view.dialogs.InfoDialog;
 import view.dialogs.ErrorDialog;
 
 import java.io.File;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Controller for the Question Management screen.
@@ -28,8 +36,10 @@ import java.util.Optional;
  *
  * Merged version:
  * - Uses the new Template Method dialog system (InfoDialog / ErrorDialog / ConfirmDialog)
- * - Keeps the Import JSON button behavior (FileChooser + SysData.importQuestionsFromJson)
+ * - Import JSON: FileChooser + SysData.importQuestionsFromJson, run as a background Task
+ *   with progress / cancel
  * - Preserves safety rules (disable actions when CSV is malformed, including Import)
+ * - Follows edits made to QuestionsCSV.csv outside the app (QuestionBankObserver)
  */
 public class QuestionManagementController {
 
@@ -41,23 +51,43 @@ public class QuestionManagementController {
     // Backing list for the table view
     private final ObservableList<Question> questionList;
 
+    // Running JSON import (null when idle)
+    private ImportTask importTask;
+
+    // Outside edits to the questions file, applied on the FX thread while this screen is open
+    private final QuestionBankObserver fileObserver = new QuestionBankObserver() {
+        @Override
+        public void onQuestionsChanged(List<Question> changed, List<Integer> removedIds) {
+            Platform.runLater(() -> applyExternalChanges(changed, removedIds));
+        }
+
+        @Override
+        public void onQuestionsFileReplaced() {
+            Platform.runLater(() -> reopenAfterFileReplaced());
+        }
+    };
+
     /**
      * Initializes the Question Management screen and validates file state.
      */
     public QuestionManagementController(Stage primaryStage) {
+        this(primaryStage, SysData.loadQuestionsWithStatus());
+    }
+
+    /**
+     * Same as above, but reuses a result the caller already read
+     * (Main validates the file before navigating here - no second parse).
+     */
+    public QuestionManagementController(Stage primaryStage, QuestionsLoadResult loadResult) {
         this.primaryStage = primaryStage;
         this.view = new QuestionManagementView();
 
-        // Determine questions file state
-        QuestionsFileStatus status = SysData.getQuestionsFileStatus();
-
-        // Load questions only if file is not malformed
-        List<Question> loaded =
-                (status == QuestionsFileStatus.MALFORMED)
-                        ? List.of()
-                        : SysData.loadQuestions();
+        // Determine questions file state (validated and loaded in the same pass)
+        QuestionsFileStatus status = loadResult.status;
 
-        this.questionList = FXCollections.observableArrayList(loaded);
+        // Show questions only if file is not malformed
+        this.questionList = FXCollections.observableArrayList(
+                loadResult.isMalformed() ? List.of() : loadResult.questions);
         view.table.setItems(questionList);
 
         // Disable edit/delete until selection
@@ -77,6 +107,7 @@ public class QuestionManagementController {
                 new ErrorDialog(
                         "Invalid Questions File",
                         "The questions file exists but is not formatted correctly.\n\n"
+                                + loadResult.describeErrors(5) + "\n\n"
                                 + "Please fix or replace the file before managing questions."
                 ).show();
 
@@ -87,6 +118,7 @@ public class QuestionManagementController {
 
                 // ✅ also lock import when file is malformed
                 view.importJsonBtn.setDisable(true);
+                view.searchField.setDisable(true);
             }
 
             case EMPTY, HAS_DATA -> {
@@ -94,6 +126,11 @@ public class QuestionManagementController {
             }
         }
 
+        // index the bank in the background so the first keystroke is instant
+        if (!loadResult.isMalformed()) QuestionBank.getInstance().prepareSearchAsync();
+
+        QuestionBank.getInstance().addObserver(fileObserver);
+
         setupHandlers();
     }
 
@@ -104,6 +141,7 @@ public class QuestionManagementController {
 
         // Navigate back to the main menu
         view.backBtn.setOnAction(e -> {
+            QuestionBank.getInstance().removeObserver(fileObserver);
             GameController.resetInstance();
             Main.showMainMenu(primaryStage);
         });
@@ -113,11 +151,14 @@ public class QuestionManagementController {
                 .selectedItemProperty()
                 .addListener((obs, oldSel, newSel) -> {
 
-                    boolean hasSelection = newSel != null;
-                    view.editBtn.setDisable(!hasSelection);
-                    view.deleteBtn.setDisable(!hasSelection);
+                    boolean enable = newSel != null && importTask == null;
+                    view.editBtn.setDisable(!enable);
+                    view.deleteBtn.setDisable(!enable);
                 });
 
+        // -------------------- SEARCH --------------------
+        view.searchField.textProperty().addListener((obs, oldText, newText) -> refreshQuestions());
+
         // -------------------- IMPORT JSON --------------------
         view.importJsonBtn.setOnAction(e -> {
             FileChooser chooser = new FileChooser();
@@ -129,19 +170,11 @@ public class QuestionManagementController {
             File jsonFile = chooser.showOpenDialog(primaryStage);
             if (jsonFile == null) return;
 
-            ImportReport report = SysData.importQuestionsFromJson(jsonFile);
-
-            if (report == null || !report.success) {
-                String msg = (report == null)
-                        ? "Import failed (unknown error)."
-                        : report.message;
-
-                new ErrorDialog("Import Failed", msg).show();
-                return;
-            }
+            runImport(jsonFile);
+        });
 
-            new InfoDialog("Import Completed", report.message).show();
-            refreshQuestions();
+        view.cancelImportBtn.setOnAction(e -> {
+            if (importTask != null) importTask.cancel();
         });
 
         // -------------------- ADD QUESTION --------------------
@@ -239,9 +272,162 @@ public class QuestionManagementController {
     }
 
     /**
-     * Reloads questions after add/edit/delete operations.
+     * Background import task; it is also the importer's progress listener
+     * (FutureTask.isCancelled satisfies the listener's isCancelled).
+     */
+    private static class ImportTask extends Task<ImportReport> implements ProgressListener {
+        private final File source;
+
+        ImportTask(File source) {
+            this.source = source;
+        }
+
+        @Override
+        protected ImportReport call() {
+            return SysData.importQuestionsFromJson(source, this);
+        }
+
+        @Override
+        public void onProgress(long done, long total) {
+            updateProgress(done, Math.max(total, 1));
+        }
+    }
+
+    /**
+     * Streams the JSON file into the questions CSV on a background thread,
+     * with a progress bar and a Cancel button.
+     */
+    private void runImport(File jsonFile) {
+        if (importTask != null) return;
+        ImportTask task = new ImportTask(jsonFile);
+        importTask = task;
+
+        setImportUi(true);
+        view.importProgress.progressProperty().bind(task.progressProperty());
+
+        task.setOnSucceeded(ev -> {
+            finishImport();
+            ImportReport report = task.getValue();
+
+            if (report == null || !report.success) {
+                String msg = (report == null)
+                        ? "Import failed (unknown error)."
+                        : report.message;
+
+                new ErrorDialog("Import Failed", msg).show();
+            } else {
+                new InfoDialog("Import Completed", report.message).show();
+            }
+            refreshQuestions(); // a failed import may still have added earlier questions
+        });
+
+        task.setOnCancelled(ev -> {
+            finishImport();
+            new InfoDialog(
+                    "Import Cancelled",
+                    "The import was cancelled.\n\n"
+                            + "Questions read before cancelling were kept."
+            ).show();
+            refreshQuestions();
+        });
+
+        task.setOnFailed(ev -> {
+            finishImport();
+            Throwable err = task.getException();
+            new ErrorDialog("Import Failed",
+                    (err == null || err.getMessage() == null) ? "Unknown error." : err.getMessage()).show();
+            refreshQuestions();
+        });
+
+        Thread t = new Thread(task, "question-import");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void finishImport() {
+        view.importProgress.progressProperty().unbind();
+        importTask = null;
+        setImportUi(false);
+    }
+
+    private void setImportUi(boolean running) {
+        view.importBox.setVisible(running);
+        view.importBox.setManaged(running);
+        view.importJsonBtn.setDisable(running);
+        view.addBtn.setDisable(running);
+        if (running) {
+            view.editBtn.setDisable(true);
+            view.deleteBtn.setDisable(true);
+        } else {
+            boolean hasSelection = view.table.getSelectionModel().getSelectedItem() != null;
+            view.editBtn.setDisable(!hasSelection);
+            view.deleteBtn.setDisable(!hasSelection);
+        }
+    }
+
+    /**
+     * Questions edited outside the app: rows are replaced / removed in place,
+     * so selection and scroll position survive. Falls back to a normal
+     * refresh while filtering (an edit may change what matches) or when
+     * questions were added.
+     */
+    private void applyExternalChanges(List<Question> changed, List<Integer> removedIds) {
+        if (importTask != null) return; // the import refreshes when it ends
+
+        String query = view.searchField.getText();
+        boolean filtering = query != null && !query.isBlank();
+        boolean added = false;
+
+        if (!filtering) {
+            // unfiltered, the table holds every question in ID order
+            for (Question q : changed) {
+                int row = rowOf(q.getId());
+                if (row >= 0) questionList.set(row, q);
+                else added = true;
+            }
+            if (!removedIds.isEmpty()) {
+                Set<Integer> gone = new HashSet<>(removedIds);
+                questionList.removeIf(q -> gone.contains(q.getId()));
+            }
+        }
+
+        if (filtering || added) refreshQuestions();
+    }
+
+    /** Row of the question with this ID (the unfiltered table is in ID order), -1 if absent. */
+    private int rowOf(int id) {
+        int lo = 0, hi = questionList.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midId = questionList.get(mid).getId();
+            if (midId < id) lo = mid + 1;
+            else if (midId > id) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    /** The file was replaced outside the app - re-open the screen, which re-validates it. */
+    private void reopenAfterFileReplaced() {
+        if (importTask != null) return;
+        QuestionBank.getInstance().removeObserver(fileObserver);
+        Main.showQuestionManagement(primaryStage);
+    }
+
+    /**
+     * Reloads questions after add/edit/delete operations and on every
+     * search keystroke. Reads the in-memory QuestionBank (kept in sync by the
+     * CRUD operations), filtered by the search box through its index.
      */
     private void refreshQuestions() {
-        questionList.setAll(SysData.loadQuestions());
+        QuestionBank bank = QuestionBank.getInstance();
+        String query = view.searchField.getText();
+
+        questionList.setAll(bank.search(query));
+
+        boolean filtering = query != null && !query.isBlank();
+        view.searchCountLabel.setText(filtering
+                ? questionList.size() + " of " + bank.getQuestions().size() + " questions"
+                : "");
     }
 }
@@ -14,13 +14,36 @@ import model.Question;
 
 import java.util.Optional;
 
+/**
+ * The question cell dialog.
+ *
+ * The stage and its scene graph are built once per game window (with CSS
+ * already applied); show() only rebinds the texts, so the popup opens in the
+ * same frame as the click.
+ */
 public class QuestionPopup {
 
-    public static Optional<Boolean> show(Stage owner, Question q, String qDiffLabel) {
-
-        final Boolean[] result = new Boolean[]{null};
-
-        Stage stage = new Stage(StageStyle.TRANSPARENT);
+    private static final String ANSWER_STYLE = """
+            -fx-border-color: #2563EB;
+            -fx-border-radius: 14;
+            -fx-background-radius: 14;
+            -fx-text-fill: white;
+            -fx-font-size: 14px;
+            -fx-cursor: hand;
+        """;
+    private static final String ANSWER_IDLE = ANSWER_STYLE + "-fx-background-color: #020617;";
+    private static final String ANSWER_HOVER = ANSWER_STYLE + "-fx-background-color: #1E3A8A;";
+
+    private final Stage stage;
+    private final Label diffLabel;
+    private final Label questionLbl;
+    private final Button[] answerBtns = new Button[4];
+
+    // set per show()
+    private Integer choice;
+
+    public QuestionPopup(Stage owner) {
+        stage = new Stage(StageStyle.TRANSPARENT);
         stage.initOwner(owner);
         stage.initModality(Modality.WINDOW_MODAL);
 
@@ -54,18 +77,11 @@ public class QuestionPopup {
         header.getChildren().addAll(title, spacer);
 
         // Difficulty tag
-        Label diffLabel = new Label(qDiffLabel + " Question");
+        diffLabel = new Label();
         diffLabel.setPadding(new Insets(4, 12, 4, 12));
-        diffLabel.setStyle("""
-            -fx-text-fill: white;
-            -fx-font-size: 13px;
-            -fx-font-weight: bold;
-            -fx-background-radius: 12;
-            -fx-background-color: %s;
-        """.formatted(getDifficultyColor(qDiffLabel)));
 
         // Question text
-        Label questionLbl = new Label(q.getText());
+        questionLbl = new Label();
         questionLbl.setWrapText(true);
         questionLbl.setMaxWidth(440);
         questionLbl.setAlignment(Pos.CENTER);
@@ -78,46 +94,26 @@ public class QuestionPopup {
         VBox answersBox = new VBox(12);
         answersBox.setAlignment(Pos.CENTER);
 
-        String[] options = q.getOptions();
-        if (options == null || options.length < 4) {
-            options = new String[]{"A", "B", "C", "D"};
-        }
-
-        int correctIdx = q.getCorrectIndex();
-
         for (int i = 0; i < 4; i++) {
             final int idx = i;
 
-            Button btn = new Button((char) ('A' + i) + ") " + options[i]);
+            Button btn = new Button();
             btn.setPrefWidth(420);
             btn.setPrefHeight(72);
             btn.setWrapText(true);
             btn.setAlignment(Pos.CENTER_LEFT);
             btn.setPadding(new Insets(10, 16, 10, 16));
+            btn.setStyle(ANSWER_IDLE);
 
-            btn.setStyle("""
-                -fx-background-color: #020617;
-                -fx-border-color: #2563EB;
-                -fx-border-radius: 14;
-                -fx-background-radius: 14;
-                -fx-text-fill: white;
-                -fx-font-size: 14px;
-                -fx-cursor: hand;
-            """);
-
-            btn.setOnMouseEntered(e ->
-                    btn.setStyle(btn.getStyle() + "-fx-background-color: #1E3A8A;")
-            );
-
-            btn.setOnMouseExited(e ->
-                    btn.setStyle(btn.getStyle() + "-fx-background-color: #020617;")
-            );
+            btn.setOnMouseEntered(e -> btn.setStyle(ANSWER_HOVER));
+            btn.setOnMouseExited(e -> btn.setStyle(ANSWER_IDLE));
 
             btn.setOnAction(e -> {
-                result[0] = (idx == correctIdx);
+                choice = idx;
                 stage.close();
             });
 
+            answerBtns[i] = btn;
             answersBox.getChildren().add(btn);
         }
 
@@ -127,8 +123,38 @@ public class QuestionPopup {
         scene.setFill(Color.TRANSPARENT);
         stage.setScene(scene);
 
+        // resolve CSS now instead of on the first show
+        root.applyCss();
+        root.layout();
+    }
+
+    /** Shows q and waits for an answer (0..3 = A..D); empty if the popup was closed without one. */
+    public Optional<Integer> show(Question q, String qDiffLabel) {
+        choice = null;
+
+        diffLabel.setText(qDiffLabel + " Question");
+        diffLabel.setStyle("""
+            -fx-text-fill: white;
+            -fx-font-size: 13px;
+            -fx-font-weight: bold;
+            -fx-background-radius: 12;
+            -fx-background-color: %s;
+        """.formatted(getDifficultyColor(qDiffLabel)));
+
+        questionLbl.setText(q.getText());
+
+        String[] options = q.getOptions();
+        if (options == null || options.length < 4) {
+            options = new String[]{"A", "B", "C", "D"};
+        }
+        for (int i = 0; i < 4; i++) {
+            answerBtns[i].setText((char) ('A' + i) + ") " + options[i]);
+            answerBtns[i].setStyle(ANSWER_IDLE); // hover state from the last question
+        }
+
+        stage.sizeToScene();
         stage.showAndWait();
-        return Optional.ofNullable(result[0]);
+        return Optional.ofNullable(choice);
     }
 
     private static String getDifficultyColor(String diff) {
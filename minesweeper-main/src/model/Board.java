@@ -10,6 +10,10 @@ public class Board {
     private final int cols;
     private final Cell[][] cells;
 
+    // set by GameModel.generateBoard; worked out on first use otherwise
+    private OpeningRegions openings;
+    private BoardMetrics metrics;
+
     public Board(int rows, int cols) {
         this.rows = rows;
         this.cols = cols;
@@ -29,5 +33,24 @@ public class Board {
 
     public void setCell(int row, int col, Cell cell) {
         cells[row][col] = cell;
+        openings = null;
+        metrics = null;
+    }
+
+    /** The zero-cell openings of this mine layout (what a cascade opens). */
+    public OpeningRegions getOpenings() {
+        if (openings == null) openings = OpeningRegions.of(this);
+        return openings;
+    }
+
+    /** 3BV and other complexity figures of this mine layout. */
+    public BoardMetrics getMetrics() {
+        if (metrics == null) metrics = BoardMetrics.of(this);
+        return metrics;
+    }
+
+    void setAnalysis(OpeningRegions openings, BoardMetrics metrics) {
+        this.openings = openings;
+        this.metrics = metrics;
     }
 }
@@ -0,0 +1,72 @@
+package model;
+
+/**
+ * How hard a mine layout is, independent of how it was played.
+ *
+ * - 3BV (Bechtel's Board Benchmark Value): the fewest left clicks that clear
+ *   the board - one per opening (a connected area of zero cells, which
+ *   cascades open together with its border) plus one per numbered cell that
+ *   no opening reaches.
+ * - openings / isolatedCells: the two parts of 3BV.
+ * - largestOpening: cells opened by the biggest opening (zeros + border).
+ *
+ * Computed once per board in GameModel.generateBoard, from the openings
+ * labelled there (OpeningRegions).
+ */
+public class BoardMetrics {
+
+    private final int threeBV;
+    private final int openings;
+    private final int isolatedCells;
+    private final int largestOpening;
+    private final int safeCells;
+
+    BoardMetrics(int threeBV, int openings, int isolatedCells, int largestOpening, int safeCells) {
+        this.threeBV = threeBV;
+        this.openings = openings;
+        this.isolatedCells = isolatedCells;
+        this.largestOpening = largestOpening;
+        this.safeCells = safeCells;
+    }
+
+    public int getThreeBV()        { return threeBV; }
+    public int getOpenings()       { return openings; }
+    public int getIsolatedCells()  { return isolatedCells; }
+    public int getLargestOpening() { return largestOpening; }
+    public int getSafeCells()      { return safeCells; }
+
+    /** For boards not made by generateBoard (tests, hand-built layouts). */
+    public static BoardMetrics of(Board board) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        boolean[][] mines = new boolean[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                Cell cell = board.getCell(r, c);
+                mines[r][c] = (cell == null) || cell.isMine();
+            }
+        }
+        return compute(mines, board.getOpenings());
+    }
+
+    /** From the board's openings (labelled in the same generation pass). */
+    static BoardMetrics compute(boolean[][] mines, OpeningRegions regions) {
+        int rows = mines.length;
+        int cols = (rows == 0) ? 0 : mines[0].length;
+
+        int safe = 0, isolated = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (mines[r][c]) continue;
+                safe++;
+                if (!regions.isInSomeRegion(r, c)) isolated++; // needs a click of its own
+            }
+        }
+
+        int largest = 0;
+        for (int k = 0; k < regions.count(); k++) largest = Math.max(largest, regions.size(k));
+
+        int openings = regions.count();
+        return new BoardMetrics(openings + isolated, openings, isolated, largest, safe);
+    }
+}
@@ -0,0 +1,304 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming RFC 4180 CSV tokenizer used by every SysData reader.
+ *
+ * Handles:
+ * - quoted fields ("a, b")
+ * - escaped quotes inside quoted fields ("say ""hi""")
+ * - line breaks inside quoted fields
+ * - \n, \r\n and \r line endings
+ * - a UTF-8 BOM at the start of the stream
+ *
+ * One record is parsed at a time into a reusable char[] buffer; fields are
+ * kept as (start, end) offsets into it, so no String / String[] is built
+ * unless the caller asks for a field as a String.
+ *
+ * Usage:
+ *   try (CsvReader csv = new CsvReader(reader)) {
+ *       while (csv.next()) {
+ *           if (csv.isBlankRecord()) continue;
+ *           int id = csv.intField(0);
+ *           String text = csv.field(1);
+ *       }
+ *   }
+ */
+public class CsvReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader in;
+
+    // input buffer
+    private final char[] buf;
+    private int pos = 0;
+    private int limit = 0;
+
+    // current record
+    private char[] rec = new char[256];
+    private int recLen = 0;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int count = 0;
+
+    private long lineNumber = 0;   // line on which the current record starts (1-based)
+    private long nextLine = 1;     // line on which the next record will start
+    private boolean first = true;
+
+    public CsvReader(Reader in) {
+        this(in, 8192);
+    }
+
+    public CsvReader(Reader in, int bufferSize) {
+        this.in = in;
+        this.buf = new char[Math.max(16, bufferSize)];
+    }
+
+    /**
+     * Parses the next record.
+     *
+     * @return false at end of input (no record was read)
+     */
+    public boolean next() throws IOException {
+        recLen = 0;
+        count = 0;
+
+        int c = read();
+        if (first) {
+            first = false;
+            if (c == '\uFEFF') c = read();
+        }
+        if (c == EOF) return false;
+
+        lineNumber = nextLine;
+
+        int fieldStart = 0;
+        boolean quoted = false;     // currently inside "..."
+        boolean atFieldStart = true;
+
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    // unterminated quote - keep what we have (lenient)
+                    endField(fieldStart);
+                    return true;
+                }
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        append('"');          // escaped quote
+                    } else {
+                        quoted = false;       // closing quote
+                        c = n;
+                        continue;
+                    }
+                } else {
+                    append((char) c);
+                    if (c == '\n') {
+                        nextLine++;
+                    } else if (c == '\r') {
+                        nextLine++;
+                        if (peek() == '\n') append((char) read());
+                    }
+                }
+                c = read();
+                continue;
+            }
+
+            if (c == EOF) {
+                endField(fieldStart);
+                return true;
+            }
+
+            if (c == ',') {
+                endField(fieldStart);
+                fieldStart = recLen;
+                atFieldStart = true;
+                c = read();
+                continue;
+            }
+
+            if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') read();
+                nextLine++;
+                endField(fieldStart);
+                return true;
+            }
+
+            if (c == '"' && atFieldStart) {
+                quoted = true;
+                atFieldStart = false;
+                c = read();
+                continue;
+            }
+
+            atFieldStart = false;
+            append((char) c);
+            c = read();
+        }
+    }
+
+    // ========================= record access =========================
+
+    /** Number of fields in the current record. */
+    public int fieldCount() {
+        return count;
+    }
+
+    /** 1-based line number where the current record starts. */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    /** True if the record is an empty / whitespace-only line. */
+    public boolean isBlankRecord() {
+        return count == 1 && isBlank(0);
+    }
+
+    /** Raw field value (untrimmed). */
+    public String field(int i) {
+        check(i);
+        return new String(rec, starts[i], ends[i] - starts[i]);
+    }
+
+    /** Field value with surrounding whitespace removed. */
+    public String trimmedField(int i) {
+        check(i);
+        int s = starts[i], e = ends[i];
+        while (s < e && rec[s] <= ' ') s++;
+        while (e > s && rec[e - 1] <= ' ') e--;
+        return new String(rec, s, e - s);
+    }
+
+    /** True if the field is empty or only whitespace. */
+    public boolean isBlank(int i) {
+        check(i);
+        for (int k = starts[i]; k < ends[i]; k++) {
+            if (rec[k] > ' ') return false;
+        }
+        return true;
+    }
+
+    /** Case-insensitive comparison of the trimmed field to s, without allocating. */
+    public boolean fieldEqualsIgnoreCase(int i, String s) {
+        check(i);
+        int st = starts[i], e = ends[i];
+        while (st < e && rec[st] <= ' ') st++;
+        while (e > st && rec[e - 1] <= ' ') e--;
+        if (e - st != s.length()) return false;
+        for (int k = 0; k < s.length(); k++) {
+            char a = rec[st + k], b = s.charAt(k);
+            if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses the trimmed field as a (signed) int directly from the buffer.
+     *
+     * @throws NumberFormatException if the field is not a valid int
+     */
+    public int intField(int i) {
+        check(i);
+        int s = starts[i], e = ends[i];
+        while (s < e && rec[s] <= ' ') s++;
+        while (e > s && rec[e - 1] <= ' ') e--;
+        if (s == e) throw new NumberFormatException("Empty number in column " + (i + 1));
+
+        boolean neg = false;
+        if (rec[s] == '-' || rec[s] == '+') {
+            neg = rec[s] == '-';
+            s++;
+            if (s == e) throw new NumberFormatException("Bad number in column " + (i + 1));
+        }
+
+        long v = 0;
+        for (int k = s; k < e; k++) {
+            char ch = rec[k];
+            if (ch < '0' || ch > '9') {
+                throw new NumberFormatException("Bad number '" + new String(rec, starts[i], ends[i] - starts[i])
+                        + "' in column " + (i + 1));
+            }
+            v = v * 10 + (ch - '0');
+            if (v > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("Number too large in column " + (i + 1));
+            }
+        }
+        v = neg ? -v : v;
+        if (v > Integer.MAX_VALUE) throw new NumberFormatException("Number too large in column " + (i + 1));
+        return (int) v;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // ========================= writing helper =========================
+
+    /**
+     * RFC 4180 escaping for one field: quoted only when it contains a comma,
+     * quote or line break; internal quotes are doubled.
+     */
+    public static String escape(String s) {
+        if (s == null) return "";
+        boolean mustQuote = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                mustQuote = true;
+                break;
+            }
+        }
+        if (!mustQuote) return s;
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+
+    // ========================= internals =========================
+
+    private void check(int i) {
+        if (i < 0 || i >= count) {
+            throw new IndexOutOfBoundsException("Column " + (i + 1) + " of " + count);
+        }
+    }
+
+    private void endField(int start) {
+        if (count == starts.length) {
+            starts = java.util.Arrays.copyOf(starts, count * 2);
+            ends = java.util.Arrays.copyOf(ends, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = recLen;
+        count++;
+    }
+
+    private void append(char c) {
+        if (recLen == rec.length) rec = java.util.Arrays.copyOf(rec, rec.length * 2);
+        rec[recLen++] = c;
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) return EOF;
+        return buf[pos++];
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) return EOF;
+        return buf[pos];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buf, 0, buf.length);
+        if (n <= 0) {
+            pos = limit = 0;
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+}
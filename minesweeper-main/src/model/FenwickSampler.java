@@ -0,0 +1,66 @@
+package model;
+
+/**
+ * Weighted random selection over a fixed number of slots (Fenwick / binary
+ * indexed tree of non-negative weights).
+ *
+ * - set(i, w)   : O(log n)
+ * - sample(r)   : O(log n) - the slot whose cumulative weight range contains r
+ * - build       : O(n)
+ */
+public class FenwickSampler {
+
+    private final int n;
+    private final long[] tree;     // 1-based partial sums
+    private final long[] weights;  // 0-based current weights
+    private final int topBit;      // highest power of two <= n
+    private long total = 0;
+
+    public FenwickSampler(long[] initial) {
+        n = initial.length;
+        weights = initial.clone();
+        tree = new long[n + 1];
+
+        for (int i = 1; i <= n; i++) {
+            tree[i] += weights[i - 1];
+            total += weights[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= n) tree[parent] += tree[i];
+        }
+        topBit = (n == 0) ? 0 : Integer.highestOneBit(n);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public long weight(int i) {
+        return weights[i];
+    }
+
+    public void set(int i, long w) {
+        long delta = w - weights[i];
+        if (delta == 0) return;
+
+        weights[i] = w;
+        total += delta;
+        for (int k = i + 1; k <= n; k += k & -k) tree[k] += delta;
+    }
+
+    /** Slot i such that sum(weights[0..i-1]) <= r < sum(weights[0..i]); needs 0 <= r < total(). */
+    public int sample(long r) {
+        int pos = 0;
+        for (int step = topBit; step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= n && tree[next] <= r) {
+                pos = next;
+                r -= tree[next];
+            }
+        }
+        return pos; // 1-based "last prefix <= r" == 0-based slot
+    }
+}
@@ -8,6 +8,8 @@ public class GameHistoryEntry {
     private final String result;           // WIN / LOSE
     private final int finalScore;
     private final int gameLengthSeconds;
+    private final int threeBV;             // board that won the game; 0 = lost or not recorded (older rows)
+    private final int openings;            // same board
 
     public GameHistoryEntry(String dateTime,
                             String difficulty,
@@ -16,6 +18,18 @@ public class GameHistoryEntry {
                             String result,
                             int finalScore,
                             int gameLengthSeconds) {
+        this(dateTime, difficulty, player1Name, player2Name, result, finalScore, gameLengthSeconds, 0, 0);
+    }
+
+    public GameHistoryEntry(String dateTime,
+                            String difficulty,
+                            String player1Name,
+                            String player2Name,
+                            String result,
+                            int finalScore,
+                            int gameLengthSeconds,
+                            int threeBV,
+                            int openings) {
         this.dateTime = dateTime;
         this.difficulty = difficulty;
         this.player1Name = player1Name;
@@ -23,6 +37,25 @@ public class GameHistoryEntry {
         this.result = result;
         this.finalScore = finalScore;
         this.gameLengthSeconds = gameLengthSeconds;
+        this.threeBV = threeBV;
+        this.openings = openings;
+    }
+
+    /**
+     * One history CSV record (at least 7 columns). Rows written before the
+     * board metrics were recorded have no 3BV / openings columns (read as 0).
+     */
+    static GameHistoryEntry fromCsv(CsvReader csv) {
+        return new GameHistoryEntry(
+                csv.field(0),
+                csv.field(1),
+                csv.field(2),
+                csv.field(3),
+                csv.field(4),
+                csv.intField(5),
+                csv.intField(6),
+                csv.fieldCount() > 7 ? csv.intField(7) : 0,
+                csv.fieldCount() > 8 ? csv.intField(8) : 0);
     }
 
     // === getters (TableView needs them) ===
@@ -33,17 +66,27 @@ public class GameHistoryEntry {
     public String getResult()            { return result; }
     public int    getFinalScore()        { return finalScore; }
     public int    getGameLengthSeconds() { return gameLengthSeconds; }
+    public int    getThreeBV()           { return threeBV; }
+    public int    getOpenings()          { return openings; }
+
+    /** 3BV per second of play; 0 for lost games or if unknown. */
+    public double getThreeBVPerSecond() {
+        if (!"WIN".equals(result) || threeBV == 0 || gameLengthSeconds <= 0) return 0;
+        return (double) threeBV / gameLengthSeconds;
+    }
 
-    // used for saving to CSV
+    // used for saving to CSV (names may contain commas/quotes -> RFC 4180 escaped)
     public String toCsvRow() {
         return String.join(",",
-                dateTime,
-                difficulty,
-                player1Name,
-                player2Name,
-                result,
+                CsvReader.escape(dateTime),
+                CsvReader.escape(difficulty),
+                CsvReader.escape(player1Name),
+                CsvReader.escape(player2Name),
+                CsvReader.escape(result),
                 String.valueOf(finalScore),
-                String.valueOf(gameLengthSeconds)
+                String.valueOf(gameLengthSeconds),
+                String.valueOf(threeBV),
+                String.valueOf(openings)
         );
     }
 }
@@ -1,7 +1,5 @@
 package model;
 
-import controller.GameController;
-
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -12,13 +10,11 @@ import java.util.Random;
  *
  * Observer version:
  * - GameModel notifies observers when sharedScore/sharedLives change.
+ *
+ * No UI dependencies - used by the headless service.GameEngine.
  */
 public class GameModel {
 
-    // Optional back-reference to controller (kept for compatibility)
-    @SuppressWarnings("unused")
-    private final GameController controller;
-
     // Two logical boards (one per player)
     private Board board1;
     private Board board2;
@@ -52,11 +48,18 @@ public class GameModel {
     private final double questionRate = 0.08; // 8% of empty zero-neighbor cells
     private final int initialLives;
 
-    public GameModel(GameController controller, int mineCount, int initialLives) {
-        this.controller = controller;
+    // mine placement + special cell selection (seeded by simulations for repeatable boards)
+    private final Random rand;
+
+    public GameModel(int mineCount, int initialLives, Random rand) {
         this.mineCount = mineCount;
         this.initialLives = initialLives;
         this.sharedLives = initialLives;
+        this.rand = rand;
+    }
+
+    public GameModel(int mineCount, int initialLives) {
+        this(mineCount, initialLives, new Random());
     }
 
     // ---------------- Getters (used by GameController.updateUI) ----------------
@@ -106,17 +109,36 @@ public class GameModel {
         revealedCells = 0;
         setSharedLives(initialLives);   // notify
 
-        board1 = generateBoard(rows, cols);
-        board2 = generateBoard(rows, cols);
+        board1 = generateBoard(rows, cols, rand);
+        board2 = generateBoard(rows, cols, rand);
+    }
+
+    /**
+     * Same as initializeBoards(rows, cols), with boards made elsewhere
+     * (e.g. service.NoGuessGenerator).
+     */
+    public void initializeBoards(Board board1, Board board2) {
+        setSharedScore(0);              // notify
+        revealedCells = 0;
+        setSharedLives(initialLives);   // notify
+
+        this.board1 = board1;
+        this.board2 = board2;
     }
 
     // ---------------- Board generation ----------------
-    private Board generateBoard(int rows, int cols) {
+
+    /**
+     * A fresh random board with this game's mine count and special cells.
+     * Touches no game state, so candidates can be generated on several threads
+     * (each with its own Random).
+     */
+    public Board generateBoard(int rows, int cols, Random rand) {
         boolean[][] mines = new boolean[rows][cols];
         int[][] neighborMines = new int[rows][cols];
 
         // 1) Place mines randomly
-        placeMinesRandomly(mines, rows, cols);
+        placeMinesRandomly(mines, rows, cols, rand);
 
         // 2) Compute neighbor mine counts for all non-mine cells
         computeNeighborCounts(mines, neighborMines, rows, cols);
@@ -124,7 +146,7 @@ public class GameModel {
         // 3) Decide which 0-neighbor cells become Surprise / Question cells
         boolean[][] surpriseMask = new boolean[rows][cols];
         boolean[][] questionMask = new boolean[rows][cols];
-        selectSpecialCells(mines, neighborMines, surpriseMask, questionMask, rows, cols);
+        selectSpecialCells(mines, neighborMines, surpriseMask, questionMask, rows, cols, rand);
 
         // 4) Build the Board
         Board board = new Board(rows, cols);
@@ -147,11 +169,14 @@ public class GameModel {
             }
         }
 
+        // 5) Label the openings (for cascades) and the complexity (3BV etc.) from the same grids
+        OpeningRegions openings = OpeningRegions.compute(mines, neighborMines);
+        board.setAnalysis(openings, BoardMetrics.compute(mines, openings));
+
         return board;
     }
 
-    private void placeMinesRandomly(boolean[][] mines, int rows, int cols) {
-        Random rand = new Random();
+    private void placeMinesRandomly(boolean[][] mines, int rows, int cols, Random rand) {
         int placed = 0;
 
         while (placed < mineCount) {
@@ -197,7 +222,7 @@ public class GameModel {
                                     int[][] neighborMines,
                                     boolean[][] surpriseMask,
                                     boolean[][] questionMask,
-                                    int rows, int cols) {
+                                    int rows, int cols, Random rand) {
 
         List<int[]> emptyZero = new ArrayList<>();
 
@@ -211,7 +236,7 @@ public class GameModel {
 
         if (emptyZero.isEmpty()) return;
 
-        Collections.shuffle(emptyZero);
+        Collections.shuffle(emptyZero, rand);
 
         int surpriseCount = Math.max(2, (int) (emptyZero.size() * surpriseRate));
         int questionCount = Math.max(3, (int) (emptyZero.size() * questionRate));
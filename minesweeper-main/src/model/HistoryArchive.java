@@ -0,0 +1,384 @@
+package model;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming export / import of game history archives.
+ *
+ * Formats:
+ * - CSV_GZIP : the normal history CSV (same header), gzip-compressed
+ * - BINARY   : "MSHB" + version byte, then a gzip stream of compact records
+ *              (varints, and a string dictionary for difficulty/result/names)
+ *
+ * Both directions work one row at a time, so memory use does not depend on
+ * the archive size. Progress is reported as bytes consumed from the source.
+ *
+ * Access goes through SysData (exportHistory / importHistory).
+ */
+public class HistoryArchive {
+
+    public enum Format {
+        CSV_GZIP,
+        BINARY
+    }
+
+    private static final byte[] BINARY_MAGIC = {'M', 'S', 'H', 'B'};
+    private static final int BINARY_VERSION = 2; // 2 added threeBV / openings; 1 is still read
+    private static final int MAX_DICTIONARY = 65_536;
+    private static final int MAX_STRING = 1 << 20;  // bytes per string in a binary archive
+    private static final int REPORT_EVERY = 4096; // rows between progress callbacks
+
+    private HistoryArchive() {}
+
+    // ============================================================
+    //                          EXPORT
+    // ============================================================
+
+    /**
+     * Streams the history CSV into target.
+     *
+     * @return number of rows written
+     */
+    static long export(File historyFile, String historyHeader, File target, Format format,
+                       ProgressListener listener) throws IOException {
+        long total = historyFile.exists() ? historyFile.length() : 0;
+        long rows = 0;
+
+        File tmp = tempFileNextTo(target);
+
+        try (CountingInputStream counter = new CountingInputStream(openOrEmpty(historyFile));
+             CsvReader csv = new CsvReader(new InputStreamReader(counter, StandardCharsets.UTF_8));
+             RowSink sink = (format == Format.BINARY)
+                     ? new BinarySink(new FileOutputStream(tmp))
+                     : new CsvSink(new GZIPOutputStream(new FileOutputStream(tmp), 1 << 16), historyHeader)) {
+
+            csv.next(); // header
+
+            while (csv.next()) {
+                if (csv.isBlankRecord() || csv.fieldCount() < 7) continue;
+
+                sink.write(GameHistoryEntry.fromCsv(csv));
+                rows++;
+
+                if (rows % REPORT_EVERY == 0) checkpoint(listener, counter.count, total);
+            }
+            checkCancelled(listener); // last chance before the target is replaced
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp.toPath());
+            throw e;
+        }
+
+        Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        if (listener != null) listener.onProgress(total, total);
+        return rows;
+    }
+
+    // ============================================================
+    //                          IMPORT
+    // ============================================================
+
+    /**
+     * Streams an archive (gzip CSV, binary, or plain CSV - detected from the
+     * first bytes) and appends its rows to the history file.
+     *
+     * Rows are staged in a temporary file first, so a cancelled or failed
+     * import leaves the history untouched.
+     *
+     * @return number of rows appended
+     */
+    static long importInto(File historyFile, String historyHeader, File source,
+                           ProgressListener listener) throws IOException {
+        long total = source.length();
+        long rows = 0;
+
+        File staged = tempFileNextTo(historyFile);
+
+        try {
+            try (CountingInputStream counter = new CountingInputStream(new FileInputStream(source));
+                 BufferedInputStream in = new BufferedInputStream(counter, 1 << 16);
+                 BufferedWriter out = new BufferedWriter(
+                         new OutputStreamWriter(new FileOutputStream(staged), StandardCharsets.UTF_8), 1 << 16)) {
+
+                RowSource rowsIn = openSource(in);
+                GameHistoryEntry e;
+                while ((e = rowsIn.next()) != null) {
+                    out.write(e.toCsvRow());
+                    out.newLine();
+                    rows++;
+
+                    if (rows % REPORT_EVERY == 0) checkpoint(listener, counter.count, total);
+                }
+            }
+
+            checkCancelled(listener); // last chance before the history is touched
+            appendStaged(historyFile, historyHeader, staged);
+
+        } finally {
+            Files.deleteIfExists(staged.toPath());
+        }
+
+        if (listener != null) listener.onProgress(total, total);
+        return rows;
+    }
+
+    private static RowSource openSource(BufferedInputStream in) throws IOException {
+        in.mark(8);
+        int b0 = in.read();
+        int b1 = in.read();
+        int b2 = in.read();
+        int b3 = in.read();
+        in.reset();
+
+        if (b0 == 0x1f && b1 == 0x8b) {
+            return new CsvSource(new GZIPInputStream(in, 1 << 16));
+        }
+        if (b0 == BINARY_MAGIC[0] && b1 == BINARY_MAGIC[1] && b2 == BINARY_MAGIC[2] && b3 == BINARY_MAGIC[3]) {
+            return new BinarySource(in);
+        }
+        return new CsvSource(in);
+    }
+
+    /** Appends the staged rows (no header) to the history file, writing the header if needed. */
+    private static void appendStaged(File historyFile, String historyHeader, File staged) throws IOException {
+        boolean writeHeader = !historyFile.exists() || historyFile.length() == 0;
+
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(historyFile, true), 1 << 16)) {
+            if (writeHeader) {
+                out.write((historyHeader + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            }
+            Files.copy(staged.toPath(), out);
+        }
+    }
+
+    // ============================================================
+    //                      ROW SINKS / SOURCES
+    // ============================================================
+
+    private interface RowSink extends Closeable {
+        void write(GameHistoryEntry e) throws IOException;
+    }
+
+    private interface RowSource {
+        /** @return next row, or null at end of input */
+        GameHistoryEntry next() throws IOException;
+    }
+
+    private static class CsvSink implements RowSink {
+        private final BufferedWriter out;
+
+        CsvSink(OutputStream raw, String header) throws IOException {
+            out = new BufferedWriter(new OutputStreamWriter(raw, StandardCharsets.UTF_8), 1 << 16);
+            out.write(header);
+            out.newLine();
+        }
+
+        @Override
+        public void write(GameHistoryEntry e) throws IOException {
+            out.write(e.toCsvRow());
+            out.newLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static class CsvSource implements RowSource {
+        private final CsvReader csv;
+        private boolean headerSkipped = false;
+
+        CsvSource(InputStream in) {
+            csv = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public GameHistoryEntry next() throws IOException {
+            if (!headerSkipped) {
+                headerSkipped = true;
+                if (!csv.next()) return null;
+            }
+            while (csv.next()) {
+                if (csv.isBlankRecord() || csv.fieldCount() < 7) continue;
+                return GameHistoryEntry.fromCsv(csv);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Binary record layout (inside the gzip stream):
+     *   1 byte  : 1 = record follows, 0 = end of archive
+     *   string  : dateTime
+     *   dictRef : difficulty, player1, player2, result
+     *   varint  : finalScore (zig-zag), gameLengthSeconds
+     *   varint  : threeBV, openings                 (version 2+)
+     *
+     * string  = varint byte length + UTF-8 bytes
+     * dictRef = varint; 0 = literal string follows (and joins the dictionary),
+     *           n > 0 = dictionary entry n-1
+     */
+    private static class BinarySink implements RowSink {
+        private final DataOutputStream out;
+        private final Map<String, Integer> dict = new HashMap<>();
+
+        BinarySink(OutputStream raw) throws IOException {
+            raw.write(BINARY_MAGIC);
+            raw.write(BINARY_VERSION);
+            out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(raw, 1 << 16), 1 << 16));
+        }
+
+        @Override
+        public void write(GameHistoryEntry e) throws IOException {
+            out.writeByte(1);
+            writeString(e.getDateTime());
+            writeRef(e.getDifficulty());
+            writeRef(e.getPlayer1Name());
+            writeRef(e.getPlayer2Name());
+            writeRef(e.getResult());
+            writeVarint(zigzag(e.getFinalScore()));
+            writeVarint(e.getGameLengthSeconds() & 0xFFFFFFFFL);
+            writeVarint(e.getThreeBV() & 0xFFFFFFFFL);
+            writeVarint(e.getOpenings() & 0xFFFFFFFFL);
+        }
+
+        private void writeRef(String s) throws IOException {
+            String v = (s == null) ? "" : s;
+            Integer idx = dict.get(v);
+            if (idx != null) {
+                writeVarint(idx + 1L);
+                return;
+            }
+            writeVarint(0);
+            writeString(v);
+            if (dict.size() < MAX_DICTIONARY) dict.put(v, dict.size());
+        }
+
+        private void writeString(String s) throws IOException {
+            byte[] b = ((s == null) ? "" : s).getBytes(StandardCharsets.UTF_8);
+            writeVarint(b.length);
+            out.write(b);
+        }
+
+        private void writeVarint(long v) throws IOException {
+            while ((v & ~0x7FL) != 0) {
+                out.writeByte((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            out.writeByte((int) v);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.writeByte(0);
+            out.close();
+        }
+    }
+
+    private static class BinarySource implements RowSource {
+        private final DataInputStream in;
+        private final List<String> dict = new ArrayList<>();
+        private final int version;
+
+        BinarySource(InputStream raw) throws IOException {
+            byte[] magic = raw.readNBytes(BINARY_MAGIC.length);
+            version = raw.read();
+            if (magic.length != BINARY_MAGIC.length || version < 1 || version > BINARY_VERSION) {
+                throw new IOException("Unsupported history archive version: " + version);
+            }
+            in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(raw, 1 << 16), 1 << 16));
+        }
+
+        @Override
+        public GameHistoryEntry next() throws IOException {
+            int tag = in.read();
+            if (tag < 0) throw new EOFException("Corrupt archive: no end marker");
+            if (tag == 0) return null;
+            if (tag != 1) throw new IOException("Corrupt archive: bad record tag " + tag);
+
+            String dateTime = readString();
+            String difficulty = readRef();
+            String p1 = readRef();
+            String p2 = readRef();
+            String result = readRef();
+            int score = unzigzag(readVarint());
+            int length = (int) readVarint();
+            int threeBV = (version >= 2) ? (int) readVarint() : 0;
+            int openings = (version >= 2) ? (int) readVarint() : 0;
+
+            return new GameHistoryEntry(dateTime, difficulty, p1, p2, result, score, length, threeBV, openings);
+        }
+
+        private String readRef() throws IOException {
+            long v = readVarint();
+            if (v > 0) {
+                if (v > dict.size()) throw new IOException("Corrupt archive: bad dictionary reference");
+                return dict.get((int) (v - 1));
+            }
+            String s = readString();
+            if (dict.size() < MAX_DICTIONARY) dict.add(s);
+            return s;
+        }
+
+        private String readString() throws IOException {
+            long len = readVarint();
+            if (len > MAX_STRING) throw new IOException("Corrupt archive: string too long");
+            byte[] b = in.readNBytes((int) len); // grows with what is really there
+            if (b.length != len) throw new EOFException("Corrupt archive: string cut short");
+            return new String(b, StandardCharsets.UTF_8);
+        }
+
+        private long readVarint() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = in.readUnsignedByte();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IOException("Corrupt archive: varint too long");
+        }
+    }
+
+    // ============================================================
+    //                          HELPERS
+    // ============================================================
+
+    private static long zigzag(int v) {
+        return ((long) v << 1) ^ ((long) v >> 63);
+    }
+
+    private static int unzigzag(long v) {
+        return (int) ((v >>> 1) ^ -(v & 1));
+    }
+
+    private static void checkpoint(ProgressListener listener, long done, long total) {
+        if (listener == null) return;
+        checkCancelled(listener);
+        listener.onProgress(Math.min(done, total), total);
+    }
+
+    private static void checkCancelled(ProgressListener listener) {
+        if (listener != null && listener.isCancelled()) {
+            throw new CancellationException("History transfer cancelled");
+        }
+    }
+
+    private static InputStream openOrEmpty(File f) throws IOException {
+        return f.exists() ? new FileInputStream(f) : new ByteArrayInputStream(new byte[0]);
+    }
+
+    private static File tempFileNextTo(File f) throws IOException {
+        File dir = f.getAbsoluteFile().getParentFile();
+        return File.createTempFile("history", ".tmp", dir);
+    }
+}
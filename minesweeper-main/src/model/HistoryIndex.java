@@ -0,0 +1,202 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory secondary indexes over the game history.
+ *
+ * Built once from the loaded rows and reused by every query until the
+ * history file changes (SysData drops it on save / rewrite).
+ *
+ * Indexes:
+ * - byDate / byScore / byDuration : row ids pre-sorted by each sort key,
+ *   so a query never sorts - it only walks the right permutation
+ * - difficulty / result : one BitSet of row ids per value
+ * - lowered player names : for case-insensitive "contains" matching
+ *
+ * Date range filters use binary search on the date permutation
+ * (ISO-8601 strings sort the same way as the dates they represent).
+ */
+class HistoryIndex {
+
+    private final GameHistoryEntry[] rows;
+    private final String[] namesLower;
+
+    private final int[] byDate;
+    private final String[] sortedDates; // sortedDates[k] == rows[byDate[k]].getDateTime()
+
+    // built lazily - most screens only sort by date
+    private int[] byScore;
+    private int[] byDuration;
+
+    private final Map<String, BitSet> byDifficulty = new HashMap<>();
+    private final Map<String, BitSet> byResult = new HashMap<>();
+
+    HistoryIndex(List<GameHistoryEntry> entries) {
+        int n = entries.size();
+        rows = entries.toArray(new GameHistoryEntry[0]);
+        namesLower = new String[n];
+
+        for (int i = 0; i < n; i++) {
+            GameHistoryEntry e = rows[i];
+            namesLower[i] = (nz(e.getPlayer1Name()) + "\u0000" + nz(e.getPlayer2Name())).toLowerCase(Locale.ROOT);
+            byDifficulty.computeIfAbsent(key(e.getDifficulty()), k -> new BitSet(n)).set(i);
+            byResult.computeIfAbsent(key(e.getResult()), k -> new BitSet(n)).set(i);
+        }
+
+        byDate = sortedIds((a, b) -> nz(rows[a].getDateTime()).compareTo(nz(rows[b].getDateTime())));
+        sortedDates = new String[n];
+        for (int k = 0; k < n; k++) sortedDates[k] = nz(rows[byDate[k]].getDateTime());
+    }
+
+    int size() {
+        return rows.length;
+    }
+
+    HistoryPage query(HistoryQuery q) {
+        // ---- date range -> [lo, hi) in the date permutation ----
+        String fromKey = (q.getFromDate() == null) ? null : q.getFromDate().toString();
+        String toKeyExclusive = (q.getToDate() == null) ? null : nextDay(q.getToDate());
+
+        int lo = (fromKey == null) ? 0 : lowerBound(fromKey);
+        int hi = (toKeyExclusive == null) ? rows.length : lowerBound(toKeyExclusive);
+
+        // ---- equality filters -> one combined bitset (null = no filter) ----
+        BitSet mask = null;
+        if (q.getDifficulty() != null) mask = and(mask, byDifficulty.get(key(q.getDifficulty())));
+        if (q.getResult() != null)     mask = and(mask, byResult.get(key(q.getResult())));
+
+        String name = (q.getPlayerName() == null) ? null : q.getPlayerName().toLowerCase(Locale.ROOT);
+
+        List<GameHistoryEntry> page = new ArrayList<>(Math.min(q.getLimit(), 256));
+        int start = q.getOffset();
+        long end = (long) start + q.getLimit();
+        int total = 0;
+
+        if (lo >= hi || (mask != null && mask.isEmpty())) {
+            return new HistoryPage(page, 0);
+        }
+
+        switch (q.getSort()) {
+            case NEWEST_FIRST:
+            case OLDEST_FIRST: {
+                boolean desc = q.getSort() == HistoryQuery.Sort.NEWEST_FIRST;
+                for (int k = 0; k < hi - lo; k++) {
+                    int id = byDate[desc ? hi - 1 - k : lo + k];
+                    if (!matches(id, mask, name)) continue;
+                    if (total >= start && total < end) page.add(rows[id]);
+                    total++;
+                }
+                break;
+            }
+            default: {
+                int[] perm = permutationFor(q.getSort());
+                boolean desc = q.getSort() == HistoryQuery.Sort.SCORE_DESC
+                        || q.getSort() == HistoryQuery.Sort.DURATION_DESC;
+                for (int k = 0; k < perm.length; k++) {
+                    int id = perm[desc ? perm.length - 1 - k : k];
+                    if (!matches(id, mask, name)) continue;
+                    if (!inDateRange(id, fromKey, toKeyExclusive)) continue;
+                    if (total >= start && total < end) page.add(rows[id]);
+                    total++;
+                }
+            }
+        }
+
+        return new HistoryPage(page, total);
+    }
+
+    // ------------------------------------------------------------------
+
+    private boolean matches(int id, BitSet mask, String nameLower) {
+        if (mask != null && !mask.get(id)) return false;
+        return nameLower == null || namesLower[id].contains(nameLower);
+    }
+
+    private boolean inDateRange(int id, String fromKey, String toKeyExclusive) {
+        String d = nz(rows[id].getDateTime());
+        if (fromKey != null && d.compareTo(fromKey) < 0) return false;
+        return toKeyExclusive == null || d.compareTo(toKeyExclusive) < 0;
+    }
+
+    private int[] permutationFor(HistoryQuery.Sort sort) {
+        switch (sort) {
+            case SCORE_ASC:
+            case SCORE_DESC:
+                if (byScore == null) {
+                    byScore = sortedIds((a, b) -> Integer.compare(rows[a].getFinalScore(), rows[b].getFinalScore()));
+                }
+                return byScore;
+            default:
+                if (byDuration == null) {
+                    byDuration = sortedIds((a, b) ->
+                            Integer.compare(rows[a].getGameLengthSeconds(), rows[b].getGameLengthSeconds()));
+                }
+                return byDuration;
+        }
+    }
+
+    /** First position in sortedDates whose value is >= key. */
+    private int lowerBound(String key) {
+        int lo = 0, hi = sortedDates.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedDates[mid].compareTo(key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private interface IdComparator {
+        int compare(int a, int b);
+    }
+
+    /** Row ids 0..n-1 stably sorted by cmp (ties keep file order). */
+    private int[] sortedIds(IdComparator cmp) {
+        int n = rows.length;
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) ids[i] = i;
+        int[] tmp = new int[n];
+        mergeSort(ids, tmp, 0, n, cmp);
+        return ids;
+    }
+
+    private static void mergeSort(int[] a, int[] tmp, int from, int to, IdComparator cmp) {
+        if (to - from < 2) return;
+        int mid = (from + to) >>> 1;
+        mergeSort(a, tmp, from, mid, cmp);
+        mergeSort(a, tmp, mid, to, cmp);
+        if (cmp.compare(a[mid - 1], a[mid]) <= 0) return;
+
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) tmp[k++] = (cmp.compare(a[i], a[j]) <= 0) ? a[i++] : a[j++];
+        while (i < mid) tmp[k++] = a[i++];
+        while (j < to) tmp[k++] = a[j++];
+        System.arraycopy(tmp, from, a, from, to - from);
+    }
+
+    private static BitSet and(BitSet current, BitSet next) {
+        if (next == null) return new BitSet(); // value never seen -> nothing matches
+        if (current == null) return (BitSet) next.clone();
+        current.and(next);
+        return current;
+    }
+
+    private static String nextDay(LocalDate d) {
+        return d.plusDays(1).toString();
+    }
+
+    private static String key(String s) {
+        return nz(s).trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String nz(String s) {
+        return (s == null) ? "" : s;
+    }
+}
@@ -0,0 +1,19 @@
+package model;
+
+import java.util.List;
+
+/**
+ * One page of a history query.
+ *
+ * entries      - the rows on this page (already sorted)
+ * totalMatches - how many rows matched the filters in total (before paging)
+ */
+public class HistoryPage {
+    public final List<GameHistoryEntry> entries;
+    public final int totalMatches;
+
+    public HistoryPage(List<GameHistoryEntry> entries, int totalMatches) {
+        this.entries = entries;
+        this.totalMatches = totalMatches;
+    }
+}
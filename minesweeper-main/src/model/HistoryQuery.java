@@ -0,0 +1,62 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * Filter / sort / paging criteria for querying game history.
+ *
+ * All filters are optional - a field left as null (or "All") is ignored.
+ * Setters return this so a query can be built in one expression:
+ *
+ *   new HistoryQuery().difficulty("Hard").result("WIN").sortBy(HistoryQuery.Sort.SCORE_DESC)
+ */
+public class HistoryQuery {
+
+    public enum Sort {
+        NEWEST_FIRST,
+        OLDEST_FIRST,
+        SCORE_DESC,
+        SCORE_ASC,
+        DURATION_ASC,
+        DURATION_DESC
+    }
+
+    private LocalDate fromDate;        // inclusive
+    private LocalDate toDate;          // inclusive
+    private String difficulty;         // Easy / Medium / Hard
+    private String result;             // WIN / LOSE
+    private String playerName;         // case-insensitive "contains" on either player
+    private Sort sort = Sort.NEWEST_FIRST;
+    private int offset = 0;
+    private int limit = Integer.MAX_VALUE;
+
+    public HistoryQuery fromDate(LocalDate d)    { this.fromDate = d; return this; }
+    public HistoryQuery toDate(LocalDate d)      { this.toDate = d; return this; }
+    public HistoryQuery difficulty(String d)     { this.difficulty = normalizeAll(d); return this; }
+    public HistoryQuery result(String r)         { this.result = normalizeAll(r); return this; }
+    public HistoryQuery playerName(String name)  { this.playerName = blankToNull(name); return this; }
+    public HistoryQuery sortBy(Sort s)           { this.sort = (s == null) ? Sort.NEWEST_FIRST : s; return this; }
+    public HistoryQuery offset(int offset)       { this.offset = Math.max(0, offset); return this; }
+    public HistoryQuery limit(int limit)         { this.limit = Math.max(0, limit); return this; }
+
+    public LocalDate getFromDate()  { return fromDate; }
+    public LocalDate getToDate()    { return toDate; }
+    public String getDifficulty()   { return difficulty; }
+    public String getResult()       { return result; }
+    public String getPlayerName()   { return playerName; }
+    public Sort getSort()           { return sort; }
+    public int getOffset()          { return offset; }
+    public int getLimit()           { return limit; }
+
+    private static String normalizeAll(String s) {
+        s = blankToNull(s);
+        if (s == null || s.equalsIgnoreCase("All")) return null;
+        return s;
+    }
+
+    private static String blankToNull(String s) {
+        if (s == null) return null;
+        s = s.trim();
+        return s.isEmpty() ? null : s;
+    }
+}
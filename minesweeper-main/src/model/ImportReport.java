@@ -28,6 +28,17 @@ public class ImportReport {
                 total, imported, dup, invalid);
     }
 
+    /** Stopped by the user; the questions imported up to that point were kept. */
+    public static ImportReport cancelled(int readSoFar, int imported, int dup, int invalid) {
+        return new ImportReport(true,
+                "Import cancelled." +
+                "\nImported before cancelling: " + imported +
+                "\nSkipped duplicates: " + dup +
+                "\nSkipped invalid: " + invalid +
+                "\nEntries read: " + readSoFar,
+                readSoFar, imported, dup, invalid);
+    }
+
     public static ImportReport fail(String msg) {
         return new ImportReport(false, msg, 0, 0, 0, 0);
     }
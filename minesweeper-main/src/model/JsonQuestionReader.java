@@ -0,0 +1,430 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming pull parser for JSON question packs: a top-level array of
+ * objects, read one object at a time from a Reader.
+ *
+ * Only the fields the importer understands are kept (see ALIASES); unknown
+ * keys and nested objects/arrays are skipped without being built, so memory
+ * use does not depend on the size of the file.
+ *
+ * Usage (SysData.importQuestionsFromJson):
+ *
+ *   if (!json.beginArray()) ...not a question pack...
+ *   while (json.nextObject()) {
+ *       String text = json.text();
+ *       String[] options = json.options();
+ *       ...
+ *   }
+ *
+ * Broken JSON throws a SyntaxException carrying the line and column.
+ */
+class JsonQuestionReader implements Closeable {
+
+    /** Malformed JSON, located by 1-based line and column. */
+    static class SyntaxException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        final long line;
+        final int column;
+
+        SyntaxException(String message, long line, int column) {
+            super("Line " + line + ", column " + column + ": " + message);
+            this.line = line;
+            this.column = column;
+        }
+    }
+
+    private static final int EOF = -1;
+
+    // longer strings are dropped (the field counts as missing -> entry invalid)
+    private static final int MAX_STRING = 1 << 20;
+
+    // ------------------------------------------------------------------
+    // Known fields. Each slot lists its keys in precedence order: if an
+    // object has several of them, the earliest alias wins.
+    // ------------------------------------------------------------------
+    private static final int TEXT = 0;
+    private static final int DIFFICULTY = 1;
+    private static final int OPTIONS = 2;
+    private static final int CORRECT_INDEX = 3;
+    private static final int CORRECT = 4;
+    private static final int OPTION_A = 5; // A..D = 5..8
+
+    private static final String[][] ALIASES = {
+            {"question", "Question", "text", "Text"},
+            {"difficulty", "Difficulty", "level", "Level"},
+            {"options", "Options", "answers", "Answers"},
+            {"correctIndex", "CorrectIndex", "correct_index"},
+            {"correct", "Correct", "correctAnswer", "Correct Answer", "correct_letter"},
+            {"A", "a"},
+            {"B", "b"},
+            {"C", "c"},
+            {"D", "d"}
+    };
+
+    // key -> slot * 16 + rank
+    private static final Map<String, Integer> KEYS = new HashMap<>();
+
+    static {
+        for (int slot = 0; slot < ALIASES.length; slot++) {
+            for (int rank = 0; rank < ALIASES[slot].length; rank++) {
+                KEYS.put(ALIASES[slot][rank], slot * 16 + rank);
+            }
+        }
+    }
+
+    private final Reader in;
+
+    // input buffer
+    private final char[] buf = new char[8192];
+    private int pos = 0;
+    private int limit = 0;
+
+    private long line = 1;
+    private int column = 0;
+
+    // array position
+    private boolean firstElement = true;
+    private boolean finished = false;
+
+    // current object (reset by nextObject)
+    private final String[] values = new String[ALIASES.length];
+    private final int[] ranks = new int[ALIASES.length];
+    private final String[] optionList = new String[4];
+    private int optionCount;       // -1 = best "options" key was not an array
+    private int correctIndex;      // -1 = missing / not a number
+
+    private final StringBuilder sb = new StringBuilder(256);
+
+    JsonQuestionReader(Reader in) {
+        this.in = in;
+    }
+
+    // ============================================================
+    //                        STRUCTURE
+    // ============================================================
+
+    /** Consumes the opening '[' (false if the input is not a JSON array). */
+    boolean beginArray() throws IOException {
+        int c = nextNonWs();
+        if (c == '\uFEFF') c = nextNonWs(); // byte order mark
+        return c == '[';
+    }
+
+    /** Reads the next array element into the field accessors; false at the closing ']'. */
+    boolean nextObject() throws IOException {
+        if (finished) return false;
+
+        int c = nextNonWs();
+        if (firstElement) {
+            firstElement = false;
+            if (c == ']') return finish();
+        } else {
+            if (c == ']') return finish();
+            if (c != ',') throw syntax("Expected ',' or ']'", c);
+            c = nextNonWs();
+        }
+
+        if (c != '{') throw syntax("Expected '{'", c);
+        resetObject();
+
+        c = nextNonWs();
+        if (c == '}') return true;
+
+        while (true) {
+            if (c != '"') throw syntax("Expected a key", c);
+            String key = readString();
+
+            c = nextNonWs();
+            if (c != ':') throw syntax("Expected ':'", c);
+
+            readMember(key);
+
+            c = nextNonWs();
+            if (c == '}') return true;
+            if (c != ',') throw syntax("Expected ',' or '}'", c);
+            c = nextNonWs();
+        }
+    }
+
+    private boolean finish() {
+        finished = true;
+        return false;
+    }
+
+    private void resetObject() {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = null;
+            ranks[i] = Integer.MAX_VALUE;
+        }
+        optionCount = -1;
+        correctIndex = -1;
+    }
+
+    private void readMember(String key) throws IOException {
+        Integer code = (key == null) ? null : KEYS.get(key);
+        if (code == null) {
+            skipValue();
+            return;
+        }
+
+        int slot = code >> 4;
+        int rank = code & 15;
+        if (rank >= ranks[slot]) {
+            skipValue(); // a higher-precedence alias was already seen
+            return;
+        }
+        ranks[slot] = rank;
+
+        if (slot == OPTIONS) readOptions();
+        else if (slot == CORRECT_INDEX) correctIndex = readIndex();
+        else values[slot] = readScalar();
+    }
+
+    // ============================================================
+    //                      FIELD ACCESSORS
+    // ============================================================
+
+    String text() {
+        return values[TEXT];
+    }
+
+    String difficulty() {
+        return values[DIFFICULTY];
+    }
+
+    /** "correctIndex" if it was a number, otherwise -1. */
+    int correctIndex() {
+        return correctIndex;
+    }
+
+    /** "correct" (letter form), or null. */
+    String correct() {
+        return values[CORRECT];
+    }
+
+    /**
+     * The four options: the first four entries of "options" if it is an array
+     * of at least four, otherwise the A/B/C/D keys; null if neither is complete.
+     */
+    String[] options() {
+        if (optionCount >= 4) return optionList.clone();
+
+        String a = values[OPTION_A], b = values[OPTION_A + 1];
+        String c = values[OPTION_A + 2], d = values[OPTION_A + 3];
+        if (a != null && b != null && c != null && d != null) return new String[]{a, b, c, d};
+        return null;
+    }
+
+    /** Current line (for error messages). */
+    long lineNumber() {
+        return line;
+    }
+
+    // ============================================================
+    //                          VALUES
+    // ============================================================
+
+    /** String / number / boolean as text; null for null, containers and oversized strings. */
+    private String readScalar() throws IOException {
+        int c = nextNonWs();
+        if (c == '"') return readString();
+        if (c == '{' || c == '[') {
+            skipContainer();
+            return null;
+        }
+
+        String lit = readLiteral(c);
+        return "null".equals(lit) ? null : lit;
+    }
+
+    private int readIndex() throws IOException {
+        int c = nextNonWs();
+        if (c == '"') {
+            readString();
+            return -1; // a string is not a number (the "correct" letter covers that case)
+        }
+        if (c == '{' || c == '[') {
+            skipContainer();
+            return -1;
+        }
+
+        String lit = readLiteral(c);
+        try {
+            return lit.contains(".") ? (int) Double.parseDouble(lit) : Integer.parseInt(lit);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void readOptions() throws IOException {
+        int c = nextNonWs();
+        if (c != '[') {
+            optionCount = -1;
+            skipRest(c);
+            return;
+        }
+
+        optionCount = 0;
+        c = nextNonWs();
+        if (c == ']') return;
+        pushBack();
+
+        while (true) {
+            String v = readScalar();
+            if (optionCount < 4) optionList[optionCount] = (v == null) ? "null" : v;
+            optionCount++;
+
+            c = nextNonWs();
+            if (c == ']') return;
+            if (c != ',') throw syntax("Expected ',' or ']'", c);
+        }
+    }
+
+    private void skipValue() throws IOException {
+        skipRest(nextNonWs());
+    }
+
+    /** Skips a value whose first character c was already read. */
+    private void skipRest(int c) throws IOException {
+        if (c == '"') skipString();
+        else if (c == '{' || c == '[') skipContainer();
+        else readLiteral(c);
+    }
+
+    /** Skips to the bracket closing the one just read (strings are skipped whole). */
+    private void skipContainer() throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            int c = read();
+            switch (c) {
+                case EOF: throw syntax("Unexpected end of JSON", c);
+                case '"': skipString(); break;
+                case '{': case '[': depth++; break;
+                case '}': case ']': depth--; break;
+                default: break;
+            }
+        }
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == EOF) throw syntax("Unterminated string", c);
+            if (c == '"') return;
+            if (c == '\\') read();
+        }
+    }
+
+    /** Reads a string body (opening quote already consumed). Null if longer than MAX_STRING. */
+    private String readString() throws IOException {
+        sb.setLength(0);
+        boolean tooLong = false;
+
+        while (true) {
+            int c = read();
+            if (c == EOF) throw syntax("Unterminated string", c);
+            if (c == '"') break;
+
+            if (c == '\\') {
+                int e = read();
+                switch (e) {
+                    case 'b': c = '\b'; break;
+                    case 'f': c = '\f'; break;
+                    case 'n': c = '\n'; break;
+                    case 'r': c = '\r'; break;
+                    case 't': c = '\t'; break;
+                    case 'u': c = readHex4(); break;
+                    case EOF: throw syntax("Unterminated string", e);
+                    default: c = e; // \" \\ \/ and anything else: the character itself
+                }
+            }
+
+            if (sb.length() < MAX_STRING) sb.append((char) c);
+            else tooLong = true;
+        }
+
+        return tooLong ? null : sb.toString();
+    }
+
+    private int readHex4() throws IOException {
+        int v = 0;
+        for (int i = 0; i < 4; i++) {
+            int c = read();
+            int d = Character.digit(c, 16);
+            if (c == EOF || d < 0) throw syntax("Bad \\u escape", c);
+            v = (v << 4) | d;
+        }
+        return v;
+    }
+
+    /** Reads a bare literal (number / true / false / null) starting with c. */
+    private String readLiteral(int c) throws IOException {
+        if (c == EOF) throw syntax("Unexpected end of JSON", c);
+
+        sb.setLength(0);
+        while (c != EOF && c != ',' && c != ']' && c != '}' && !Character.isWhitespace(c)) {
+            if (sb.length() < 64) sb.append((char) c);
+            c = read();
+        }
+        if (c == ',' || c == ']' || c == '}') pushBack(); // whitespace can simply be dropped
+
+        if (sb.length() == 0) throw syntax("Expected a value", c);
+        return sb.toString();
+    }
+
+    // ============================================================
+    //                        CHARACTERS
+    // ============================================================
+
+    private int read() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+
+        char c = buf[pos++];
+        if (c == '\n') {
+            line++;
+            column = 0;
+        } else {
+            column++;
+        }
+        return c;
+    }
+
+    /** Un-reads the last character (always in the buffer, never a newline here). */
+    private void pushBack() {
+        pos--;
+        column--;
+    }
+
+    private int nextNonWs() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        return c;
+    }
+
+    private SyntaxException syntax(String message, int got) {
+        String found = (got == EOF) ? "end of file" : "'" + (char) got + "'";
+        return new SyntaxException(message + " but found " + found, line, Math.max(column, 1));
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
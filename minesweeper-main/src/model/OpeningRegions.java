@@ -0,0 +1,190 @@
+package model;
+
+/**
+ * The openings of a mine layout, labelled once so a cascade never has to
+ * search for them.
+ *
+ * An opening is a connected area (8 directions) of cells that cascade -
+ * safe cells with no neighbouring mines - together with its border of
+ * numbered cells. Clicking any of its zero cells opens exactly these cells
+ * (as long as none of them is open or flagged yet).
+ *
+ * Stored as flat arrays: the cells of opening k (zero cells first, then the
+ * border; index = row * cols + col) are members[start[k] .. start[k + 1]).
+ * A border cell shared by two openings is listed in both.
+ *
+ * Built by GameModel.generateBoard with one union-find pass over its grids.
+ */
+public class OpeningRegions {
+
+    private final int cols;
+    private final int[] regionOf;  // per cell: opening of a zero cell, -1 otherwise
+    private final int[] start;
+    private final int[] members;
+
+    private OpeningRegions(int cols, int[] regionOf, int[] start, int[] members) {
+        this.cols = cols;
+        this.regionOf = regionOf;
+        this.start = start;
+        this.members = members;
+    }
+
+    /** Number of openings. */
+    public int count() {
+        return start.length - 1;
+    }
+
+    /** The opening a zero cell belongs to, or -1 for mines and numbered cells. */
+    public int regionOf(int row, int col) {
+        return regionOf[row * cols + col];
+    }
+
+    /** True if the cell is next to (or is) a zero cell, i.e. some opening opens it. */
+    public boolean isInSomeRegion(int row, int col) {
+        int rows = regionOf.length / cols;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                if (regionOf[r * cols + c] >= 0) return true;
+            }
+        }
+        return false;
+    }
+
+    /** Cells opened by opening `region` (zero cells + border). */
+    public int size(int region) {
+        return start[region + 1] - start[region];
+    }
+
+    /** First position of `region` for member(); its cells run up to end(region). */
+    public int begin(int region) {
+        return start[region];
+    }
+
+    public int end(int region) {
+        return start[region + 1];
+    }
+
+    /** Cell index (row * cols + col) at a position between begin(k) and end(k). */
+    public int member(int position) {
+        return members[position];
+    }
+
+    /** For boards not made by generateBoard (tests, hand-built layouts). */
+    public static OpeningRegions of(Board board) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        boolean[][] mines = new boolean[rows][cols];
+        int[][] counts = new int[rows][cols];
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                Cell cell = board.getCell(r, c);
+                // unset cells (partly built test boards) are left out like mines
+                mines[r][c] = (cell == null) || cell.isMine();
+                // special cells cascade whatever their number (see RevealService)
+                counts[r][c] = mines[r][c] ? -1 : cell.isSpecial() ? 0 : cell.getNeighborMinesNum();
+            }
+        }
+        return compute(mines, counts);
+    }
+
+    /** @param counts neighbouring mines per cell (ignored for mines); 0 = cascades */
+    static OpeningRegions compute(boolean[][] mines, int[][] counts) {
+        int rows = mines.length;
+        int cols = (rows == 0) ? 0 : mines[0].length;
+        int n = rows * cols;
+
+        // union-find over zero cells; parent[i] == i for roots, -1 for other cells
+        int[] parent = new int[n];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int i = r * cols + c;
+                parent[i] = (!mines[r][c] && counts[r][c] == 0) ? i : -1;
+            }
+        }
+
+        // join each zero cell with the zero cells after it (right, and the row below)
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int i = r * cols + c;
+                if (parent[i] < 0) continue;
+
+                if (c + 1 < cols) union(parent, i, i + 1);
+                if (r + 1 < rows) {
+                    if (c > 0) union(parent, i, i + cols - 1);
+                    union(parent, i, i + cols);
+                    if (c + 1 < cols) union(parent, i, i + cols + 1);
+                }
+            }
+        }
+
+        // number the openings in reading order of their roots
+        int[] regionOf = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            regionOf[i] = (parent[i] == i) ? count++ : -1;
+        }
+        for (int i = 0; i < n; i++) {
+            if (parent[i] >= 0) regionOf[i] = regionOf[find(parent, i)];
+        }
+
+        // sizes, then cells: zero cells first, border cells after
+        int[] start = new int[count + 1];
+        int[] seen = new int[8];
+        for (int i = 0; i < n; i++) {
+            if (regionOf[i] >= 0) start[regionOf[i] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            if (regionOf[i] >= 0 || mines[i / cols][i % cols]) continue;
+            int k = bordering(regionOf, rows, cols, i, seen);
+            for (int s = 0; s < k; s++) start[seen[s] + 1]++;
+        }
+        for (int k = 0; k < count; k++) start[k + 1] += start[k];
+
+        int[] members = new int[start[count]];
+        int[] fill = new int[count];
+        System.arraycopy(start, 0, fill, 0, count);
+
+        for (int i = 0; i < n; i++) {
+            if (regionOf[i] >= 0) members[fill[regionOf[i]]++] = i;
+        }
+        for (int i = 0; i < n; i++) {
+            if (regionOf[i] >= 0 || mines[i / cols][i % cols]) continue;
+            int k = bordering(regionOf, rows, cols, i, seen);
+            for (int s = 0; s < k; s++) members[fill[seen[s]]++] = i;
+        }
+
+        return new OpeningRegions(cols, regionOf, start, members);
+    }
+
+    /** Distinct openings around numbered cell i, into seen; returns how many. */
+    private static int bordering(int[] regionOf, int rows, int cols, int i, int[] seen) {
+        int row = i / cols, col = i % cols;
+        int k = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                int region = regionOf[r * cols + c];
+                if (region < 0) continue;
+
+                boolean dup = false;
+                for (int s = 0; s < k; s++) dup |= (seen[s] == region);
+                if (!dup) seen[k++] = region;
+            }
+        }
+        return k;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        if (parent[b] < 0) return;
+        int ra = find(parent, a), rb = find(parent, b);
+        if (ra != rb) parent[Math.max(ra, rb)] = Math.min(ra, rb);
+    }
+}
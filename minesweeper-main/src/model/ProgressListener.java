@@ -0,0 +1,12 @@
+package model;
+
+/**
+ * Progress callback for long-running file operations
+ * (history archives, question imports); may be called from a background thread.
+ */
+public interface ProgressListener {
+    void onProgress(long done, long total);
+
+    /** Polled regularly - return true to abort the operation. */
+    default boolean isCancelled() { return false; }
+}
@@ -0,0 +1,282 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory cache of the trivia questions for the running session.
+ *
+ * - Loaded once (lazily, or ahead of time with preloadAsync) - from the compiled
+ *   pack when it is current, otherwise from QuestionsCSV.csv
+ * - SysData pushes every successful add / update / delete / import / recreate
+ *   (single records via put / remove), so the cache never re-reads the file itself
+ * - search() runs against an inverted index (QuestionSearchIndex) built on first
+ *   use and updated by the same put / remove calls
+ * - Edits made to the file outside the app are applied the same way (SysData
+ *   hot reload) and announced to QuestionBankObservers
+ * - Readers get an unmodifiable snapshot; edits to Question objects held by the
+ *   UI never leak into the cache (questions are copied on the way in)
+ *
+ * Singleton, like GameController.
+ */
+public class QuestionBank {
+
+    private static QuestionBank instance;
+
+    public static synchronized QuestionBank getInstance() {
+        if (instance == null) {
+            instance = new QuestionBank();
+        }
+        return instance;
+    }
+
+    // null = not loaded yet
+    private List<Question> questions;
+
+    // bumped on every change - lets dependent caches know they are stale
+    private long version = 0;
+
+    // positions in `questions` grouped by difficulty (rebuilt with the list)
+    private EnumMap<QuestionDifficulty, int[]> byDifficulty;
+
+    // null = not built yet (built on first search)
+    private QuestionSearchIndex searchIndex;
+
+    private final List<QuestionBankObserver> observers = new CopyOnWriteArrayList<>();
+
+    private QuestionBank() {}
+
+    /** All questions (loads the file on first use). */
+    public synchronized List<Question> getQuestions() {
+        if (questions == null) {
+            adopt(SysData.loadQuestionsWithStatus());
+        }
+        return questions;
+    }
+
+    public synchronized boolean isEmpty() {
+        return getQuestions().isEmpty();
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Positions (indices into getQuestions()) of the questions of each difficulty.
+     * Every difficulty has an entry (possibly empty). Callers must not modify the arrays.
+     */
+    public synchronized EnumMap<QuestionDifficulty, int[]> getDifficultyIndex() {
+        getQuestions();
+        return byDifficulty;
+    }
+
+    /** Questions + difficulty index + version, read together under one lock. */
+    static final class Snapshot {
+        final List<Question> questions;
+        final EnumMap<QuestionDifficulty, int[]> byDifficulty;
+        final long version;
+
+        Snapshot(List<Question> questions, EnumMap<QuestionDifficulty, int[]> byDifficulty, long version) {
+            this.questions = questions;
+            this.byDifficulty = byDifficulty;
+            this.version = version;
+        }
+    }
+
+    synchronized Snapshot snapshot() {
+        getQuestions();
+        return new Snapshot(questions, byDifficulty, version);
+    }
+
+    /** A new per-game deck drawing from this bank (see QuestionDeck). */
+    public QuestionDeck newDeck(Random rng) {
+        return new QuestionDeck(this, rng);
+    }
+
+    /**
+     * Questions whose text or options contain every word of the query as a
+     * word prefix, in ID order. A blank query returns every question.
+     */
+    public synchronized List<Question> search(String query) {
+        return searchIndex().search(query);
+    }
+
+    /** Build the search index on a background thread (screens with a search box call this on open). */
+    public void prepareSearchAsync() {
+        synchronized (this) {
+            if (searchIndex != null) return;
+        }
+        Thread t = new Thread(this::searchIndex, "question-search-index");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private synchronized QuestionSearchIndex searchIndex() {
+        if (searchIndex == null) {
+            searchIndex = new QuestionSearchIndex(getQuestions());
+        }
+        return searchIndex;
+    }
+
+    /** Load the file on a background thread so the first question popup does no I/O. */
+    public void preloadAsync() {
+        synchronized (this) {
+            if (questions != null) return;
+        }
+        Thread t = new Thread(() -> {
+            getQuestions();
+            SysData.questionStats(); // used by QuestionDeck for draw weights
+        }, "question-bank-preload");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Drop the cache; next access re-reads the file. */
+    public synchronized void invalidate() {
+        questions = null;
+        byDifficulty = null;
+        searchIndex = null;
+        version++;
+    }
+
+    /** Takes a freshly loaded list as-is (nobody else holds it), reusing the pack's difficulty index. */
+    private void adopt(QuestionsLoadResult loaded) {
+        List<Question> list = loaded.questions;
+        questions = Collections.unmodifiableList(list);
+        byDifficulty = (loaded.difficultyIndex != null) ? loaded.difficultyIndex : buildDifficultyIndex(list);
+        searchIndex = null;
+        version++;
+    }
+
+    /** Called by SysData with the list it just wrote to disk. */
+    synchronized void replaceAll(List<Question> fresh) {
+        List<Question> copy = new ArrayList<>(fresh.size());
+        for (Question q : fresh) copy.add(copyOf(q));
+        searchIndex = null;
+        publish(copy);
+    }
+
+    /** Insert or replace (by ID) one question. No-op if the bank was never loaded. */
+    synchronized void put(Question q) {
+        putAll(Collections.singletonList(q));
+    }
+
+    /** Insert or replace (by ID) several questions. No-op if the bank was never loaded. */
+    synchronized void putAll(List<Question> changed) {
+        if (questions == null || changed.isEmpty()) return;
+
+        List<Question> copy = new ArrayList<>(questions);
+        for (Question q : changed) {
+            Question c = copyOf(q);
+            int pos = positionOf(copy, c.getId());
+            if (pos >= 0) copy.set(pos, c);
+            else copy.add(-pos - 1, c);
+            if (searchIndex != null) searchIndex.put(c);
+        }
+        publish(copy);
+    }
+
+    /** Remove the question with this ID. No-op if the bank was never loaded. */
+    synchronized void remove(int id) {
+        removeAll(new int[]{id});
+    }
+
+    /** Remove the questions with these IDs (unknown IDs are ignored). No-op if the bank was never loaded. */
+    synchronized void removeAll(int[] ids) {
+        if (questions == null || ids.length == 0) return;
+
+        int[] gone = ids.clone();
+        Arrays.sort(gone);
+
+        // one pass over the (ID-ordered) list
+        List<Question> copy = new ArrayList<>(questions.size());
+        for (Question q : questions) {
+            if (Arrays.binarySearch(gone, q.getId()) >= 0) {
+                if (searchIndex != null) searchIndex.remove(q.getId());
+            } else {
+                copy.add(q);
+            }
+        }
+        if (copy.size() != questions.size()) publish(copy);
+    }
+
+    /** The loaded list, or null if nothing is loaded (never triggers a load). */
+    synchronized List<Question> loadedQuestions() {
+        return questions;
+    }
+
+    // ============================================================
+    //                 OBSERVERS (external file edits)
+    // ============================================================
+
+    public void addObserver(QuestionBankObserver o) {
+        if (o != null && !observers.contains(o)) observers.add(o);
+    }
+
+    public void removeObserver(QuestionBankObserver o) {
+        observers.remove(o);
+    }
+
+    void notifyQuestionsChanged(List<Question> changed, List<Integer> removedIds) {
+        for (QuestionBankObserver o : observers) o.onQuestionsChanged(changed, removedIds);
+    }
+
+    void notifyFileReplaced() {
+        for (QuestionBankObserver o : observers) o.onQuestionsFileReplaced();
+    }
+
+    private void publish(List<Question> list) {
+        questions = Collections.unmodifiableList(list);
+        byDifficulty = buildDifficultyIndex(list);
+        version++;
+    }
+
+    /** Binary search by ID (the list is kept in ID order); -(insertion point) - 1 if absent. */
+    private static int positionOf(List<Question> list, int id) {
+        int lo = 0, hi = list.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midId = list.get(mid).getId();
+            if (midId < id) lo = mid + 1;
+            else if (midId > id) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    private static EnumMap<QuestionDifficulty, int[]> buildDifficultyIndex(List<Question> list) {
+        QuestionDifficulty[] diffs = QuestionDifficulty.values();
+
+        // count first, then fill - exact-size primitive arrays
+        int[] counts = new int[diffs.length];
+        for (Question q : list) counts[difficultyOf(q).ordinal()]++;
+
+        int[][] arrays = new int[diffs.length][];
+        for (int d = 0; d < diffs.length; d++) arrays[d] = new int[counts[d]];
+
+        int[] fill = new int[diffs.length];
+        for (int i = 0; i < list.size(); i++) {
+            int d = difficultyOf(list.get(i)).ordinal();
+            arrays[d][fill[d]++] = i;
+        }
+
+        EnumMap<QuestionDifficulty, int[]> map = new EnumMap<>(QuestionDifficulty.class);
+        for (QuestionDifficulty d : diffs) map.put(d, arrays[d.ordinal()]);
+        return map;
+    }
+
+    private static QuestionDifficulty difficultyOf(Question q) {
+        return (q.getDifficulty() == null) ? QuestionDifficulty.EASY : q.getDifficulty();
+    }
+
+    private static Question copyOf(Question q) {
+        String[] opts = (q.getOptions() == null) ? null : q.getOptions().clone();
+        return QuestionFactory.createQuestion(q.getId(), q.getText(), opts, q.getCorrectIndex(), q.getDifficulty());
+    }
+}
@@ -0,0 +1,17 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Notified when QuestionsCSV.csv is changed outside the app (see
+ * QuestionFileWatcher). Called on a background thread - UI observers hop to
+ * the FX thread themselves.
+ */
+public interface QuestionBankObserver {
+
+    /** Records were added / edited (changed) or removed; the bank already has the change. */
+    void onQuestionsChanged(List<Question> changed, List<Integer> removedIds);
+
+    /** The file changed in a way that needs a full reload (header, invalid rows, file deleted). */
+    void onQuestionsFileReplaced();
+}
@@ -0,0 +1,197 @@
+package model;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Per-game question selection, weighted by answer statistics.
+ *
+ * Every question has a draw weight from QuestionStats (unseen and often-missed
+ * questions weigh more). One FenwickSampler per QuestionDifficulty holds the
+ * weights of that difficulty's questions, so:
+ * - every draw and every weight change is O(log n), whatever the bank size
+ * - a drawn question's weight drops to 0, so nothing repeats until its
+ *   difficulty is used up; the bag then refills with fresh weights
+ *
+ * draw()            - any difficulty, proportional to weight among the questions not yet seen
+ * draw(difficulty)  - targeted; falls back to draw() if that difficulty has none
+ * recordAnswer      - stores the result (SysData) and re-weights the question
+ * prefetch          - picks (and decodes) the next question of every difficulty
+ *                     ahead of time; meant for a background thread
+ *
+ * A prefetched pick is only a choice of slot - it stays in the bag (and keeps
+ * its weight) until a draw takes it, so prefetching does not change which
+ * questions come up. Picks are dropped whenever their tree changes.
+ *
+ * If the QuestionBank changes mid-game the samplers are rebuilt on the next draw.
+ * All public methods are synchronized (the game draws on the FX thread while
+ * prefetch runs in the background).
+ */
+public class QuestionDeck implements QuestionSource {
+
+    private final QuestionBank bank;
+    private final Random rng;
+
+    private long version = -1;
+    private List<Question> questions;
+
+    // positions[d] = bank positions of difficulty d; trees[d] has one slot per position
+    private final int[][] positions = new int[QuestionDifficulty.values().length][];
+    private final FenwickSampler[] trees = new FenwickSampler[QuestionDifficulty.values().length];
+    private final int[] remaining = new int[QuestionDifficulty.values().length];
+
+    // prefetched slot per difficulty, -1 = none
+    private final int[] ahead = new int[QuestionDifficulty.values().length];
+
+    // bank position -> slot in its difficulty's tree
+    private int[] slotOfPosition = new int[0];
+
+    QuestionDeck(QuestionBank bank, Random rng) {
+        this.bank = bank;
+        this.rng = rng;
+        Arrays.fill(ahead, -1);
+    }
+
+    /** Draw any question (null if the bank is empty). */
+    @Override
+    public synchronized Question draw() {
+        syncWithBank();
+        if (questions.isEmpty()) return null;
+
+        long total = totalWeight();
+        if (total == 0) {
+            for (int d = 0; d < trees.length; d++) refill(d);
+            total = totalWeight();
+        }
+
+        // pick a difficulty proportionally to its remaining weight, then a question inside it
+        long pick = rng.nextLong(total);
+        for (int d = 0; d < trees.length; d++) {
+            long w = trees[d].total();
+            if (pick < w) return take(d);
+            pick -= w;
+        }
+        return null; // unreachable
+    }
+
+    /** Draw a question of the given difficulty (any difficulty if there are none). */
+    public synchronized Question draw(QuestionDifficulty difficulty) {
+        if (difficulty == null) return draw();
+
+        syncWithBank();
+        int d = difficulty.ordinal();
+        if (positions[d].length == 0) return draw();
+
+        if (trees[d].total() == 0) refill(d); // bag used up
+        return take(d);
+    }
+
+    /**
+     * Picks the next question of every difficulty that has none picked yet and
+     * decodes it, so the following draw only flips a weight. Cheap to call
+     * repeatedly.
+     */
+    public synchronized void prefetch() {
+        syncWithBank();
+        for (int d = 0; d < trees.length; d++) {
+            if (ahead[d] >= 0 || trees[d].total() == 0) continue;
+            ahead[d] = trees[d].sample(rng.nextLong(trees[d].total()));
+            questions.get(positions[d][ahead[d]]); // decodes pack-backed questions
+        }
+    }
+
+    /** Number of questions of this difficulty not drawn since the bag was last refilled. */
+    public synchronized int remaining(QuestionDifficulty difficulty) {
+        syncWithBank();
+        return remaining[difficulty.ordinal()];
+    }
+
+    /**
+     * Saves the answer to the statistics. If the question is back in the bag
+     * (refilled since it was drawn) its weight is updated right away.
+     */
+    @Override
+    public synchronized void recordAnswer(Question q, boolean correct) {
+        SysData.recordQuestionAnswer(q.getId(), correct);
+
+        syncWithBank();
+        int pos = positionOf(q.getId());
+        if (pos < 0) return;
+
+        int d = difficultyOf(questions.get(pos)).ordinal();
+        int slot = slotOfPosition[pos];
+        if (trees[d].weight(slot) != 0) {
+            trees[d].set(slot, SysData.questionStats().weight(q.getId()));
+            ahead[d] = -1; // picked with the old weights
+        }
+    }
+
+    // ------------------------------------------------------------------
+
+    /** Takes the prefetched question of difficulty d, or samples one now. */
+    private Question take(int d) {
+        int slot = ahead[d];
+        ahead[d] = -1;
+        if (slot < 0) slot = trees[d].sample(rng.nextLong(trees[d].total()));
+
+        trees[d].set(slot, 0);
+        remaining[d]--;
+        return questions.get(positions[d][slot]);
+    }
+
+    private void syncWithBank() {
+        QuestionBank.Snapshot snap = bank.snapshot();
+        if (snap.version == version) return;
+
+        version = snap.version;
+        questions = snap.questions;
+        slotOfPosition = new int[questions.size()];
+
+        EnumMap<QuestionDifficulty, int[]> index = snap.byDifficulty;
+        for (QuestionDifficulty diff : QuestionDifficulty.values()) {
+            int d = diff.ordinal();
+            positions[d] = index.get(diff); // shared with the bank - read only
+            for (int slot = 0; slot < positions[d].length; slot++) slotOfPosition[positions[d][slot]] = slot;
+            refill(d);
+        }
+    }
+
+    /** Every question of difficulty d back in the bag, weighted by its current statistics. */
+    private void refill(int d) {
+        QuestionStats stats = SysData.questionStats();
+        int[] pos = positions[d];
+
+        long[] weights = new long[pos.length];
+        for (int slot = 0; slot < pos.length; slot++) {
+            weights[slot] = stats.weight(questions.get(pos[slot]).getId());
+        }
+        trees[d] = new FenwickSampler(weights);
+        remaining[d] = pos.length;
+        ahead[d] = -1;
+    }
+
+    private long totalWeight() {
+        long sum = 0;
+        for (FenwickSampler t : trees) sum += t.total();
+        return sum;
+    }
+
+    /** Bank position of a question ID (the bank list is in ID order), -1 if absent. */
+    private int positionOf(int id) {
+        int lo = 0, hi = questions.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midId = questions.get(mid).getId();
+            if (midId < id) lo = mid + 1;
+            else if (midId > id) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private static QuestionDifficulty difficultyOf(Question q) {
+        return (q.getDifficulty() == null) ? QuestionDifficulty.EASY : q.getDifficulty();
+    }
+}
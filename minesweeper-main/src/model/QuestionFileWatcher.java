@@ -0,0 +1,244 @@
+package model;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Notices when QuestionsCSV.csv is changed outside the app (text editor,
+ * deploy script) and works out which records changed, without parsing the
+ * ones that did not.
+ *
+ * - A WatchService on the file's folder reports writes / replaces / deletes;
+ *   bursts of events are debounced (editors often save in several steps)
+ * - The watcher remembers a signature per record from its last scan:
+ *   ID + 64-bit hash of the raw line, sorted by ID (12 bytes per record)
+ * - rescan() makes one byte-level pass over the file and compares each
+ *   record with the old signatures: new ID or different hash -> the raw
+ *   record goes into Diff.changedRecords; IDs no longer present -> Diff.removedIds
+ *
+ * A changed header, a duplicate ID or a row without a numeric ID cannot be
+ * applied record by record - the Diff then asks for a full reload.
+ *
+ * Runs on one daemon thread; SysData starts it and applies the diffs.
+ */
+class QuestionFileWatcher {
+
+    // quiet time after the last event before the file is looked at
+    private static final long DEBOUNCE_MS = 250;
+
+    /** What changed since the previous scan. */
+    static final class Diff {
+        final String changedRecords;  // CSV lines (no header) of new / edited records
+        final int changedCount;
+        final int[] removedIds;
+        final boolean needsFullReload;
+
+        Diff(String changedRecords, int changedCount, int[] removedIds, boolean needsFullReload) {
+            this.changedRecords = changedRecords;
+            this.changedCount = changedCount;
+            this.removedIds = removedIds;
+            this.needsFullReload = needsFullReload;
+        }
+
+        boolean isEmpty() {
+            return !needsFullReload && changedCount == 0 && removedIds.length == 0;
+        }
+    }
+
+    private final File file;
+    private final Consumer<QuestionFileWatcher> onChange;
+
+    // signatures of the last scan, sorted by ID
+    private int[] ids = new int[0];
+    private long[] hashes = new long[0];
+    private long headerHash = 0;
+    private boolean baselined = false; // false until the first scan - nothing to compare with yet
+
+    QuestionFileWatcher(File file, Consumer<QuestionFileWatcher> onChange) {
+        this.file = file.getAbsoluteFile();
+        this.onChange = onChange;
+    }
+
+    /**
+     * Starts watching. `ready` runs on the watcher thread once it is registered
+     * and has its first scan (e.g. to note whether the file was valid then).
+     */
+    void start(Runnable ready) {
+        Thread t = new Thread(() -> watch(ready), "questions-file-watcher");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void watch(Runnable ready) {
+        Path dir = file.getParentFile().toPath();
+        Path name = file.toPath().getFileName();
+
+        try (WatchService ws = dir.getFileSystem().newWatchService()) {
+            // register before the first scan, so no edit falls in between
+            dir.register(ws, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            rescan();
+            ready.run();
+
+            while (true) {
+                if (!concerns(ws.take(), name)) continue;
+
+                // debounce: wait until our file has been quiet for a moment
+                // (events for other files in the folder, e.g. the pack, do not count)
+                long quietUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEBOUNCE_MS);
+                long wait;
+                while ((wait = quietUntil - System.nanoTime()) > 0) {
+                    WatchKey more = ws.poll(wait, TimeUnit.NANOSECONDS);
+                    if (more != null && concerns(more, name)) {
+                        quietUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEBOUNCE_MS);
+                    }
+                }
+
+                try {
+                    onChange.accept(this);
+                } catch (RuntimeException e) {
+                    System.err.println("Could not apply questions file change: " + e);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Questions file watcher stopped: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** True if the key's events touch our file (an overflow might have). Resets the key. */
+    private static boolean concerns(WatchKey key, Path name) {
+        boolean hit = false;
+        for (WatchEvent<?> ev : key.pollEvents()) {
+            if (ev.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(ev.context())) hit = true;
+        }
+        key.reset();
+        return hit;
+    }
+
+    // ============================================================
+    //                        SCAN + DIFF
+    // ============================================================
+
+    /** Scans the file, returns what changed since the previous scan and keeps the new signatures. */
+    synchronized Diff rescan() {
+        int[] newIds = new int[Math.max(16, ids.length)];
+        long[] newHashes = new long[newIds.length];
+        int count = 0;
+
+        // new / edited records are copied out during the same pass
+        ByteArrayOutputStream changedRecords = new ByteArrayOutputStream();
+        int changed = 0;
+
+        long newHeaderHash = 0;
+        boolean unreadable = false;
+        boolean sorted = true;
+
+        if (file.isFile()) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+                QuestionStore.LineScanner scan = new QuestionStore.LineScanner(in);
+                boolean headerLine = true;
+                byte[] line;
+
+                while ((line = scan.nextLine()) != null) {
+                    int len = QuestionStore.trimmedLength(line);
+                    if (headerLine) {
+                        headerLine = false;
+                        newHeaderHash = hash(line, len);
+                        continue;
+                    }
+                    if (len == 0) continue; // blank / deleted record
+
+                    int id = QuestionStore.leadingId(line);
+                    if (id < 0) {
+                        unreadable = true;
+                        continue;
+                    }
+                    long h = hash(line, len);
+
+                    int old = Arrays.binarySearch(ids, id);
+                    if (baselined && (old < 0 || hashes[old] != h)) {
+                        changedRecords.write(line, 0, len);
+                        changedRecords.write('\n');
+                        changed++;
+                    }
+
+                    if (count == newIds.length) {
+                        newIds = Arrays.copyOf(newIds, count * 2);
+                        newHashes = Arrays.copyOf(newHashes, count * 2);
+                    }
+                    if (count > 0 && newIds[count - 1] >= id) sorted = false;
+                    newIds[count] = id;
+                    newHashes[count] = h;
+                    count++;
+                }
+            } catch (IOException e) {
+                unreadable = true;
+            }
+        }
+
+        if (!sorted) {
+            // updated records are appended out of ID order (see QuestionStore)
+            long[] pairs = new long[count]; // (id << 32 | position) sorts by ID
+            for (int i = 0; i < count; i++) pairs[i] = ((long) newIds[i] << 32) | i;
+            Arrays.sort(pairs);
+
+            int[] sortedIds = new int[count];
+            long[] sortedHashes = new long[count];
+            for (int i = 0; i < count; i++) {
+                sortedIds[i] = (int) (pairs[i] >>> 32);
+                sortedHashes[i] = newHashes[(int) pairs[i]];
+            }
+            newIds = sortedIds;
+            newHashes = sortedHashes;
+        }
+
+        boolean duplicateId = false;
+        for (int i = 1; i < count; i++) {
+            if (newIds[i] == newIds[i - 1]) duplicateId = true;
+        }
+
+        // IDs in the old scan but not in the new one (both sorted)
+        int[] removed = new int[16];
+        int removedCount = 0;
+        for (int a = 0, b = 0; a < ids.length; ) {
+            if (b == count || ids[a] < newIds[b]) {
+                if (removedCount == removed.length) removed = Arrays.copyOf(removed, removedCount * 2);
+                removed[removedCount++] = ids[a++];
+            } else if (newIds[b] < ids[a]) {
+                b++;
+            } else {
+                a++;
+                b++;
+            }
+        }
+
+        boolean headerChanged = newHeaderHash != headerHash;
+
+        ids = Arrays.copyOf(newIds, count);
+        hashes = Arrays.copyOf(newHashes, count);
+        headerHash = newHeaderHash;
+        baselined = true;
+
+        if (!file.isFile() || headerChanged || duplicateId || unreadable) {
+            return new Diff("", 0, Arrays.copyOf(removed, removedCount), true);
+        }
+        return new Diff(changedRecords.toString(StandardCharsets.UTF_8), changed,
+                Arrays.copyOf(removed, removedCount), false);
+    }
+
+    /** 64-bit FNV-1a over the first len bytes. */
+    private static long hash(byte[] line, int len) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < len; i++) {
+            h ^= line[i] & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,326 @@
+package model;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Compiled copy of QuestionsCSV.csv ("QuestionsCSV.qpk") for fast startup.
+ *
+ * The CSV stays the editable source. After SysData parses a valid CSV it
+ * writes the pack in the background; later loads read the pack instead of
+ * parsing text, as long as the CSV's length and modification time still
+ * match the stamp stored in the pack. Any edit makes the stamp stale and the
+ * pack is simply rebuilt on the next load.
+ *
+ * Loading reads the file in one go, checks that every count, position and
+ * length in it fits the file (a damaged pack is ignored like a stale one) and
+ * decodes only the header and the difficulty index; the question list is a
+ * view over the bytes that decodes each record on first access. The bytes live on the heap, not in a mapping,
+ * so the file is closed again at once and can be replaced or deleted (Windows
+ * refuses both while a file is mapped).
+ *
+ * Layout (big-endian):
+ *
+ *   header   "MSQP", version, csv length, csv modified, count, difficulty count
+ *   index    per difficulty: count, then the record positions of that difficulty
+ *   records  count x 32 bytes, in ID order:
+ *            id, difficulty, correct index, 2 pad bytes,
+ *            string numbers of text, A, B, C, D, 4 reserved bytes
+ *   strings  string count, (offset, length) per string, byte count, UTF-8 bytes
+ *            (each distinct string is stored once)
+ *
+ * All access goes through SysData.
+ */
+class QuestionPack {
+
+    private static final byte[] MAGIC = {'M', 'S', 'Q', 'P'};
+    private static final int VERSION = 1;
+    private static final int RECORD_SIZE = 32;
+
+    private static final Object WRITE_LOCK = new Object();
+
+    private QuestionPack() {}
+
+    /** The pack file belonging to a CSV ("X.csv" -> "X.qpk"). */
+    static File packFor(File csv) {
+        String name = csv.getName();
+        int dot = name.lastIndexOf('.');
+        String base = (dot > 0) ? name.substring(0, dot) : name;
+        return new File(csv.getAbsoluteFile().getParentFile(), base + ".qpk");
+    }
+
+    // ============================================================
+    //                           LOAD
+    // ============================================================
+
+    /**
+     * Questions from the pack, or null if there is no pack, it does not match
+     * the CSV any more, or it cannot be read (the caller then parses the CSV).
+     */
+    static QuestionsLoadResult loadIfFresh(File csv) {
+        File pack = packFor(csv);
+        if (!pack.isFile()) return null;
+
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(pack.toPath()));
+            return decode(buf, csv.length(), csv.lastModified());
+        } catch (IOException | RuntimeException e) {
+            return null; // corrupt / truncated pack: fall back to the CSV
+        }
+    }
+
+    /** Null if the pack is stale or any count, position or length in it does not fit the file. */
+    private static QuestionsLoadResult decode(ByteBuffer buf, long csvLength, long csvModified) {
+        for (byte b : MAGIC) {
+            if (buf.get() != b) return null;
+        }
+        if (buf.getInt() != VERSION) return null;
+        if (buf.getLong() != csvLength || buf.getLong() != csvModified) return null;
+
+        int count = buf.getInt();
+        QuestionDifficulty[] diffs = QuestionDifficulty.values();
+        if (buf.getInt() != diffs.length) return null;
+        if (count < 0 || count > buf.remaining() / RECORD_SIZE) return null;
+
+        // difficulty index - used as-is by QuestionBank
+        EnumMap<QuestionDifficulty, int[]> byDifficulty = new EnumMap<>(QuestionDifficulty.class);
+        for (QuestionDifficulty d : diffs) {
+            int n = buf.getInt();
+            if (n < 0 || n > count || n > buf.remaining() / 4) return null;
+
+            int[] positions = new int[n];
+            for (int i = 0; i < n; i++) {
+                positions[i] = buf.getInt();
+                if (positions[i] < 0 || positions[i] >= count) return null;
+            }
+            byDifficulty.put(d, positions);
+        }
+
+        int recordsAt = buf.position();
+        long stringsAt = recordsAt + (long) count * RECORD_SIZE;
+        if (stringsAt + 4 > buf.limit()) return null;
+
+        // string table: every span inside the byte block, the block inside the file
+        int stringCount = buf.getInt((int) stringsAt);
+        long spansAt = stringsAt + 4;
+        if (stringCount < 0 || stringCount > (buf.limit() - spansAt - 4) / 8) return null;
+        long bytesAt = spansAt + stringCount * 8L + 4;
+        int byteCount = buf.getInt((int) bytesAt - 4);
+        if (byteCount < 0 || bytesAt + byteCount > buf.limit()) return null;
+
+        for (int n = 0; n < stringCount; n++) {
+            int offset = buf.getInt((int) spansAt + n * 8);
+            int length = buf.getInt((int) spansAt + n * 8 + 4);
+            if (offset < 0 || length < 0 || (long) offset + length > byteCount) return null;
+        }
+
+        // records: known difficulty, correct index 0..3, string numbers in the table
+        for (int r = 0; r < count; r++) {
+            int at = recordsAt + r * RECORD_SIZE;
+            int diff = buf.get(at + 4);
+            int correct = buf.get(at + 5);
+            if (diff < 0 || diff >= diffs.length || correct < 0 || correct > 3) return null;
+            for (int f = 0; f < 5; f++) {
+                int str = buf.getInt(at + 8 + f * 4);
+                if (str < 0 || str >= stringCount) return null;
+            }
+        }
+
+        QuestionsFileStatus status = (count == 0) ? QuestionsFileStatus.EMPTY : QuestionsFileStatus.HAS_DATA;
+        QuestionsLoadResult result = new QuestionsLoadResult(
+                status, new PackedQuestions(buf, recordsAt, count, (int) stringsAt), new ArrayList<>());
+        result.difficultyIndex = byDifficulty;
+        return result;
+    }
+
+    /**
+     * Read-only list view over the packed records: a Question (and each distinct
+     * string) is decoded on first access, so loading builds no Question objects.
+     */
+    private static final class PackedQuestions extends AbstractList<Question> implements RandomAccess {
+        private final ByteBuffer buf;
+        private final int recordsAt;
+        private final int count;
+        private final int spansAt;
+        private final int bytesAt;
+
+        private final Question[] questions;
+        private final String[] strings;
+
+        PackedQuestions(ByteBuffer buf, int recordsAt, int count, int stringsAt) {
+            this.buf = buf;
+            this.recordsAt = recordsAt;
+            this.count = count;
+
+            int stringCount = buf.getInt(stringsAt);
+            this.spansAt = stringsAt + 4;
+            this.bytesAt = spansAt + stringCount * 8 + 4;
+
+            this.questions = new Question[count];
+            this.strings = new String[stringCount];
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public synchronized Question get(int index) {
+            if (index < 0 || index >= count) throw new IndexOutOfBoundsException("Index: " + index);
+
+            Question q = questions[index];
+            if (q == null) {
+                int at = recordsAt + index * RECORD_SIZE;
+
+                String[] opts = new String[4];
+                for (int o = 0; o < 4; o++) opts[o] = string(buf.getInt(at + 12 + o * 4));
+
+                q = QuestionFactory.createQuestion(
+                        buf.getInt(at),
+                        string(buf.getInt(at + 8)),
+                        opts,
+                        buf.get(at + 5),
+                        QuestionDifficulty.values()[buf.get(at + 4)]);
+                questions[index] = q;
+            }
+            return q;
+        }
+
+        private String string(int n) {
+            String s = strings[n];
+            if (s == null) {
+                int offset = buf.getInt(spansAt + n * 8);
+                byte[] b = new byte[buf.getInt(spansAt + n * 8 + 4)];
+                buf.get(bytesAt + offset, b);
+                s = new String(b, StandardCharsets.UTF_8);
+                strings[n] = s;
+            }
+            return s;
+        }
+    }
+
+    // ============================================================
+    //                           WRITE
+    // ============================================================
+
+    /**
+     * Compiles questions (already validated, in ID order) into the CSV's pack on
+     * a background thread. csvLength / csvModified must be read BEFORE the CSV
+     * was parsed, so a concurrent edit leaves the pack stale rather than wrong.
+     */
+    static void writeAsync(File csv, long csvLength, long csvModified, List<Question> questions) {
+        List<Question> snapshot = new ArrayList<>(questions);
+        Thread t = new Thread(() -> {
+            try {
+                write(csv, csvLength, csvModified, snapshot);
+            } catch (IOException e) {
+                System.err.println("Could not write question pack: " + e.getMessage());
+            }
+        }, "question-pack-writer");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    static void write(File csv, long csvLength, long csvModified, List<Question> questions) throws IOException {
+        File pack = packFor(csv);
+        QuestionDifficulty[] diffs = QuestionDifficulty.values();
+
+        // string table (deduplicated) + record slots
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        List<int[]> spans = new ArrayList<>();
+        Map<String, Integer> interned = new HashMap<>();
+        ByteBuffer records = ByteBuffer.allocate(questions.size() * RECORD_SIZE);
+
+        List<List<Integer>> positions = new ArrayList<>();
+        for (int d = 0; d < diffs.length; d++) positions.add(new ArrayList<>());
+
+        for (int r = 0; r < questions.size(); r++) {
+            Question q = questions.get(r);
+            QuestionDifficulty diff = (q.getDifficulty() == null) ? QuestionDifficulty.EASY : q.getDifficulty();
+            positions.get(diff.ordinal()).add(r);
+
+            records.putInt(q.getId());
+            records.put((byte) diff.ordinal());
+            records.put((byte) q.getCorrectIndex());
+            records.putShort((short) 0);
+
+            records.putInt(intern(q.getText(), strings, spans, interned));
+            for (int o = 0; o < 4; o++) records.putInt(intern(q.getOptions()[o], strings, spans, interned));
+            records.putInt(0); // reserved
+        }
+
+        synchronized (WRITE_LOCK) {
+            File tmp = File.createTempFile("questions", ".qpk.tmp", pack.getAbsoluteFile().getParentFile());
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16))) {
+
+                out.write(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(csvLength);
+                out.writeLong(csvModified);
+                out.writeInt(questions.size());
+
+                out.writeInt(diffs.length);
+                for (List<Integer> list : positions) {
+                    out.writeInt(list.size());
+                    for (int p : list) out.writeInt(p);
+                }
+
+                out.write(records.array());
+
+                out.writeInt(spans.size());
+                for (int[] span : spans) {
+                    out.writeInt(span[0]);
+                    out.writeInt(span[1]);
+                }
+                out.writeInt(strings.size());
+                strings.writeTo(out);
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp.toPath());
+                throw e;
+            }
+
+            try {
+                Files.move(tmp.toPath(), pack.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                // e.g. another process has the old pack open on Windows - keep it, it is stale and ignored
+                Files.deleteIfExists(tmp.toPath());
+            }
+        }
+    }
+
+    /** Number of s in the string table (added on first use). */
+    private static int intern(String s, ByteArrayOutputStream strings, List<int[]> spans,
+                              Map<String, Integer> interned) {
+        String value = (s == null) ? "" : s;
+        Integer n = interned.get(value);
+        if (n == null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            n = spans.size();
+            spans.add(new int[]{strings.size(), bytes.length});
+            strings.write(bytes, 0, bytes.length);
+            interned.put(value, n);
+        }
+        return n;
+    }
+
+    /** Drop the pack (SysData calls this after editing the CSV). */
+    static void delete(File csv) {
+        try {
+            Files.deleteIfExists(packFor(csv).toPath());
+        } catch (IOException ignored) {
+            // stale packs are ignored anyway
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index over question text and options (owned by QuestionBank).
+ *
+ * Tokens are lower-cased runs of letters/digits. A query matches a question
+ * when EVERY query token is a prefix of one of the question's tokens, so
+ * results narrow naturally while typing ("cap fra" finds "Capital of France?").
+ *
+ * Layout:
+ * - base  : sorted term array + one ascending posting array per term; a prefix
+ *           is a contiguous run of terms found by binary search
+ * - delta : questions added/changed since the last build, with their token
+ *           lists, scanned linearly (kept small)
+ * - deleted questions are only flagged; a rebuild happens once the delta or
+ *   the flagged part grows too large
+ *
+ * Not thread-safe - QuestionBank calls it under its own lock.
+ */
+class QuestionSearchIndex {
+
+    // rebuild once the delta is larger than this share of the base (and not tiny)
+    private static final int MIN_DELTA_BEFORE_REBUILD = 512;
+    private static final int DELTA_RATIO = 16;
+
+    // doc number -> question; docs >= baseCount are the delta
+    private final List<Question> docs = new ArrayList<>();
+    private final List<String[]> deltaTokens = new ArrayList<>();
+    private final Map<Integer, Integer> docOfId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private int deletedCount = 0;
+
+    private int baseCount = 0;
+    private String[] terms = new String[0];
+    private int[][] postings = new int[0][];
+
+    QuestionSearchIndex(List<Question> questions) {
+        rebuild(questions);
+    }
+
+    // ============================================================
+    //                           QUERY
+    // ============================================================
+
+    /** Questions matching every token of the query, in ID order (all questions for a blank query). */
+    List<Question> search(String query) {
+        String[] tokens = tokenize(query);
+
+        BitSet hits = null;
+        for (String token : tokens) {
+            BitSet match = matchPrefix(token);
+            if (hits == null) hits = match;
+            else hits.and(match);
+            if (hits.isEmpty()) return new ArrayList<>();
+        }
+
+        if (hits == null) { // blank query
+            hits = new BitSet(docs.size());
+            hits.set(0, docs.size());
+        }
+        hits.andNot(deleted);
+
+        List<Question> out = new ArrayList<>(hits.cardinality());
+        for (int d = hits.nextSetBit(0); d >= 0; d = hits.nextSetBit(d + 1)) {
+            out.add(docs.get(d));
+        }
+        boolean touchedDelta = hits.nextSetBit(baseCount) >= 0;
+
+        // base docs are already in ID order; delta docs are in edit order
+        if (touchedDelta) out.sort(Comparator.comparingInt(Question::getId));
+        return out;
+    }
+
+    /** Docs having a token that starts with prefix. */
+    private BitSet matchPrefix(String prefix) {
+        BitSet bits = new BitSet(docs.size());
+
+        // base: binary search for the first term >= prefix, then walk the run
+        int t = Arrays.binarySearch(terms, prefix);
+        if (t < 0) t = -t - 1;
+        for (; t < terms.length && terms[t].startsWith(prefix); t++) {
+            for (int d : postings[t]) bits.set(d);
+        }
+
+        // delta: linear scan
+        for (int i = 0; i < deltaTokens.size(); i++) {
+            for (String token : deltaTokens.get(i)) {
+                if (token.startsWith(prefix)) {
+                    bits.set(baseCount + i);
+                    break;
+                }
+            }
+        }
+        return bits;
+    }
+
+    // ============================================================
+    //                          UPDATES
+    // ============================================================
+
+    /** Insert or replace (by ID). */
+    void put(Question q) {
+        remove(q.getId());
+
+        int d = docs.size();
+        docs.add(q);
+        deltaTokens.add(uniqueTokens(q));
+        docOfId.put(q.getId(), d);
+
+        maybeRebuild();
+    }
+
+    void remove(int id) {
+        Integer d = docOfId.remove(id);
+        if (d == null) return;
+
+        deleted.set(d);
+        deletedCount++;
+        maybeRebuild();
+    }
+
+    private void maybeRebuild() {
+        int delta = deltaTokens.size();
+        boolean deltaTooBig = delta > MIN_DELTA_BEFORE_REBUILD && delta * DELTA_RATIO > baseCount;
+        boolean mostlyDeleted = deletedCount > MIN_DELTA_BEFORE_REBUILD && deletedCount * 2 > docs.size();
+        if (!deltaTooBig && !mostlyDeleted) return;
+
+        List<Question> live = new ArrayList<>(docs.size() - deletedCount);
+        for (int d = 0; d < docs.size(); d++) {
+            if (!deleted.get(d)) live.add(docs.get(d));
+        }
+        live.sort(Comparator.comparingInt(Question::getId));
+        rebuild(live);
+    }
+
+    /** Builds the base segment from scratch (questions in ID order). */
+    private void rebuild(List<Question> questions) {
+        docs.clear();
+        deltaTokens.clear();
+        docOfId.clear();
+        deleted.clear();
+        deletedCount = 0;
+
+        // token -> growable posting list (docs arrive in order, so lists stay sorted)
+        Map<String, IntList> byTerm = new HashMap<>();
+        for (int d = 0; d < questions.size(); d++) {
+            Question q = questions.get(d);
+            docs.add(q);
+            docOfId.put(q.getId(), d);
+
+            for (String token : uniqueTokens(q)) {
+                byTerm.computeIfAbsent(token, k -> new IntList()).add(d);
+            }
+        }
+
+        terms = byTerm.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        postings = new int[terms.length][];
+        for (int t = 0; t < terms.length; t++) postings[t] = byTerm.get(terms[t]).toArray();
+
+        baseCount = docs.size();
+    }
+
+    // ============================================================
+    //                        TOKENIZING
+    // ============================================================
+
+    /** Distinct tokens of the question text and its four options. */
+    private static String[] uniqueTokens(Question q) {
+        List<String> out = new ArrayList<>();
+        addTokens(q.getText(), out);
+        String[] opts = q.getOptions();
+        if (opts != null) {
+            for (String o : opts) addTokens(o, out);
+        }
+        return out.stream().distinct().toArray(String[]::new);
+    }
+
+    static String[] tokenize(String s) {
+        List<String> out = new ArrayList<>();
+        addTokens(s, out);
+        return out.toArray(new String[0]);
+    }
+
+    private static void addTokens(String s, List<String> out) {
+        if (s == null) return;
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i <= s.length(); i++) {
+            char c = (i < s.length()) ? s.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            } else if (sb.length() > 0) {
+                out.add(sb.toString());
+                sb.setLength(0);
+            }
+        }
+    }
+
+    /** Minimal growable int array (posting list under construction). */
+    private static final class IntList {
+        private int[] a = new int[4];
+        private int size = 0;
+
+        void add(int v) {
+            if (size == a.length) a = Arrays.copyOf(a, size * 2);
+            a[size++] = v;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(a, size);
+        }
+    }
+}
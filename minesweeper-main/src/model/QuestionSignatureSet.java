@@ -0,0 +1,212 @@
+package model;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Duplicate detection for question imports.
+ *
+ * A question's signature is a 128-bit hash of its normalized content
+ * (text | difficulty | options A-D | correct index), where each text field is
+ * trimmed, lower-cased and has whitespace runs collapsed to one space - the
+ * same rules as before, but applied char by char while hashing, without regex
+ * or intermediate strings.
+ *
+ * Signatures live in an open-addressing table of longs (two per entry,
+ * linear probing), ~16-32 bytes per question instead of a String + HashSet node.
+ * At 128 bits an accidental collision is not a practical concern.
+ *
+ * hashAll spreads the hashing of a batch over the common ForkJoin pool;
+ * insertion stays sequential so "first occurrence wins" is preserved.
+ */
+class QuestionSignatureSet {
+
+    // below this, parallel hashing costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 2048;
+
+    private long[] table;   // [hi, lo] pairs; (0, 0) = empty slot
+    private int size = 0;
+    private int mask;       // slots - 1 (slots is a power of two)
+
+    QuestionSignatureSet(int expected) {
+        int slots = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        table = new long[slots * 2];
+        mask = slots - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Adds the signature; false if it was already present. */
+    boolean add(long hi, long lo) {
+        if (hi == 0 && lo == 0) lo = 1; // keep (0, 0) free as the empty marker
+        if ((size + 1) * 4L > (mask + 1) * 3L) grow();
+
+        int slot = (int) (lo ^ (lo >>> 32)) & mask;
+        while (true) {
+            int i = slot * 2;
+            long h = table[i], l = table[i + 1];
+            if (h == 0 && l == 0) {
+                table[i] = hi;
+                table[i + 1] = lo;
+                size++;
+                return true;
+            }
+            if (h == hi && l == lo) return false;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /** Hashes every question (in parallel for large lists) and adds them all. */
+    void addAll(List<Question> questions) {
+        long[] sigs = hashAll(questions);
+        for (int i = 0; i < questions.size(); i++) add(sigs[2 * i], sigs[2 * i + 1]);
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        mask = (table.length / 2) - 1;
+        size = 0;
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != 0 || old[i + 1] != 0) add(old[i], old[i + 1]);
+        }
+    }
+
+    // ============================================================
+    //                          HASHING
+    // ============================================================
+
+    /** Signatures of all questions: result[2i], result[2i + 1] belong to questions.get(i). */
+    static long[] hashAll(List<Question> questions) {
+        long[] out = new long[questions.size() * 2];
+        IntStream range = IntStream.range(0, questions.size());
+        if (questions.size() >= PARALLEL_THRESHOLD) range = range.parallel();
+        range.forEach(i -> new Hasher().hash(questions.get(i), out, i));
+        return out;
+    }
+
+    /**
+     * Streaming 128-bit hash (MurmurHash3 x64_128 mixing over 16-bit chars).
+     * Eight chars fill one 128-bit block; fields are separated by a char that
+     * normalized text never contains.
+     */
+    private static final class Hasher {
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+        private static final char FIELD_SEPARATOR = '\uFFFF';
+
+        private long h1 = 0x9368e53c2f6af274L;
+        private long h2 = 0x586dcd208f7cd3fdL;
+        private long k1 = 0, k2 = 0;
+        private int pending = 0; // chars in the current block (0..7)
+        private long length = 0;
+
+        void hash(Question q, long[] out, int i) {
+            text(q.getText());
+            text(String.valueOf(q.getDifficulty()));
+
+            String[] o = q.getOptions();
+            for (int j = 0; j < 4; j++) text(o == null ? null : o[j]);
+
+            put((char) (q.getCorrectIndex() + '0'));
+            finish(out, i);
+        }
+
+        /** trim + lower-case + collapse whitespace runs, fed straight into the hash. */
+        private void text(String s) {
+            if (s != null) {
+                int start = 0, end = s.length();
+                while (start < end && s.charAt(start) <= ' ') start++;
+                while (end > start && s.charAt(end - 1) <= ' ') end--;
+
+                boolean inSpace = false;
+                for (int p = start; p < end; p++) {
+                    char c = s.charAt(p);
+                    if (isRegexSpace(c)) {
+                        inSpace = true;
+                        continue;
+                    }
+                    if (inSpace) {
+                        put(' ');
+                        inSpace = false;
+                    }
+                    put(Character.toLowerCase(c));
+                }
+            }
+            put(FIELD_SEPARATOR);
+        }
+
+        // the characters matched by \s
+        private static boolean isRegexSpace(char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+        }
+
+        private void put(char c) {
+            if (pending < 4) k1 |= (long) c << (16 * pending);
+            else k2 |= (long) c << (16 * (pending - 4));
+
+            length++;
+            if (++pending == 8) {
+                mixBlock();
+                k1 = 0;
+                k2 = 0;
+                pending = 0;
+            }
+        }
+
+        private void mixBlock() {
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        private void finish(long[] out, int i) {
+            if (pending > 0) {
+                h1 ^= mixK1(k1);
+                h2 ^= mixK2(k2);
+            }
+
+            long bytes = length * 2;
+            h1 ^= bytes;
+            h2 ^= bytes;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix64(h1);
+            h2 = fmix64(h2);
+            h1 += h2;
+            h2 += h1;
+
+            out[2 * i] = h1;
+            out[2 * i + 1] = h2;
+        }
+
+        private static long mixK1(long k) {
+            k *= C1;
+            k = Long.rotateLeft(k, 31);
+            return k * C2;
+        }
+
+        private static long mixK2(long k) {
+            k *= C2;
+            k = Long.rotateLeft(k, 33);
+            return k * C1;
+        }
+
+        private static long fmix64(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package model;
+
+/**
+ * Where a game gets its trivia questions from.
+ * QuestionDeck is the real one; simulations and tests can pass their own.
+ */
+public interface QuestionSource {
+
+    /** Next question, or null if there are none. */
+    Question draw();
+
+    /** Called once the drawn question has been answered. */
+    default void recordAnswer(Question q, boolean correct) {}
+}
@@ -0,0 +1,220 @@
+package model;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * How often each question was asked and answered correctly (by question ID -
+ * IDs are stable, see QuestionStore).
+ *
+ * In memory: an open-addressing int table (id -> slot) with parallel count
+ * arrays. On disk ("question_stats.bin"): "MSQS", version, entry count, then
+ * per entry in ID order: varint ID delta, varint asked, varint correct.
+ *
+ * weight(id) turns the counts into a draw weight for QuestionDeck:
+ * unseen questions and often-missed ones come up more, well-known ones less.
+ *
+ * Loaded / saved through SysData (SysData.questionStats, recordQuestionAnswer).
+ */
+public class QuestionStats {
+
+    private static final byte[] MAGIC = {'M', 'S', 'Q', 'S'};
+    private static final int VERSION = 1;
+
+    // weights are fixed-point (WEIGHT_SCALE = 1.0)
+    static final long WEIGHT_SCALE = 1000;
+
+    // id -> slot (open addressing, -1 = empty)
+    private int[] keys;
+    private int[] slots;
+    private int mask;
+
+    // per slot
+    private int[] ids = new int[16];
+    private int[] asked = new int[16];
+    private int[] correct = new int[16];
+    private int size = 0;
+
+    private long version = 0;
+
+    QuestionStats() {
+        keys = new int[32];
+        slots = new int[32];
+        Arrays.fill(keys, -1);
+        mask = 31;
+    }
+
+    public synchronized int asked(int id) {
+        int s = slotOf(id);
+        return (s < 0) ? 0 : asked[s];
+    }
+
+    public synchronized int correct(int id) {
+        int s = slotOf(id);
+        return (s < 0) ? 0 : correct[s];
+    }
+
+    /** Bumped on every recorded answer. */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    synchronized void record(int id, boolean wasCorrect) {
+        if (id < 0) return; // not saved yet - no stable ID
+        int s = slotOf(id);
+        if (s < 0) s = insert(id);
+        asked[s]++;
+        if (wasCorrect) correct[s]++;
+        version++;
+    }
+
+    /**
+     * Draw weight (fixed-point, WEIGHT_SCALE = 1.0), always >= WEIGHT_SCALE:
+     *
+     *   1 + 2 * missRate + 1 / (asked + 1)      missRate = (missed + 1) / (asked + 2)
+     *
+     * unseen: 3.0, always missed: -> 3.0, always right: -> 1.0
+     */
+    public synchronized long weight(int id) {
+        int s = slotOf(id);
+        int a = (s < 0) ? 0 : asked[s];
+        int c = (s < 0) ? 0 : correct[s];
+        return weightOf(a, c);
+    }
+
+    static long weightOf(int asked, int correct) {
+        int missed = asked - correct;
+        long missPart = 2 * WEIGHT_SCALE * (missed + 1) / (asked + 2);
+        long novelty = WEIGHT_SCALE / (asked + 1);
+        return WEIGHT_SCALE + missPart + novelty;
+    }
+
+    // ============================================================
+    //                          TABLE
+    // ============================================================
+
+    private int slotOf(int id) {
+        int h = mix(id) & mask;
+        while (keys[h] != -1) {
+            if (keys[h] == id) return slots[h];
+            h = (h + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int insert(int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            asked = Arrays.copyOf(asked, size * 2);
+            correct = Arrays.copyOf(correct, size * 2);
+        }
+        int s = size++;
+        ids[s] = id;
+
+        if (size * 2 > keys.length) rehash(keys.length * 2);
+        else place(id, s);
+        return s;
+    }
+
+    private void rehash(int capacity) {
+        keys = new int[capacity];
+        slots = new int[capacity];
+        Arrays.fill(keys, -1);
+        mask = capacity - 1;
+        for (int s = 0; s < size; s++) place(ids[s], s);
+    }
+
+    private void place(int id, int s) {
+        int h = mix(id) & mask;
+        while (keys[h] != -1) h = (h + 1) & mask;
+        keys[h] = id;
+        slots[h] = s;
+    }
+
+    private static int mix(int x) {
+        x *= 0x9E3779B9;
+        return x ^ (x >>> 16);
+    }
+
+    // ============================================================
+    //                        PERSISTENCE
+    // ============================================================
+
+    /** Reads the file (empty stats if it is missing or unreadable). */
+    public static QuestionStats load(File file) {
+        QuestionStats stats = new QuestionStats();
+        if (!file.isFile()) return stats;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            byte[] magic = new byte[4];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC) || in.readUnsignedByte() != VERSION) return stats;
+
+            long count = readVarint(in);
+            int id = 0;
+            for (long i = 0; i < count; i++) {
+                id += (int) readVarint(in);
+                int s = stats.insert(id);
+                stats.asked[s] = (int) readVarint(in);
+                stats.correct[s] = (int) readVarint(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read question stats: " + e.getMessage());
+        }
+        return stats;
+    }
+
+    /** Writes a consistent copy to file (temp file + move). */
+    void save(File file) throws IOException {
+        long[] order; // (id << 32 | slot), sorted -> entries in ID order for delta encoding
+        int[] a, c;
+        synchronized (this) {
+            order = new long[size];
+            for (int s = 0; s < size; s++) order[s] = ((long) ids[s] << 32) | s;
+            a = Arrays.copyOf(asked, size);
+            c = Arrays.copyOf(correct, size);
+        }
+        Arrays.sort(order);
+
+        File tmp = File.createTempFile("question_stats", ".tmp", file.getAbsoluteFile().getParentFile());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            writeVarint(out, order.length);
+
+            int prev = 0;
+            for (long entry : order) {
+                int id = (int) (entry >>> 32);
+                int s = (int) entry;
+                writeVarint(out, id - prev);
+                writeVarint(out, a[s]);
+                writeVarint(out, c[s]);
+                prev = id;
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp.toPath());
+            throw e;
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeVarint(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,496 @@
+package model;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Record-level editing of QuestionsCSV.csv (used by SysData, not by the UI).
+ *
+ * The CSV stays the on-disk format; an in-memory offset index (ID -> byte
+ * offset + length of its line) makes each change touch only one record:
+ *
+ * - add    : append one line at the end of the file
+ * - delete : overwrite the line with spaces (readers skip blank lines)
+ * - update : overwrite in place if the new line fits (padded with spaces,
+ *            which the trimmed "Correct Answer" column ignores);
+ *            otherwise blank the old line and append the new one
+ *
+ * IDs are stable - new questions get max ID + 1, nothing is renumbered.
+ * The highest ID ever handed out is kept in a small file next to the CSV
+ * (<csv>.maxid), so an ID stays used after its question is deleted - also
+ * across restarts and when the CSV is recreated (QuestionStats is keyed by ID).
+ *
+ * Blanked bytes are garbage; once they make up a large part of the file a
+ * background compaction rewrites it without them.
+ *
+ * The index is rebuilt if the file was changed by anything else
+ * (length / modification time differ from what we last wrote).
+ */
+class QuestionStore {
+
+    // compact once garbage is both this large and this share of the file
+    private static final long COMPACT_MIN_GARBAGE = 64 * 1024;
+    private static final double COMPACT_MIN_RATIO = 0.25;
+
+    private static final byte[] NEWLINE = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final File file;
+    private final String header;
+
+    // high-water mark of handed-out IDs (see class comment); savedMaxId = what it holds
+    private final File maxIdFile;
+    private int savedMaxId = 0;
+
+    // id -> (offset << 24) | length   (a question line is far below 16 MB)
+    private final Map<Integer, Long> index = new HashMap<>();
+    private int maxId = 0;
+    private long garbageBytes = 0;
+
+    // file state after our last write; anything else means "re-index"
+    private long knownLength = -1;
+    private long knownModified = -1;
+
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "questions-compaction");
+        t.setDaemon(true);
+        return t;
+    });
+    private boolean compactionQueued = false;
+
+    QuestionStore(File file, String header) {
+        this.file = file;
+        this.header = header;
+        this.maxIdFile = new File(file.getPath() + ".maxid");
+    }
+
+    // ============================================================
+    //                       RECORD OPERATIONS
+    // ============================================================
+
+    /** Appends q with the next free ID (sets q's ID). */
+    synchronized boolean add(Question q, String csvRowWithoutId) {
+        try {
+            ensureIndexed();
+            q.setId(maxId + 1);
+            append(q.getId(), q.getId() + "," + csvRowWithoutId);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Could not add question: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** Appends many questions in one write (sets their IDs). rows.get(i) belongs to questions.get(i). */
+    synchronized boolean addAll(List<Question> questions, List<String> csvRowsWithoutId) {
+        if (questions.isEmpty()) return true;
+        try {
+            ensureIndexed();
+            prepareAppend();
+
+            long offset = file.length();
+            ByteArrayOutputStream buf = new ByteArrayOutputStream(csvRowsWithoutId.size() * 128);
+            long[] lineOffsets = new long[questions.size()];
+            int[] lineLengths = new int[questions.size()];
+
+            for (int i = 0; i < questions.size(); i++) {
+                Question q = questions.get(i);
+                q.setId(maxId + 1 + i);
+                byte[] line = (q.getId() + "," + csvRowsWithoutId.get(i)).getBytes(StandardCharsets.UTF_8);
+                lineOffsets[i] = offset + buf.size();
+                lineLengths[i] = line.length;
+                buf.write(line);
+                buf.write(NEWLINE);
+            }
+
+            try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                writeFully(ch, ByteBuffer.wrap(buf.toByteArray()), offset);
+            }
+
+            for (int i = 0; i < questions.size(); i++) {
+                index.put(questions.get(i).getId(), pack(lineOffsets[i], lineLengths[i]));
+            }
+            maxId += questions.size();
+            rememberFileState();
+            saveMaxId();
+            return true;
+
+        } catch (IOException e) {
+            System.err.println("Could not add questions: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** Replaces the record with q's ID. False if there is no such ID. */
+    synchronized boolean update(Question q, String csvRowWithoutId) {
+        try {
+            Long loc = locate(q.getId());
+            if (loc == null) return false;
+
+            byte[] line = (q.getId() + "," + csvRowWithoutId).getBytes(StandardCharsets.UTF_8);
+            long offset = offsetOf(loc);
+            int oldLen = lengthOf(loc);
+
+            if (line.length <= oldLen) {
+                // fits: overwrite and pad the tail with spaces
+                byte[] padded = Arrays.copyOf(line, oldLen);
+                Arrays.fill(padded, line.length, oldLen, (byte) ' ');
+                try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                    writeFully(ch, ByteBuffer.wrap(padded), offset);
+                }
+                index.put(q.getId(), pack(offset, line.length));
+                garbageBytes += oldLen - line.length;
+            } else {
+                blank(offset, oldLen);
+                append(q.getId(), new String(line, StandardCharsets.UTF_8));
+            }
+
+            rememberFileState();
+            maybeCompact();
+            return true;
+
+        } catch (IOException e) {
+            System.err.println("Could not update question " + q.getId() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** Removes the record with this ID. False if there is no such ID. */
+    synchronized boolean delete(int id) {
+        try {
+            Long loc = locate(id);
+            if (loc == null) return false;
+            index.remove(id);
+
+            blank(offsetOf(loc), lengthOf(loc));
+            rememberFileState();
+            maybeCompact();
+            return true;
+
+        } catch (IOException e) {
+            System.err.println("Could not delete question " + id + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** Forget everything (file recreated / replaced by SysData); the ID high-water mark is kept. */
+    synchronized void reset() {
+        index.clear();
+        maxId = 0;
+        garbageBytes = 0;
+        knownLength = -1;
+        knownModified = -1;
+    }
+
+    // ============================================================
+    //                          COMPACTION
+    // ============================================================
+
+    private void maybeCompact() {
+        long len = file.length();
+        if (compactionQueued || len == 0) return;
+        if (garbageBytes < COMPACT_MIN_GARBAGE || garbageBytes < len * COMPACT_MIN_RATIO) return;
+
+        compactionQueued = true;
+        compactor.submit(this::compactNow);
+    }
+
+    /** Rewrites the file without blank lines / padding. Runs on the compaction thread. */
+    synchronized void compactNow() {
+        compactionQueued = false;
+        try {
+            ensureIndexed();
+            File tmp = File.createTempFile("questions", ".tmp", file.getAbsoluteFile().getParentFile());
+
+            try (InputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 16);
+                 OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16)) {
+
+                LineScanner scan = new LineScanner(in);
+                byte[] line;
+                while ((line = scan.nextLine()) != null) {
+                    int end = trimmedLength(line);
+                    if (end == 0) continue;           // deleted record
+                    out.write(line, 0, end);          // drop update padding
+                    out.write(NEWLINE);
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp.toPath());
+                throw e;
+            }
+
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            rebuildIndex();
+
+        } catch (IOException e) {
+            System.err.println("Questions compaction failed: " + e.getMessage());
+        }
+    }
+
+    // ============================================================
+    //                          INDEXING
+    // ============================================================
+
+    private void ensureIndexed() throws IOException {
+        if (!file.exists() || file.length() == 0) {
+            try (Writer w = new OutputStreamWriter(new FileOutputStream(file, false), StandardCharsets.UTF_8)) {
+                w.write(header);
+                w.write(System.lineSeparator());
+            }
+            reset();
+            rebuildIndex();
+            return;
+        }
+        if (file.length() != knownLength || file.lastModified() != knownModified) {
+            rebuildIndex();
+        }
+    }
+
+    /**
+     * Where the record with this ID is (null if there is none), checked on disk
+     * before anyone writes there: an outside edit of the same length inside one
+     * mtime tick (coarse on FAT / network drives) gets past ensureIndexed, and
+     * an in-place write at a stale offset would clobber another record.
+     */
+    private Long locate(int id) throws IOException {
+        ensureIndexed();
+        Long loc = index.get(id);
+        if (loc != null && !recordAt(offsetOf(loc), lengthOf(loc), id)) {
+            rebuildIndex();
+            loc = index.get(id);
+        }
+        return loc;
+    }
+
+    /** True if a whole line with this ID sits at offset with this length. */
+    private boolean recordAt(long offset, int length, int id) throws IOException {
+        if (offset < 1 || length < 1 || offset + length > file.length()) return false;
+
+        // the byte before (end of the previous line), the record, and the byte after it if any
+        ByteBuffer bb = ByteBuffer.allocate(length + 2);
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (bb.hasRemaining() && ch.read(bb, offset - 1 + bb.position()) > 0) {
+                // keep reading
+            }
+        }
+        byte[] b = Arrays.copyOf(bb.array(), bb.position());
+
+        if (b[0] != '\n' || leadingId(Arrays.copyOfRange(b, 1, length + 1)) != id) return false;
+        if (b.length < length + 2) return true; // last line, no newline after it
+        byte after = b[length + 1];
+        return after == '\n' || after == '\r' || after == ' ' || after == '\t';
+    }
+
+    /** One byte-level pass over the file: offsets + lengths + leading ID of every record. */
+    private void rebuildIndex() throws IOException {
+        index.clear();
+        maxId = 0;
+        garbageBytes = 0;
+
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+            LineScanner scan = new LineScanner(in);
+            boolean headerLine = true;
+            byte[] line;
+
+            while ((line = scan.nextLine()) != null) {
+                long offset = scan.lineOffset;
+                if (headerLine) {
+                    headerLine = false;
+                    continue;
+                }
+
+                int len = trimmedLength(line);
+                garbageBytes += line.length - len;
+                if (len == 0) continue;
+
+                int id = leadingId(line);
+                if (id < 0) continue;
+
+                index.put(id, pack(offset, len));
+                maxId = Math.max(maxId, id);
+            }
+        }
+        rememberFileState();
+
+        // IDs of deleted questions stay used; a CSV seen for the first time seeds the mark
+        savedMaxId = readMaxId();
+        maxId = Math.max(maxId, savedMaxId);
+        saveMaxId();
+    }
+
+    /** The stored high-water mark, 0 if there is none yet. */
+    private int readMaxId() {
+        if (!maxIdFile.isFile()) return 0;
+        try {
+            return Integer.parseInt(Files.readString(maxIdFile.toPath(), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Could not read " + maxIdFile.getName() + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /** Stores maxId if it grew (temp file + move, so the mark is never half written). */
+    private void saveMaxId() {
+        if (maxId <= savedMaxId) return;
+        try {
+            File tmp = File.createTempFile("question_ids", ".tmp", maxIdFile.getAbsoluteFile().getParentFile());
+            Files.writeString(tmp.toPath(), Integer.toString(maxId), StandardCharsets.UTF_8);
+            Files.move(tmp.toPath(), maxIdFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            savedMaxId = maxId;
+        } catch (IOException e) {
+            // the CSV itself still holds the new ID; only a later delete + restart could reuse it
+            System.err.println("Could not save " + maxIdFile.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Splits a byte stream into CSV records (line breaks inside quotes do not end a
+     * record). Record bytes exclude the line terminator. Also used by QuestionFileWatcher.
+     */
+    static class LineScanner {
+        private final InputStream in;
+        private final byte[] chunk = new byte[1 << 16];
+        private int chunkPos = 0;
+        private int chunkLen = 0;
+
+        private long pos = 0;
+        long lineOffset = 0;
+        private byte[] buf = new byte[512];
+
+        LineScanner(InputStream in) {
+            this.in = in;
+        }
+
+        byte[] nextLine() throws IOException {
+            int len = 0;
+            boolean inQuotes = false;
+            lineOffset = pos;
+
+            if (chunkPos == chunkLen && !fill()) return null;
+
+            while (true) {
+                if (chunkPos == chunkLen && !fill()) break;
+
+                byte b = chunk[chunkPos++];
+                pos++;
+                if (b == '"') inQuotes = !inQuotes;
+                if (!inQuotes && b == '\n') break;
+
+                if (len == buf.length) buf = Arrays.copyOf(buf, len * 2);
+                buf[len++] = b;
+            }
+
+            if (len > 0 && buf[len - 1] == '\r') len--;
+            return Arrays.copyOf(buf, len);
+        }
+
+        private boolean fill() throws IOException {
+            int n = in.read(chunk, 0, chunk.length);
+            chunkPos = 0;
+            chunkLen = Math.max(n, 0);
+            return n > 0;
+        }
+    }
+
+    // ============================================================
+    //                          HELPERS
+    // ============================================================
+
+    private void append(int id, String line) throws IOException {
+        prepareAppend();
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        long offset = file.length();
+
+        ByteBuffer bb = ByteBuffer.allocate(bytes.length + NEWLINE.length);
+        bb.put(bytes).put(NEWLINE).flip();
+
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            writeFully(ch, bb, offset);
+        }
+
+        index.put(id, pack(offset, bytes.length));
+        maxId = Math.max(maxId, id);
+        rememberFileState();
+        saveMaxId();
+    }
+
+    /** Make sure the last line is terminated before appending after it. */
+    private void prepareAppend() throws IOException {
+        long len = file.length();
+        if (len == 0) return;
+
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            ch.read(last, len - 1);
+            if (last.get(0) != '\n') {
+                writeFully(ch, ByteBuffer.wrap(NEWLINE), len);
+            }
+        }
+    }
+
+    private void blank(long offset, int length) throws IOException {
+        byte[] spaces = new byte[length];
+        Arrays.fill(spaces, (byte) ' ');
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            writeFully(ch, ByteBuffer.wrap(spaces), offset);
+        }
+        garbageBytes += length;
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer bb, long position) throws IOException {
+        while (bb.hasRemaining()) {
+            position += ch.write(bb, position);
+        }
+    }
+
+    private void rememberFileState() {
+        knownLength = file.length();
+        knownModified = file.lastModified();
+    }
+
+    /** Length without trailing spaces/tabs (update padding / blanked lines). */
+    static int trimmedLength(byte[] line) {
+        int end = line.length;
+        while (end > 0 && (line[end - 1] == ' ' || line[end - 1] == '\t')) end--;
+        return end;
+    }
+
+    /** Parses the ID column straight from the bytes (-1 if it is not a number). */
+    static int leadingId(byte[] line) {
+        int i = 0;
+        if (line.length >= 3 && (line[0] & 0xFF) == 0xEF && (line[1] & 0xFF) == 0xBB && (line[2] & 0xFF) == 0xBF) i = 3;
+        while (i < line.length && line[i] == ' ') i++;
+        if (i < line.length && line[i] == '"') i++;
+
+        long v = 0;
+        int digits = 0;
+        while (i < line.length && line[i] >= '0' && line[i] <= '9') {
+            v = v * 10 + (line[i] - '0');
+            if (v > Integer.MAX_VALUE) return -1;
+            i++;
+            digits++;
+        }
+        return (digits == 0) ? -1 : (int) v;
+    }
+
+    private static long pack(long offset, int length) {
+        return (offset << 24) | length;
+    }
+
+    private static long offsetOf(long packed) {
+        return packed >>> 24;
+    }
+
+    private static int lengthOf(long packed) {
+        return (int) (packed & 0xFFFFFF);
+    }
+}
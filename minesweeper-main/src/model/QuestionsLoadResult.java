@@ -0,0 +1,60 @@
+package model;
+
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Result of reading the questions CSV in a single pass:
+ * the file status, the questions that could be loaded,
+ * and the position of every problem found (capped, see SysData).
+ */
+public class QuestionsLoadResult {
+
+    /** One validation problem, located by 1-based line and column (0 = whole line). */
+    public static class LineError {
+        public final long line;
+        public final int column;
+        public final String message;
+
+        public LineError(long line, int column, String message) {
+            this.line = line;
+            this.column = column;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return (column > 0)
+                    ? "Line " + line + ", column " + column + ": " + message
+                    : "Line " + line + ": " + message;
+        }
+    }
+
+    public final QuestionsFileStatus status;
+    public final List<Question> questions;
+    public final List<LineError> errors;
+
+    // record positions per difficulty when the loader already had them (QuestionPack), else null
+    EnumMap<QuestionDifficulty, int[]> difficultyIndex;
+
+    public QuestionsLoadResult(QuestionsFileStatus status, List<Question> questions, List<LineError> errors) {
+        this.status = status;
+        this.questions = questions;
+        this.errors = errors;
+    }
+
+    public boolean isMalformed() {
+        return status == QuestionsFileStatus.MALFORMED;
+    }
+
+    /** Short human readable summary of the first few errors (empty if none). */
+    public String describeErrors(int max) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < errors.size() && i < max; i++) {
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(errors.get(i));
+        }
+        if (errors.size() > max) sb.append("\n... and ").append(errors.size() - max).append(" more");
+        return sb.toString();
+    }
+}
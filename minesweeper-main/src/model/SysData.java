@@ -2,14 +2,27 @@ package model;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
 
 /**
  * Central data access class.
  *
  * Handles:
  * - Game history (game_history.csv)
+ * - Move journals of finished games, for replays (game_journals.dat)
  * - Trivia questions (QuestionsCSV.csv)
  *
  * Controllers and views MUST NOT access files directly.
@@ -19,7 +32,10 @@ public class SysData {
     // ===================== HISTORY CONFIG =====================
     private static final String HISTORY_FILE = "game_history.csv";
     private static final String HISTORY_HEADER =
-            "dateTime,difficulty,player1Name,player2Name,result,finalScore,gameLengthSeconds";
+            "dateTime,difficulty,player1Name,player2Name,result,finalScore,gameLengthSeconds,threeBV,openings";
+
+    // Secondary indexes for queryHistory (rebuilt lazily after any history write)
+    private static HistoryIndex historyIndex;
 
     // ===================== QUESTIONS CONFIG =====================
     // CSV columns: ID,Question,Difficulty,A,B,C,D,Correct Answer
@@ -52,6 +68,8 @@ public class SysData {
         } catch (IOException e) {
             System.err.println("Failed to write to history file: " + e.getMessage());
         }
+
+        invalidateHistoryIndex();
     }
 
     /** Load all history entries */
@@ -63,29 +81,15 @@ public class SysData {
             return list;
         }
 
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
-
-            reader.readLine(); // skip header
-            String line;
+        try (CsvReader csv = openCsv(file)) {
 
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
+            csv.next(); // skip header
 
-                String[] parts = line.split(",", -1);
-                if (parts.length < 7) continue;
+            while (csv.next()) {
+                if (csv.isBlankRecord()) continue;
+                if (csv.fieldCount() < 7) continue;
 
-                GameHistoryEntry entry = new GameHistoryEntry(
-                        parts[0],
-                        parts[1],
-                        parts[2],
-                        parts[3],
-                        parts[4],
-                        Integer.parseInt(parts[5]),
-                        Integer.parseInt(parts[6])
-                );
-
-                list.add(entry);
+                list.add(GameHistoryEntry.fromCsv(csv));
             }
 
         } catch (IOException | NumberFormatException e) {
@@ -95,6 +99,61 @@ public class SysData {
         return list;
     }
 
+    /**
+     * Filtered, sorted and paged view of the history.
+     * Backed by cached secondary indexes, so repeated queries (filter-as-you-type)
+     * do not touch the file.
+     */
+    public static synchronized HistoryPage queryHistory(HistoryQuery query) {
+        if (query == null) query = new HistoryQuery();
+        return historyIndex().query(query);
+    }
+
+    /** Number of stored history entries (ignores any filter). */
+    public static synchronized int historySize() {
+        return historyIndex().size();
+    }
+
+    private static synchronized HistoryIndex historyIndex() {
+        if (historyIndex == null) {
+            historyIndex = new HistoryIndex(loadHistory());
+        }
+        return historyIndex;
+    }
+
+    private static synchronized void invalidateHistoryIndex() {
+        historyIndex = null;
+    }
+
+    // ============================================================
+    //                  HISTORY ARCHIVE (EXPORT / IMPORT)
+    // ============================================================
+
+    /**
+     * Stream the whole history into an archive file (gzip CSV or compact binary).
+     * Safe to call from a background thread; memory use is independent of history size.
+     *
+     * @return number of games exported
+     */
+    public static long exportHistory(File target, HistoryArchive.Format format,
+                                     ProgressListener listener) throws IOException {
+        return HistoryArchive.export(new File(HISTORY_FILE), HISTORY_HEADER, target, format, listener);
+    }
+
+    /**
+     * Stream an archive (gzip CSV, binary or plain CSV) and append its games to the history.
+     * Nothing is appended if the import fails or is cancelled.
+     *
+     * @return number of games imported
+     */
+    public static long importHistory(File source, ProgressListener listener) throws IOException {
+        try {
+            return HistoryArchive.importInto(new File(HISTORY_FILE), HISTORY_HEADER, source, listener);
+        } finally {
+            invalidateHistoryIndex();
+        }
+    }
+
     // ============================================================
     //                  HISTORY ADMIN OPERATIONS
     // ============================================================
@@ -137,7 +196,7 @@ public class SysData {
         return true;
     }
 
-    /** Rewrite history CSV from scratch */
+    /** Rewrite history CSV from scratch; journals of games left out are dropped too */
     private static void rewriteHistory(List<GameHistoryEntry> entries) {
         File file = new File(HISTORY_FILE);
 
@@ -155,6 +214,9 @@ public class SysData {
         } catch (IOException e) {
             System.err.println("Failed to rewrite history: " + e.getMessage());
         }
+
+        invalidateHistoryIndex();
+        retainJournals(entries);
     }
 
     /** Strict comparison for safe deletion */
@@ -167,7 +229,9 @@ public class SysData {
                 && safeEq(a.getPlayer2Name(), b.getPlayer2Name())
                 && safeEq(a.getResult(), b.getResult())
                 && a.getFinalScore() == b.getFinalScore()
-                && a.getGameLengthSeconds() == b.getGameLengthSeconds();
+                && a.getGameLengthSeconds() == b.getGameLengthSeconds()
+                && a.getThreeBV() == b.getThreeBV()
+                && a.getOpenings() == b.getOpenings();
     }
 
     private static boolean safeEq(String x, String y) {
@@ -177,178 +241,342 @@ public class SysData {
     }
 
     // ============================================================
-    //                      QUESTIONS API
+    //                       GAME JOURNALS
     // ============================================================
 
-    /** Validate questions CSV state */
-    public static QuestionsFileStatus getQuestionsFileStatus() {
-        File file = new File(QUESTIONS_FILE);
+    // one record per finished game, appended:
+    //   magic (int), dateTime (UTF), length (int), journal bytes (service.GameJournal),
+    //   CRC32 of the dateTime, length and bytes (int)
+    // A record cut short or garbled (e.g. the app was killed mid-write) fails its check; reading
+    // then resumes at the next magic, so the records after it still load.
+    private static final String JOURNALS_FILE = "game_journals.dat";
+    private static final int JOURNAL_MAGIC = 0x4D534A52; // "MSJR"
+
+    /** Keeps the move journal of the game saved to history under dateTime (appended). */
+    public static synchronized void saveJournal(String dateTime, byte[] journal) {
+        try (FileOutputStream out = new FileOutputStream(JOURNALS_FILE, true)) {
+            out.write(journalRecord(dateTime, journal)); // one write, so a crash tears at most this record
+        } catch (IOException e) {
+            System.err.println("Failed to save game journal: " + e.getMessage());
+        }
+    }
 
-        if (!file.exists()) return QuestionsFileStatus.NOT_EXISTS;
-        if (file.length() == 0) return QuestionsFileStatus.EMPTY;
+    /** The journal of the game saved under dateTime, or null if it has none (e.g. older games). */
+    public static synchronized byte[] loadJournal(String dateTime) {
+        if (dateTime == null) return null;
+        return readJournals().get(dateTime);
+    }
 
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+    /** Drops the journals of games that are no longer in history (rewritten via temp file + move). */
+    private static synchronized void retainJournals(List<GameHistoryEntry> entries) {
+        File file = new File(JOURNALS_FILE);
+        if (!file.exists()) return;
 
-            String header = br.readLine();
-            if (header == null) return QuestionsFileStatus.MALFORMED;
+        Set<String> keep = new HashSet<>();
+        for (GameHistoryEntry e : entries) keep.add(e.getDateTime());
 
-            // ✅ Remove BOM if present + trim
-            header = header.replace("\uFEFF", "").trim();
+        Map<String, byte[]> journals = readJournals();
+        journals.keySet().retainAll(keep);
 
-            if (!header.equals(QUESTIONS_HEADER)) {
-                return QuestionsFileStatus.MALFORMED;
+        try {
+            if (journals.isEmpty()) {
+                Files.deleteIfExists(file.toPath());
+                return;
             }
 
-            String line;
-            boolean hasData = false;
+            File tmp = File.createTempFile("game_journals", ".tmp", file.getAbsoluteFile().getParentFile());
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp))) {
+                for (Map.Entry<String, byte[]> e : journals.entrySet()) {
+                    out.write(journalRecord(e.getKey(), e.getValue()));
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp.toPath());
+                throw e;
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Could not prune game journals: " + e.getMessage());
+        }
+    }
 
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
+    private static byte[] journalRecord(String dateTime, byte[] journal) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(journal.length + 40);
+        DataOutputStream out = new DataOutputStream(buf);
+        out.writeInt(JOURNAL_MAGIC);
+        out.writeUTF(dateTime);
+        out.writeInt(journal.length);
+        out.write(journal);
+
+        CRC32 crc = new CRC32();
+        crc.update(buf.toByteArray(), 4, buf.size() - 4);
+        out.writeInt((int) crc.getValue());
+        return buf.toByteArray();
+    }
 
-                hasData = true;
+    /** Every intact record by dateTime (a later record wins); damaged stretches are skipped. */
+    private static Map<String, byte[]> readJournals() {
+        Map<String, byte[]> journals = new LinkedHashMap<>();
+        byte[] data;
+        try {
+            data = Files.readAllBytes(Paths.get(JOURNALS_FILE));
+        } catch (NoSuchFileException e) {
+            return journals;
+        } catch (IOException e) {
+            System.err.println("Could not read game journals: " + e.getMessage());
+            return journals;
+        }
 
-                // NOTE: this simple split assumes no quoted commas in fields.
-                String[] cols = line.split(",", -1);
-                if (cols.length != 8) return QuestionsFileStatus.MALFORMED;
+        int pos = 0;
+        int skipped = 0;
+        while (pos < data.length) {
+            int next = readJournalRecord(data, pos, journals);
+            if (next < 0) {
+                pos++; // resync: look for the next magic one byte further on
+                skipped++;
+            } else {
+                pos = next;
+            }
+        }
+        if (skipped > 0) {
+            System.err.println("Skipped " + skipped + " damaged bytes in " + JOURNALS_FILE);
+        }
+        return journals;
+    }
 
-                // Validate ID
-                String idStr = cols[0].trim().replace("\uFEFF", "");
-                if (idStr.isEmpty()) return QuestionsFileStatus.MALFORMED;
-                Integer.parseInt(idStr);
+    /** Reads the record at pos into `into`; returns where the next one starts, or -1 if it is not intact. */
+    private static int readJournalRecord(byte[] data, int pos, Map<String, byte[]> into) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, pos, data.length - pos));
+            if (in.readInt() != JOURNAL_MAGIC) return -1;
 
-                // Validate question text
-                if (cols[1].trim().isEmpty()) return QuestionsFileStatus.MALFORMED;
+            String key = in.readUTF();
+            int length = in.readInt();
+            if (length < 0 || length > in.available() - 4) return -1;
 
-                // Validate difficulty
-                if (QuestionDifficulty.fromString(cols[2].trim()) == null)
-                    return QuestionsFileStatus.MALFORMED;
+            byte[] journal = new byte[length];
+            in.readFully(journal);
+            int end = data.length - in.available();
 
-                // Validate answer options A–D
-                for (int i = 3; i <= 6; i++) {
-                    if (cols[i].trim().isEmpty())
-                        return QuestionsFileStatus.MALFORMED;
-                }
+            CRC32 crc = new CRC32();
+            crc.update(data, pos + 4, end - pos - 4);
+            if (in.readInt() != (int) crc.getValue()) return -1;
 
-                // Validate correct answer
-                if (letterToIndex(cols[7].trim()) == -1)
-                    return QuestionsFileStatus.MALFORMED;
-            }
+            into.put(key, journal);
+            return end + 4;
+        } catch (IOException e) {
+            return -1; // cut short, or not a record at all
+        }
+    }
 
-            return hasData ? QuestionsFileStatus.HAS_DATA : QuestionsFileStatus.EMPTY;
+    // ============================================================
+    //                      QUESTIONS API
+    // ============================================================
 
-        } catch (Exception e) {
-            return QuestionsFileStatus.MALFORMED;
-        }
+    /** Validate questions CSV state */
+    public static QuestionsFileStatus getQuestionsFileStatus() {
+        return loadQuestionsWithStatus().status;
     }
 
     /** Load all questions */
     public static List<Question> loadQuestions() {
-        List<Question> list = new ArrayList<>();
+        return loadQuestionsWithStatus().questions;
+    }
+
+    /**
+     * Validate and load the questions CSV in ONE pass.
+     *
+     * - status    : same rules as before (header, 8 columns, numeric ID, non-empty
+     *               text/options, correct answer A–D)
+     * - questions : every row that could be loaded (ID parsed, 8+ columns),
+     *               even if the file as a whole is MALFORMED
+     * - errors    : line/column of each problem (first MAX_REPORTED_ERRORS only)
+     *
+     * A valid CSV is compiled into a binary pack (QuestionPack); while the CSV
+     * stays unchanged, later calls read the pack instead.
+     */
+    public static QuestionsLoadResult loadQuestionsWithStatus() {
         File file = new File(QUESTIONS_FILE);
 
-        if (!file.exists() || file.length() == 0) return list;
+        if (!file.exists()) {
+            return new QuestionsLoadResult(QuestionsFileStatus.NOT_EXISTS, new ArrayList<>(), new ArrayList<>());
+        }
+        if (file.length() == 0) {
+            return new QuestionsLoadResult(QuestionsFileStatus.EMPTY, new ArrayList<>(), new ArrayList<>());
+        }
 
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+        // unchanged since it was last compiled -> binary pack, no text parsing
+        QuestionsLoadResult packed = QuestionPack.loadIfFresh(file);
+        if (packed != null) return packed;
 
-            String line;
-            boolean firstLine = true;
+        // stamp first: if the CSV changes while we parse, the pack comes out stale, never wrong
+        long stampLength = file.length();
+        long stampModified = file.lastModified();
 
-            while ((line = br.readLine()) != null) {
-                if (firstLine) {
-                    firstLine = false;
-                    continue; // skip header
-                }
+        QuestionsLoadResult parsed = parseQuestionsCsv(file);
+        if (!parsed.isMalformed()) {
+            QuestionPack.writeAsync(file, stampLength, stampModified, parsed.questions);
+        }
+        return parsed;
+    }
 
-                if (line.trim().isEmpty()) continue;
+    private static QuestionsLoadResult parseQuestionsCsv(File file) {
+        Reader in;
+        try {
+            in = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            List<QuestionsLoadResult.LineError> errors = new ArrayList<>();
+            addError(errors, 0, 0, "Could not read file: " + e.getMessage());
+            return new QuestionsLoadResult(QuestionsFileStatus.MALFORMED, new ArrayList<>(), errors);
+        }
+        return parseQuestions(in);
+    }
 
-                String[] cols = line.split(",", -1);
-                if (cols.length < 8) continue;
+    /** Header + records from any source (the file, or just the changed records on a hot reload). */
+    private static QuestionsLoadResult parseQuestions(Reader source) {
+        List<Question> list = new ArrayList<>();
+        List<QuestionsLoadResult.LineError> errors = new ArrayList<>();
 
-                // Remove BOM if present
-                cols[0] = cols[0].replace("\uFEFF", "");
+        boolean malformed = false;
+        boolean hasData = false;
 
-                Question q = QuestionFactory.createQuestion(
-                        Integer.parseInt(cols[0].trim()),
-                        cols[1],
-                        new String[]{cols[3], cols[4], cols[5], cols[6]},
-                        letterToIndex(cols[7].trim()),
-                        QuestionDifficulty.fromString(cols[2].trim())
-                );
+        try (CsvReader csv = new CsvReader(source)) {
 
-                list.add(q);
+            // Header (BOM is dropped by the reader)
+            if (!csv.next()) {
+                return new QuestionsLoadResult(QuestionsFileStatus.MALFORMED, list, errors);
+            }
+            if (!headerMatches(csv, QUESTIONS_HEADER)) {
+                malformed = true;
+                addError(errors, csv.lineNumber(), 0, "Header must be: " + QUESTIONS_HEADER);
             }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+            while (csv.next()) {
+                if (csv.isBlankRecord()) continue;
 
-        return list;
-    }
+                hasData = true;
+                long line = csv.lineNumber();
 
-    public static boolean addQuestion(Question q) {
-        List<Question> all = loadQuestions();
-        q.setId(all.size() + 1);
-        all.add(q);
-        reassignQuestionIds(all);
-        return saveQuestions(all);
-    }
+                if (csv.fieldCount() != 8) {
+                    malformed = true;
+                    addError(errors, line, 0, "Expected 8 columns but found " + csv.fieldCount());
+                    if (csv.fieldCount() < 8) continue;
+                }
 
-    public static boolean updateQuestion(Question updated) {
-        List<Question> all = loadQuestions();
+                // Validate ID
+                int id;
+                try {
+                    id = csv.intField(0);
+                } catch (NumberFormatException e) {
+                    malformed = true;
+                    addError(errors, line, 1, "ID is not a number");
+                    continue;
+                }
+
+                // Validate question text
+                if (csv.isBlank(1)) {
+                    malformed = true;
+                    addError(errors, line, 2, "Question text is empty");
+                }
+
+                // Validate answer options A–D
+                for (int i = 3; i <= 6; i++) {
+                    if (csv.isBlank(i)) {
+                        malformed = true;
+                        addError(errors, line, i + 1, "Answer " + indexToLetter(i - 3) + " is empty");
+                    }
+                }
 
-        for (int i = 0; i < all.size(); i++) {
-            if (all.get(i).getId() == updated.getId()) {
-                all.set(i, updated);
-                break;
+                // Validate correct answer
+                int correct = letterToIndex(csv.trimmedField(7));
+                if (correct == -1) {
+                    malformed = true;
+                    addError(errors, line, 8, "Correct answer must be A, B, C or D");
+                }
+
+                list.add(QuestionFactory.createQuestion(
+                        id,
+                        csv.field(1),
+                        new String[]{csv.field(3), csv.field(4), csv.field(5), csv.field(6)},
+                        correct,
+                        QuestionDifficulty.fromString(csv.trimmedField(2))
+                ));
             }
+
+        } catch (IOException e) {
+            malformed = true;
+            addError(errors, 0, 0, "Could not read file: " + e.getMessage());
         }
 
-        reassignQuestionIds(all);
-        return saveQuestions(all);
+        // updated records may have been appended after later IDs (see QuestionStore)
+        if (!isSortedById(list)) list.sort(Comparator.comparingInt(Question::getId));
+
+        QuestionsFileStatus status = malformed ? QuestionsFileStatus.MALFORMED
+                : hasData ? QuestionsFileStatus.HAS_DATA
+                : QuestionsFileStatus.EMPTY;
+
+        return new QuestionsLoadResult(status, list, errors);
     }
 
-    public static boolean deleteQuestion(Question toDelete) {
-        List<Question> all = loadQuestions();
+    private static boolean isSortedById(List<Question> list) {
+        for (int i = 1; i < list.size(); i++) {
+            if (list.get(i - 1).getId() > list.get(i).getId()) return false;
+        }
+        return true;
+    }
 
-        boolean removed = all.removeIf(q -> q.getId() == toDelete.getId());
-        if (!removed) return false;
+    // Keep error reports small even for a completely broken file
+    private static final int MAX_REPORTED_ERRORS = 100;
 
-        reassignQuestionIds(all);
-        return saveQuestions(all);
+    private static void addError(List<QuestionsLoadResult.LineError> errors, long line, int column, String msg) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new QuestionsLoadResult.LineError(line, column, msg));
+        }
     }
 
-    /** Write full list of questions back to CSV */
-    private static boolean saveQuestions(List<Question> questions) {
-        File file = new File(QUESTIONS_FILE);
+    /*
+     * Add / update / delete touch only the affected record (see QuestionStore);
+     * IDs are stable - nothing is renumbered, and a deleted question's ID is
+     * not handed out again (QuestionStore keeps the highest ID used).
+     */
+    private static final QuestionStore questionStore =
+            new QuestionStore(new File(QUESTIONS_FILE), QUESTIONS_HEADER);
 
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(file, false), StandardCharsets.UTF_8))) {
+    private static File questionsFile() {
+        return new File(QUESTIONS_FILE);
+    }
 
-            writer.write(QUESTIONS_HEADER);
-            writer.newLine();
+    // Each edit below drops the compiled pack before writing - its stamp check
+    // alone would miss a same-length edit within the same millisecond.
+    public static boolean addQuestion(Question q) {
+        QuestionPack.delete(questionsFile());
+        if (!questionStore.add(q, questionCsvFields(q))) return false;
+        QuestionBank.getInstance().put(q);
+        return true;
+    }
 
-            for (Question q : questions) {
-                writer.write(
-                        q.getId() + "," +
-                                escapeCsv(q.getText()) + "," +
-                                q.getDifficulty() + "," +
-                                escapeCsv(q.getOptions()[0]) + "," +
-                                escapeCsv(q.getOptions()[1]) + "," +
-                                escapeCsv(q.getOptions()[2]) + "," +
-                                escapeCsv(q.getOptions()[3]) + "," +
-                                indexToLetter(q.getCorrectIndex())
-                );
-                writer.newLine();
-            }
+    public static boolean updateQuestion(Question updated) {
+        QuestionPack.delete(questionsFile());
+        if (!questionStore.update(updated, questionCsvFields(updated))) return false;
+        QuestionBank.getInstance().put(updated);
+        return true;
+    }
 
-            return true;
+    public static boolean deleteQuestion(Question toDelete) {
+        QuestionPack.delete(questionsFile());
+        if (!questionStore.delete(toDelete.getId())) return false;
+        QuestionBank.getInstance().remove(toDelete.getId());
+        return true;
+    }
 
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
-        }
+    /** One question as CSV, every column except the leading ID. */
+    private static String questionCsvFields(Question q) {
+        return escapeCsv(q.getText()) + "," +
+                q.getDifficulty() + "," +
+                escapeCsv(q.getOptions()[0]) + "," +
+                escapeCsv(q.getOptions()[1]) + "," +
+                escapeCsv(q.getOptions()[2]) + "," +
+                escapeCsv(q.getOptions()[3]) + "," +
+                indexToLetter(q.getCorrectIndex());
     }
 
     /** Recreate a clean questions file with header only */
@@ -360,17 +588,152 @@ public class SysData {
 
             writer.write(QUESTIONS_HEADER);
             writer.newLine();
-            return true;
 
         } catch (IOException e) {
             return false;
         }
+
+        questionStore.reset();
+        QuestionPack.delete(file);
+        QuestionBank.getInstance().replaceAll(new ArrayList<>());
+        return true;
+    }
+
+    // ============================================================
+    //                    QUESTION ANSWER STATISTICS
+    // ============================================================
+
+    private static final String QUESTION_STATS_FILE = "question_stats.bin";
+    private static QuestionStats questionStats;
+
+    // saves run on one background thread; several answers in a row -> one write
+    private static final ExecutorService statsWriter =
+            Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "question-stats-writer");
+                t.setDaemon(true);
+                return t;
+            });
+    private static boolean statsSaveQueued = false;
+
+    /** Per-question answer counts (loaded on first use). */
+    public static synchronized QuestionStats questionStats() {
+        if (questionStats == null) {
+            questionStats = QuestionStats.load(new File(QUESTION_STATS_FILE));
+        }
+        return questionStats;
+    }
+
+    /** Records one answer and saves the statistics in the background. */
+    public static void recordQuestionAnswer(int questionId, boolean correct) {
+        QuestionStats stats = questionStats();
+        stats.record(questionId, correct);
+
+        synchronized (SysData.class) {
+            if (statsSaveQueued) return;
+            statsSaveQueued = true;
+        }
+        statsWriter.submit(() -> {
+            synchronized (SysData.class) {
+                statsSaveQueued = false;
+            }
+            try {
+                stats.save(new File(QUESTION_STATS_FILE));
+            } catch (IOException e) {
+                System.err.println("Could not save question stats: " + e.getMessage());
+            }
+        });
+    }
+
+    // ============================================================
+    //            HOT RELOAD (edits made outside the app)
+    // ============================================================
+
+    private static QuestionFileWatcher questionsWatcher;
+
+    // true while the file on disk is known to be valid; a diff against an
+    // invalid file cannot be trusted, so it forces a full reload instead
+    private static volatile boolean watchedFileValid = false;
+
+    /**
+     * Start watching QuestionsCSV.csv for outside edits (once per run).
+     * Changed records are re-parsed and pushed into the QuestionBank;
+     * QuestionBankObservers are told what changed.
+     */
+    public static synchronized void watchQuestionsFile() {
+        if (questionsWatcher != null) return;
+        questionsWatcher = new QuestionFileWatcher(questionsFile(), SysData::applyExternalQuestionEdit);
+        questionsWatcher.start(() -> watchedFileValid = !loadQuestionsWithStatus().isMalformed());
+    }
+
+    /** Runs on the watcher thread after the file changed. */
+    private static void applyExternalQuestionEdit(QuestionFileWatcher watcher) {
+        File file = questionsFile();
+        QuestionBank bank = QuestionBank.getInstance();
+        List<Question> changed;
+        QuestionFileWatcher.Diff diff;
+
+        // QuestionStore's methods lock on the store: no add / update / delete
+        // (or compaction) while the file is scanned and the bank is patched.
+        // Our own writes are rescanned too: an outside edit may have landed
+        // just before one (inside the debounce), and re-applying our own rows
+        // to the bank changes nothing.
+        synchronized (questionStore) {
+            long stampLength = file.length();
+            long stampModified = file.lastModified();
+
+            diff = watcher.rescan();
+            if (diff.isEmpty()) return; // saved without changes
+
+            changed = null;
+            if (!diff.needsFullReload && watchedFileValid) {
+                QuestionsLoadResult parsed = parseQuestions(
+                        new StringReader(QUESTIONS_HEADER + "\n" + diff.changedRecords));
+                if (!parsed.isMalformed()) changed = parsed.questions;
+            }
+
+            if (changed != null) {
+                bank.putAll(changed);
+                bank.removeAll(diff.removedIds);
+
+                // keep the pack current so the next start stays fast
+                List<Question> all = bank.loadedQuestions();
+                if (all != null) QuestionPack.writeAsync(file, stampLength, stampModified, all);
+                else QuestionPack.delete(file);
+            } else {
+                // re-validate the whole file; screens re-read it through the bank
+                QuestionPack.delete(file);
+                watchedFileValid = !loadQuestionsWithStatus().isMalformed();
+                bank.invalidate();
+            }
+        }
+
+        if (changed != null) {
+            List<Integer> removed = new ArrayList<>(diff.removedIds.length);
+            for (int id : diff.removedIds) removed.add(id);
+            bank.notifyQuestionsChanged(changed, removed);
+        } else {
+            bank.notifyFileReplaced();
+        }
     }
 
     // ============================================================
     //                      HELPERS
     // ============================================================
 
+    private static CsvReader openCsv(File file) throws IOException {
+        return new CsvReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+    }
+
+    /** True if the current record is exactly the given comma-separated header. */
+    private static boolean headerMatches(CsvReader csv, String header) {
+        String[] expected = header.split(",");
+        if (csv.fieldCount() != expected.length) return false;
+        for (int i = 0; i < expected.length; i++) {
+            if (!csv.trimmedField(i).equals(expected[i])) return false;
+        }
+        return true;
+    }
+
     private static int letterToIndex(String letter) {
         if (letter == null) return -1;
         switch (letter.toUpperCase()) {
@@ -394,22 +757,15 @@ public class SysData {
 
     /**
      * ✅ Proper CSV escaping:
-     * - replaces newlines
+     * - replaces newlines (questions are single-line in the UI)
      * - wraps in quotes if contains comma or quote
      * - doubles internal quotes
+     *
+     * Everything written here is read back losslessly by CsvReader.
      */
-    private static String escapeCsv(String s) {
+    static String escapeCsv(String s) {
         if (s == null) return "";
-        String cleaned = s.replace("\r", " ").replace("\n", " ");
-        boolean mustQuote = cleaned.contains(",") || cleaned.contains("\"");
-        cleaned = cleaned.replace("\"", "\"\"");
-        return mustQuote ? "\"" + cleaned + "\"" : cleaned;
-    }
-
-    private static void reassignQuestionIds(List<Question> questions) {
-        for (int i = 0; i < questions.size(); i++) {
-            questions.get(i).setId(i + 1);
-        }
+        return CsvReader.escape(s.replace("\r", " ").replace("\n", " "));
     }
 
     // ============================================================
@@ -432,387 +788,213 @@ public class SysData {
      * Notes:
      * - Duplicates are skipped (same question + difficulty + options + correct).
      * - Invalid entries are skipped.
-     * - CSV safety: commas/newlines are sanitized.
+     * - Whitespace runs (line breaks included) collapse to one space; commas
+     *   and quotes are kept and written with RFC 4180 quoting.
+     * - The file is streamed (JsonQuestionReader): each entry is validated and
+     *   deduplicated as it is read, and new questions are appended in batches,
+     *   so huge packs never sit in memory.
+     * - Progress is reported in bytes read; cancelling (or a syntax error) stops
+     *   the import - questions appended before that point are kept, and the
+     *   report says how many.
      */
     public static ImportReport importQuestionsFromJson(File jsonFile) {
-        try {
-            if (jsonFile == null || !jsonFile.exists()) {
-                return ImportReport.fail("JSON file not found.");
-            }
+        return importQuestionsFromJson(jsonFile, null);
+    }
 
-            // Ensure questions file exists (header only) if missing/empty
-            QuestionsFileStatus status = getQuestionsFileStatus();
-            if (status == QuestionsFileStatus.NOT_EXISTS || status == QuestionsFileStatus.EMPTY) {
-                recreateQuestionsFile();
-            } else if (status == QuestionsFileStatus.MALFORMED) {
-                return ImportReport.fail(
-                        "QuestionsCSV.csv is malformed.\n" +
-                                "Fix/replace it first before importing."
-                );
-            }
+    public static ImportReport importQuestionsFromJson(File jsonFile, ProgressListener listener) {
+        if (jsonFile == null || !jsonFile.exists()) {
+            return ImportReport.fail("JSON file not found.");
+        }
 
-            String json = readAllText(jsonFile);
+        // Ensure questions file exists (header only) if missing/empty
+        QuestionsLoadResult current = loadQuestionsWithStatus();
+        QuestionsFileStatus status = current.status;
+        if (status == QuestionsFileStatus.NOT_EXISTS || status == QuestionsFileStatus.EMPTY) {
+            recreateQuestionsFile();
+        } else if (status == QuestionsFileStatus.MALFORMED) {
+            return ImportReport.fail(
+                    "QuestionsCSV.csv is malformed.\n" +
+                            "Fix/replace it first before importing."
+            );
+        }
 
-            List<java.util.Map<String, Object>> objects = SimpleJson.parseArrayOfObjects(json);
-            if (objects == null || objects.isEmpty()) {
-                return ImportReport.fail(
-                        "No questions found in JSON.\n\nExpected: an array of objects, e.g.\n" +
-                                "[{ \"question\":\"...\", \"difficulty\":\"Easy\", \"options\":[\"A\",\"B\",\"C\",\"D\"], \"correct\":\"B\" }]"
-                );
-            }
+        // signatures used to detect duplicates (ignore IDs)
+        QuestionSignatureSet signatures = new QuestionSignatureSet(current.questions.size() + IMPORT_BATCH);
+        signatures.addAll(current.questions);
+        current = null; // only the signatures are needed from here on
+
+        long totalBytes = Math.max(jsonFile.length(), 1);
+        ImportTally tally = new ImportTally(signatures);
 
-            List<Question> existing = loadQuestions();
+        try (CountingInputStream counter = new CountingInputStream(new FileInputStream(jsonFile));
+             JsonQuestionReader json = new JsonQuestionReader(
+                     new InputStreamReader(new BufferedInputStream(counter, 1 << 16), StandardCharsets.UTF_8))) {
 
-            // signatures used to detect duplicates (ignore IDs)
-            java.util.Set<String> signatures = new java.util.HashSet<>();
-            for (Question q : existing) signatures.add(signatureOf(q));
+            if (!json.beginArray()) return noQuestionsInJson();
 
-            int total = objects.size();
-            int imported = 0;
-            int dup = 0;
-            int invalid = 0;
+            while (json.nextObject()) {
+                tally.total++;
 
-            for (java.util.Map<String, Object> obj : objects) {
-                Question q = convertJsonObjectToQuestion(obj);
+                Question q = questionFromJson(json);
                 if (q == null) {
-                    invalid++;
-                    continue;
+                    tally.invalid++;
+                } else {
+                    tally.candidates.add(q);
+                    if (tally.candidates.size() == IMPORT_BATCH && !tally.flush()) {
+                        return importSaveFailed(tally.imported);
+                    }
                 }
 
-                String sig = signatureOf(q);
-                if (signatures.contains(sig)) {
-                    dup++;
-                    continue;
+                if (listener != null && tally.total % IMPORT_REPORT_EVERY == 0) {
+                    if (listener.isCancelled()) {
+                        tally.flush();
+                        return ImportReport.cancelled(tally.total, tally.imported, tally.dup, tally.invalid);
+                    }
+                    listener.onProgress(Math.min(counter.count, totalBytes), totalBytes);
                 }
-
-                signatures.add(sig);
-                existing.add(q);
-                imported++;
             }
 
-            reassignQuestionIds(existing);
-
-            boolean saved = saveQuestions(existing);
-            if (!saved) {
-                return ImportReport.fail(
-                        "Import succeeded but saving to QuestionsCSV.csv failed.\n" +
-                                "Make sure the file is not open in Excel and try again."
-                );
-            }
+            if (!tally.flush()) return importSaveFailed(tally.imported);
 
-            return ImportReport.ok(total, imported, dup, invalid);
+        } catch (IOException | RuntimeException e) {
+            // keep what was read before the error (earlier batches are already on disk)
+            tally.flush();
 
-        } catch (Exception e) {
-            return ImportReport.fail("Import failed: " + e.getMessage());
+            String why = (e instanceof JsonQuestionReader.SyntaxException)
+                    ? "Invalid JSON - " + e.getMessage()
+                    : "Import failed: " + e.getMessage();
+            return ImportReport.fail(tally.imported == 0 ? why
+                    : why + "\n\n" + tally.imported + " question(s) read before the error were imported.");
         }
-    }
-
-    private static String readAllText(File f) throws IOException {
-        try (InputStream in = new FileInputStream(f)) {
-            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
-        }
-    }
-
-    private static String signatureOf(Question q) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(norm(q.getText())).append("|")
-                .append(q.getDifficulty()).append("|");
-
-        String[] o = q.getOptions();
-        for (int i = 0; i < 4; i++) sb.append(norm(o[i])).append("|");
 
-        sb.append(q.getCorrectIndex());
-        return sb.toString();
-    }
+        if (tally.total == 0) return noQuestionsInJson();
 
-    private static String norm(String s) {
-        if (s == null) return "";
-        return s.trim().toLowerCase().replaceAll("\\s+", " ");
+        if (listener != null) listener.onProgress(totalBytes, totalBytes);
+        return ImportReport.ok(tally.total, tally.imported, tally.dup, tally.invalid);
     }
 
-    private static Question convertJsonObjectToQuestion(java.util.Map<String, Object> obj) {
-        if (obj == null) return null;
-
-        String text = str(obj, "question", "Question", "text", "Text");
-        if (text == null || text.trim().isEmpty()) return null;
+    // questions appended per write during an import / entries between progress callbacks
+    private static final int IMPORT_BATCH = 4096;
+    private static final int IMPORT_REPORT_EVERY = 256;
 
-        String diffStr = str(obj, "difficulty", "Difficulty", "level", "Level");
-        QuestionDifficulty diff = QuestionDifficulty.fromString(diffStr);
+    /**
+     * Running counts of one import, plus the valid entries not yet deduplicated.
+     * flush() hashes the pending batch in parallel, keeps the first occurrence
+     * of each signature (in file order) and appends those.
+     */
+    private static class ImportTally {
+        final QuestionSignatureSet signatures;
+        final List<Question> candidates = new ArrayList<>(IMPORT_BATCH);
 
-        String[] opts = extractOptions(obj);
-        if (opts == null || opts.length != 4) return null;
+        int total = 0;
+        int imported = 0;
+        int dup = 0;
+        int invalid = 0;
 
-        // CSV safety (match your UI restrictions)
-        text = sanitizeForCsv(text);
-        for (int i = 0; i < 4; i++) {
-            if (opts[i] == null || opts[i].trim().isEmpty()) return null;
-            opts[i] = sanitizeForCsv(opts[i]);
+        ImportTally(QuestionSignatureSet signatures) {
+            this.signatures = signatures;
         }
 
-        int correctIndex = -1;
+        boolean flush() {
+            if (candidates.isEmpty()) return true;
 
-        Object ci = first(obj, "correctIndex", "CorrectIndex", "correct_index");
-        if (ci instanceof Number) {
-            correctIndex = ((Number) ci).intValue();
-        }
+            long[] sigs = QuestionSignatureSet.hashAll(candidates);
+            List<Question> fresh = new ArrayList<>(candidates.size());
+            for (int i = 0; i < candidates.size(); i++) {
+                if (signatures.add(sigs[2 * i], sigs[2 * i + 1])) fresh.add(candidates.get(i));
+                else dup++;
+            }
+            candidates.clear();
 
-        if (correctIndex < 0 || correctIndex > 3) {
-            String correct = str(obj, "correct", "Correct", "correctAnswer", "Correct Answer", "correct_letter");
-            if (correct != null) correctIndex = letterToIndex(correct.trim());
+            if (!appendImported(fresh)) return false;
+            imported += fresh.size();
+            return true;
         }
-
-        if (correctIndex < 0 || correctIndex > 3) return null;
-
-        return new Question(text, opts, correctIndex, diff);
     }
 
-    private static String sanitizeForCsv(String s) {
-        if (s == null) return "";
-        s = s.replace("\r", " ").replace("\n", " ").trim();
-        s = s.replaceAll("\\s+", " ");
-        // IMPORTANT: your CSV validator assumes no commas in fields.
-        // We replace commas with semicolons to keep file stable.
-        s = s.replace(",", ";");
-        return s;
-    }
-
-    private static String[] extractOptions(java.util.Map<String, Object> obj) {
-        Object arr = first(obj, "options", "Options", "answers", "Answers");
-        if (arr instanceof java.util.List) {
-            java.util.List<?> list = (java.util.List<?>) arr;
-            if (list.size() >= 4) {
-                return new String[]{
-                        String.valueOf(list.get(0)),
-                        String.valueOf(list.get(1)),
-                        String.valueOf(list.get(2)),
-                        String.valueOf(list.get(3))
-                };
-            }
-        }
+    /** Appends one import batch (new IDs) and lets the bank reload lazily. */
+    private static boolean appendImported(List<Question> batch) {
+        if (batch.isEmpty()) return true;
+        QuestionPack.delete(questionsFile());
 
-        // fallback: A,B,C,D keys
-        String A = str(obj, "A", "a");
-        String B = str(obj, "B", "b");
-        String C = str(obj, "C", "c");
-        String D = str(obj, "D", "d");
-
-        if (A != null && B != null && C != null && D != null) {
-            return new String[]{A, B, C, D};
-        }
+        List<String> rows = new ArrayList<>(batch.size());
+        for (Question q : batch) rows.add(questionCsvFields(q));
 
-        return null;
+        if (!questionStore.addAll(batch, rows)) return false;
+        QuestionBank.getInstance().invalidate();
+        return true;
     }
 
-    private static Object first(java.util.Map<String, Object> obj, String... keys) {
-        for (String k : keys) {
-            if (obj.containsKey(k)) return obj.get(k);
-        }
-        return null;
+    private static ImportReport noQuestionsInJson() {
+        return ImportReport.fail(
+                "No questions found in JSON.\n\nExpected: an array of objects, e.g.\n" +
+                        "[{ \"question\":\"...\", \"difficulty\":\"Easy\", \"options\":[\"A\",\"B\",\"C\",\"D\"], \"correct\":\"B\" }]"
+        );
     }
 
-    private static String str(java.util.Map<String, Object> obj, String... keys) {
-        Object v = first(obj, keys);
-        if (v == null) return null;
-        return String.valueOf(v);
+    private static ImportReport importSaveFailed(int alreadyImported) {
+        return ImportReport.fail(
+                "Saving to QuestionsCSV.csv failed" +
+                        (alreadyImported > 0 ? " after " + alreadyImported + " question(s) were imported" : "") + ".\n" +
+                        "Make sure the file is not open in Excel and try again."
+        );
     }
 
-    // ===================== Minimal JSON parser (no external jars) =====================
-
-    private static class SimpleJson {
-
-        /**
-         * Parses JSON with structure:
-         *   [ { ... }, { ... } ]
-         *
-         * Supported value types:
-         * - strings
-         * - numbers
-         * - booleans
-         * - arrays (of strings/numbers/booleans)
-         * - nested objects (not needed but supported)
-         */
-        static java.util.List<java.util.Map<String, Object>> parseArrayOfObjects(String json) {
-            if (json == null) return java.util.List.of();
-            json = json.trim();
-            if (!json.startsWith("[")) return java.util.List.of();
-
-            Tokenizer t = new Tokenizer(json);
-            t.expect('[');
-
-            java.util.List<java.util.Map<String, Object>> list = new java.util.ArrayList<>();
-            t.skipWs();
-
-            if (t.peek() == ']') {
-                t.next();
-                return list;
-            }
-
-            while (true) {
-                t.skipWs();
-                java.util.Map<String, Object> obj = parseObject(t);
-                if (obj != null) list.add(obj);
-
-                t.skipWs();
-                char ch = t.next();
-                if (ch == ']') break;
-                if (ch != ',') throw new RuntimeException("Expected , or ]");
-            }
-
-            return list;
-        }
-
-        private static java.util.Map<String, Object> parseObject(Tokenizer t) {
-            t.skipWs();
-            t.expect('{');
-
-            java.util.Map<String, Object> map = new java.util.HashMap<>();
-            t.skipWs();
-
-            if (t.peek() == '}') {
-                t.next();
-                return map;
-            }
-
-            while (true) {
-                t.skipWs();
-                String key = t.readString();
-                t.skipWs();
-                t.expect(':');
-                t.skipWs();
-
-                Object val = parseValue(t);
-                map.put(key, val);
-
-                t.skipWs();
-                char ch = t.next();
-                if (ch == '}') break;
-                if (ch != ',') throw new RuntimeException("Expected , or }");
-            }
-
-            return map;
-        }
-
-        private static Object parseValue(Tokenizer t) {
-            t.skipWs();
-            char p = t.peek();
+    /** Builds a Question from the object the reader is positioned on (null if invalid). */
+    private static Question questionFromJson(JsonQuestionReader json) {
+        String text = json.text();
+        if (text == null || text.trim().isEmpty()) return null;
 
-            if (p == '"') return t.readString();
-            if (p == '{') return parseObject(t);
-            if (p == '[') return parseArray(t);
+        QuestionDifficulty diff = QuestionDifficulty.fromString(json.difficulty());
 
-            String lit = t.readLiteral();
-            if ("true".equals(lit)) return Boolean.TRUE;
-            if ("false".equals(lit)) return Boolean.FALSE;
-            if ("null".equals(lit)) return null;
+        String[] opts = json.options();
+        if (opts == null) return null;
 
-            try {
-                if (lit.contains(".")) return Double.parseDouble(lit);
-                return Integer.parseInt(lit);
-            } catch (Exception e) {
-                return lit; // fallback
-            }
+        // one-line text, as the CSV has always held; commas are quoted on write
+        text = collapseWhitespace(text);
+        for (int i = 0; i < 4; i++) {
+            if (opts[i] == null || opts[i].trim().isEmpty()) return null;
+            opts[i] = collapseWhitespace(opts[i]);
         }
 
-        private static java.util.List<Object> parseArray(Tokenizer t) {
-            t.expect('[');
-            java.util.List<Object> arr = new java.util.ArrayList<>();
-            t.skipWs();
-
-            if (t.peek() == ']') {
-                t.next();
-                return arr;
-            }
-
-            while (true) {
-                Object v = parseValue(t);
-                arr.add(v);
+        int correctIndex = json.correctIndex();
 
-                t.skipWs();
-                char ch = t.next();
-                if (ch == ']') break;
-                if (ch != ',') throw new RuntimeException("Expected , or ]");
-            }
-            return arr;
+        if (correctIndex < 0 || correctIndex > 3) {
+            String correct = json.correct();
+            if (correct != null) correctIndex = letterToIndex(correct.trim());
         }
 
-        private static class Tokenizer {
-            private final String s;
-            private int i = 0;
-
-            Tokenizer(String s) { this.s = s; }
-
-            void skipWs() {
-                while (i < s.length()) {
-                    char c = s.charAt(i);
-                    if (c == ' ' || c == '\n' || c == '\r' || c == '\t') i++;
-                    else break;
-                }
-            }
-
-            char peek() {
-                if (i >= s.length()) return '\0';
-                return s.charAt(i);
-            }
-
-            char next() {
-                if (i >= s.length()) throw new RuntimeException("Unexpected end of JSON");
-                return s.charAt(i++);
-            }
+        if (correctIndex < 0 || correctIndex > 3) return null;
 
-            void expect(char c) {
-                skipWs();
-                char got = next();
-                if (got != c) throw new RuntimeException("Expected '" + c + "' but got '" + got + "'");
-            }
+        return new Question(text, opts, correctIndex, diff);
+    }
 
-            String readString() {
-                skipWs();
-                expect('"');
-                StringBuilder out = new StringBuilder();
-
-                while (true) {
-                    char c = next();
-                    if (c == '"') break;
-
-                    if (c == '\\') {
-                        char e = next();
-                        switch (e) {
-                            case '"': out.append('"'); break;
-                            case '\\': out.append('\\'); break;
-                            case '/': out.append('/'); break;
-                            case 'b': out.append('\b'); break;
-                            case 'f': out.append('\f'); break;
-                            case 'n': out.append('\n'); break;
-                            case 'r': out.append('\r'); break;
-                            case 't': out.append('\t'); break;
-                            case 'u':
-                                String hex = "" + next() + next() + next() + next();
-                                out.append((char) Integer.parseInt(hex, 16));
-                                break;
-                            default:
-                                out.append(e);
-                        }
-                    } else {
-                        out.append(c);
-                    }
-                }
+    /**
+     * Trims and collapses every whitespace run (\\s: space, tab, CR, LF, VT, FF)
+     * to one space - one pass, no regex. Nothing else is changed: commas and
+     * quotes are escaped by escapeCsv when the row is written.
+     */
+    private static String collapseWhitespace(String s) {
+        if (s == null) return "";
 
-                return out.toString();
+        int start = 0, end = s.length();
+        while (start < end && s.charAt(start) <= ' ') start++;
+        while (end > start && s.charAt(end - 1) <= ' ') end--;
+
+        StringBuilder sb = new StringBuilder(end - start);
+        boolean inSpace = false;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\u000B' || c == '\f') {
+                inSpace = true;
+                continue;
             }
-
-            String readLiteral() {
-                skipWs();
-                StringBuilder out = new StringBuilder();
-
-                while (i < s.length()) {
-                    char c = s.charAt(i);
-                    if (c == ',' || c == ']' || c == '}' || Character.isWhitespace(c)) break;
-                    out.append(c);
-                    i++;
-                }
-
-                return out.toString().trim();
+            if (inSpace) {
+                sb.append(' ');
+                inSpace = false;
             }
+            sb.append(c);
         }
+        return sb.toString();
     }
 }
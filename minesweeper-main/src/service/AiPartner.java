@@ -0,0 +1,149 @@
+package service;
+
+import model.Board;
+import model.Question;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A computer player sitting in one of the two seats.
+ *
+ * Moves are worked out on a background thread (BoardSolver first, then
+ * ProbabilityEngine within the time budget) and handed back through the
+ * caller's executor - for the UI, Platform::runLater - so the caller never
+ * waits. The caller then plays the move exactly like a mouse click.
+ *
+ * All methods except the background work are meant for one thread (the FX
+ * thread): newGame() / cancel() make a move that is still being computed
+ * arrive as nothing.
+ */
+public class AiPartner {
+
+    // a move never shows up faster than this, so people can follow the game
+    private static final long MIN_MOVE_MS = 350;
+
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ai-partner");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final int player;
+    private final long budgetMillis;
+    private final Random rng = new Random();
+
+    private BotPolicy policy;
+    private int generation;
+    private boolean thinking;
+
+    /**
+     * @param player       the seat the AI takes (1 or 2)
+     * @param budgetMillis thinking time per move
+     */
+    public AiPartner(int player, long budgetMillis) {
+        this.player = player;
+        this.budgetMillis = budgetMillis;
+    }
+
+    public int getPlayer() {
+        return player;
+    }
+
+    public boolean plays(int player) {
+        return this.player == player;
+    }
+
+    /** Call after engine.newGame(); drops any move still being computed. */
+    public void newGame(GameEngine engine) {
+        cancel();
+        // a fresh policy, so a search still running on the old game keeps its own state
+        policy = BotPolicy.create("prob", new Random(rng.nextLong()), true, budgetMillis);
+        policy.newGame(engine);
+    }
+
+    /** Every batch of events the engine returns, whoever moved. */
+    public void observe(List<GameEvent> events) {
+        if (policy != null) policy.observe(events);
+    }
+
+    /** Drops any move still being computed. */
+    public void cancel() {
+        generation++;
+        thinking = false;
+    }
+
+    public boolean isThinking() {
+        return thinking;
+    }
+
+    /**
+     * Starts thinking about the AI's next move. onMove runs on callbackExecutor
+     * with the move, unless the game was restarted or cancelled in the meantime.
+     * If the policy comes up empty (or fails) the move is any closed cell, or
+     * unflagging one; null only if the board has neither. Does nothing while a
+     * move is already on its way.
+     */
+    public void requestMove(GameEngine engine, Executor callbackExecutor, Consumer<BotPolicy.Move> onMove) {
+        if (thinking) return;
+        thinking = true;
+
+        int gen = generation;
+        BotPolicy p = policy;
+
+        worker.execute(() -> {
+            long start = System.nanoTime();
+            BotPolicy.Move move;
+            try {
+                move = p.choose(engine, player);
+            } catch (RuntimeException e) {
+                // usually the board changed under us (restart) - then the result is dropped anyway
+                System.err.println("AI policy failed: " + e);
+                move = null;
+            }
+            if (move == null) move = anyMove(engine.getBoard(player));
+
+            long left = MIN_MOVE_MS - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (left > 0) {
+                try {
+                    Thread.sleep(left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt(); // still hand the move over, or the turn never ends
+                }
+            }
+
+            BotPolicy.Move result = move;
+            callbackExecutor.execute(() -> {
+                if (gen != generation) return;
+                thinking = false;
+                onMove.accept(result);
+            });
+        });
+    }
+
+    /**
+     * Fallback when the policy has no move: a random closed cell, else take back
+     * a flag (flags are free, so the next request gets a cell to click).
+     */
+    private BotPolicy.Move anyMove(Board board) {
+        BotPolicy.Move move = RandomBot.randomClosed(board, rng);
+        if (move != null) return move;
+
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                if (board.getCell(r, c).isFlag()) return new BotPolicy.Move(r, c, true);
+            }
+        }
+        return null;
+    }
+
+    /** The AI cannot read trivia questions: it picks an answer at random. */
+    public int answer(Question q) {
+        return rng.nextInt(q.getOptions().length);
+    }
+}
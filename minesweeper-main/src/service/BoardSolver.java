@@ -0,0 +1,436 @@
+package service;
+
+import model.Board;
+import model.Cell;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Minesweeper deduction over what a player can see on a Board: open cells
+ * with their numbers, opened mines and flags. Flags are taken as mines unless
+ * the solver is told not to trust them (a player's flag may be wrong - then
+ * it is read as just another closed cell).
+ *
+ * Every open number is a constraint "k of these closed neighbours are mines".
+ * Only frontier numbers (with at least one unresolved neighbour) are kept -
+ * a bit mask of unresolved neighbours plus the mines still missing - and a
+ * worklist re-checks a constraint only when one of its cells is resolved:
+ *
+ *   - single cell:  0 missing -> all safe; missing == unresolved -> all mines
+ *   - pairs:        two overlapping numbers (centres at most 2 apart) bound
+ *                   the mines in their shared cells, which can settle the
+ *                   cells only one of them sees (subset / superset rule)
+ *   - global:       the board's mine total settles the rest at the very end
+ *
+ * The board is scanned once; after that refresh(...) takes the cells that
+ * changed since (opened, flagged), so each move costs only the frontier it
+ * touched - also on very large boards.
+ *
+ * Results are "provably safe" (closed, can be opened) and "provably mines"
+ * (closed, not flagged yet). Not thread-safe.
+ */
+public class BoardSolver {
+
+    // resolved state per cell
+    private static final byte UNKNOWN = 0;
+    private static final byte SAFE    = 1;   // closed, proven safe
+    private static final byte MINE    = 2;   // flagged, opened mine or proven mine
+    private static final byte OPEN    = 3;   // open number
+
+    private static final int[] DR = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] DC = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    private final Board board;
+    private final int rows;
+    private final int cols;
+    private final int totalMines;
+    private final boolean trustFlags;
+
+    private final byte[] state;
+    private final byte[] unresolved;   // per open cell: bit d = neighbour d still UNKNOWN
+    private final byte[] missing;      // per open cell: mines among those neighbours
+    private final boolean[] queued;
+    private final boolean[] proven;    // resolved by a rule (not read off the board)
+
+    private int[] work = new int[64];
+    private int workHead = 0, workTail = 0;
+
+    private int unknownCount;
+    private int knownMines;
+
+    // proven cells not acted on yet (opened / flagged), in the order found
+    private int[] deduced = new int[64];
+    private int deducedCount = 0;
+
+    // scratch for the pair rule
+    private final int[] cellsA = new int[8];
+    private final int[] cellsB = new int[8];
+
+    public BoardSolver(Board board) {
+        this(board, true);
+    }
+
+    /** @param trustFlags false = ignore flags, so no deduction rests on one */
+    public BoardSolver(Board board, boolean trustFlags) {
+        this.board = board;
+        this.trustFlags = trustFlags;
+        this.rows = board.getRows();
+        this.cols = board.getCols();
+
+        int n = rows * cols;
+        state = new byte[n];
+        unresolved = new byte[n];
+        missing = new byte[n];
+        queued = new boolean[n];
+        proven = new boolean[n];
+
+        int mines = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (board.getCell(r, c).isMine()) mines++;
+            }
+        }
+        totalMines = mines; // shown to the players as "Mines Left"
+
+        reset();
+    }
+
+    /** Forgets all deductions and reads the whole board again. */
+    public void reset() {
+        Arrays.fill(state, UNKNOWN);
+        Arrays.fill(queued, false);
+        Arrays.fill(proven, false);
+        workHead = workTail = 0;
+        deducedCount = 0;
+        unknownCount = rows * cols;
+        knownMines = 0;
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                Cell cell = board.getCell(r, c);
+                if (cell.isOpen()) {
+                    if (cell.isMine()) setMine(r * cols + c);
+                    else open(r * cols + c, cell.getNeighborMinesNum());
+                } else if (cell.isFlag() && trustFlags) {
+                    setMine(r * cols + c);
+                }
+            }
+        }
+    }
+
+    /** Cells opened / flagged / unflagged since the last call. */
+    public void refresh(List<RevealResult.CellPos> changed) {
+        for (RevealResult.CellPos p : changed) refresh(p.row, p.col);
+    }
+
+    public void refresh(int row, int col) {
+        int i = row * cols + col;
+        Cell cell = board.getCell(row, col);
+
+        if (cell.isOpen()) {
+            if (state[i] == OPEN) return;
+            if (cell.isMine()) {
+                if (state[i] != MINE) resolve(i, MINE, false);
+            } else if (state[i] == MINE) {
+                reset(); // a flag that was taken as a mine was wrong
+            } else {
+                open(i, cell.getNeighborMinesNum());
+            }
+        } else if (!trustFlags) {
+            return; // flag toggles tell us nothing
+        } else if (cell.isFlag()) {
+            if (state[i] == SAFE) reset();               // contradicts a deduction
+            else if (state[i] == UNKNOWN) resolve(i, MINE, false);
+        } else if (state[i] == MINE && !proven[i]) {
+            reset(); // flag removed - what followed from it no longer holds
+        }
+    }
+
+    /**
+     * Runs the rules until nothing more follows.
+     * @return true if new cells were proven safe or mines
+     */
+    public boolean solve() {
+        int before = deducedCount;
+
+        while (workHead != workTail) {
+            int a = work[workHead];
+            workHead = (workHead + 1) % work.length;
+            queued[a] = false;
+
+            if (unresolved[a] == 0) continue;
+            if (applySingle(a)) continue;
+            applyPairs(a);
+        }
+
+        applyGlobal();
+        return deducedCount > before;
+    }
+
+    // ============================================================
+    //                          RESULTS
+    // ============================================================
+
+    /** Closed cells proven safe. */
+    public List<RevealResult.CellPos> getSafeCells() {
+        return collect(SAFE);
+    }
+
+    /** Closed, unflagged cells proven to be mines. */
+    public List<RevealResult.CellPos> getMineCells() {
+        return collect(MINE);
+    }
+
+    /**
+     * The first proven cell still to act on - safe cells before mines - or null
+     * (isMine tells which it is). Costs as much as the pending deductions, not the board.
+     */
+    public RevealResult.CellPos firstDeduced() {
+        int mine = -1;
+        int kept = 0;
+        for (int k = 0; k < deducedCount; k++) {
+            int i = deduced[k];
+            Cell cell = board.getCell(i / cols, i % cols);
+            if (cell.isOpen() || (cell.isFlag() && trustFlags)) continue; // acted on - drop it from the list
+
+            deduced[kept++] = i;
+            if (cell.isFlag()) continue; // untrusted flag: kept for when it comes off
+            if (state[i] == SAFE) {
+                // keep the rest of the list as it is
+                System.arraycopy(deduced, k + 1, deduced, kept, deducedCount - k - 1);
+                deducedCount = kept + deducedCount - k - 1;
+                return new RevealResult.CellPos(i / cols, i % cols);
+            }
+            if (mine < 0) mine = i;
+        }
+        deducedCount = kept;
+        return (mine < 0) ? null : new RevealResult.CellPos(mine / cols, mine % cols);
+    }
+
+    public boolean isSafe(int row, int col) {
+        int i = row * cols + col;
+        return state[i] == SAFE || state[i] == OPEN;
+    }
+
+    public boolean isMine(int row, int col) {
+        return state[row * cols + col] == MINE;
+    }
+
+    /** Closed cells neither proven safe nor mines. */
+    public int getUnknownCount() {
+        return unknownCount;
+    }
+
+    private List<RevealResult.CellPos> collect(byte wanted) {
+        List<RevealResult.CellPos> out = new ArrayList<>();
+        int kept = 0;
+        for (int k = 0; k < deducedCount; k++) {
+            int i = deduced[k];
+            Cell cell = board.getCell(i / cols, i % cols);
+            if (cell.isOpen() || (cell.isFlag() && trustFlags)) continue; // acted on - drop it from the list
+
+            deduced[kept++] = i;
+            if (cell.isFlag()) continue; // untrusted flag: kept for when it comes off
+            if (state[i] == wanted) out.add(new RevealResult.CellPos(i / cols, i % cols));
+        }
+        deducedCount = kept;
+        return out;
+    }
+
+    // ============================================================
+    //                          RULES
+    // ============================================================
+
+    private boolean applySingle(int a) {
+        int count = Integer.bitCount(unresolved[a] & 0xFF);
+        int need = missing[a];
+
+        if (need != 0 && need != count) return false;
+
+        byte to = (need == 0) ? SAFE : MINE;
+        int mask = unresolved[a] & 0xFF;
+        int r = a / cols, c = a % cols;
+        for (int d = 0; d < 8; d++) {
+            if ((mask & (1 << d)) != 0) resolve((r + DR[d]) * cols + (c + DC[d]), to, true);
+        }
+        return true;
+    }
+
+    private void applyPairs(int a) {
+        int ar = a / cols, ac = a % cols;
+
+        for (int br = Math.max(0, ar - 2); br <= Math.min(rows - 1, ar + 2); br++) {
+            for (int bc = Math.max(0, ac - 2); bc <= Math.min(cols - 1, ac + 2); bc++) {
+                int b = br * cols + bc;
+                if (b == a || state[b] != OPEN || unresolved[b] == 0) continue;
+
+                if (applyPair(a, b)) {
+                    if (unresolved[a] == 0) return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Shared cells of a and b hold between lo and hi mines; if that pins the
+     * cells only a (or only b) sees to all-safe / all-mine, resolve them.
+     */
+    private boolean applyPair(int a, int b) {
+        int na = cellsOf(a, cellsA);
+        int nb = cellsOf(b, cellsB);
+
+        int shared = 0;
+        for (int i = 0; i < na; i++) {
+            for (int j = 0; j < nb; j++) {
+                if (cellsA[i] == cellsB[j]) { shared++; break; }
+            }
+        }
+        if (shared == 0) return false;
+
+        int onlyA = na - shared, onlyB = nb - shared;
+        int needA = missing[a], needB = missing[b];
+
+        int lo = Math.max(0, Math.max(needA - onlyA, needB - onlyB));
+        int hi = Math.min(shared, Math.min(needA, needB));
+
+        byte toA = side(needA, onlyA, lo, hi);
+        byte toB = side(needB, onlyB, lo, hi);
+        if (toA == UNKNOWN && toB == UNKNOWN) return false;
+
+        // copy first - resolving changes the masks
+        int[] resolveA = Arrays.copyOf(cellsA, na);
+        int[] resolveB = Arrays.copyOf(cellsB, nb);
+        if (toA != UNKNOWN) resolveOnly(resolveA, resolveB, toA);
+        if (toB != UNKNOWN) resolveOnly(resolveB, resolveA, toB);
+        return true;
+    }
+
+    /** What the cells only one side sees must be, given its mines and the shared range. */
+    private static byte side(int need, int only, int lo, int hi) {
+        if (only == 0) return UNKNOWN;
+        if (need - lo == 0) return SAFE;     // even the most the shared cells can hold leaves none here
+        if (need - hi == only) return MINE;  // even the least fills every cell here
+        return UNKNOWN;
+    }
+
+    private void resolveOnly(int[] mine, int[] other, byte to) {
+        outer:
+        for (int x : mine) {
+            for (int y : other) {
+                if (x == y) continue outer;
+            }
+            resolve(x, to, true);
+        }
+    }
+
+    /** The board's mine total: no mines left -> the rest is safe; as many as cells left -> all mines. */
+    private void applyGlobal() {
+        int left = totalMines - knownMines;
+        if (unknownCount == 0 || (left != 0 && left != unknownCount)) return;
+
+        byte to = (left == 0) ? SAFE : MINE;
+        for (int i = 0; i < state.length; i++) {
+            if (state[i] == UNKNOWN) resolve(i, to, true);
+        }
+        solve(); // the new cells may settle frontier numbers (not more cells)
+    }
+
+    // ============================================================
+    //                          STATE
+    // ============================================================
+
+    private void open(int i, int number) {
+        byte before = state[i];
+        if (before == UNKNOWN) unknownCount--;
+        state[i] = OPEN;
+
+        int r = i / cols, c = i % cols;
+        int mask = 0;
+        int need = number;
+        for (int d = 0; d < 8; d++) {
+            int nr = r + DR[d], nc = c + DC[d];
+            if (nr < 0 || nr >= rows || nc < 0 || nc >= cols) continue;
+
+            int n = nr * cols + nc;
+            if (state[n] == UNKNOWN) mask |= 1 << d;
+            else if (state[n] == MINE) need--;
+        }
+        unresolved[i] = (byte) mask;
+        missing[i] = (byte) need;
+        if (mask != 0) enqueue(i);
+
+        // an opened cell is no longer unresolved for the numbers around it
+        if (before == UNKNOWN) detach(i, false);
+    }
+
+    private void setMine(int i) {
+        if (state[i] == UNKNOWN) unknownCount--;
+        state[i] = MINE;
+        knownMines++;
+        detach(i, true);
+    }
+
+    private void resolve(int i, byte to, boolean deduction) {
+        if (state[i] != UNKNOWN) return;
+
+        state[i] = to;
+        unknownCount--;
+        if (to == MINE) knownMines++;
+
+        if (deduction) {
+            proven[i] = true;
+            if (deducedCount == deduced.length) deduced = Arrays.copyOf(deduced, deducedCount * 2);
+            deduced[deducedCount++] = i;
+        }
+        detach(i, to == MINE);
+    }
+
+    /** Takes cell i out of its neighbours' constraints and re-queues them. */
+    private void detach(int i, boolean mine) {
+        int r = i / cols, c = i % cols;
+        for (int d = 0; d < 8; d++) {
+            int nr = r + DR[d], nc = c + DC[d];
+            if (nr < 0 || nr >= rows || nc < 0 || nc >= cols) continue;
+
+            int n = nr * cols + nc;
+            if (state[n] != OPEN) continue;
+
+            int bit = 1 << (7 - d); // from n, cell i lies in the opposite direction
+            if ((unresolved[n] & bit) == 0) continue;
+
+            unresolved[n] &= (byte) ~bit;
+            if (mine) missing[n]--;
+            enqueue(n);
+        }
+    }
+
+    private int cellsOf(int a, int[] out) {
+        int mask = unresolved[a] & 0xFF;
+        int r = a / cols, c = a % cols;
+        int k = 0;
+        for (int d = 0; d < 8; d++) {
+            if ((mask & (1 << d)) != 0) out[k++] = (r + DR[d]) * cols + (c + DC[d]);
+        }
+        return k;
+    }
+
+    private void enqueue(int i) {
+        if (queued[i]) return;
+        queued[i] = true;
+
+        if ((workTail + 1) % work.length == workHead) {
+            // full - grow, unwrapping the ring
+            int size = work.length;
+            int[] bigger = new int[size * 2];
+            int k = 0;
+            for (int p = workHead; p != workTail; p = (p + 1) % size) bigger[k++] = work[p];
+            work = bigger;
+            workHead = 0;
+            workTail = k;
+        }
+        work[workTail] = i;
+        workTail = (workTail + 1) % work.length;
+    }
+}
@@ -0,0 +1,61 @@
+package service;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A computer player for GameEngine: picks the next move for one player.
+ *
+ * The caller plays the move and hands the resulting events back through
+ * observe(), so a policy can keep its own view of the boards up to date.
+ */
+public interface BotPolicy {
+
+    /** Left click (reveal / use a special cell) or right click (flag) on the player's board. */
+    final class Move {
+        public final int row;
+        public final int col;
+        public final boolean flag;
+
+        public Move(int row, int col, boolean flag) {
+            this.row = row;
+            this.col = col;
+            this.flag = flag;
+        }
+    }
+
+    /** Called once the engine has its boards for a new game. */
+    void newGame(GameEngine engine);
+
+    /** Next move for `player` (whose turn it is); null if there is nothing left to do. */
+    Move choose(GameEngine engine, int player);
+
+    /** Events caused by any move since the last call (this bot's or someone else's). */
+    default void observe(List<GameEvent> events) {}
+
+    /**
+     * "random"  - clicks random closed cells
+     * "solver"  - proven mines / safe cells first (BoardSolver), random guess otherwise
+     * "prob"    - like solver, but guesses the least likely mine (ProbabilityEngine)
+     *
+     * @param useSpecials whether the bot activates discovered surprise / question cells
+     */
+    static BotPolicy create(String name, Random rng, boolean useSpecials) {
+        return create(name, rng, useSpecials, 0);
+    }
+
+    /**
+     * Same as create(name, rng, useSpecials), with a time limit per move:
+     * searches that run past it are dropped in favour of a quick guess.
+     *
+     * @param budgetMillis time per choose() call, 0 = no limit
+     */
+    static BotPolicy create(String name, Random rng, boolean useSpecials, long budgetMillis) {
+        return switch (name) {
+            case "random" -> new RandomBot(rng, useSpecials);
+            case "solver" -> new SolverBot(rng, useSpecials, false, budgetMillis);
+            case "prob" -> new SolverBot(rng, useSpecials, true, budgetMillis);
+            default -> throw new IllegalArgumentException("Unknown bot policy: " + name);
+        };
+    }
+}
@@ -0,0 +1,669 @@
+package service;
+
+import model.Board;
+import model.Cell;
+import model.GameModel;
+import model.Question;
+import model.QuestionDifficulty;
+import model.QuestionSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The rules of one cooperative game, without any UI.
+ *
+ * Two boards (one per player), shared score and lives (GameModel), turns,
+ * mines, surprise and question cells, win check and final scoring.
+ *
+ * Every move returns the GameEvents it caused, in order:
+ *
+ *   click(player, row, col)    - reveal, or use a discovered surprise / question cell
+ *   flag(player, row, col)     - toggle a flag
+ *   answer(player, choice)     - answer the question asked by the last click (0..3 = A..D)
+ *   dismissQuestion(player)    - close it unanswered (the cell stays usable)
+ *
+ * A move that is not allowed (game over, other player's turn, question still
+ * open) changes nothing and returns an empty list.
+ *
+ * Each game is journaled as it is played (board seeds, accepted moves,
+ * questions and special-cell draws - see GameJournal); GameReplay plays a
+ * journal back through an engine of its own.
+ *
+ * GameController renders the events; simulations and tests drive the engine
+ * directly.
+ */
+public class GameEngine {
+
+    /** Board size, mines and starting lives for a game difficulty ("Easy" / "Medium" / "Hard"). */
+    public static final class Settings {
+        public final int rows;
+        public final int cols;
+        public final int mines;
+        public final int lives;
+
+        private Settings(int rows, int cols, int mines, int lives) {
+            this.rows = rows;
+            this.cols = cols;
+            this.mines = mines;
+            this.lives = lives;
+        }
+
+        public static Settings of(String difficulty) {
+            return switch (difficulty) {
+                case "Easy" -> new Settings(9, 9, 10, 10);
+                case "Medium" -> new Settings(13, 13, 26, 8);
+                default -> new Settings(16, 16, 44, 6); // Hard
+            };
+        }
+    }
+
+    /** Per-player board bookkeeping. */
+    private static final class PlayerBoard {
+        final Board board;
+        final int totalMines;
+        int correctFlags = 0;
+        int openedMines = 0;
+
+        PlayerBoard(Board board) {
+            this.board = board;
+            int mines = 0;
+            for (int r = 0; r < board.getRows(); r++) {
+                for (int c = 0; c < board.getCols(); c++) {
+                    if (board.getCell(r, c).isMine()) mines++;
+                }
+            }
+            this.totalMines = mines;
+        }
+
+        int minesLeft() {
+            return Math.max(totalMines - (correctFlags + openedMines), 0);
+        }
+    }
+
+    /** Question shown by the last click, waiting for answer() / dismissQuestion(). */
+    private static final class PendingQuestion {
+        final int player, row, col;
+        final Question question;
+        final String label;
+
+        PendingQuestion(int player, int row, int col, Question question, String label) {
+            this.player = player;
+            this.row = row;
+            this.col = col;
+            this.question = question;
+            this.label = label;
+        }
+    }
+
+    // reveal bonus block shapes (height, width), best first
+    private static final int[][] BLOCK_SHAPES = {
+            {3, 3},             // 9
+            {3, 2}, {2, 3},     // 6
+            {2, 2},             // 4
+            {3, 1}, {1, 3},     // 3
+            {2, 1}, {1, 2},     // 2
+            {1, 1}              // 1
+    };
+
+    private final String difficulty;
+    private final Settings settings;
+    private final Random rng;          // board seeds
+    private final QuestionSource questions;
+
+    private final RevealService revealService = new RevealService();
+    private final SpecialCellService specialCellService;
+
+    // surprises and mine gifts draw from here, so the journal can repeat them
+    private final JournalRandom specialRng;
+
+    // journal of the current game; `replay` is the one being played back, or null
+    private GameJournal journal;
+    private final GameJournal.Reader replay;
+
+    // boards that can be cleared without guessing, each with its start already open
+    private final boolean noGuess;
+
+    private GameModel model;
+    private PlayerBoard[] boards;
+
+    private int currentPlayer;
+    private boolean over;
+    private boolean won;
+    private int clearedBoard;             // player whose board won the game, 0 if none
+    private PendingQuestion pending;
+
+    /**
+     * @param questions where question cells get their questions (null = none)
+     */
+    public GameEngine(String difficulty, Random rng, QuestionSource questions) {
+        this(difficulty, rng, questions, false);
+    }
+
+    /**
+     * @param noGuess generate no-guess boards (see NoGuessGenerator) and open
+     *                their start cells; the opening counts like a first click
+     */
+    public GameEngine(String difficulty, Random rng, QuestionSource questions, boolean noGuess) {
+        this(difficulty, rng, questions, noGuess, new JournalRandom(rng), null);
+    }
+
+    /** The game recorded in `replay`, set up but not played yet (see GameReplay). */
+    GameEngine(GameJournal.Reader replay) {
+        this(replay.difficulty, new Random(), null, replay.kinds[0] != GameJournal.BOARD_RANDOM,
+                new JournalRandom(replay), replay);
+    }
+
+    private GameEngine(String difficulty, Random rng, QuestionSource questions, boolean noGuess,
+                       JournalRandom specialRng, GameJournal.Reader replay) {
+        this.difficulty = difficulty;
+        this.noGuess = noGuess;
+        this.settings = Settings.of(difficulty);
+        this.rng = rng;
+        this.questions = questions;
+        this.specialRng = specialRng;
+        this.replay = replay;
+        this.specialCellService = new SpecialCellService(specialRng);
+        this.model = new GameModel(settings.mines, settings.lives, rng);
+        newGame();
+    }
+
+    /** Fresh boards, score 0, full lives, player 1 to move (the GameModel and its observers are kept). */
+    public void newGame() {
+        // each board comes from a seed of its own, so the journal only has to keep the seeds
+        int[] kinds = new int[2];
+        long[] seeds = new long[2];
+        Board[] made = new Board[2];
+        int[] starts = new int[2];
+        NoGuessGenerator generator = noGuess ? new NoGuessGenerator(model) : null;
+
+        for (int b = 0; b < 2; b++) {
+            if (!noGuess) {
+                seeds[b] = (replay != null) ? replay.seeds[b] : rng.nextLong();
+                kinds[b] = GameJournal.BOARD_RANDOM;
+                made[b] = model.generateBoard(settings.rows, settings.cols, new Random(seeds[b]));
+                continue;
+            }
+
+            NoGuessGenerator.Result res = (replay != null)
+                    ? generator.regenerate(settings.rows, settings.cols, replay.seeds[b],
+                                           replay.kinds[b] == GameJournal.BOARD_NO_GUESS)
+                    : generator.generate(settings.rows, settings.cols, rng);
+            seeds[b] = res.seed;
+            kinds[b] = res.verified ? GameJournal.BOARD_NO_GUESS : GameJournal.BOARD_FALLBACK;
+            made[b] = res.board;
+            starts[b] = res.startRow * settings.cols + res.startCol;
+        }
+
+        model.initializeBoards(made[0], made[1]);
+        if (noGuess) {
+            for (int b = 0; b < 2; b++) {
+                revealService.revealCell(made[b], model, starts[b] / settings.cols, starts[b] % settings.cols, true);
+            }
+        }
+
+        journal = new GameJournal();
+        journal.header(GameJournal.difficultyCode(difficulty), kinds, seeds);
+        specialRng.recordTo(journal);
+
+        boards = new PlayerBoard[]{
+                new PlayerBoard(model.getBoard1()),
+                new PlayerBoard(model.getBoard2())
+        };
+        currentPlayer = 1;
+        over = false;
+        won = false;
+        clearedBoard = 0;
+        pending = null;
+    }
+
+    // ============================================================
+    //                          STATE
+    // ============================================================
+
+    public String getDifficulty() { return difficulty; }
+    public boolean isNoGuess() { return noGuess; }
+    public Settings getSettings() { return settings; }
+    public GameModel getModel() { return model; }
+
+    public Board getBoard(int player) {
+        return boards[player - 1].board;
+    }
+
+    public int getMinesLeft(int player) {
+        return boards[player - 1].minesLeft();
+    }
+
+    public int getCurrentPlayer() { return currentPlayer; }
+    public boolean isOver() { return over; }
+    public boolean isWon() { return won; }
+
+    /** Player (1 or 2) whose board was cleared to win the game; 0 while playing or after a loss. */
+    public int getClearedBoard() { return clearedBoard; }
+
+    /** True while a question is open (no other move is accepted). */
+    public boolean isQuestionPending() { return pending != null; }
+
+    /** The current game so far, for GameReplay (a few bytes per move). */
+    public byte[] getJournal() {
+        return journal.toByteArray();
+    }
+
+    // ============================================================
+    //                          MOVES
+    // ============================================================
+
+    /** Left click on the player's own board. */
+    public List<GameEvent> click(int player, int row, int col) {
+        int mark = journalMove(GameJournal.CLICK, player, row, col);
+        return journaled(mark, playClick(player, row, col));
+    }
+
+    /** Right click: flag / unflag a closed cell. A first flag scores +1 on a mine, -3 otherwise. */
+    public List<GameEvent> flag(int player, int row, int col) {
+        int mark = journalMove(GameJournal.FLAG, player, row, col);
+        return journaled(mark, playFlag(player, row, col));
+    }
+
+    /** Answer the open question with option index 0..3 (A..D). */
+    public List<GameEvent> answer(int player, int choice) {
+        int mark = journal.mark();
+        journal.entry(GameJournal.ANSWER, player);
+        journal.varint(choice & 0xFFFFFFFFL);
+        return journaled(mark, playAnswer(player, choice));
+    }
+
+    /** Close the open question without answering; the cell can be clicked again. */
+    public List<GameEvent> dismissQuestion(int player) {
+        if (pending != null && pending.player == player) {
+            journal.entry(GameJournal.DISMISS, player);
+            pending = null;
+        }
+        return Collections.emptyList();
+    }
+
+    /** Writes the move before it is played (its draws follow it); returns the mark to undo it. */
+    private int journalMove(int op, int player, int row, int col) {
+        int mark = journal.mark();
+        journal.entry(op, player);
+        journal.varint((long) row * settings.cols + col);
+        return mark;
+    }
+
+    /** A move that was turned down leaves nothing in the journal. */
+    private List<GameEvent> journaled(int mark, List<GameEvent> events) {
+        if (events.isEmpty()) journal.rollback(mark);
+        return events;
+    }
+
+    private List<GameEvent> playClick(int player, int row, int col) {
+        if (!accepts(player, row, col)) return Collections.emptyList();
+
+        PlayerBoard pb = boards[player - 1];
+        Cell cell = pb.board.getCell(row, col);
+        List<GameEvent> events = new ArrayList<>(4);
+
+        if (cell.isSurprise() && cell.isDiscovered() && !cell.isActivated()) {
+            activateSurprise(cell, events);
+            return events;
+        }
+
+        if (cell.isQuestion() && cell.isDiscovered() && !cell.isActivated()) {
+            askQuestion(player, cell, events);
+            return events;
+        }
+
+        if (cell.isOpen() || cell.isFlag()) return Collections.emptyList();
+
+        RevealResult revealed = revealService.revealCell(pb.board, model, row, col, true);
+        events.add(GameEvent.cellsOpened(player, revealed.getOpenedCells()));
+
+        if (cell.isMine()) {
+            if (cell.isOpen()) pb.openedMines++;
+
+            model.addLives(-1);
+            events.add(GameEvent.mineHit(row, col,
+                    "You hit a mine! -1 life.\nShared Lives Remaining: " + model.getSharedLives()));
+
+            if (model.getSharedLives() <= 0) {
+                endGame(false, events);
+                return events;
+            }
+        }
+
+        switchPlayer(events);
+        checkWin(events);
+        return events;
+    }
+
+    private List<GameEvent> playFlag(int player, int row, int col) {
+        if (!accepts(player, row, col)) return Collections.emptyList();
+
+        PlayerBoard pb = boards[player - 1];
+        Cell cell = pb.board.getCell(row, col);
+        if (cell.isOpen()) return Collections.emptyList();
+
+        boolean wasFlagged = cell.isFlag();
+        cell.toggleFlag();
+        boolean isFlagged = cell.isFlag();
+
+        if (cell.isMine()) {
+            if (!wasFlagged && isFlagged) pb.correctFlags++;
+            else if (wasFlagged && !isFlagged) pb.correctFlags--;
+        }
+
+        // only the first flag on a cell counts toward the score
+        if (!wasFlagged && isFlagged && !cell.isFlagScored()) {
+            model.addScore(cell.isMine() ? +1 : -3);
+            cell.setFlagScored(true);
+        }
+
+        List<GameEvent> events = new ArrayList<>(2);
+        events.add(GameEvent.cellChanged(player, row, col));
+        checkWin(events);
+        return events;
+    }
+
+    private List<GameEvent> playAnswer(int player, int choice) {
+        if (over || pending == null || pending.player != player) return Collections.emptyList();
+
+        PendingQuestion p = pending;
+        pending = null;
+
+        boolean correct = (choice == p.question.getCorrectIndex());
+        if (questions != null) questions.recordAnswer(p.question, correct);
+
+        List<GameEvent> events = new ArrayList<>(4);
+
+        Cell cell = boards[p.player - 1].board.getCell(p.row, p.col);
+        cell.setActivated(true);
+        events.add(GameEvent.cellChanged(p.player, p.row, p.col));
+
+        applyQuestionReward(correct, p.label, events);
+        if (model.getSharedLives() <= 0) endGame(false, events);
+        return events;
+    }
+
+    private boolean accepts(int player, int row, int col) {
+        return !over && pending == null && player == currentPlayer
+                && boards[player - 1].board.isInBounds(row, col);
+    }
+
+    private void switchPlayer(List<GameEvent> events) {
+        if (over) return;
+        currentPlayer = (currentPlayer == 1) ? 2 : 1;
+        events.add(GameEvent.turnChanged(currentPlayer));
+    }
+
+    // ============================================================
+    //                      SPECIAL CELLS
+    // ============================================================
+
+    private void activateSurprise(Cell cell, List<GameEvent> events) {
+        SpecialCellResult res = specialCellService.processSurprise(
+                difficulty, model.getSharedScore(), model.getSharedLives());
+
+        events.add(GameEvent.surprise(cell.getRow(), cell.getCol(), res));
+        if (!res.allowed) return;
+
+        model.setSharedScore(res.newScore);
+        model.setSharedLives(res.newLives);
+
+        cell.setActivated(true);
+        events.add(GameEvent.cellChanged(currentPlayer, cell.getRow(), cell.getCol()));
+
+        if (res.gameOver) endGame(false, events);
+    }
+
+    private void askQuestion(int player, Cell cell, List<GameEvent> events) {
+        Question q = drawQuestion();
+        if (q == null) {
+            events.add(GameEvent.noQuestions());
+            return;
+        }
+
+        String label = difficultyLabel(q.getDifficulty());
+        pending = new PendingQuestion(player, cell.getRow(), cell.getCol(), q, label);
+        events.add(GameEvent.questionAsked(cell.getRow(), cell.getCol(), q, label));
+    }
+
+    /** Next question from the source - or, in a replay, the one the journal says was asked. */
+    private Question drawQuestion() {
+        Question q;
+        if (replay != null) {
+            q = replayedQuestion();
+        } else {
+            q = (questions == null) ? null : questions.draw();
+        }
+
+        if (q == null) {
+            journal.entry(GameJournal.NO_QUESTION, 1);
+        } else {
+            // only what the rules look at: the text lives in the question bank
+            QuestionDifficulty diff = (q.getDifficulty() == null) ? QuestionDifficulty.EASY : q.getDifficulty();
+            journal.entry(GameJournal.QUESTION, 1);
+            journal.varint(q.getId() + 1L);
+            journal.varint(diff.ordinal());
+            journal.varint(q.getCorrectIndex());
+        }
+        return q;
+    }
+
+    private Question replayedQuestion() {
+        if (replay.peekOp() == GameJournal.NO_QUESTION) {
+            replay.expect(GameJournal.NO_QUESTION);
+            return null;
+        }
+
+        replay.expect(GameJournal.QUESTION);
+        int id = (int) replay.varint() - 1;
+        QuestionDifficulty diff = QuestionDifficulty.values()[(int) replay.varint()];
+        int correct = (int) replay.varint();
+        return new Question(id, "Question #" + id, new String[]{"A", "B", "C", "D"}, correct, diff);
+    }
+
+    private void applyQuestionReward(boolean correct, String label, List<GameEvent> events) {
+        SpecialCellResult res = specialCellService.processQuestion(
+                difficulty, label, correct, model.getSharedScore(), model.getSharedLives());
+
+        model.setSharedScore(res.newScore);
+        model.setSharedLives(res.newLives);
+
+        StringBuilder extraInfo = new StringBuilder();
+        List<GameEvent> effects = new ArrayList<>(2);
+
+        if (res.actions.contains(SpecialAction.MINE_GIFT)) {
+            boolean done = flagRandomMine(effects);
+            if (done) extraInfo.append("\nMine gift: one hidden mine has been marked on your board.");
+            else      extraInfo.append("\nMine gift: no hidden mines left to mark.");
+        }
+
+        if (res.actions.contains(SpecialAction.REVEAL_AREA_3X3)) {
+            int revealed = revealBestBlock(effects);
+            extraInfo.append("\nReveal bonus: ")
+                     .append(revealed)
+                     .append(" cells have been uncovered.");
+        }
+
+        String msg = res.message;
+        if (extraInfo.length() > 0) msg += "\n" + extraInfo;
+
+        events.addAll(effects);
+        events.add(GameEvent.questionResult(correct, res.title, msg));
+
+        if (res.gameOver) {
+            endGame(false, events);
+            return;
+        }
+        checkWin(events);
+    }
+
+    /** Mine gift: flag one random hidden mine on the current player's board. */
+    private boolean flagRandomMine(List<GameEvent> events) {
+        PlayerBoard pb = boards[currentPlayer - 1];
+        Board board = pb.board;
+
+        List<Cell> candidates = new ArrayList<>();
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                Cell cell = board.getCell(r, c);
+                if (cell.isMine() && !cell.isOpen() && !cell.isFlag()) candidates.add(cell);
+            }
+        }
+        if (candidates.isEmpty()) return false;
+
+        Cell chosen = candidates.get(specialRng.nextInt(candidates.size()));
+        chosen.setFlag();
+        chosen.setFlagScored(true);
+        pb.correctFlags++;
+
+        events.add(GameEvent.cellChanged(currentPlayer, chosen.getRow(), chosen.getCol()));
+        return true;
+    }
+
+    /**
+     * Reveal bonus: open the block chosen by bestBlock on the current
+     * player's board. Mines opened this way cost no life.
+     * Returns the number of cells opened.
+     */
+    private int revealBestBlock(List<GameEvent> events) {
+        PlayerBoard pb = boards[currentPlayer - 1];
+        Board board = pb.board;
+
+        int[] block = bestBlock(board);
+        if (block == null) return 0;
+
+        RevealResult opened = new RevealResult();
+        for (int r = block[0]; r < block[0] + block[2]; r++) {
+            for (int c = block[1]; c < block[1] + block[3]; c++) {
+                Cell cell = board.getCell(r, c);
+                if (cell.isOpen() || cell.isFlag()) continue;
+
+                cell.setOpen(true);
+                model.revealedCells++;
+                if (cell.isMine()) pb.openedMines++;
+                if (cell.isSpecial() && !cell.isDiscovered()) cell.setDiscovered(true);
+                opened.addOpened(r, c);
+            }
+        }
+        events.add(GameEvent.cellsOpened(currentPlayer, opened.getOpenedCells()));
+        return opened.getOpenedCells().size();
+    }
+
+    /**
+     * The block the reveal bonus opens: the one with the most closed, unflagged
+     * cells - 3x3 first, then smaller shapes (BLOCK_SHAPES order); on ties the
+     * first in reading order of its top-left corner.
+     *
+     * Closed cells are counted once into a summed-area table, so every
+     * candidate block is scored in O(1).
+     *
+     * @return {row, col, height, width}, or null if no cell is closed and unflagged
+     */
+    public static int[] bestBlock(Board board) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+
+        // sat[(r+1)*(cols+1) + (c+1)] = closed, unflagged cells in rows 0..r, cols 0..c
+        int stride = cols + 1;
+        int[] sat = new int[(rows + 1) * stride];
+        for (int r = 0; r < rows; r++) {
+            int rowSum = 0;
+            for (int c = 0; c < cols; c++) {
+                Cell cell = board.getCell(r, c);
+                if (!cell.isOpen() && !cell.isFlag()) rowSum++;
+                sat[(r + 1) * stride + c + 1] = sat[r * stride + c + 1] + rowSum;
+            }
+        }
+
+        for (int[] shape : BLOCK_SHAPES) {
+            int h = shape[0];
+            int w = shape[1];
+            int bestCount = 0, bestRow = -1, bestCol = -1;
+
+            for (int r = 0; r <= rows - h; r++) {
+                for (int c = 0; c <= cols - w; c++) {
+                    int count = sat[(r + h) * stride + c + w] - sat[r * stride + c + w]
+                              - sat[(r + h) * stride + c] + sat[r * stride + c];
+
+                    // keep the rectangle with the MOST available cells (first one on ties)
+                    if (count > bestCount) {
+                        bestCount = count;
+                        bestRow = r;
+                        bestCol = c;
+                    }
+                }
+            }
+
+            // best-first: the first shape with any candidate wins
+            if (bestCount > 0) return new int[]{bestRow, bestCol, h, w};
+        }
+        return null;
+    }
+
+    private static String difficultyLabel(QuestionDifficulty diff) {
+        if (diff == null) return "Easy";
+        return switch (diff) {
+            case MEDIUM -> "Intermediate";
+            case HARD -> "Hard";
+            case EXPERT -> "Expert";
+            default -> "Easy";
+        };
+    }
+
+    // ============================================================
+    //                       END OF GAME
+    // ============================================================
+
+    /** Win: either board has every safe cell open, or every mine flagged / opened. */
+    private void checkWin(List<GameEvent> events) {
+        if (over) return;
+
+        for (int player = 1; player <= 2; player++) {
+            PlayerBoard pb = boards[player - 1];
+            if (isCleared(pb.board) || pb.minesLeft() == 0) {
+                clearedBoard = player;
+                endGame(true, events);
+                return;
+            }
+        }
+    }
+
+    private static boolean isCleared(Board board) {
+        int safeCells = 0;
+        int openedSafeCells = 0;
+
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                Cell cell = board.getCell(r, c);
+                if (!cell.isMine()) {
+                    safeCells++;
+                    if (cell.isOpen()) openedSafeCells++;
+                }
+            }
+        }
+        return safeCells > 0 && openedSafeCells == safeCells;
+    }
+
+    /** Reveals both boards and scores the game: score + lives x (5 / 8 / 12 by difficulty). */
+    private void endGame(boolean won, List<GameEvent> events) {
+        if (over) return;
+        over = true;
+        this.won = won;
+        pending = null;
+
+        for (int player = 1; player <= 2; player++) {
+            RevealResult opened = revealService.revealAllForce(boards[player - 1].board);
+            events.add(GameEvent.cellsOpened(player, opened.getOpenedCells()));
+        }
+
+        int lifeBonus = model.getSharedLives() * lifeBonusPerLife(difficulty);
+        events.add(GameEvent.gameOver(won, lifeBonus, model.getSharedScore() + lifeBonus));
+    }
+
+    private static int lifeBonusPerLife(String difficulty) {
+        return difficulty.equals("Easy") ? 5 : difficulty.equals("Medium") ? 8 : 12;
+    }
+}
@@ -0,0 +1,123 @@
+package service;
+
+import model.Question;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Something that happened during one GameEngine call, in the order it
+ * happened. The UI renders these (repaint cells, show messages); simulations
+ * can ignore them.
+ *
+ * Only the fields that belong to the event's type are set.
+ */
+public class GameEvent {
+
+    public enum Type {
+        CELLS_OPENED,     // player, cells: newly opened cells on that player's board (click, cascade, reveal bonus, end of game)
+        CELL_CHANGED,     // player, row/col: flag toggled or special cell used up - repaint it
+        MINE_HIT,         // row/col: the mine; message: dialog text
+        SURPRISE,         // row/col, allowed, title, message
+        QUESTION_ASKED,   // row/col, question, label ("Easy" / "Intermediate" / "Hard" / "Expert")
+        QUESTION_RESULT,  // correct, title, message
+        NO_QUESTIONS,     // title, message
+        TURN_CHANGED,     // player: whose turn it is now
+        GAME_OVER         // won, lifeBonus, finalScore
+    }
+
+    public final Type type;
+
+    public int row = -1;
+    public int col = -1;
+    public int player;
+    public List<RevealResult.CellPos> cells = Collections.emptyList();
+
+    public String title;
+    public String message;
+    public boolean allowed;
+
+    public Question question;
+    public String label;
+    public boolean correct;
+
+    public boolean won;
+    public int lifeBonus;
+    public int finalScore;
+
+    private GameEvent(Type type) {
+        this.type = type;
+    }
+
+    static GameEvent cellsOpened(int player, List<RevealResult.CellPos> cells) {
+        GameEvent e = new GameEvent(Type.CELLS_OPENED);
+        e.player = player;
+        e.cells = cells;
+        return e;
+    }
+
+    static GameEvent cellChanged(int player, int row, int col) {
+        GameEvent e = new GameEvent(Type.CELL_CHANGED);
+        e.player = player;
+        e.row = row;
+        e.col = col;
+        return e;
+    }
+
+    static GameEvent mineHit(int row, int col, String message) {
+        GameEvent e = new GameEvent(Type.MINE_HIT);
+        e.row = row;
+        e.col = col;
+        e.title = "Mine Hit!";
+        e.message = message;
+        return e;
+    }
+
+    static GameEvent surprise(int row, int col, SpecialCellResult res) {
+        GameEvent e = new GameEvent(Type.SURPRISE);
+        e.row = row;
+        e.col = col;
+        e.allowed = res.allowed;
+        e.title = res.title;
+        e.message = res.message;
+        return e;
+    }
+
+    static GameEvent questionAsked(int row, int col, Question q, String label) {
+        GameEvent e = new GameEvent(Type.QUESTION_ASKED);
+        e.row = row;
+        e.col = col;
+        e.question = q;
+        e.label = label;
+        return e;
+    }
+
+    static GameEvent questionResult(boolean correct, String title, String message) {
+        GameEvent e = new GameEvent(Type.QUESTION_RESULT);
+        e.correct = correct;
+        e.title = title;
+        e.message = message;
+        return e;
+    }
+
+    static GameEvent noQuestions() {
+        GameEvent e = new GameEvent(Type.NO_QUESTIONS);
+        e.title = "No Questions";
+        e.message = "No questions found in QuestionsCSV.csv";
+        return e;
+    }
+
+    static GameEvent turnChanged(int player) {
+        GameEvent e = new GameEvent(Type.TURN_CHANGED);
+        e.player = player;
+        return e;
+    }
+
+    static GameEvent gameOver(boolean won, int lifeBonus, int finalScore) {
+        GameEvent e = new GameEvent(Type.GAME_OVER);
+        e.won = won;
+        e.lifeBonus = lifeBonus;
+        e.finalScore = finalScore;
+        return e;
+    }
+}
@@ -0,0 +1,172 @@
+package service;
+
+import java.util.Arrays;
+
+/**
+ * Everything needed to play a game again, as a few bytes: how the two
+ * boards were made, then every accepted move and every random draw in the
+ * order they happened. GameReplay plays it back.
+ *
+ * Layout (all numbers are unsigned LEB128 varints unless noted):
+ *
+ *   version, difficulty (0 Easy / 1 Medium / 2 Hard)
+ *   per board: kind (BOARD_*), seed (8 bytes, big-endian)
+ *   entries:   tag = op | (player - 1) << 3, then
+ *                CLICK / FLAG      cell (row * cols + col)
+ *                ANSWER            choice (0..3)
+ *                DISMISS           -
+ *                QUESTION          question id + 1, difficulty ordinal, correct index
+ *                NO_QUESTION       -
+ *                DRAW              value returned by JournalRandom
+ *
+ * A click or flag costs 2-3 bytes, a special cell a few more for its draws.
+ *
+ * Written by GameEngine while it plays (see GameEngine.getJournal).
+ */
+public final class GameJournal {
+
+    static final int VERSION = 1;
+
+    static final int BOARD_RANDOM = 0;       // GameModel.generateBoard(new Random(seed))
+    static final int BOARD_NO_GUESS = 1;     // NoGuessGenerator, verified board
+    static final int BOARD_FALLBACK = 2;     // NoGuessGenerator ran out of time
+
+    static final int CLICK = 0;
+    static final int FLAG = 1;
+    static final int ANSWER = 2;
+    static final int DISMISS = 3;
+    static final int QUESTION = 4;
+    static final int NO_QUESTION = 5;
+    static final int DRAW = 6;
+
+    private byte[] buf = new byte[64];
+    private int size;
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // ---------------- Writing ----------------
+
+    void header(int difficulty, int[] kinds, long[] seeds) {
+        varint(VERSION);
+        varint(difficulty);
+        for (int b = 0; b < kinds.length; b++) {
+            varint(kinds[b]);
+            fixed64(seeds[b]);
+        }
+    }
+
+    void entry(int op, int player) {
+        varint(op | (player - 1) << 3);
+    }
+
+    void varint(long v) {
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            buf[size++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[size++] = (byte) v;
+    }
+
+    private void fixed64(long v) {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) buf[size++] = (byte) (v >>> shift);
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+    }
+
+    /** Current length, for rollback(). */
+    int mark() {
+        return size;
+    }
+
+    /** Forget everything written since mark() (a move the engine turned down). */
+    void rollback(int mark) {
+        size = mark;
+    }
+
+    static int difficultyCode(String difficulty) {
+        return switch (difficulty) {
+            case "Easy" -> 0;
+            case "Medium" -> 1;
+            default -> 2;
+        };
+    }
+
+    static String difficultyName(int code) {
+        return switch (code) {
+            case 0 -> "Easy";
+            case 1 -> "Medium";
+            default -> "Hard";
+        };
+    }
+
+    // ---------------- Reading ----------------
+
+    /** Reads a journal front to back. Throws IllegalArgumentException on a damaged one. */
+    static final class Reader {
+        private final byte[] data;
+        private int pos;
+
+        final String difficulty;
+        final int[] kinds = new int[2];
+        final long[] seeds = new long[2];
+
+        Reader(byte[] data) {
+            this.data = data;
+
+            int version = (int) varint();
+            if (version != VERSION) throw new IllegalArgumentException("Unknown journal version " + version);
+
+            difficulty = difficultyName((int) varint());
+            for (int b = 0; b < 2; b++) {
+                kinds[b] = (int) varint();
+                seeds[b] = fixed64();
+            }
+        }
+
+        boolean hasNext() {
+            return pos < data.length;
+        }
+
+        /** Op of the next entry, without reading it; -1 at the end. */
+        int peekOp() {
+            return hasNext() ? data[pos] & 7 : -1; // tags always fit in one byte
+        }
+
+        /** Reads a tag and returns its player (1 or 2); the op must be `op`. */
+        int expect(int op) {
+            int tag = (int) varint();
+            if ((tag & 7) != op) {
+                throw new IllegalArgumentException("Journal out of step: expected op " + op + ", found " + (tag & 7));
+            }
+            return (tag >>> 3) + 1;
+        }
+
+        long varint() {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos >= data.length) throw new IllegalArgumentException("Journal ends mid-entry");
+                byte b = data[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return v;
+            }
+            throw new IllegalArgumentException("Bad varint in journal");
+        }
+
+        private long fixed64() {
+            if (pos + 8 > data.length) throw new IllegalArgumentException("Journal header too short");
+            long v = 0;
+            for (int i = 0; i < 8; i++) v = (v << 8) | (data[pos++] & 0xFF);
+            return v;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays a recorded game (GameEngine.getJournal) again on a fresh engine:
+ * the same boards, then the same moves with the same surprise and gift
+ * draws, so every event comes out as it did the first time.
+ *
+ * step() plays one move (GameController shows them one by one);
+ * playToEnd() runs the rest at full speed, without any UI.
+ *
+ * Questions come back without their text (see GameJournal); only the
+ * difficulty and the correct option are kept, which is all the rules need.
+ */
+public class GameReplay {
+
+    private final GameJournal.Reader in;
+    private final GameEngine engine;
+
+    /** @throws IllegalArgumentException if the bytes are not a journal this version can read */
+    public GameReplay(byte[] journal) {
+        this.in = new GameJournal.Reader(journal);
+        this.engine = new GameEngine(in);
+    }
+
+    /** The engine being replayed (boards, score, lives as of the last step). */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    public boolean hasNext() {
+        return in.hasNext();
+    }
+
+    /** Plays the next recorded move and returns its events. */
+    public List<GameEvent> step() {
+        int op = in.peekOp();
+        int cols = engine.getSettings().cols;
+
+        switch (op) {
+            case GameJournal.CLICK -> {
+                int player = in.expect(op);
+                int cell = (int) in.varint();
+                return engine.click(player, cell / cols, cell % cols);
+            }
+            case GameJournal.FLAG -> {
+                int player = in.expect(op);
+                int cell = (int) in.varint();
+                return engine.flag(player, cell / cols, cell % cols);
+            }
+            case GameJournal.ANSWER -> {
+                int player = in.expect(op);
+                return engine.answer(player, (int) in.varint());
+            }
+            case GameJournal.DISMISS -> {
+                return engine.dismissQuestion(in.expect(op));
+            }
+            default -> throw new IllegalArgumentException("Journal out of step: no move at op " + op);
+        }
+    }
+
+    /** Plays every remaining move; returns all their events in order. */
+    public List<GameEvent> playToEnd() {
+        List<GameEvent> events = new ArrayList<>();
+        while (in.hasNext()) events.addAll(step());
+        return events;
+    }
+}
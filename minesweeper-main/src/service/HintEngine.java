@@ -0,0 +1,57 @@
+package service;
+
+import java.util.List;
+
+/**
+ * Hints for the player whose turn it is: a cell that is provably safe, or
+ * else one that is provably a mine.
+ *
+ * One BoardSolver per board is kept for the whole game and fed the cells
+ * each move changed (opened cells, flag toggles), so asking for a hint only
+ * works through what the last moves touched - not the whole board.
+ *
+ * The solvers ignore flags: a player's flag can be wrong, and a deduction
+ * built on it could show a mine as safe. Only open cells (numbers and opened
+ * mines) count, so every hint holds whatever has been flagged.
+ */
+public class HintEngine {
+
+    /** A proven cell on the player's board. */
+    public static final class Hint {
+        public final int row;
+        public final int col;
+        public final boolean mine;   // a mine to flag (it may be flagged wrongly elsewhere already)
+
+        Hint(int row, int col, boolean mine) {
+            this.row = row;
+            this.col = col;
+            this.mine = mine;
+        }
+    }
+
+    private final BoardSolver[] solvers = new BoardSolver[2];
+
+    /** Call after engine.newGame(). */
+    public void newGame(GameEngine engine) {
+        solvers[0] = new BoardSolver(engine.getBoard(1), false);
+        solvers[1] = new BoardSolver(engine.getBoard(2), false);
+    }
+
+    /** Every batch of events the engine returns. */
+    public void observe(List<GameEvent> events) {
+        for (GameEvent e : events) {
+            if (e.type == GameEvent.Type.CELLS_OPENED) solvers[e.player - 1].refresh(e.cells);
+            else if (e.type == GameEvent.Type.CELL_CHANGED) solvers[e.player - 1].refresh(e.row, e.col);
+        }
+    }
+
+    /** A safe cell if one is proven, else a mine to flag; null if the player has to guess. */
+    public Hint hint(int player) {
+        BoardSolver solver = solvers[player - 1];
+        if (solver == null) return null;
+
+        solver.solve();
+        RevealResult.CellPos p = solver.firstDeduced();
+        return (p == null) ? null : new Hint(p.row, p.col, solver.isMine(p.row, p.col));
+    }
+}
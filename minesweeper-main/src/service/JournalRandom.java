@@ -0,0 +1,54 @@
+package service;
+
+import java.util.Random;
+
+/**
+ * The Random behind special cells and mine gifts. Every draw is written to
+ * the game's journal; when a game is replayed the draws are read back from
+ * it instead, so surprises and gifts come out exactly as they did.
+ *
+ * All of Random's methods go through next(bits), so overriding it is enough.
+ */
+final class JournalRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Random source;          // null when replaying
+    private GameJournal out;
+    private GameJournal.Reader in;
+
+    /** Draws from `source` and records them. */
+    JournalRandom(Random source) {
+        super(0);
+        this.source = source;
+    }
+
+    /** Replays the draws stored in `in`. */
+    JournalRandom(GameJournal.Reader in) {
+        super(0);
+        this.source = null;
+        this.in = in;
+    }
+
+    /** Journal of the current game (set by GameEngine.newGame). */
+    void recordTo(GameJournal out) {
+        this.out = out;
+    }
+
+    @Override
+    protected int next(int bits) {
+        int v;
+        if (in != null) {
+            in.expect(GameJournal.DRAW);
+            v = (int) in.varint();
+        } else {
+            v = source.nextInt() >>> (32 - bits);
+        }
+
+        if (out != null) {
+            out.entry(GameJournal.DRAW, 1);
+            out.varint(v & 0xFFFFFFFFL);
+        }
+        return v;
+    }
+}
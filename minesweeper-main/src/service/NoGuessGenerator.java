@@ -0,0 +1,175 @@
+package service;
+
+import model.Board;
+import model.Cell;
+import model.GameModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Boards that never force a guess.
+ *
+ * A candidate board (GameModel.generateBoard) gets a start cell - a plain
+ * cell with no mines around it - and is played out by BoardSolver from there:
+ * open every provably safe cell, repeat. If that opens every safe cell, the
+ * board can be cleared by logic alone and is kept.
+ *
+ * Candidates are tried on all cores at once; the first board that passes
+ * wins and the other workers are cancelled. If none passes in time, a plain
+ * random board is used (Result.verified = false).
+ *
+ * Each worker searches from its own seed, so the board that won can be made
+ * again from Result.seed (regenerate - used to replay a recorded game).
+ */
+public class NoGuessGenerator {
+
+    private static final long TIME_LIMIT_MS = 3000;
+
+    private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+
+    private static final ExecutorService pool = Executors.newFixedThreadPool(WORKERS, r -> {
+        Thread t = new Thread(r, "no-guess-generator");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** A generated board (all cells closed) and the cell to open first. */
+    public static final class Result {
+        public final Board board;
+        public final int startRow;
+        public final int startCol;
+        public final boolean verified;     // false = time ran out, board may need a guess
+        public final int candidatesTried;
+        public final long seed;            // regenerate(rows, cols, seed, verified) makes it again
+
+        Result(Board board, int startRow, int startCol, boolean verified, int candidatesTried, long seed) {
+            this.board = board;
+            this.startRow = startRow;
+            this.startCol = startCol;
+            this.verified = verified;
+            this.candidatesTried = candidatesTried;
+            this.seed = seed;
+        }
+    }
+
+    private final GameModel model;
+
+    public NoGuessGenerator(GameModel model) {
+        this.model = model;
+    }
+
+    /** Blocks until a board is found (or the time limit hits). Seeds the workers from rng. */
+    public Result generate(int rows, int cols, Random rng) {
+        List<Callable<Result>> workers = new ArrayList<>(WORKERS);
+        for (int i = 0; i < WORKERS; i++) {
+            long seed = rng.nextLong();
+            workers.add(() -> search(rows, cols, seed));
+        }
+
+        try {
+            // first successful worker wins; invokeAny interrupts the rest
+            return pool.invokeAny(workers, TIME_LIMIT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return fallback(rows, cols, rng.nextLong());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback(rows, cols, rng.nextLong());
+        }
+    }
+
+    /** The board generate() returned with this seed, made again on the calling thread. */
+    public Result regenerate(int rows, int cols, long seed, boolean verified) {
+        return verified ? search(rows, cols, seed) : fallback(rows, cols, seed);
+    }
+
+    private Result search(int rows, int cols, long seed) {
+        Random rand = new Random(seed);
+        int tried = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            tried++;
+            Board board = model.generateBoard(rows, cols, rand);
+
+            int start = pickStart(board, rand);
+            if (start < 0) continue;
+
+            int r = start / cols, c = start % cols;
+            if (clearsByLogic(board, r, c)) {
+                closeAll(board);
+                return new Result(board, r, c, true, tried, seed);
+            }
+        }
+        throw new CancellationException(); // another worker won
+    }
+
+    private Result fallback(int rows, int cols, long seed) {
+        Random rand = new Random(seed);
+        Board board = model.generateBoard(rows, cols, rand);
+        int start = pickStart(board, rand);
+        if (start < 0) return new Result(board, 0, 0, false, 1, seed);
+        return new Result(board, start / board.getCols(), start % board.getCols(), false, 1, seed);
+    }
+
+    /** A random plain cell with no neighbouring mines (index), or -1. */
+    private static int pickStart(Board board, Random rand) {
+        int cols = board.getCols();
+        int count = 0, pick = -1;
+
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < cols; c++) {
+                Cell cell = board.getCell(r, c);
+                if (cell.isMine() || cell.isSpecial() || cell.getNeighborMinesNum() != 0) continue;
+
+                // reservoir sampling - one pass, uniform choice
+                if (rand.nextInt(++count) == 0) pick = r * cols + c;
+            }
+        }
+        return pick;
+    }
+
+    /** Plays the board from the start cell using only proven-safe moves. */
+    private static boolean clearsByLogic(Board board, int startRow, int startCol) {
+        RevealService reveal = new RevealService();
+        GameModel scratch = new GameModel(0, 0); // scoring of the trial run goes nowhere
+
+        reveal.revealCell(board, scratch, startRow, startCol, true);
+        BoardSolver solver = new BoardSolver(board);
+
+        while (!Thread.currentThread().isInterrupted()) {
+            solver.solve();
+            List<RevealResult.CellPos> safe = solver.getSafeCells();
+            if (safe.isEmpty()) break;
+
+            for (RevealResult.CellPos p : safe) {
+                solver.refresh(reveal.revealCell(board, scratch, p.row, p.col, true).getOpenedCells());
+            }
+        }
+
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                Cell cell = board.getCell(r, c);
+                if (!cell.isMine() && !cell.isOpen()) return false;
+            }
+        }
+        return true;
+    }
+
+    /** Undoes the trial run. */
+    private static void closeAll(Board board) {
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                Cell cell = board.getCell(r, c);
+                cell.setOpen(false);
+                cell.setDiscovered(false);
+            }
+        }
+    }
+}
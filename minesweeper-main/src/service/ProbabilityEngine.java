@@ -0,0 +1,595 @@
+package service;
+
+import model.Board;
+import model.Cell;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Exact mine probabilities for every closed cell of a board, from what the
+ * player can see (open numbers, opened mines, flags - flags count as mines)
+ * and the board's mine total.
+ *
+ * - Closed cells next to an open number form the frontier; numbers that
+ *   share cells link them into independent components
+ * - Each component is counted exactly: cells are assigned in BFS order and
+ *   partial assignments that leave the same numbers with the same mines still
+ *   missing are merged (memoised), so the cost follows the width of the
+ *   frontier, not 2^cells. A forward and a backward pass give, per mine
+ *   count k, the number of solutions and how many of them put a mine on
+ *   each cell
+ * - The components are weighted against each other and against the cells
+ *   away from the frontier by C(unconstrained cells, mines left - k)
+ *
+ * Components are counted in parallel on a ForkJoinPool. compute() reads the
+ * board on the calling thread (the FX thread in the game) and returns at
+ * once; a new compute() or cancel() stops the one still running.
+ */
+public class ProbabilityEngine {
+
+    private static final int[] DR = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] DC = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    // counts kept for one component (~128 MB); beyond that the future fails instead of the heap
+    private static final long MAX_COUNTS = 1L << 24;
+
+    private final ForkJoinPool pool;
+
+    // the computation still running (if any); cancelled by the next one
+    private Job current;
+
+    public ProbabilityEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ProbabilityEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Snapshots the board now and computes its probability map in the
+     * background. The future is cancelled if compute() / cancel() is called
+     * again before it completes.
+     */
+    public synchronized CompletableFuture<ProbabilityMap> compute(Board board) {
+        cancel();
+
+        Job job = new Job(new Snapshot(board));
+        current = job;
+        pool.execute(job);
+        return job.result;
+    }
+
+    /** Stops the running computation (its future completes as cancelled). */
+    public synchronized void cancel() {
+        if (current != null) {
+            current.cancelled = true;
+            current.result.cancel(false);
+            current = null;
+        }
+    }
+
+    // ============================================================
+    //                          SNAPSHOT
+    // ============================================================
+
+    /** What the player sees, copied off the Board so the work can run on other threads. */
+    private static final class Snapshot {
+        static final byte CLOSED = -1;
+        static final byte MINE = -2;    // flagged or opened mine
+
+        final int rows, cols;
+        final byte[] view;              // CLOSED / MINE / open number 0..8
+        final int minesLeft;
+
+        Snapshot(Board board) {
+            rows = board.getRows();
+            cols = board.getCols();
+            view = new byte[rows * cols];
+
+            int total = 0, known = 0;
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    Cell cell = board.getCell(r, c);
+                    if (cell.isMine()) total++; // the players see the total as "Mines Left"
+
+                    byte v;
+                    if (cell.isOpen()) v = cell.isMine() ? MINE : (byte) cell.getNeighborMinesNum();
+                    else v = cell.isFlag() ? MINE : CLOSED;
+                    if (v == MINE) known++;
+                    view[r * cols + c] = v;
+                }
+            }
+            minesLeft = total - known;
+        }
+    }
+
+    // ============================================================
+    //                            JOB
+    // ============================================================
+
+    @SuppressWarnings("serial") // never serialized (RecursiveTask is Serializable, its fields are not)
+    private static final class Job extends RecursiveTask<Void> {
+        final Snapshot s;
+        final CompletableFuture<ProbabilityMap> result = new CompletableFuture<>();
+        volatile boolean cancelled;
+
+        Job(Snapshot s) {
+            this.s = s;
+        }
+
+        @Override
+        protected Void compute() {
+            try {
+                result.complete(solve());
+            } catch (CancellationException e) {
+                result.cancel(false);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                if (!result.isDone()) result.cancel(false); // an Error goes on up; nobody is left waiting
+            }
+            return null;
+        }
+
+        private ProbabilityMap solve() {
+            int n = s.rows * s.cols;
+            double[] p = new double[n];
+            Arrays.fill(p, Double.NaN);
+
+            List<Component> comps = findComponents();
+
+            // count the components in parallel
+            List<ComponentTask> tasks = new ArrayList<>(comps.size());
+            for (Component c : comps) tasks.add(new ComponentTask(c, this));
+            invokeAll(tasks);
+            checkCancelled();
+
+            int unconstrained = 0;
+            int constrained = 0;
+            for (Component c : comps) constrained += c.cells.length;
+            for (int i = 0; i < n; i++) {
+                if (s.view[i] == Snapshot.CLOSED) unconstrained++;
+            }
+            unconstrained -= constrained;
+
+            // weight of k frontier mines = C(unconstrained, minesLeft - k), in logs then scaled
+            Node root = comps.isEmpty() ? null : Node.build(comps, 0, comps.size());
+            double[] total = (root == null) ? new double[]{1} : root.ways;
+            double[] w = rest(unconstrained, s.minesLeft, total.length);
+
+            if (root != null) root.push(w, p, this);
+
+            // cells away from the frontier share the expected remaining mines evenly
+            if (unconstrained > 0) {
+                double z = 0, mines = 0;
+                for (int k = 0; k < total.length; k++) {
+                    z += total[k] * w[k];
+                    mines += total[k] * w[k] * (s.minesLeft - k);
+                }
+                double q = (z == 0) ? 0 : Math.min(1, Math.max(0, mines / z / unconstrained));
+
+                boolean[] onFrontier = new boolean[n];
+                for (Component c : comps) for (int cell : c.cells) onFrontier[cell] = true;
+                for (int i = 0; i < n; i++) {
+                    if (s.view[i] == Snapshot.CLOSED && !onFrontier[i]) p[i] = q;
+                }
+            }
+            return new ProbabilityMap(s.rows, s.cols, p);
+        }
+
+        /** Frontier cells and their numbers, split into independent groups. */
+        private List<Component> findComponents() {
+            int rows = s.rows, cols = s.cols, n = rows * cols;
+
+            // union-find over closed frontier cells, joined through shared numbers
+            int[] parent = new int[n];
+            Arrays.fill(parent, -1);
+            boolean any = false;
+
+            for (int i = 0; i < n; i++) {
+                if (s.view[i] < 0) continue;
+                int first = -1;
+                for (int d = 0; d < 8; d++) {
+                    int nb = neighbour(i, d);
+                    if (nb < 0 || s.view[nb] != Snapshot.CLOSED) continue;
+                    if (parent[nb] < 0) parent[nb] = nb;
+                    if (first < 0) first = nb;
+                    else union(parent, first, nb);
+                    any = true;
+                }
+            }
+            if (!any) return new ArrayList<>();
+
+            Map<Integer, List<Integer>> cellsByRoot = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                if (parent[i] >= 0) cellsByRoot.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(i);
+            }
+
+            Map<Integer, List<Integer>> numbersByRoot = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                if (s.view[i] < 0) continue;
+                for (int d = 0; d < 8; d++) {
+                    int nb = neighbour(i, d);
+                    if (nb >= 0 && s.view[nb] == Snapshot.CLOSED) {
+                        numbersByRoot.computeIfAbsent(find(parent, nb), k -> new ArrayList<>()).add(i);
+                        break;
+                    }
+                }
+            }
+
+            List<Component> out = new ArrayList<>(cellsByRoot.size());
+            for (Map.Entry<Integer, List<Integer>> e : cellsByRoot.entrySet()) {
+                out.add(new Component(this, e.getValue(), numbersByRoot.get(e.getKey())));
+            }
+            return out;
+        }
+
+        int neighbour(int i, int d) {
+            int r = i / s.cols + DR[d], c = i % s.cols + DC[d];
+            return (r < 0 || r >= s.rows || c < 0 || c >= s.cols) ? -1 : r * s.cols + c;
+        }
+
+        void checkCancelled() {
+            if (cancelled) throw new CancellationException();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ComponentTask extends RecursiveTask<Void> {
+        final Component c;
+        final Job job;
+
+        ComponentTask(Component c, Job job) {
+            this.c = c;
+            this.job = job;
+        }
+
+        @Override
+        protected Void compute() {
+            c.count(job);
+            return null;
+        }
+    }
+
+    /**
+     * Balanced tree over the components. Bottom-up each node holds the mine
+     * counts of its components together; top-down it gets the weight of
+     * everything outside it (other components + unconstrained cells) per
+     * mine count inside it. That gives each component its "rest" weight
+     * without convolving all the others once per component.
+     */
+    private static final class Node {
+        final Node left, right;
+        final Component leaf;
+        final double[] ways;         // by mines k in this subtree (scaled)
+
+        private Node(Node left, Node right, Component leaf, double[] ways) {
+            this.left = left;
+            this.right = right;
+            this.leaf = leaf;
+            this.ways = ways;
+        }
+
+        static Node build(List<Component> comps, int lo, int hi) {
+            if (hi - lo == 1) return new Node(null, null, comps.get(lo), comps.get(lo).ways);
+            int mid = (lo + hi) >>> 1;
+            Node l = build(comps, lo, mid), r = build(comps, mid, hi);
+            return new Node(l, r, null, normalise(convolve(l.ways, r.ways)));
+        }
+
+        /** outside[k] = weight of everything else when this subtree holds k mines. */
+        void push(double[] outside, double[] p, Job job) {
+            job.checkCancelled();
+
+            if (leaf != null) {
+                double z = dot(leaf.ways, outside);
+                for (int j = 0; j < leaf.cells.length; j++) {
+                    p[leaf.cells[j]] = (z == 0) ? 0 : dot(leaf.mineWays[j], outside) / z;
+                }
+                return;
+            }
+            left.push(shiftIn(right.ways, outside, left.ways.length), p, job);
+            right.push(shiftIn(left.ways, outside, right.ways.length), p, job);
+        }
+
+        /** out[k] = sum over j of sibling[j] * outside[k + j], for k < len. */
+        private static double[] shiftIn(double[] sibling, double[] outside, int len) {
+            double[] out = new double[len];
+            for (int k = 0; k < len; k++) {
+                double sum = 0;
+                for (int j = 0; j < sibling.length && k + j < outside.length; j++) sum += sibling[j] * outside[k + j];
+                out[k] = sum;
+            }
+            return normalise(out);
+        }
+    }
+
+    // ============================================================
+    //                         COMPONENT
+    // ============================================================
+
+    /** One group of frontier cells and the numbers over them. */
+    private static final class Component {
+        final int[] cells;           // board indices, in BFS order
+        final int[][] numberCells;   // per number: positions in cells[]
+        final int[] numberMines;     // per number: mines among its closed cells
+        final int[] firstPos, lastPos;
+
+        // results: by mines k in this component
+        double[] ways;               // number of solutions
+        double[][] mineWays;         // per cell: solutions with a mine there
+
+        Component(Job job, List<Integer> cellList, List<Integer> numbers) {
+            Snapshot s = job.s;
+
+            // BFS order over "shares a number" keeps few numbers half-assigned at a time
+            Map<Integer, List<Integer>> numbersOfCell = new HashMap<>();
+            for (int num : numbers) {
+                for (int d = 0; d < 8; d++) {
+                    int nb = job.neighbour(num, d);
+                    if (nb >= 0 && s.view[nb] == Snapshot.CLOSED) {
+                        numbersOfCell.computeIfAbsent(nb, k -> new ArrayList<>()).add(num);
+                    }
+                }
+            }
+            Map<Integer, Integer> pos = new HashMap<>();
+            int[] order = new int[cellList.size()];
+            int head = 0, tail = 0;
+            order[tail++] = cellList.get(0);
+            pos.put(cellList.get(0), 0);
+            while (head < tail) {
+                int cell = order[head++];
+                for (int num : numbersOfCell.get(cell)) {
+                    for (int d = 0; d < 8; d++) {
+                        int nb = job.neighbour(num, d);
+                        if (nb >= 0 && s.view[nb] == Snapshot.CLOSED && !pos.containsKey(nb)) {
+                            pos.put(nb, tail);
+                            order[tail++] = nb;
+                        }
+                    }
+                }
+            }
+            cells = order;
+
+            numberCells = new int[numbers.size()][];
+            numberMines = new int[numbers.size()];
+            firstPos = new int[numbers.size()];
+            lastPos = new int[numbers.size()];
+            for (int j = 0; j < numbers.size(); j++) {
+                int num = numbers.get(j);
+                int[] tmp = new int[8];
+                int k = 0, mines = s.view[num];
+                for (int d = 0; d < 8; d++) {
+                    int nb = job.neighbour(num, d);
+                    if (nb < 0) continue;
+                    if (s.view[nb] == Snapshot.CLOSED) tmp[k++] = pos.get(nb);
+                    else if (s.view[nb] == Snapshot.MINE) mines--;
+                }
+                numberCells[j] = Arrays.copyOf(tmp, k);
+                Arrays.sort(numberCells[j]);
+                numberMines[j] = mines;
+                firstPos[j] = numberCells[j][0];
+                lastPos[j] = numberCells[j][k - 1];
+            }
+        }
+
+        /** Assignment states at one boundary, merged by the mines the open numbers still need. */
+        private static final class State {
+            final int[] key;      // residual mines of the numbers active at this boundary
+            final int hash;
+            double[] fwd;         // ways to reach it with k mines so far
+            double[] bwd;         // ways to finish from it with k more mines
+            State next0, next1;   // after a safe / mine cell (null = not allowed)
+
+            State(int[] key) {
+                this.key = key;
+                this.hash = Arrays.hashCode(key);
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof State && Arrays.equals(key, ((State) o).key);
+            }
+
+            @Override
+            public int hashCode() {
+                return hash;
+            }
+        }
+
+        /** Fails the job before `counts` values are allocated if that is more than MAX_COUNTS. */
+        private static void checkBudget(long counts, int n) {
+            if (counts > MAX_COUNTS) {
+                throw new IllegalStateException("Frontier too wide for exact probabilities ("
+                        + n + " cells in one group)");
+            }
+        }
+
+        void count(Job job) {
+            int n = cells.length;
+            int numbers = numberCells.length;
+            checkBudget((long) numbers * n, n); // the tables below, before they are allocated
+
+            // numbers touching each cell, and numbers active at each boundary b (cells < b assigned, >= b not)
+            List<List<Integer>> numbersAt = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) numbersAt.add(new ArrayList<>(4));
+            for (int j = 0; j < numbers; j++) for (int p : numberCells[j]) numbersAt.get(p).add(j);
+
+            int[][] active = new int[n + 1][];
+            int[] tmp = new int[numbers];
+            for (int b = 0; b <= n; b++) {
+                int k = 0;
+                for (int j = 0; j < numbers; j++) {
+                    if (firstPos[j] < b && lastPos[j] >= b) tmp[k++] = j;
+                }
+                active[b] = Arrays.copyOf(tmp, k);
+            }
+            // closed cells of number j at positions > i
+            int[][] remaining = new int[numbers][];
+            for (int j = 0; j < numbers; j++) {
+                remaining[j] = new int[n];
+                for (int i = 0; i < n; i++) {
+                    int r = 0;
+                    for (int p : numberCells[j]) if (p > i) r++;
+                    remaining[j][i] = r;
+                }
+            }
+
+            // forward: reachable states per boundary, with their prefix counts
+            List<List<State>> layers = new ArrayList<>(n + 1);
+            State start = new State(new int[0]);
+            start.fwd = new double[]{1};
+            layers.add(List.of(start));
+
+            int[] residual = new int[numbers];
+            long counts = 0;
+            for (int i = 0; i < n; i++) {
+                Map<State, State> next = new HashMap<>();
+                for (State st : layers.get(i)) {
+                    job.checkCancelled();
+                    for (int v = 0; v <= 1; v++) {
+                        // residuals before cell i
+                        for (int j : numbersAt.get(i)) residual[j] = numberMines[j];
+                        for (int a = 0; a < active[i].length; a++) residual[active[i][a]] = st.key[a];
+
+                        boolean ok = true;
+                        for (int j : numbersAt.get(i)) {
+                            int left = residual[j] - v;
+                            if (left < 0 || left > remaining[j][i]) { ok = false; break; }
+                            residual[j] = left;
+                        }
+                        if (!ok) continue;
+
+                        int[] key = new int[active[i + 1].length];
+                        for (int a = 0; a < key.length; a++) key[a] = residual[active[i + 1][a]];
+                        State to = next.computeIfAbsent(new State(key), k -> k);
+                        checkBudget(counts + 2L * next.size() * (i + 2), n);
+                        to.fwd = addShifted(to.fwd, st.fwd, v);
+                        if (v == 0) st.next0 = to; else st.next1 = to;
+                    }
+                }
+                layers.add(new ArrayList<>(next.values()));
+
+                counts += 2L * next.size() * (i + 2); // forward now, backward later
+            }
+
+            // backward: ways to finish from each state
+            for (State st : layers.get(n)) st.bwd = new double[]{1};
+            for (int i = n - 1; i >= 0; i--) {
+                job.checkCancelled();
+                for (State st : layers.get(i)) {
+                    double[] b = null;
+                    if (st.next0 != null && st.next0.bwd != null) b = addShifted(b, st.next0.bwd, 0);
+                    if (st.next1 != null && st.next1.bwd != null) b = addShifted(b, st.next1.bwd, 1);
+                    st.bwd = b;
+                }
+            }
+
+            ways = (start.bwd == null) ? new double[]{0} : start.bwd;
+
+            // mine on cell i: prefix up to i, a mine, then any valid finish
+            mineWays = new double[n][];
+            for (int i = 0; i < n; i++) {
+                double[] m = new double[ways.length];
+                for (State st : layers.get(i)) {
+                    if (st.fwd == null || st.next1 == null || st.next1.bwd == null) continue;
+                    double[] f = st.fwd, b = st.next1.bwd;
+                    for (int x = 0; x < f.length; x++) {
+                        if (f[x] == 0) continue;
+                        for (int y = 0; y < b.length; y++) {
+                            if (x + y + 1 < m.length) m[x + y + 1] += f[x] * b[y];
+                        }
+                    }
+                }
+                mineWays[i] = m;
+            }
+
+            // scale down together - only ratios matter
+            double max = 0;
+            for (double x : ways) max = Math.max(max, x);
+            if (max > 0) {
+                for (int k = 0; k < ways.length; k++) ways[k] /= max;
+                for (double[] m : mineWays) for (int k = 0; k < m.length; k++) m[k] /= max;
+            }
+        }
+    }
+
+    // ============================================================
+    //                          HELPERS
+    // ============================================================
+
+    /** acc + (add shifted right by `by`), growing acc as needed. */
+    private static double[] addShifted(double[] acc, double[] add, int by) {
+        int len = add.length + by;
+        if (acc == null) acc = new double[len];
+        else if (acc.length < len) acc = Arrays.copyOf(acc, len);
+        for (int k = 0; k < add.length; k++) acc[k + by] += add[k];
+        return acc;
+    }
+
+    private static double[] convolve(double[] a, double[] b) {
+        double[] out = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) continue;
+            for (int j = 0; j < b.length; j++) out[i + j] += a[i] * b[j];
+        }
+        return out;
+    }
+
+    private static double[] normalise(double[] a) {
+        double max = 0;
+        for (double x : a) max = Math.max(max, x);
+        if (max > 0) for (int i = 0; i < a.length; i++) a[i] /= max;
+        return a;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < Math.min(a.length, b.length); i++) sum += a[i] * b[i];
+        return sum;
+    }
+
+    /** w[k] proportional to C(cells, minesLeft - k) for k = 0..len-1 (0 where impossible). */
+    private static double[] rest(int cells, int minesLeft, int len) {
+        double[] log = new double[len];
+        double max = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < len; k++) {
+            int m = minesLeft - k;
+            log[k] = (m < 0 || m > cells) ? Double.NEGATIVE_INFINITY : logChoose(cells, m);
+            max = Math.max(max, log[k]);
+        }
+        double[] w = new double[len];
+        if (max == Double.NEGATIVE_INFINITY) return w;
+        for (int k = 0; k < len; k++) w[k] = Math.exp(log[k] - max);
+        return w;
+    }
+
+    private static double logChoose(int n, int k) {
+        k = Math.min(k, n - k);
+        double sum = 0;
+        for (int i = 1; i <= k; i++) sum += Math.log((double) (n - k + i) / i);
+        return sum;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a), rb = find(parent, b);
+        if (ra != rb) parent[ra] = rb;
+    }
+}
@@ -0,0 +1,38 @@
+package service;
+
+/**
+ * Chance of a mine under every closed cell of one board, as worked out by
+ * ProbabilityEngine from what the player can see.
+ *
+ * Open and flagged cells have no probability (NaN).
+ */
+public class ProbabilityMap {
+
+    private final int rows;
+    private final int cols;
+    private final double[] mine;
+
+    ProbabilityMap(int rows, int cols, double[] mine) {
+        this.rows = rows;
+        this.cols = cols;
+        this.mine = mine;
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    /** P(mine) in [0, 1]; NaN for open / flagged cells. */
+    public double get(int row, int col) {
+        return mine[row * cols + col];
+    }
+
+    /** The closed cell least likely to be a mine (first in reading order on ties); null if none. */
+    public RevealResult.CellPos safest() {
+        int best = -1;
+        for (int i = 0; i < mine.length; i++) {
+            if (Double.isNaN(mine[i])) continue;
+            if (best < 0 || mine[i] < mine[best]) best = i;
+        }
+        return (best < 0) ? null : new RevealResult.CellPos(best / cols, best % cols);
+    }
+}
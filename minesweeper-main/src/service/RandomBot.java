@@ -0,0 +1,79 @@
+package service;
+
+import model.Board;
+import model.Cell;
+
+import java.util.List;
+import java.util.Random;
+
+/** Clicks a random closed cell; the baseline for the other policies. */
+class RandomBot implements BotPolicy {
+
+    private final Random rng;
+    private final boolean useSpecials;
+    private boolean questionsLeft;
+
+    RandomBot(Random rng, boolean useSpecials) {
+        this.rng = rng;
+        this.useSpecials = useSpecials;
+    }
+
+    @Override
+    public void newGame(GameEngine engine) {
+        questionsLeft = true;
+    }
+
+    @Override
+    public void observe(List<GameEvent> events) {
+        for (GameEvent e : events) {
+            if (e.type == GameEvent.Type.NO_QUESTIONS) questionsLeft = false;
+        }
+    }
+
+    @Override
+    public Move choose(GameEngine engine, int player) {
+        Board board = engine.getBoard(player);
+        if (useSpecials) {
+            Move special = unusedSpecial(engine, board, questionsLeft);
+            if (special != null) return special;
+        }
+        return randomClosed(board, rng);
+    }
+
+    /**
+     * A discovered surprise / question cell that has not been used yet, or null.
+     * Surprises the team cannot pay for are skipped (the click would be refused),
+     * and question cells once the deck has run dry.
+     */
+    static Move unusedSpecial(GameEngine engine, Board board, boolean questionsLeft) {
+        boolean canPay = engine.getModel().getSharedScore()
+                >= SpecialCellService.surpriseCost(engine.getDifficulty());
+
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                Cell cell = board.getCell(r, c);
+                if (!cell.isSpecial() || !cell.isDiscovered() || cell.isActivated()) continue;
+                if (cell.isSurprise() && !canPay) continue;
+                if (cell.isQuestion() && !questionsLeft) continue;
+                return new Move(r, c, false);
+            }
+        }
+        return null;
+    }
+
+    /** Click on a uniformly chosen closed, unflagged cell, or null if there is none. */
+    static Move randomClosed(Board board, Random rng) {
+        int count = 0;
+        Move pick = null;
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                Cell cell = board.getCell(r, c);
+                if (cell.isOpen() || cell.isFlag()) continue;
+
+                // reservoir sampling - one pass, uniform choice
+                if (rng.nextInt(++count) == 0) pick = new Move(r, c, false);
+            }
+        }
+        return pick;
+    }
+}
@@ -3,15 +3,63 @@ package service;
 import model.Board;
 import model.Cell;
 import model.GameModel;
+import model.OpeningRegions;
 
 public class RevealService {
 
     public RevealResult revealCell(Board board, GameModel gameModel, int row, int col, boolean isRootClick) {
         RevealResult result = new RevealResult();
+        if (openRegion(board, gameModel, row, col, result)) return result;
+
         revealCellInternal(board, gameModel, row, col, isRootClick, result);
         return result;
     }
 
+    /**
+     * Click on a zero cell of an untouched opening: open the opening's
+     * precomputed cells (Board.getOpenings) instead of searching for them.
+     * Same cells and score as the cascade below.
+     *
+     * @return false if the cell is not a zero cell, or some cell of the
+     *         opening is already open / flagged (the cascade handles those)
+     */
+    private boolean openRegion(Board board, GameModel gameModel, int row, int col, RevealResult result) {
+        if (!board.isInBounds(row, col)) return false;
+
+        Cell clicked = board.getCell(row, col);
+        if (clicked.isOpen() || clicked.isFlag()) return false;
+
+        OpeningRegions regions = board.getOpenings();
+        int region = regions.regionOf(row, col);
+        if (region < 0) return false;
+
+        int cols = board.getCols();
+        int from = regions.begin(region), to = regions.end(region);
+
+        for (int k = from; k < to; k++) {
+            int i = regions.member(k);
+            Cell cell = board.getCell(i / cols, i % cols);
+            if (cell.isOpen() || cell.isFlag()) return false;
+        }
+
+        for (int k = from; k < to; k++) {
+            int i = regions.member(k);
+            int r = i / cols, c = i % cols;
+            Cell cell = board.getCell(r, c);
+
+            cell.setOpen(true);
+            if (cell.isSpecial() && !cell.isDiscovered()) {
+                cell.setDiscovered(true);
+            }
+            result.addOpened(r, c);
+        }
+
+        int opened = to - from;
+        gameModel.revealedCells += opened;
+        gameModel.addScore(opened); // one point per safe cell, one notification
+        return true;
+    }
+
     public RevealResult revealAllForce(Board board) {
         RevealResult result = new RevealResult();
         int rows = board.getRows();
@@ -72,7 +120,8 @@ public class RevealService {
         if (shouldExpand) {
             for (int i = row - 1; i <= row + 1; i++) {
                 for (int j = col - 1; j <= col + 1; j++) {
-                    if (!(i == row && j == col)) {
+                    // a special cell may have mines around it (hand-built boards) - a cascade never opens them
+                    if (!(i == row && j == col) && board.isInBounds(i, j) && !board.getCell(i, j).isMine()) {
                         revealCellInternal(board, gameModel, i, j, false, result);
                     }
                 }
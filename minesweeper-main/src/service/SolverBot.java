@@ -0,0 +1,99 @@
+package service;
+
+import model.Board;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Plays what can be proven first: flags proven mines, uses discovered
+ * special cells (if allowed), opens proven safe cells (BoardSolver, kept up
+ * to date from the game's events). When nothing is certain it guesses - a
+ * random closed cell, or the one least likely to be a mine.
+ *
+ * With a time budget the probability count is given up when it runs past
+ * the budget, and the bot guesses at random instead.
+ */
+class SolverBot implements BotPolicy {
+
+    private final Random rng;
+    private final boolean useSpecials;
+    private final boolean useProbabilities;
+    private final long budgetMillis; // 0 = no limit
+
+    private final BoardSolver[] solvers = new BoardSolver[2];
+    private ProbabilityEngine probabilities;
+    private boolean questionsLeft;
+
+    SolverBot(Random rng, boolean useSpecials, boolean useProbabilities, long budgetMillis) {
+        this.rng = rng;
+        this.useSpecials = useSpecials;
+        this.useProbabilities = useProbabilities;
+        this.budgetMillis = budgetMillis;
+    }
+
+    @Override
+    public void newGame(GameEngine engine) {
+        solvers[0] = new BoardSolver(engine.getBoard(1));
+        solvers[1] = new BoardSolver(engine.getBoard(2));
+        questionsLeft = true;
+    }
+
+    @Override
+    public void observe(List<GameEvent> events) {
+        for (GameEvent e : events) {
+            if (e.type == GameEvent.Type.CELLS_OPENED) solvers[e.player - 1].refresh(e.cells);
+            else if (e.type == GameEvent.Type.CELL_CHANGED) solvers[e.player - 1].refresh(e.row, e.col);
+            else if (e.type == GameEvent.Type.NO_QUESTIONS) questionsLeft = false;
+        }
+    }
+
+    @Override
+    public Move choose(GameEngine engine, int player) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        BoardSolver solver = solvers[player - 1];
+        solver.solve();
+
+        List<RevealResult.CellPos> mines = solver.getMineCells();
+        if (!mines.isEmpty()) return new Move(mines.get(0).row, mines.get(0).col, true);
+
+        Board board = engine.getBoard(player);
+        if (useSpecials) {
+            Move special = RandomBot.unusedSpecial(engine, board, questionsLeft);
+            if (special != null) return special;
+        }
+
+        List<RevealResult.CellPos> safe = solver.getSafeCells();
+        if (!safe.isEmpty()) return new Move(safe.get(0).row, safe.get(0).col, false);
+
+        if (useProbabilities) {
+            RevealResult.CellPos best = safestGuess(board, deadline);
+            if (best != null) return new Move(best.row, best.col, false);
+        }
+        return RandomBot.randomClosed(board, rng);
+    }
+
+    /** ProbabilityEngine's pick, or null if it failed or ran out of time. */
+    private RevealResult.CellPos safestGuess(Board board, long deadline) {
+        if (probabilities == null) probabilities = new ProbabilityEngine();
+        try {
+            if (budgetMillis <= 0) return probabilities.compute(board).join().safest();
+
+            long left = deadline - System.nanoTime();
+            if (left <= 0) return null;
+            return probabilities.compute(board).get(left, TimeUnit.NANOSECONDS).safest();
+        } catch (TimeoutException e) {
+            probabilities.cancel();
+            return null;
+        } catch (InterruptedException e) {
+            probabilities.cancel();
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | RuntimeException e) {
+            return null; // frontier too wide to count
+        }
+    }
+}
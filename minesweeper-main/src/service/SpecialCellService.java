@@ -5,6 +5,8 @@ import java.util.Random;
 
 public class SpecialCellService {
 
+    private static final int MAX_LIVES = 10;
+
     private final Random rng;
 
     public SpecialCellService(Random rng) {
@@ -13,13 +15,18 @@ public class SpecialCellService {
 
     // -------------------- SURPRISE --------------------
 
-    public SpecialCellResult processSurprise(String gameDifficulty, int currentScore, int currentLives) {
-
-        int cost = switch (gameDifficulty) {
+    /** Points a Surprise Cell costs to activate. */
+    public static int surpriseCost(String gameDifficulty) {
+        return switch (gameDifficulty) {
             case "Easy" -> 5;
             case "Medium" -> 8;
             default -> 12; // Hard
         };
+    }
+
+    public SpecialCellResult processSurprise(String gameDifficulty, int currentScore, int currentLives) {
+
+        int cost = surpriseCost(gameDifficulty);
 
         if (currentScore < cost) {
             return SpecialCellResult.blocked(
@@ -48,9 +55,9 @@ public class SpecialCellService {
             score += bonusPoints;
 
             // cap lives at 10 and convert extras to points
-            int converted = convertExtraLivesToPointsIfNeeded(gameDifficulty, Ref.of(lives), Ref.of(score));
-            lives = Ref.LAST_LIVES;
-            score = Ref.LAST_SCORE;
+            int converted = extraLifePoints(gameDifficulty, lives);
+            lives = Math.min(lives, MAX_LIVES);
+            score += converted;
 
             if (converted > 0) {
                 title = "Good Surprise! ✓";
@@ -161,9 +168,8 @@ public class SpecialCellService {
         int lives = currentLives + livesDelta;
 
         // cap lives at 10 and convert extras to points
-        convertExtraLivesToPointsIfNeeded(gameDifficulty, Ref.of(lives), Ref.of(score));
-        lives = Ref.LAST_LIVES;
-        score = Ref.LAST_SCORE;
+        score += extraLifePoints(gameDifficulty, lives);
+        lives = Math.min(lives, MAX_LIVES);
 
         // build base message (controller can append extra info based on whether action succeeded)
         String msg;
@@ -189,47 +195,15 @@ public class SpecialCellService {
 
     // -------------------- helpers --------------------
 
-    /**
-     * If lives > 10 => cap to 10 and convert extra lives to points.
-     * Returns converted points (0 if none).
-     */
-    private int convertExtraLivesToPointsIfNeeded(String gameDifficulty, Ref livesRef, Ref scoreRef) {
-        int lives = livesRef.value;
-        int score = scoreRef.value;
-
-        if (lives <= 10) {
-            Ref.LAST_LIVES = lives;
-            Ref.LAST_SCORE = score;
-            return 0;
-        }
-
-        int extraLives = lives - 10;
-        lives = 10;
+    /** Points for the lives above MAX_LIVES (0 if none); the caller caps the lives. */
+    private static int extraLifePoints(String gameDifficulty, int lives) {
+        if (lives <= MAX_LIVES) return 0;
 
         int perLife = switch (gameDifficulty) {
             case "Easy" -> 5;
             case "Medium" -> 8;
             default -> 12;
         };
-
-        int converted = extraLives * perLife;
-        score += converted;
-
-        Ref.LAST_LIVES = lives;
-        Ref.LAST_SCORE = score;
-        return converted;
-    }
-
-    /**
-     * Tiny mutable int wrapper to avoid bringing in more dependencies.
-     * We store latest values in static fields for simplicity (keeps your project small).
-     */
-    private static class Ref {
-        int value;
-        private Ref(int v) { value = v; }
-        static Ref of(int v) { return new Ref(v); }
-
-        static int LAST_LIVES;
-        static int LAST_SCORE;
+        return (lives - MAX_LIVES) * perLife;
     }
 }
@@ -0,0 +1,309 @@
+package sim;
+
+import model.Question;
+import model.QuestionDifficulty;
+import model.QuestionSource;
+import service.BotPolicy;
+import service.GameEngine;
+import service.GameEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Command-line self-play for balance tuning: bots play many cooperative games
+ * on GameEngine (no UI) across all cores and the score / lives / length
+ * distributions are printed per difficulty.
+ *
+ *   java -cp out sim.SelfPlaySimulator --games 1000000 --policy solver --accuracy 0.6
+ *
+ * Options (defaults in brackets):
+ *   --games N              games per difficulty [100000]
+ *   --difficulty A,B       Easy / Medium / Hard [Easy,Medium,Hard]
+ *   --policy P             random / solver / prob, both players [solver]
+ *   --policy2 P            player 2's policy, if different
+ *   --accuracy X           chance a question is answered correctly [0.6]
+ *   --specials on|off      bots use surprise / question cells [on]
+ *   --no-guess             no-guess boards (NoGuessGenerator)
+ *   --threads N            worker threads [all cores]
+ *   --seed S               base seed; same seed + threads = same results [1]
+ *
+ * Questions are made up on the fly: uniform difficulty, answered correctly
+ * with the given accuracy - only the reward rules matter here.
+ */
+public class SelfPlaySimulator {
+
+    // a game that runs this long is stuck (should not happen) and counted as lost
+    private static final int MAX_MOVES = 100_000;
+
+    private int games = 100_000;
+    private String[] difficulties = {"Easy", "Medium", "Hard"};
+    private String policy1 = "solver";
+    private String policy2 = null;
+    private double accuracy = 0.6;
+    private boolean useSpecials = true;
+    private boolean noGuess = false;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long seed = 1;
+
+    /** @throws IllegalArgumentException on an unknown option or policy */
+    public SelfPlaySimulator(String... args) {
+        parse(args);
+    }
+
+    public static void main(String[] args) throws Exception {
+        SelfPlaySimulator sim;
+        try {
+            sim = new SelfPlaySimulator(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: sim.SelfPlaySimulator [--games N] [--difficulty Easy,Medium,Hard] "
+                    + "[--policy random|solver|prob] [--policy2 P] [--accuracy 0..1] [--specials on|off] "
+                    + "[--no-guess] [--threads N] [--seed S]");
+            System.exit(2);
+            return;
+        }
+        sim.run();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String opt = args[i];
+            if (opt.equals("--no-guess")) {
+                noGuess = true;
+                continue;
+            }
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + opt);
+            String v = args[++i];
+
+            switch (opt) {
+                case "--games" -> games = Integer.parseInt(v);
+                case "--difficulty" -> difficulties = v.split(",");
+                case "--policy" -> policy1 = v;
+                case "--policy2" -> policy2 = v;
+                case "--accuracy" -> accuracy = Double.parseDouble(v);
+                case "--specials" -> useSpecials = v.equals("on");
+                case "--threads" -> threads = Integer.parseInt(v);
+                case "--seed" -> seed = Long.parseLong(v);
+                default -> throw new IllegalArgumentException("Unknown option " + opt);
+            }
+        }
+        if (policy2 == null) policy2 = policy1;
+
+        // fail early on a bad policy name
+        BotPolicy.create(policy1, new Random(), useSpecials);
+        BotPolicy.create(policy2, new Random(), useSpecials);
+    }
+
+    private void run() throws Exception {
+        System.out.printf(Locale.ROOT, "%,d games per difficulty, policies %s / %s, accuracy %.2f, specials %s%s, %d threads%n%n",
+                games, policy1, policy2, accuracy, useSpecials ? "on" : "off", noGuess ? ", no-guess" : "", threads);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (String difficulty : difficulties) {
+                long start = System.nanoTime();
+                Stats total = simulate(difficulty, pool);
+
+                double secs = (System.nanoTime() - start) / 1e9;
+                total.print(difficulty, secs);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** The stats table run() prints for one difficulty, without the timing line. */
+    public String results(String difficulty) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            return simulate(difficulty, pool).table();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Splits the games over the threads (one seed per part) and merges their stats in part order. */
+    private Stats simulate(String difficulty, ExecutorService pool) throws Exception {
+        List<Future<Stats>> parts = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int count = games / threads + (t < games % threads ? 1 : 0);
+            long partSeed = seed * 1_000_003L + t;
+            parts.add(pool.submit(() -> play(difficulty, count, new Random(partSeed))));
+        }
+
+        Stats total = new Stats();
+        for (Future<Stats> part : parts) total.add(part.get());
+        return total;
+    }
+
+    /** Plays `count` games on one thread. */
+    private Stats play(String difficulty, int count, Random rng) {
+        Stats stats = new Stats();
+        QuestionSource questions = () -> randomQuestion(rng);
+
+        BotPolicy[] bots = {
+                BotPolicy.create(policy1, rng, useSpecials),
+                BotPolicy.create(policy2, rng, useSpecials)
+        };
+
+        GameEngine engine = new GameEngine(difficulty, rng, questions, noGuess);
+        for (int g = 0; g < count; g++) {
+            if (g > 0) engine.newGame();
+            for (BotPolicy bot : bots) bot.newGame(engine);
+
+            GameEvent end = null;
+            int moves = 0;
+            int questionsAsked = 0, surprises = 0;
+
+            while (!engine.isOver() && moves < MAX_MOVES) {
+                int player = engine.getCurrentPlayer();
+                BotPolicy.Move m = bots[player - 1].choose(engine, player);
+                if (m == null) break;
+
+                List<GameEvent> events = m.flag
+                        ? engine.flag(player, m.row, m.col)
+                        : engine.click(player, m.row, m.col);
+                moves++;
+
+                for (int i = 0; i < events.size(); i++) {
+                    GameEvent e = events.get(i);
+                    if (e.type == GameEvent.Type.SURPRISE && e.allowed) surprises++;
+                    if (e.type == GameEvent.Type.GAME_OVER) end = e;
+                    if (e.type == GameEvent.Type.QUESTION_ASKED) {
+                        questionsAsked++;
+                        List<GameEvent> answer = engine.answer(player, answer(e.question, rng));
+                        moves++;
+                        for (GameEvent a : answer) if (a.type == GameEvent.Type.GAME_OVER) end = a;
+                        for (BotPolicy bot : bots) bot.observe(answer);
+                    }
+                }
+                for (BotPolicy bot : bots) bot.observe(events);
+            }
+
+            stats.record(end, engine.getModel().getSharedScore(), engine.getModel().getSharedLives(),
+                    moves, questionsAsked, surprises);
+        }
+        return stats;
+    }
+
+    private int answer(Question q, Random rng) {
+        if (rng.nextDouble() < accuracy) return q.getCorrectIndex();
+        return (q.getCorrectIndex() + 1 + rng.nextInt(3)) % 4; // one of the wrong options
+    }
+
+    private static Question randomQuestion(Random rng) {
+        QuestionDifficulty[] levels = QuestionDifficulty.values();
+        return new Question("Simulated question", new String[]{"A", "B", "C", "D"},
+                rng.nextInt(4), levels[rng.nextInt(levels.length)]);
+    }
+
+    // ============================================================
+    //                          STATS
+    // ============================================================
+
+    /** Per-game results of one thread; merged at the end. */
+    private static final class Stats {
+        int games, wins, stuck;
+        long questions, surprises;
+        IntList finalScore = new IntList(), baseScore = new IntList(), lifeBonus = new IntList();
+        IntList lives = new IntList(), moves = new IntList();
+
+        void record(GameEvent end, int score, int livesLeft, int moveCount, int questionsAsked, int surprisesUsed) {
+            games++;
+            questions += questionsAsked;
+            surprises += surprisesUsed;
+            moves.add(moveCount);
+            lives.add(livesLeft);
+
+            if (end == null) {
+                stuck++;
+                baseScore.add(score);
+                finalScore.add(score);
+                lifeBonus.add(0);
+                return;
+            }
+            if (end.won) wins++;
+            baseScore.add(end.finalScore - end.lifeBonus);
+            finalScore.add(end.finalScore);
+            lifeBonus.add(end.lifeBonus);
+        }
+
+        void add(Stats o) {
+            games += o.games;
+            wins += o.wins;
+            stuck += o.stuck;
+            questions += o.questions;
+            surprises += o.surprises;
+            finalScore.addAll(o.finalScore);
+            baseScore.addAll(o.baseScore);
+            lifeBonus.addAll(o.lifeBonus);
+            lives.addAll(o.lives);
+            moves.addAll(o.moves);
+        }
+
+        void print(String difficulty, double secs) {
+            System.out.printf(Locale.ROOT, "== %s: %,d games in %.1f s (%,.0f games/s) ==%n",
+                    difficulty, games, secs, games / Math.max(secs, 1e-9));
+            System.out.println(table());
+        }
+
+        String table() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "win rate %.2f%%   questions/game %.2f   surprises/game %.2f%s%n",
+                    100.0 * wins / Math.max(games, 1), (double) questions / Math.max(games, 1),
+                    (double) surprises / Math.max(games, 1), stuck > 0 ? "   stuck " + stuck : ""));
+            sb.append(String.format(Locale.ROOT, "%-12s %9s %7s %7s %7s %7s %7s %7s%n",
+                    "", "mean", "min", "p10", "p50", "p90", "p99", "max"));
+            row(sb, "final score", finalScore);
+            row(sb, "base score", baseScore);
+            row(sb, "life bonus", lifeBonus);
+            row(sb, "lives left", lives);
+            row(sb, "moves", moves);
+            return sb.toString();
+        }
+
+        private static void row(StringBuilder sb, String name, IntList values) {
+            int[] v = values.sorted();
+            if (v.length == 0) return;
+            double mean = 0;
+            for (int x : v) mean += x;
+            mean /= v.length;
+            sb.append(String.format(Locale.ROOT, "%-12s %9.2f %7d %7d %7d %7d %7d %7d%n",
+                    name, mean, v[0], pct(v, 10), pct(v, 50), pct(v, 90), pct(v, 99), v[v.length - 1]));
+        }
+
+        private static int pct(int[] sorted, int p) {
+            return sorted[(int) Math.min(sorted.length - 1, (long) sorted.length * p / 100)];
+        }
+    }
+
+    /** Growable int array - millions of games without boxing. */
+    private static final class IntList {
+        int[] a = new int[1024];
+        int size;
+
+        void add(int x) {
+            if (size == a.length) a = Arrays.copyOf(a, size * 2);
+            a[size++] = x;
+        }
+
+        void addAll(IntList o) {
+            if (size + o.size > a.length) a = Arrays.copyOf(a, Math.max(a.length * 2, size + o.size));
+            System.arraycopy(o.a, 0, a, size, o.size);
+            size += o.size;
+        }
+
+        int[] sorted() {
+            int[] s = Arrays.copyOf(a, size);
+            Arrays.sort(s);
+            return s;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.BoardMetrics;
+import model.MineCell;
+import model.NormalCell;
+
+public class BoardMetricsTest {
+
+    @Test
+    void threeBV_countsOpeningsAndIsolatedNumbers() {
+        //  0 1 * 1
+        //  0 1 2 2
+        //  0 0 1 *
+        Board b = new Board(3, 4);
+        int[][] counts = {
+                {0, 1, -1, 1},
+                {0, 1, 2, 2},
+                {0, 0, 1, -1}
+        };
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 4; c++) {
+                b.setCell(r, c, counts[r][c] < 0 ? new MineCell(r, c) : new NormalCell(r, c, counts[r][c]));
+            }
+        }
+
+        BoardMetrics m = b.getMetrics();
+
+        // one opening (the zeros on the left, with 1 1 2 1 around them) + the 1 and 2 on the right
+        assertEquals(1, m.getOpenings());
+        assertEquals(2, m.getIsolatedCells());
+        assertEquals(3, m.getThreeBV());
+        assertEquals(8, m.getLargestOpening());
+        assertEquals(10, m.getSafeCells());
+    }
+}
@@ -0,0 +1,105 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.MineCell;
+import model.NormalCell;
+import service.BoardSolver;
+import service.RevealResult;
+
+public class BoardSolverTest {
+
+    /**
+     *   * 2 *      <- closed
+     *   1 2 1      <- open
+     */
+    private Board oneTwoOne() {
+        Board b = new Board(2, 3);
+        b.setCell(0, 0, new MineCell(0, 0));
+        b.setCell(0, 1, new NormalCell(0, 1, 2));
+        b.setCell(0, 2, new MineCell(0, 2));
+        b.setCell(1, 0, new NormalCell(1, 0, 1));
+        b.setCell(1, 1, new NormalCell(1, 1, 2));
+        b.setCell(1, 2, new NormalCell(1, 2, 1));
+        for (int c = 0; c < 3; c++) b.getCell(1, c).setOpen(true);
+        return b;
+    }
+
+    @Test
+    void oneTwoOne_pattern_isSolved() {
+        BoardSolver solver = new BoardSolver(oneTwoOne());
+
+        assertTrue(solver.solve());
+
+        assertTrue(solver.isSafe(0, 1));
+        assertTrue(solver.isMine(0, 0));
+        assertTrue(solver.isMine(0, 2));
+        assertEquals(1, solver.getSafeCells().size());
+        assertEquals(2, solver.getMineCells().size());
+        assertEquals(0, solver.getUnknownCount());
+    }
+
+    @Test
+    void actedOnCells_leaveTheResults() {
+        Board b = oneTwoOne();
+        BoardSolver solver = new BoardSolver(b);
+        solver.solve();
+
+        b.getCell(0, 1).setOpen(true);
+        b.getCell(0, 0).setFlag();
+        solver.refresh(0, 1);
+        solver.refresh(0, 0);
+
+        assertFalse(solver.solve());
+        assertTrue(solver.getSafeCells().isEmpty());
+        assertEquals(1, solver.getMineCells().size());
+    }
+
+    @Test
+    void firstDeduced_prefersSafeCells_thenMines() {
+        Board b = oneTwoOne();
+        BoardSolver solver = new BoardSolver(b);
+        solver.solve();
+
+        assertEquals(1, solver.firstDeduced().col); // the safe middle cell
+
+        b.getCell(0, 1).setOpen(true);
+        solver.refresh(0, 1);
+        solver.solve();
+
+        RevealResult.CellPos next = solver.firstDeduced();
+        assertTrue(solver.isMine(next.row, next.col));
+    }
+
+    /**
+     *   * .        <- closed; the safe cell is flagged by mistake
+     *   1 1        <- open
+     */
+    @Test
+    void wrongFlag_provesNothingWhenFlagsAreNotTrusted() {
+        Board b = new Board(2, 2);
+        b.setCell(0, 0, new MineCell(0, 0));
+        b.setCell(0, 1, new NormalCell(0, 1, 1));
+        b.setCell(1, 0, new NormalCell(1, 0, 1));
+        b.setCell(1, 1, new NormalCell(1, 1, 1));
+        b.getCell(1, 0).setOpen(true);
+        b.getCell(1, 1).setOpen(true);
+        b.getCell(0, 1).setFlag();
+
+        // taking the flag as a mine "proves" the real mine safe
+        BoardSolver trusting = new BoardSolver(b);
+        trusting.solve();
+        assertTrue(trusting.isSafe(0, 0));
+
+        // the hint solver only reads open cells: 1 mine in 2 cells, no hint
+        BoardSolver hints = new BoardSolver(b, false);
+        hints.solve();
+        assertFalse(hints.isSafe(0, 0));
+        assertEquals(null, hints.firstDeduced());
+    }
+}
@@ -0,0 +1,48 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import model.CsvReader;
+
+/**
+ * Tests for the RFC 4180 tokenizer used by SysData.
+ */
+public class CsvReaderTest {
+
+    @Test
+    void quotedFields_withCommasQuotesAndNewlines_areParsedBack() throws IOException {
+        String in = "1,\"a, \"\"b\"\"\nc\",x\r\n2,plain,y";
+
+        try (CsvReader csv = new CsvReader(new StringReader(in), 16)) {
+            assertTrue(csv.next());
+            assertEquals(3, csv.fieldCount());
+            assertEquals(1, csv.intField(0));
+            assertEquals("a, \"b\"\nc", csv.field(1));
+            assertEquals("x", csv.field(2));
+
+            assertTrue(csv.next());
+            assertEquals(3, csv.lineNumber());
+            assertEquals("plain", csv.field(1));
+
+            assertFalse(csv.next());
+        }
+    }
+
+    @Test
+    void escape_roundTripsThroughReader() throws IOException {
+        String original = "Which is \"best\", A or B?";
+
+        try (CsvReader csv = new CsvReader(new StringReader(CsvReader.escape(original) + ",end"))) {
+            assertTrue(csv.next());
+            assertEquals(original, csv.field(0));
+            assertEquals("end", csv.field(1));
+        }
+    }
+}
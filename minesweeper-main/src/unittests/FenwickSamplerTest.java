@@ -0,0 +1,59 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.FenwickSampler;
+
+public class FenwickSamplerTest {
+
+    /** The slot whose cumulative weight range contains r, by walking the weights. */
+    private static int bruteSample(long[] w, long r) {
+        for (int i = 0; i < w.length; i++) {
+            if (r < w[i]) return i;
+            r -= w[i];
+        }
+        throw new IllegalArgumentException("r >= total");
+    }
+
+    @Test
+    void sample_followsTheCumulativeWeights() {
+        long[] w = {0, 3, 0, 5, 2};
+        FenwickSampler s = new FenwickSampler(w);
+
+        assertEquals(10, s.total());
+        int[] expected = {1, 1, 1, 3, 3, 3, 3, 3, 4, 4};
+        for (int r = 0; r < 10; r++) assertEquals(expected[r], s.sample(r), "r = " + r);
+    }
+
+    @Test
+    void set_keepsTotalAndSamplingInStep() {
+        Random rnd = new Random(7);
+        long[] w = new long[37];
+        for (int i = 0; i < w.length; i++) w[i] = rnd.nextInt(10);
+        FenwickSampler s = new FenwickSampler(w);
+
+        for (int op = 0; op < 500; op++) {
+            int i = rnd.nextInt(w.length);
+            w[i] = (op % 3 == 0) ? 0 : rnd.nextInt(10); // a drawn question drops to 0
+            s.set(i, w[i]);
+
+            long sum = 0;
+            for (long x : w) sum += x;
+            assertEquals(sum, s.total());
+            assertEquals(w[i], s.weight(i));
+            if (sum == 0) continue;
+
+            for (int k = 0; k < 20; k++) {
+                long r = (long) (rnd.nextDouble() * sum);
+                int slot = s.sample(r);
+                assertEquals(bruteSample(w, r), slot);
+                assertTrue(w[slot] > 0); // weight 0 is never drawn
+            }
+        }
+    }
+}
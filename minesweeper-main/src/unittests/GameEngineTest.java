@@ -0,0 +1,173 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.Cell;
+import model.NormalCell;
+import service.GameEngine;
+import service.GameEvent;
+
+public class GameEngineTest {
+
+    private static int[] findCell(Board b, boolean mine) {
+        for (int r = 0; r < b.getRows(); r++) {
+            for (int c = 0; c < b.getCols(); c++) {
+                Cell cell = b.getCell(r, c);
+                if (cell.isMine() == mine && !cell.isSpecial()) return new int[]{r, c};
+            }
+        }
+        throw new IllegalStateException("no such cell");
+    }
+
+    @Test
+    void mineHit_costsOneLife_andPassesTheTurn() {
+        GameEngine engine = new GameEngine("Easy", new Random(1), null);
+        int[] mine = findCell(engine.getBoard(1), true);
+
+        List<GameEvent> events = engine.click(1, mine[0], mine[1]);
+
+        assertEquals(9, engine.getModel().getSharedLives());
+        assertEquals(2, engine.getCurrentPlayer());
+        assertTrue(events.stream().anyMatch(e -> e.type == GameEvent.Type.MINE_HIT));
+        assertTrue(events.stream().anyMatch(e -> e.type == GameEvent.Type.TURN_CHANGED && e.player == 2));
+    }
+
+    @Test
+    void moveOutOfTurn_isIgnored() {
+        GameEngine engine = new GameEngine("Easy", new Random(2), null);
+
+        assertTrue(engine.click(2, 0, 0).isEmpty());
+        assertTrue(engine.flag(2, 0, 0).isEmpty());
+        assertEquals(1, engine.getCurrentPlayer());
+    }
+
+    @Test
+    void flaggingEveryMine_winsWithLifeBonus() {
+        GameEngine engine = new GameEngine("Easy", new Random(3), null);
+        Board b = engine.getBoard(1);
+
+        GameEvent last = null;
+        for (int r = 0; r < b.getRows(); r++) {
+            for (int c = 0; c < b.getCols(); c++) {
+                if (!b.getCell(r, c).isMine()) continue;
+                List<GameEvent> events = engine.flag(1, r, c);
+                last = events.get(events.size() - 1);
+            }
+        }
+
+        assertTrue(engine.isOver());
+        assertTrue(engine.isWon());
+        assertEquals(1, engine.getClearedBoard());            // whose 3BV goes to history
+        assertEquals(GameEvent.Type.GAME_OVER, last.type);
+        assertEquals(10 * 5, last.lifeBonus);                 // 10 lives x 5 on Easy
+        assertEquals(10 + 10 * 5, last.finalScore);           // +1 per correct flag
+        assertFalse(engine.click(1, 0, 0).size() > 0);        // nothing after the game
+    }
+
+    // ---- reveal bonus block (GameEngine.bestBlock) ----
+
+    private static final int[][] SHAPES = {{3, 3}, {3, 2}, {2, 3}, {2, 2}, {3, 1}, {1, 3}, {2, 1}, {1, 2}, {1, 1}};
+
+    /** '.' closed, 'o' open, 'f' flagged. */
+    private static Board board(String... lines) {
+        Board b = new Board(lines.length, lines[0].length());
+        for (int r = 0; r < lines.length; r++) {
+            for (int c = 0; c < lines[r].length(); c++) {
+                Cell cell = new NormalCell(r, c, 0);
+                if (lines[r].charAt(c) == 'o') cell.setOpen(true);
+                if (lines[r].charAt(c) == 'f') cell.setFlag();
+                b.setCell(r, c, cell);
+            }
+        }
+        return b;
+    }
+
+    /** Every block of every shape counted cell by cell; most closed cells, first in reading order. */
+    private static int[] bruteForceBlock(Board b) {
+        for (int[] shape : SHAPES) {
+            int best = 0;
+            int[] at = null;
+            for (int r = 0; r + shape[0] <= b.getRows(); r++) {
+                for (int c = 0; c + shape[1] <= b.getCols(); c++) {
+                    int count = 0;
+                    for (int i = r; i < r + shape[0]; i++) {
+                        for (int j = c; j < c + shape[1]; j++) {
+                            Cell cell = b.getCell(i, j);
+                            if (!cell.isOpen() && !cell.isFlag()) count++;
+                        }
+                    }
+                    if (count > best) {
+                        best = count;
+                        at = new int[]{r, c, shape[0], shape[1]};
+                    }
+                }
+            }
+            if (at != null) return at;
+        }
+        return null;
+    }
+
+    @Test
+    void bestBlock_onFixedBoards() {
+        // all closed: every 3x3 ties, the top-left one wins
+        assertArrayEquals(new int[]{0, 0, 3, 3}, GameEngine.bestBlock(board(
+                ".....",
+                ".....",
+                ".....",
+                ".....")));
+
+        // flags and open cells count alike; the full block bottom-right beats the rest
+        assertArrayEquals(new int[]{2, 2, 3, 3}, GameEngine.bestBlock(board(
+                "o.f.o",
+                ".f.o.",
+                "o....",
+                "ff...",
+                "of...")));
+
+        // two blocks with 7 closed cells: the one whose corner comes first in reading order
+        assertArrayEquals(new int[]{0, 3, 3, 3}, GameEngine.bestBlock(board(
+                "oooo..",
+                "ooo.o.",
+                "ooo...",
+                "...ooo",
+                ".o.ooo",
+                "..oooo")));
+
+        // too short for 3x3: the 2x3 shape is next
+        assertArrayEquals(new int[]{0, 2, 2, 3}, GameEngine.bestBlock(board(
+                "o.f..",
+                "oo...")));
+
+        assertArrayEquals(new int[]{0, 0, 1, 1}, GameEngine.bestBlock(board(".")));
+        assertNull(GameEngine.bestBlock(board("of", "fo")));
+    }
+
+    @Test
+    void bestBlock_matchesABruteForceScan() {
+        Random rnd = new Random(21);
+        for (int t = 0; t < 300; t++) {
+            int rows = 1 + rnd.nextInt(9), cols = 1 + rnd.nextInt(9);
+            double closed = rnd.nextDouble();
+            String[] lines = new String[rows];
+            for (int r = 0; r < rows; r++) {
+                StringBuilder line = new StringBuilder();
+                for (int c = 0; c < cols; c++) {
+                    line.append(rnd.nextDouble() < closed ? '.' : rnd.nextBoolean() ? 'o' : 'f');
+                }
+                lines[r] = line.toString();
+            }
+            Board b = board(lines);
+            assertArrayEquals(bruteForceBlock(b), GameEngine.bestBlock(b), String.join("/", lines));
+        }
+    }
+}
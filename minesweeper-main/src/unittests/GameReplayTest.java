@@ -0,0 +1,85 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.Question;
+import model.QuestionDifficulty;
+import service.GameEngine;
+import service.GameEvent;
+import service.GameReplay;
+
+public class GameReplayTest {
+
+    /** Random clicks (and answers) for both players until the game ends. */
+    private static GameEngine playRandomGame(String difficulty, long seed) {
+        Random rng = new Random(seed);
+        GameEngine engine = new GameEngine(difficulty, rng,
+                () -> new Question("q", new String[]{"A", "B", "C", "D"}, rng.nextInt(4), QuestionDifficulty.HARD));
+
+        int moves = 0;
+        while (!engine.isOver() && moves++ < 2000) {
+            int player = engine.getCurrentPlayer();
+            Board b = engine.getBoard(player);
+            List<GameEvent> events = engine.click(player, rng.nextInt(b.getRows()), rng.nextInt(b.getCols()));
+
+            for (GameEvent e : events) {
+                if (e.type != GameEvent.Type.QUESTION_ASKED) continue;
+                if (rng.nextBoolean()) engine.answer(player, rng.nextInt(4));
+                else engine.dismissQuestion(player);
+            }
+        }
+        return engine;
+    }
+
+    private static String openCells(Board b) {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < b.getRows(); r++) {
+            for (int c = 0; c < b.getCols(); c++) {
+                sb.append(b.getCell(r, c).isOpen() ? 'o' : b.getCell(r, c).isFlag() ? 'f' : '.');
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void replay_endsExactlyLikeTheRecordedGame() {
+        for (long seed = 1; seed <= 20; seed++) {
+            GameEngine played = playRandomGame(seed % 2 == 0 ? "Medium" : "Easy", seed);
+
+            GameReplay replay = new GameReplay(played.getJournal());
+            replay.playToEnd();
+            GameEngine replayed = replay.getEngine();
+
+            assertEquals(played.isWon(), replayed.isWon());
+            assertEquals(played.getModel().getSharedScore(), replayed.getModel().getSharedScore());
+            assertEquals(played.getModel().getSharedLives(), replayed.getModel().getSharedLives());
+            assertEquals(openCells(played.getBoard(1)), openCells(replayed.getBoard(1)));
+            assertEquals(openCells(played.getBoard(2)), openCells(replayed.getBoard(2)));
+
+            // the replayed game journals itself the same way
+            assertArrayEquals(played.getJournal(), replayed.getJournal());
+        }
+    }
+
+    @Test
+    void rejectedMoves_leaveNothingInTheJournal() {
+        GameEngine engine = new GameEngine("Easy", new Random(5), null);
+        byte[] before = engine.getJournal();
+
+        engine.click(2, 0, 0);          // out of turn
+        engine.flag(1, -1, 0);          // off the board
+        engine.answer(1, 0);            // no question open
+        engine.dismissQuestion(1);
+
+        assertArrayEquals(before, engine.getJournal());
+        assertFalse(new GameReplay(before).hasNext());
+    }
+}
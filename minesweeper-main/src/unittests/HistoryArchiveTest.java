@@ -0,0 +1,176 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.GameHistoryEntry;
+import model.HistoryArchive;
+import model.ProgressListener;
+import model.SysData;
+
+/**
+ * Export / import of history archives through SysData, against the real
+ * history file (backed up and restored around each test).
+ */
+public class HistoryArchiveTest {
+
+    private static final Path HISTORY_PATH =
+            Paths.get(System.getProperty("user.dir"), "game_history.csv");
+
+    private byte[] backupHistory;
+    private File archive;
+
+    @BeforeEach
+    void useEmptyHistory() throws IOException {
+        backupHistory = Files.exists(HISTORY_PATH) ? Files.readAllBytes(HISTORY_PATH) : null;
+        Files.deleteIfExists(HISTORY_PATH);
+        archive = File.createTempFile("history-test", ".archive");
+    }
+
+    @AfterEach
+    void restoreHistory() throws IOException {
+        if (backupHistory != null) {
+            Files.write(HISTORY_PATH, backupHistory);
+        } else {
+            Files.deleteIfExists(HISTORY_PATH);
+        }
+        Files.deleteIfExists(archive.toPath());
+    }
+
+    private static void saveGames() {
+        SysData.saveGame(new GameHistoryEntry("2024-01-01T10:00", "Easy", "Ann", "Bob", "WIN", 42, 90, 31, 4));
+        SysData.saveGame(new GameHistoryEntry("2024-01-02T11:00", "Hard", "Bob, Jr.", "\"Cy\"", "LOSE", -3, 400, 0, 0));
+    }
+
+    private static void assertSameGames(List<GameHistoryEntry> expected, List<GameHistoryEntry> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toCsvRow(), actual.get(i).toCsvRow());
+        }
+    }
+
+    private void roundTrip(HistoryArchive.Format format) throws IOException {
+        saveGames();
+        List<GameHistoryEntry> before = SysData.loadHistory();
+
+        assertEquals(2, SysData.exportHistory(archive, format, null));
+        Files.delete(HISTORY_PATH);
+        assertEquals(2, SysData.importHistory(archive, null));
+
+        assertSameGames(before, SysData.loadHistory());
+    }
+
+    @Test
+    void gzipCsv_roundTrip() throws IOException {
+        roundTrip(HistoryArchive.Format.CSV_GZIP);
+    }
+
+    @Test
+    void binary_roundTrip() throws IOException {
+        roundTrip(HistoryArchive.Format.BINARY);
+    }
+
+    @Test
+    void binaryVersion1_isStillRead() throws IOException {
+        // "MSHB", version 1, then one record without the 3BV / openings fields
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(1);
+        string(body, "2023-05-05T05:05");
+        body.write(0); string(body, "Medium");
+        body.write(0); string(body, "Ann");
+        body.write(2);                           // second player: dictionary entry 1 ("Ann")
+        body.write(0); string(body, "WIN");
+        body.write(14);                          // score 7 (zig-zag)
+        body.write(60);                          // length
+        body.write(0);                           // end of archive
+        writeArchive(1, body.toByteArray());
+
+        assertEquals(1, SysData.importHistory(archive, null));
+
+        GameHistoryEntry e = SysData.loadHistory().get(0);
+        assertEquals("2023-05-05T05:05", e.getDateTime());
+        assertEquals("Medium", e.getDifficulty());
+        assertEquals("Ann", e.getPlayer2Name());
+        assertEquals("WIN", e.getResult());
+        assertEquals(7, e.getFinalScore());
+        assertEquals(60, e.getGameLengthSeconds());
+        assertEquals(0, e.getThreeBV());
+    }
+
+    @Test
+    void corruptStringLength_failsWithoutTouchingHistory() throws IOException {
+        saveGames();
+        byte[] before = Files.readAllBytes(HISTORY_PATH);
+
+        // a 5-byte varint length of ~2^31 for the first dateTime
+        writeArchive(2, new byte[]{1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+
+        assertThrows(IOException.class, () -> SysData.importHistory(archive, null));
+        assertArrayEquals(before, Files.readAllBytes(HISTORY_PATH));
+    }
+
+    @Test
+    void truncatedArchive_failsWithoutTouchingHistory() throws IOException {
+        saveGames();
+        byte[] before = Files.readAllBytes(HISTORY_PATH);
+
+        for (HistoryArchive.Format format : HistoryArchive.Format.values()) {
+            SysData.exportHistory(archive, format, null);
+            byte[] whole = Files.readAllBytes(archive.toPath());
+            Files.write(archive.toPath(), Arrays.copyOf(whole, whole.length - 12));
+
+            assertThrows(IOException.class, () -> SysData.importHistory(archive, null));
+            assertArrayEquals(before, Files.readAllBytes(HISTORY_PATH));
+        }
+    }
+
+    @Test
+    void cancelledImport_leavesHistoryByteIdentical() throws IOException {
+        saveGames();
+        SysData.exportHistory(archive, HistoryArchive.Format.BINARY, null);
+        byte[] before = Files.readAllBytes(HISTORY_PATH);
+
+        ProgressListener cancelled = new ProgressListener() {
+            @Override public void onProgress(long done, long total) {}
+            @Override public boolean isCancelled() { return true; }
+        };
+
+        // far fewer rows than a progress report: only the check before appending can stop it
+        assertThrows(CancellationException.class, () -> SysData.importHistory(archive, cancelled));
+        assertArrayEquals(before, Files.readAllBytes(HISTORY_PATH));
+    }
+
+    // ---------------- archive building ----------------
+
+    private void writeArchive(int version, byte[] gzipBody) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[]{'M', 'S', 'H', 'B', (byte) version});
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(gzipBody);
+        }
+        Files.write(archive.toPath(), out.toByteArray());
+    }
+
+    private static void string(ByteArrayOutputStream out, String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.write(b.length);
+        out.write(b, 0, b.length);
+    }
+}
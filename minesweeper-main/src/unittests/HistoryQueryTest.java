@@ -0,0 +1,209 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.GameHistoryEntry;
+import model.HistoryPage;
+import model.HistoryQuery;
+import model.SysData;
+
+/**
+ * SysData.queryHistory (backed by the cached HistoryIndex) against a plain
+ * filter-and-sort over loadHistory(), for every sort and filter, and the index
+ * being dropped after each kind of history write.
+ */
+public class HistoryQueryTest {
+
+    private static final Path HISTORY_PATH = Paths.get(System.getProperty("user.dir"), "game_history.csv");
+    private static final Path JOURNALS_PATH = Paths.get(System.getProperty("user.dir"), "game_journals.dat");
+
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+    private static final String[] NAMES = {"Ann", "Bob", "Cyril", "dana", "Eve"};
+
+    private byte[] backupHistory;
+    private byte[] backupJournals;
+
+    @BeforeEach
+    void useEmptyHistory() throws IOException {
+        backupHistory = Files.exists(HISTORY_PATH) ? Files.readAllBytes(HISTORY_PATH) : null;
+        backupJournals = Files.exists(JOURNALS_PATH) ? Files.readAllBytes(JOURNALS_PATH) : null;
+        Files.deleteIfExists(HISTORY_PATH);
+    }
+
+    @AfterEach
+    void restore() throws IOException {
+        restore(HISTORY_PATH, backupHistory);
+        restore(JOURNALS_PATH, backupJournals);
+    }
+
+    private static void restore(Path path, byte[] bytes) throws IOException {
+        if (bytes != null) {
+            Files.write(path, bytes);
+        } else {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /** 60 games over the first quarter of 2024, with repeated scores and durations (ties). */
+    private static void saveRandomGames() {
+        Random rnd = new Random(11);
+        for (int i = 0; i < 60; i++) {
+            LocalDate day = LocalDate.of(2024, 1, 1).plusDays(rnd.nextInt(90));
+            String time = String.format(Locale.ROOT, "T%02d:%02d", rnd.nextInt(24), rnd.nextInt(60));
+            SysData.saveGame(new GameHistoryEntry(
+                    day + time,
+                    DIFFICULTIES[rnd.nextInt(3)],
+                    NAMES[rnd.nextInt(NAMES.length)],
+                    NAMES[rnd.nextInt(NAMES.length)],
+                    rnd.nextBoolean() ? "WIN" : "LOSE",
+                    rnd.nextInt(10) * 5 - 10,
+                    30 * (1 + rnd.nextInt(8))));
+        }
+    }
+
+    // ---- reference implementation ----
+
+    private static List<GameHistoryEntry> expected(List<GameHistoryEntry> all, HistoryQuery q) {
+        List<GameHistoryEntry> out = new ArrayList<>();
+        for (GameHistoryEntry e : all) {
+            String day = e.getDateTime().substring(0, 10);
+            if (q.getFromDate() != null && day.compareTo(q.getFromDate().toString()) < 0) continue;
+            if (q.getToDate() != null && day.compareTo(q.getToDate().toString()) > 0) continue;
+            if (q.getDifficulty() != null && !e.getDifficulty().equalsIgnoreCase(q.getDifficulty())) continue;
+            if (q.getResult() != null && !e.getResult().equalsIgnoreCase(q.getResult())) continue;
+            if (q.getPlayerName() != null) {
+                String name = q.getPlayerName().toLowerCase(Locale.ROOT);
+                if (!e.getPlayer1Name().toLowerCase(Locale.ROOT).contains(name)
+                        && !e.getPlayer2Name().toLowerCase(Locale.ROOT).contains(name)) continue;
+            }
+            out.add(e);
+        }
+
+        // stable ascending sort (ties keep file order), descending sorts walk it backwards
+        Comparator<GameHistoryEntry> key;
+        boolean desc;
+        switch (q.getSort()) {
+            case SCORE_ASC:     key = Comparator.comparingInt(GameHistoryEntry::getFinalScore); desc = false; break;
+            case SCORE_DESC:    key = Comparator.comparingInt(GameHistoryEntry::getFinalScore); desc = true; break;
+            case DURATION_ASC:  key = Comparator.comparingInt(GameHistoryEntry::getGameLengthSeconds); desc = false; break;
+            case DURATION_DESC: key = Comparator.comparingInt(GameHistoryEntry::getGameLengthSeconds); desc = true; break;
+            case OLDEST_FIRST:  key = Comparator.comparing(GameHistoryEntry::getDateTime); desc = false; break;
+            default:            key = Comparator.comparing(GameHistoryEntry::getDateTime); desc = true; break;
+        }
+        out.sort(key);
+        if (desc) Collections.reverse(out);
+        return out;
+    }
+
+    private static void assertQuery(List<GameHistoryEntry> all, HistoryQuery q, String label) {
+        List<GameHistoryEntry> want = expected(all, q);
+        HistoryPage page = SysData.queryHistory(q);
+
+        assertEquals(want.size(), page.totalMatches, label);
+        int from = Math.min(q.getOffset(), want.size());
+        int to = (int) Math.min((long) from + q.getLimit(), want.size());
+        List<GameHistoryEntry> wantPage = want.subList(from, to);
+
+        assertEquals(wantPage.size(), page.entries.size(), label);
+        for (int i = 0; i < wantPage.size(); i++) {
+            assertEquals(wantPage.get(i).toCsvRow(), page.entries.get(i).toCsvRow(), label + " row " + i);
+        }
+    }
+
+    private static List<HistoryQuery> filters() {
+        LocalDate from = LocalDate.of(2024, 2, 1);
+        LocalDate to = LocalDate.of(2024, 2, 29);
+        List<HistoryQuery> list = new ArrayList<>();
+        list.add(new HistoryQuery());
+        list.add(new HistoryQuery().difficulty("hard"));
+        list.add(new HistoryQuery().difficulty("All"));
+        list.add(new HistoryQuery().difficulty("Nightmare"));
+        list.add(new HistoryQuery().result("WIN"));
+        list.add(new HistoryQuery().playerName("AN"));
+        list.add(new HistoryQuery().fromDate(from));
+        list.add(new HistoryQuery().toDate(to));
+        list.add(new HistoryQuery().fromDate(from).toDate(to));
+        list.add(new HistoryQuery().fromDate(to).toDate(from)); // empty range
+        list.add(new HistoryQuery().difficulty("Medium").result("LOSE").playerName("e").fromDate(from));
+        return list;
+    }
+
+    // ---- tests ----
+
+    @Test
+    void everySortAndFilter_matchesAPlainScan() {
+        saveRandomGames();
+        List<GameHistoryEntry> all = SysData.loadHistory();
+
+        for (HistoryQuery.Sort sort : HistoryQuery.Sort.values()) {
+            List<HistoryQuery> filters = filters();
+            for (int f = 0; f < filters.size(); f++) {
+                assertQuery(all, filters.get(f).sortBy(sort), sort + " filter " + f);
+            }
+        }
+    }
+
+    @Test
+    void paging_returnsTheRightSliceAndTheFullCount() {
+        saveRandomGames();
+        List<GameHistoryEntry> all = SysData.loadHistory();
+
+        for (HistoryQuery.Sort sort : HistoryQuery.Sort.values()) {
+            assertQuery(all, new HistoryQuery().sortBy(sort).offset(0).limit(7), sort + " first page");
+            assertQuery(all, new HistoryQuery().sortBy(sort).offset(56).limit(7), sort + " last page");
+            assertQuery(all, new HistoryQuery().sortBy(sort).offset(100).limit(7), sort + " past the end");
+            assertQuery(all, new HistoryQuery().result("LOSE").sortBy(sort).offset(3).limit(5), sort + " filtered");
+        }
+    }
+
+    @Test
+    void saveGame_dropsTheIndex() {
+        saveRandomGames();
+        int before = SysData.queryHistory(new HistoryQuery().playerName("Zed")).totalMatches;
+        assertEquals(0, before);
+
+        SysData.saveGame(new GameHistoryEntry("2024-05-01T09:00", "Easy", "Zed", "Ann", "WIN", 99, 60));
+
+        HistoryPage page = SysData.queryHistory(new HistoryQuery().sortBy(HistoryQuery.Sort.SCORE_DESC).limit(1));
+        assertEquals("Zed", page.entries.get(0).getPlayer1Name());
+        assertEquals(61, SysData.historySize());
+    }
+
+    @Test
+    void trimAndDelete_dropTheIndex() {
+        saveRandomGames();
+        assertEquals(60, SysData.historySize()); // index built
+
+        assertEquals(50, SysData.trimHistory(10));
+        List<GameHistoryEntry> kept = SysData.loadHistory();
+        assertEquals(10, SysData.historySize());
+        assertQuery(kept, new HistoryQuery().sortBy(HistoryQuery.Sort.OLDEST_FIRST), "after trim");
+
+        GameHistoryEntry victim = kept.get(3);
+        assertTrue(SysData.deleteHistoryEntry(victim));
+        List<GameHistoryEntry> left = new ArrayList<>(kept);
+        left.remove(3);
+        assertEquals(9, SysData.historySize());
+        assertQuery(left, new HistoryQuery(), "after delete");
+
+        assertEquals(9, SysData.clearHistory());
+        assertEquals(0, SysData.queryHistory(new HistoryQuery()).totalMatches);
+    }
+}
@@ -0,0 +1,171 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.ImportReport;
+import model.ProgressListener;
+import model.Question;
+import model.SysData;
+
+/**
+ * JSON question import (SysData.importQuestionsFromJson and the streaming
+ * JsonQuestionReader behind it), against a fresh QuestionsCSV.csv.
+ */
+public class JsonQuestionImportTest {
+
+    private static final Path CSV_PATH = Paths.get(System.getProperty("user.dir"), "QuestionsCSV.csv");
+    private static final Path MAX_ID_PATH = Paths.get(System.getProperty("user.dir"), "QuestionsCSV.csv.maxid");
+
+    private byte[] backupCsv;
+    private byte[] backupMaxId;
+    private File json;
+
+    @BeforeEach
+    void useEmptyQuestionsFile() throws IOException {
+        backupCsv = Files.exists(CSV_PATH) ? Files.readAllBytes(CSV_PATH) : null;
+        backupMaxId = Files.exists(MAX_ID_PATH) ? Files.readAllBytes(MAX_ID_PATH) : null;
+        Files.deleteIfExists(CSV_PATH);
+        Files.deleteIfExists(MAX_ID_PATH);
+        json = File.createTempFile("questions-test", ".json");
+    }
+
+    @AfterEach
+    void restore() throws IOException {
+        restore(CSV_PATH, backupCsv);
+        restore(MAX_ID_PATH, backupMaxId);
+        Files.deleteIfExists(json.toPath());
+    }
+
+    private static void restore(Path path, byte[] bytes) throws IOException {
+        if (bytes != null) {
+            Files.write(path, bytes);
+        } else {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private ImportReport importJson(String text) throws IOException {
+        Files.write(json.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        return SysData.importQuestionsFromJson(json);
+    }
+
+    @Test
+    void escapes_areDecoded() throws IOException {
+        ImportReport r = importJson("[{\"question\": \"Caf\\u00e9 \\\"quoted\\\" back\\\\slash\\tand tab\","
+                + " \"options\": [\"a\\/b\", \"\\u0032\", \"line\\nbreak\", \"4\"], \"correct\": \"A\"}]");
+
+        assertEquals(1, r.imported, r.message);
+        Question q = SysData.loadQuestions().get(0);
+        assertEquals("Café \"quoted\" back\\slash and tab", q.getText()); // whitespace runs collapse on import
+        assertArrayEquals(new String[]{"a/b", "2", "line break", "4"}, q.getOptions());
+    }
+
+    @Test
+    void earlierAlias_winsWhicheverComesFirst() throws IOException {
+        ImportReport r = importJson("[{\"text\": \"Loses\", \"question\": \"Wins\","
+                + " \"A\": \"a\", \"B\": \"b\", \"C\": \"c\", \"D\": \"d\","
+                + " \"options\": [\"o1\", \"o2\", \"o3\", \"o4\"],"
+                + " \"correct\": \"D\", \"correctIndex\": 1}]");
+
+        assertEquals(1, r.imported, r.message);
+        Question q = SysData.loadQuestions().get(0);
+        assertEquals("Wins", q.getText());
+        assertArrayEquals(new String[]{"o1", "o2", "o3", "o4"}, q.getOptions()); // the array beats A-D
+        assertEquals(1, q.getCorrectIndex());                                      // a number beats the letter
+    }
+
+    @Test
+    void shortOptionsArray_fallsBackToLetterKeys() throws IOException {
+        ImportReport r = importJson("["
+                + "{\"question\": \"Keys\", \"options\": [\"x\", \"y\"],"
+                + " \"A\": \"a\", \"B\": \"b\", \"C\": \"c\", \"D\": \"d\", \"correct\": \"B\"},"
+                + "{\"question\": \"Nothing else\", \"options\": [\"x\", \"y\", \"z\"], \"correct\": \"A\"}"
+                + "]");
+
+        assertEquals(2, r.totalInJson);
+        assertEquals(1, r.imported);
+        assertEquals(1, r.skippedInvalid);
+        assertArrayEquals(new String[]{"a", "b", "c", "d"}, SysData.loadQuestions().get(0).getOptions());
+    }
+
+    @Test
+    void stringOverTheLimit_makesOnlyItsEntryInvalid() throws IOException {
+        String huge = "x".repeat((1 << 20) + 1);
+        ImportReport r = importJson("["
+                + "{\"question\": \"" + huge + "\", \"options\": [\"1\", \"2\", \"3\", \"4\"], \"correct\": \"A\"},"
+                + "{\"question\": \"Small\", \"options\": [\"1\", \"2\", \"3\", \"4\"], \"correct\": \"A\"}"
+                + "]");
+
+        assertEquals(1, r.imported, r.message);
+        assertEquals(1, r.skippedInvalid);
+        assertEquals("Small", SysData.loadQuestions().get(0).getText());
+    }
+
+    @Test
+    void syntaxError_reportsLineAndColumn() throws IOException {
+        ImportReport r = importJson("[\n"
+                + "{\"question\": \"Missing comma\"\n"
+                + "  \"options\": []}\n"
+                + "]");
+
+        assertFalse(r.success);
+        assertTrue(r.message.contains("Line 3, column 3: Expected ',' or '}'"), r.message);
+    }
+
+    @Test
+    void leadingByteOrderMark_isSkipped() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        bytes.write("[{\"question\": \"BOM\", \"options\": [\"1\", \"2\", \"3\", \"4\"], \"correct\": \"C\"}]"
+                .getBytes(StandardCharsets.UTF_8));
+        Files.write(json.toPath(), bytes.toByteArray());
+
+        ImportReport r = SysData.importQuestionsFromJson(json);
+
+        assertEquals(1, r.imported, r.message);
+        assertEquals(2, SysData.loadQuestions().get(0).getCorrectIndex());
+    }
+
+    @Test
+    void cancelPartway_reportsAndKeepsWhatWasAppended() throws IOException {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"question\": \"Question ").append(i)
+                    .append("\", \"options\": [\"1\", \"2\", \"3\", \"4\"], \"correct\": \"A\"}");
+        }
+        Files.write(json.toPath(), sb.append(']').toString().getBytes(StandardCharsets.UTF_8));
+
+        ProgressListener cancelled = new ProgressListener() {
+            @Override public void onProgress(long done, long total) {}
+            @Override public boolean isCancelled() { return true; }
+        };
+        ImportReport r = SysData.importQuestionsFromJson(json, cancelled);
+
+        // the flag is polled every 256 entries; what was read by then is kept
+        assertTrue(r.success);
+        assertTrue(r.message.startsWith("Import cancelled."), r.message);
+        assertEquals(256, r.totalInJson);
+        assertEquals(256, r.imported);
+
+        List<Question> saved = SysData.loadQuestions();
+        assertEquals(256, saved.size());
+        assertEquals("Question 255", saved.get(255).getText());
+    }
+}
@@ -27,7 +27,7 @@ public class MineCreationTest {
         int mineCount = 10;
         int sharedLives = 10;
 
-        GameModel gm = new GameModel(null, mineCount, sharedLives);
+        GameModel gm = new GameModel(mineCount, sharedLives);
         gm.initializeBoards(N, M);
 
         assertEquals(mineCount, countMines(gm.getBoard1()));
@@ -40,7 +40,7 @@ public class MineCreationTest {
         int mineCount = 44;
         int sharedLives = 6;
 
-        GameModel gm = new GameModel(null, mineCount, sharedLives);
+        GameModel gm = new GameModel(mineCount, sharedLives);
         gm.initializeBoards(N, M);
 
         assertEquals(mineCount, countMines(gm.getBoard1()));
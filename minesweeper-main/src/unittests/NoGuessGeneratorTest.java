@@ -0,0 +1,38 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.Cell;
+import model.GameModel;
+import service.NoGuessGenerator;
+
+public class NoGuessGeneratorTest {
+
+    @Test
+    void hardBoard_isVerified_closed_andStartsOnAnEmptyCell() {
+        GameModel gm = new GameModel(44, 6, new Random(7));
+        NoGuessGenerator.Result res = new NoGuessGenerator(gm).generate(16, 16, new Random(7));
+
+        assertTrue(res.verified);
+
+        int mines = 0;
+        for (int r = 0; r < 16; r++) {
+            for (int c = 0; c < 16; c++) {
+                Cell cell = res.board.getCell(r, c);
+                assertFalse(cell.isOpen());
+                if (cell.isMine()) mines++;
+            }
+        }
+        assertEquals(44, mines);
+
+        Cell start = res.board.getCell(res.startRow, res.startCol);
+        assertFalse(start.isMine());
+        assertEquals(0, start.getNeighborMinesNum());
+    }
+}
@@ -0,0 +1,58 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.MineCell;
+import model.NormalCell;
+import service.ProbabilityEngine;
+import service.ProbabilityMap;
+
+public class ProbabilityEngineTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    void oneNumber_spreadsItsMineEvenly() {
+        //  1 *
+        //  1 1     only the top-left cell is open
+        Board b = new Board(2, 2);
+        b.setCell(0, 0, new NormalCell(0, 0, 1));
+        b.setCell(0, 1, new MineCell(0, 1));
+        b.setCell(1, 0, new NormalCell(1, 0, 1));
+        b.setCell(1, 1, new NormalCell(1, 1, 1));
+        b.getCell(0, 0).setOpen(true);
+
+        ProbabilityMap map = new ProbabilityEngine().compute(b).join();
+
+        assertTrue(Double.isNaN(map.get(0, 0)));
+        assertEquals(1.0 / 3, map.get(0, 1), EPS);
+        assertEquals(1.0 / 3, map.get(1, 0), EPS);
+        assertEquals(1.0 / 3, map.get(1, 1), EPS);
+    }
+
+    @Test
+    void provenCells_getCertainProbabilities() {
+        //  * 2 *   <- closed
+        //  1 2 1   <- open
+        Board b = new Board(2, 3);
+        b.setCell(0, 0, new MineCell(0, 0));
+        b.setCell(0, 1, new NormalCell(0, 1, 2));
+        b.setCell(0, 2, new MineCell(0, 2));
+        b.setCell(1, 0, new NormalCell(1, 0, 1));
+        b.setCell(1, 1, new NormalCell(1, 1, 2));
+        b.setCell(1, 2, new NormalCell(1, 2, 1));
+        for (int c = 0; c < 3; c++) b.getCell(1, c).setOpen(true);
+
+        ProbabilityMap map = new ProbabilityEngine().compute(b).join();
+
+        assertEquals(1.0, map.get(0, 0), EPS);
+        assertEquals(0.0, map.get(0, 1), EPS);
+        assertEquals(1.0, map.get(0, 2), EPS);
+        assertEquals(0, map.safest().row);
+        assertEquals(1, map.safest().col);
+    }
+}
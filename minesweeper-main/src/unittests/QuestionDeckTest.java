@@ -0,0 +1,132 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.Question;
+import model.QuestionBank;
+import model.QuestionDeck;
+import model.QuestionDifficulty;
+import model.QuestionStats;
+import model.SysData;
+
+/**
+ * Per-game question decks (QuestionBank.newDeck) and the answer statistics
+ * that weight them, against a small QuestionsCSV.csv:
+ * 5 Easy (IDs 1-5), 3 Medium (6-8), 2 Hard (9-10).
+ */
+public class QuestionDeckTest {
+
+    private static final Path CSV_PATH = Paths.get(System.getProperty("user.dir"), "QuestionsCSV.csv");
+    private static final Path PACK_PATH = Paths.get(System.getProperty("user.dir"), "QuestionsCSV.qpk");
+    private static final Path STATS_PATH = Paths.get(System.getProperty("user.dir"), "question_stats.bin");
+
+    private byte[] backupCsv;
+    private byte[] backupPack;
+    private byte[] backupStats;
+
+    @BeforeEach
+    void writeSmallBank() throws IOException {
+        backupCsv = Files.exists(CSV_PATH) ? Files.readAllBytes(CSV_PATH) : null;
+        backupPack = Files.exists(PACK_PATH) ? Files.readAllBytes(PACK_PATH) : null;
+        backupStats = Files.exists(STATS_PATH) ? Files.readAllBytes(STATS_PATH) : null;
+        Files.deleteIfExists(PACK_PATH);
+
+        StringBuilder csv = new StringBuilder("ID,Question,Difficulty,A,B,C,D,Correct Answer\n");
+        for (int id = 1; id <= 10; id++) {
+            String diff = (id <= 5) ? "Easy" : (id <= 8) ? "Medium" : "Hard";
+            csv.append(id).append(",Question ").append(id).append("?,").append(diff).append(",1,2,3,4,A\n");
+        }
+        Files.write(CSV_PATH, csv.toString().getBytes(StandardCharsets.UTF_8));
+        QuestionBank.getInstance().invalidate();
+    }
+
+    @AfterEach
+    void restore() throws IOException {
+        restore(CSV_PATH, backupCsv);
+        restore(PACK_PATH, backupPack);
+        restore(STATS_PATH, backupStats);
+        QuestionBank.getInstance().invalidate();
+    }
+
+    private static void restore(Path path, byte[] bytes) throws IOException {
+        if (bytes != null) {
+            Files.write(path, bytes);
+        } else {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void draw_repeatsNothingUntilTheBankIsUsedUp() {
+        QuestionDeck deck = QuestionBank.getInstance().newDeck(new Random(5));
+
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            Question q = deck.draw();
+            assertNotNull(q);
+            assertTrue(seen.add(q.getId()), "question " + q.getId() + " came up twice");
+        }
+
+        assertNotNull(deck.draw()); // the bag refills
+    }
+
+    @Test
+    void drawByDifficulty_usesUpThatDifficultyFirst() {
+        QuestionDeck deck = QuestionBank.getInstance().newDeck(new Random(9));
+
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            Question q = deck.draw(QuestionDifficulty.MEDIUM);
+            assertEquals(QuestionDifficulty.MEDIUM, q.getDifficulty());
+            assertTrue(seen.add(q.getId()));
+        }
+        assertEquals(0, deck.remaining(QuestionDifficulty.MEDIUM));
+        assertEquals(5, deck.remaining(QuestionDifficulty.EASY));
+
+        assertEquals(QuestionDifficulty.MEDIUM, deck.draw(QuestionDifficulty.MEDIUM).getDifficulty());
+        assertEquals(2, deck.remaining(QuestionDifficulty.MEDIUM)); // refilled, then one drawn
+    }
+
+    @Test
+    void answerStats_surviveSaveAndLoad() throws Exception {
+        // IDs no other test uses; the in-memory stats live for the whole run
+        int right = 900_001, missed = 900_002;
+        int rightBefore = SysData.questionStats().asked(right);
+        int missedBefore = SysData.questionStats().asked(missed);
+
+        for (int i = 0; i < 3; i++) {
+            SysData.recordQuestionAnswer(right, true);
+            SysData.recordQuestionAnswer(missed, false);
+        }
+
+        // saved in the background; wait for the last answer to reach the file
+        File file = STATS_PATH.toFile();
+        QuestionStats loaded = QuestionStats.load(file);
+        for (int i = 0; i < 200 && loaded.asked(missed) != missedBefore + 3; i++) {
+            Thread.sleep(10);
+            loaded = QuestionStats.load(file);
+        }
+
+        assertEquals(rightBefore + 3, loaded.asked(right));
+        assertEquals(rightBefore + 3, loaded.correct(right));
+        assertEquals(missedBefore + 3, loaded.asked(missed));
+        assertEquals(SysData.questionStats().correct(missed), loaded.correct(missed));
+        assertTrue(loaded.weight(missed) > loaded.weight(right)); // missed questions come up more
+    }
+}
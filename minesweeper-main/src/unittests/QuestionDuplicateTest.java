@@ -0,0 +1,162 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.ImportReport;
+import model.Question;
+import model.QuestionDifficulty;
+import model.SysData;
+
+/**
+ * Duplicate detection during JSON import (the question signatures built from
+ * the current file, then from each imported batch), including after the
+ * questions file was edited through addQuestion / updateQuestion / deleteQuestion.
+ */
+public class QuestionDuplicateTest {
+
+    private static final Path CSV_PATH = Paths.get(System.getProperty("user.dir"), "QuestionsCSV.csv");
+    private static final Path MAX_ID_PATH = Paths.get(System.getProperty("user.dir"), "QuestionsCSV.csv.maxid");
+
+    private byte[] backupCsv;
+    private byte[] backupMaxId;
+    private File json;
+
+    @BeforeEach
+    void useEmptyQuestionsFile() throws IOException {
+        backupCsv = Files.exists(CSV_PATH) ? Files.readAllBytes(CSV_PATH) : null;
+        backupMaxId = Files.exists(MAX_ID_PATH) ? Files.readAllBytes(MAX_ID_PATH) : null;
+        SysData.recreateQuestionsFile();
+        json = File.createTempFile("duplicates-test", ".json");
+    }
+
+    @AfterEach
+    void restore() throws IOException {
+        restore(CSV_PATH, backupCsv);
+        restore(MAX_ID_PATH, backupMaxId);
+        Files.deleteIfExists(json.toPath());
+    }
+
+    private static void restore(Path path, byte[] bytes) throws IOException {
+        if (bytes != null) {
+            Files.write(path, bytes);
+        } else {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static String entry(String text, String difficulty, String[] options, String correct) {
+        return "{\"question\": \"" + text + "\", \"difficulty\": \"" + difficulty + "\", \"options\": [\""
+                + String.join("\", \"", options) + "\"], \"correct\": \"" + correct + "\"}";
+    }
+
+    private ImportReport importJson(String... entries) throws IOException {
+        Files.write(json.toPath(), ("[" + String.join(",", entries) + "]").getBytes(StandardCharsets.UTF_8));
+        return SysData.importQuestionsFromJson(json);
+    }
+
+    private static final String[] OPTIONS = {"2", "3", "4", "5"};
+
+    @Test
+    void caseAndWhitespace_doNotMakeANewQuestion() throws IOException {
+        // stored as typed (addQuestion does not normalize), so only the signature can match it
+        assertTrue(SysData.addQuestion(new Question("  What IS\t 1+1? ",
+                new String[]{" 2", "3 ", "FOUR", "five  six"}, 0, QuestionDifficulty.EASY)));
+
+        ImportReport r = importJson(entry("what is 1+1?", "Easy", new String[]{"2", "3", "four", "Five Six"}, "A"));
+
+        assertEquals(0, r.imported, r.message);
+        assertEquals(1, r.skippedDuplicates);
+    }
+
+    @Test
+    void anyOtherField_makesItDistinct() throws IOException {
+        SysData.addQuestion(new Question("What is 1+1?", OPTIONS.clone(), 0, QuestionDifficulty.EASY));
+
+        ImportReport r = importJson(
+                entry("What is 1+1?", "Hard", OPTIONS, "A"),                          // difficulty
+                entry("What is 1+1?", "Easy", OPTIONS, "B"),                          // correct answer
+                entry("What is 1+1?", "Easy", new String[]{"2", "3", "4", "6"}, "A"), // one option
+                entry("What is 1 + 1?", "Easy", OPTIONS, "A"));                       // inner spacing
+
+        assertEquals(4, r.imported, r.message);
+        assertEquals(0, r.skippedDuplicates);
+    }
+
+    @Test
+    void reorderedOptions_areADifferentQuestion() throws IOException {
+        // options are compared position by position (A-D), even if the right answer is the same text
+        SysData.addQuestion(new Question("What is 1+1?", OPTIONS.clone(), 0, QuestionDifficulty.EASY));
+
+        ImportReport r = importJson(entry("What is 1+1?", "Easy", new String[]{"3", "2", "4", "5"}, "B"));
+
+        assertEquals(1, r.imported, r.message);
+    }
+
+    @Test
+    void repeatsInsideOneFile_keepTheFirst() throws IOException {
+        ImportReport r = importJson(
+                entry("First", "Easy", OPTIONS, "A"),
+                entry("Second", "Easy", OPTIONS, "A"),
+                entry("FIRST ", "Easy", OPTIONS, "A"));
+
+        assertEquals(2, r.imported, r.message);
+        assertEquals(1, r.skippedDuplicates);
+        assertEquals("First", SysData.loadQuestions().get(0).getText());
+    }
+
+    @Test
+    void largeImport_findsEveryRepeat() throws IOException {
+        // over the parallel hashing threshold, and the table grows several times
+        String[] entries = new String[6000];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = entry("Question " + (i % 4000), "Medium", OPTIONS, "C");
+        }
+
+        ImportReport r = importJson(entries);
+
+        assertEquals(4000, r.imported, r.message);
+        assertEquals(2000, r.skippedDuplicates);
+        assertEquals(6000, importJson(entries).skippedDuplicates); // the second time round, all are in the file
+    }
+
+    @Test
+    void updatedQuestion_isMatchedByItsNewContent() throws IOException {
+        Question q = new Question("Old text", OPTIONS.clone(), 0, QuestionDifficulty.EASY);
+        SysData.addQuestion(q);
+        q.setText("New text");
+        assertTrue(SysData.updateQuestion(q));
+
+        ImportReport r = importJson(
+                entry("Old text", "Easy", OPTIONS, "A"),
+                entry("new TEXT", "Easy", OPTIONS, "A"));
+
+        assertEquals(1, r.imported, r.message);
+        assertEquals(1, r.skippedDuplicates);
+        assertEquals("Old text", SysData.loadQuestions().get(1).getText());
+    }
+
+    @Test
+    void deletedQuestion_canBeImportedAgain() throws IOException {
+        Question q = new Question("Gone soon", OPTIONS.clone(), 3, QuestionDifficulty.HARD);
+        SysData.addQuestion(q);
+        assertEquals(1, importJson(entry("Gone soon", "Hard", OPTIONS, "D")).skippedDuplicates);
+
+        assertTrue(SysData.deleteQuestion(q));
+
+        ImportReport r = importJson(entry("Gone soon", "Hard", OPTIONS, "D"));
+        assertEquals(1, r.imported, r.message);
+        assertEquals(1, SysData.loadQuestions().size());
+    }
+}
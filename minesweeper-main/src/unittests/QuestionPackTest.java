@@ -0,0 +1,145 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.QuestionsFileStatus;
+import model.QuestionsLoadResult;
+import model.SysData;
+
+/**
+ * The compiled question pack (QuestionsCSV.qpk) behind SysData.loadQuestionsWithStatus.
+ *
+ * To tell which of the two was read, the CSV is edited without changing its
+ * length or modification time: a fresh, intact pack still wins, anything else
+ * falls back to the (edited) CSV.
+ */
+public class QuestionPackTest {
+
+    private static final Path CSV_PATH = Paths.get(System.getProperty("user.dir"), "QuestionsCSV.csv");
+    private static final Path PACK_PATH = Paths.get(System.getProperty("user.dir"), "QuestionsCSV.qpk");
+
+    private static final String CSV =
+            "ID,Question,Difficulty,A,B,C,D,Correct Answer\n"
+                    + "1,What is 1+1?,Easy,2,3,4,5,A\n"
+                    + "2,Capital of France?,Medium,London,Paris,Berlin,Madrid,B\n";
+
+    private byte[] backupCsv;
+    private byte[] backupPack;
+
+    @BeforeEach
+    void writeCsvAndCompilePack() throws Exception {
+        backupCsv = Files.exists(CSV_PATH) ? Files.readAllBytes(CSV_PATH) : null;
+        backupPack = Files.exists(PACK_PATH) ? Files.readAllBytes(PACK_PATH) : null;
+        Files.deleteIfExists(PACK_PATH);
+
+        Files.write(CSV_PATH, CSV.getBytes(StandardCharsets.UTF_8));
+        assertEquals("What is 1+1?", firstText()); // parsed; the pack is written in the background
+
+        // (a pack left by an earlier test's background write may still land - wait for ours)
+        for (int i = 0; i < 500 && !packIsFresh(); i++) Thread.sleep(10);
+        assertTrue(packIsFresh(), "pack was not written");
+    }
+
+    /** The pack carries the CSV's current length and modification time (after "MSQP" and the version). */
+    private static boolean packIsFresh() throws IOException {
+        if (!Files.exists(PACK_PATH)) return false;
+        ByteBuffer pack = ByteBuffer.wrap(Files.readAllBytes(PACK_PATH));
+        return pack.limit() >= 24
+                && pack.getLong(8) == CSV_PATH.toFile().length()
+                && pack.getLong(16) == CSV_PATH.toFile().lastModified();
+    }
+
+    @AfterEach
+    void restore() throws IOException {
+        restore(CSV_PATH, backupCsv);
+        restore(PACK_PATH, backupPack);
+    }
+
+    private static void restore(Path path, byte[] bytes) throws IOException {
+        if (bytes != null) {
+            Files.write(path, bytes);
+        } else {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static String firstText() {
+        QuestionsLoadResult r = SysData.loadQuestionsWithStatus();
+        assertEquals(QuestionsFileStatus.HAS_DATA, r.status);
+        assertEquals(2, r.questions.size());
+        return r.questions.get(0).getText();
+    }
+
+    /** Same length, same modification time, different first question. */
+    private static void editCsvKeepingStamp() throws IOException {
+        long modified = CSV_PATH.toFile().lastModified();
+        Files.write(CSV_PATH, CSV.replace("1+1", "2+2").getBytes(StandardCharsets.UTF_8));
+        assertTrue(CSV_PATH.toFile().setLastModified(modified));
+    }
+
+    @Test
+    void freshPack_isReadInsteadOfTheCsv() throws IOException {
+        editCsvKeepingStamp();
+
+        QuestionsLoadResult r = SysData.loadQuestionsWithStatus();
+        assertEquals("What is 1+1?", r.questions.get(0).getText());
+        assertEquals("Paris", r.questions.get(1).getOptions()[1]);
+        assertEquals(1, r.questions.get(1).getCorrectIndex());
+        assertEquals(2, r.questions.get(1).getId());
+    }
+
+    @Test
+    void staleStamp_readsTheCsv() throws IOException {
+        Files.write(CSV_PATH, CSV.replace("1+1", "10+10").getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("What is 10+10?", firstText());
+    }
+
+    @Test
+    void truncatedPack_fallsBackToTheCsv() throws IOException {
+        byte[] pack = Files.readAllBytes(PACK_PATH);
+        Files.write(PACK_PATH, Arrays.copyOf(pack, pack.length - 10));
+        editCsvKeepingStamp();
+
+        assertEquals("What is 2+2?", firstText());
+    }
+
+    @Test
+    void garbledCounts_fallBackToTheCsv() throws IOException {
+        byte[] pack = Files.readAllBytes(PACK_PATH);
+        // question count sits after "MSQP", version and the two stamp longs
+        int[] garbled = {0x7FFFFFF0, -1, 3};
+        for (int count : garbled) {
+            ByteBuffer.wrap(pack).putInt(24, count);
+            Files.write(PACK_PATH, pack);
+            editCsvKeepingStamp();
+
+            assertEquals("What is 2+2?", firstText());
+        }
+    }
+
+    @Test
+    void garbledStringLength_fallsBackToTheCsv() throws IOException {
+        byte[] pack = Files.readAllBytes(PACK_PATH);
+        // the last 4 bytes of the span table are the length of the last string
+        int bytesAt = pack.length - "What is 1+1?2345Capital of France?LondonParisBerlinMadrid".length();
+        ByteBuffer.wrap(pack).putInt(bytesAt - 8, Integer.MAX_VALUE);
+        Files.write(PACK_PATH, pack);
+        editCsvKeepingStamp();
+
+        assertEquals("What is 2+2?", firstText());
+    }
+}
@@ -0,0 +1,115 @@
+package unittests;
+
+import model.Question;
+import model.QuestionBank;
+import model.QuestionDifficulty;
+import model.SysData;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the question search (QuestionBank.search).
+ *
+ * Focus:
+ * - prefix matching over question text and options
+ * - every query word must match
+ * - results follow add / update / delete without a reload
+ */
+public class QuestionSearchTest {
+
+    private static final Path CSV_PATH =
+            Paths.get(System.getProperty("user.dir"), "QuestionsCSV.csv");
+
+    private static final String HEADER =
+            "ID,Question,Difficulty,A,B,C,D,Correct Answer";
+
+    private byte[] backupBytes = null;
+    private boolean hadOriginalFile = false;
+
+    @BeforeEach
+    void backupAndPrepareCleanCsv() throws IOException {
+        hadOriginalFile = Files.exists(CSV_PATH);
+        if (hadOriginalFile) {
+            backupBytes = Files.readAllBytes(CSV_PATH);
+        }
+
+        Files.write(
+                CSV_PATH,
+                (HEADER + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        );
+        QuestionBank.getInstance().invalidate();
+    }
+
+    @AfterEach
+    void restoreOriginalCsv() throws IOException {
+        if (hadOriginalFile && backupBytes != null) {
+            Files.write(
+                    CSV_PATH,
+                    backupBytes,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING
+            );
+        } else {
+            Files.deleteIfExists(CSV_PATH);
+        }
+        QuestionBank.getInstance().invalidate();
+    }
+
+    @Test
+    void testSearch_MatchesWordPrefixesInTextAndOptions() {
+        SysData.addQuestion(new Question(
+                "Capital of France?",
+                new String[]{"London", "Paris", "Berlin", "Madrid"},
+                1,
+                QuestionDifficulty.MEDIUM
+        ));
+        SysData.addQuestion(new Question(
+                "Largest ocean?",
+                new String[]{"Atlantic", "Indian", "Pacific", "Arctic"},
+                2,
+                QuestionDifficulty.HARD
+        ));
+
+        QuestionBank bank = QuestionBank.getInstance();
+
+        assertEquals(1, bank.search("cap").size());
+        assertEquals(1, bank.search("PAR").size());        // option, case-insensitive
+        assertEquals(1, bank.search("cap fra").size());    // all words must match
+        assertEquals(0, bank.search("cap ocean").size());
+        assertEquals(0, bank.search("apital").size());     // prefixes only
+        assertEquals(2, bank.search("").size());           // blank = everything
+    }
+
+    @Test
+    void testSearch_FollowsUpdateAndDelete() {
+        Question q = new Question(
+                "What is 1+1?",
+                new String[]{"2", "3", "4", "5"},
+                0,
+                QuestionDifficulty.EASY
+        );
+        assertTrue(SysData.addQuestion(q));
+
+        QuestionBank bank = QuestionBank.getInstance();
+        assertEquals(1, bank.search("what").size());
+
+        Question edited = new Question(q.getId(), "How much is 2+2?", new String[]{"2", "3", "4", "5"}, 2, QuestionDifficulty.EASY);
+        assertTrue(SysData.updateQuestion(edited));
+
+        assertEquals(0, bank.search("what").size());
+        List<Question> found = bank.search("how much");
+        assertEquals(1, found.size());
+        assertEquals(q.getId(), found.get(0).getId());
+
+        assertTrue(SysData.deleteQuestion(edited));
+        assertTrue(bank.search("how").isEmpty());
+    }
+}
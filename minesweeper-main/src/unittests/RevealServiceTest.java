@@ -0,0 +1,191 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.Board;
+import model.Cell;
+import model.GameModel;
+import model.MineCell;
+import model.NormalCell;
+import model.QuestionCell;
+import model.SurpriseCell;
+import service.RevealResult;
+import service.RevealService;
+
+/**
+ * RevealService.revealCell on zero cells (opened from the precomputed
+ * OpeningRegions) against the plain cascade it replaced: open the cell, and
+ * if it has no neighbouring mines or is a special cell, every safe cell around it.
+ */
+public class RevealServiceTest {
+
+    private final RevealService reveal = new RevealService();
+
+    /** Cells the recursive cascade opens from (row, col), on the board as it is now. */
+    private static boolean[][] cascade(Board b, int row, int col) {
+        boolean[][] opened = new boolean[b.getRows()][b.getCols()];
+        Deque<int[]> todo = new ArrayDeque<>();
+        todo.push(new int[]{row, col});
+
+        while (!todo.isEmpty()) {
+            int[] p = todo.pop();
+            int r = p[0], c = p[1];
+            if (!b.isInBounds(r, c) || opened[r][c]) continue;
+
+            Cell cell = b.getCell(r, c);
+            if (cell.isOpen() || cell.isFlag()) continue;
+            opened[r][c] = true;
+
+            if (!cell.isMine() && (cell.getNeighborMinesNum() == 0 || cell.isSpecial())) {
+                for (int i = r - 1; i <= r + 1; i++) {
+                    for (int j = c - 1; j <= c + 1; j++) {
+                        if (b.isInBounds(i, j) && !b.getCell(i, j).isMine()) todo.push(new int[]{i, j});
+                    }
+                }
+            }
+        }
+        return opened;
+    }
+
+    private static void coverAll(Board b) {
+        for (int r = 0; r < b.getRows(); r++) {
+            for (int c = 0; c < b.getCols(); c++) {
+                Cell cell = b.getCell(r, c);
+                cell.setOpen(false);
+                cell.clearFlag();
+                cell.setDiscovered(false);
+            }
+        }
+    }
+
+    /** Clicks (row, col) and checks cells, counters and score against the cascade. */
+    private void assertSameAsCascade(Board b, int row, int col, String label) {
+        boolean[][] expected = cascade(b, row, col);
+        int expectedCount = 0;
+        for (boolean[] line : expected) for (boolean x : line) if (x) expectedCount++;
+
+        GameModel model = new GameModel(0, 10);
+        int scoreBefore = model.getSharedScore();
+        RevealResult result = reveal.revealCell(b, model, row, col, true);
+
+        boolean[][] got = new boolean[b.getRows()][b.getCols()];
+        for (RevealResult.CellPos p : result.getOpenedCells()) {
+            assertTrue(!got[p.row][p.col], label + ": " + p.row + "," + p.col + " reported twice");
+            got[p.row][p.col] = true;
+        }
+
+        for (int r = 0; r < b.getRows(); r++) {
+            for (int c = 0; c < b.getCols(); c++) {
+                String at = label + " cell " + r + "," + c;
+                assertEquals(expected[r][c], got[r][c], at);
+                Cell cell = b.getCell(r, c);
+                if (expected[r][c]) {
+                    assertTrue(cell.isOpen(), at);
+                    assertEquals(cell.isSpecial(), cell.isDiscovered(), at);
+                }
+            }
+        }
+        assertEquals(expectedCount, model.revealedCells, label);
+        assertEquals(expectedCount, model.getSharedScore() - scoreBefore, label); // no mines in an opening
+    }
+
+    /**
+     * A random layout built cell by cell, so special cells also land on
+     * numbered cells (a generated board only puts them on zero cells).
+     */
+    private static Board handBuilt(int rows, int cols, int mineCount, Random rnd) {
+        boolean[][] mines = new boolean[rows][cols];
+        for (int placed = 0; placed < mineCount; ) {
+            int r = rnd.nextInt(rows), c = rnd.nextInt(cols);
+            if (!mines[r][c]) {
+                mines[r][c] = true;
+                placed++;
+            }
+        }
+
+        Board b = new Board(rows, cols);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (mines[r][c]) {
+                    b.setCell(r, c, new MineCell(r, c));
+                    continue;
+                }
+                int n = 0;
+                for (int i = r - 1; i <= r + 1; i++) {
+                    for (int j = c - 1; j <= c + 1; j++) {
+                        if (i >= 0 && i < rows && j >= 0 && j < cols && mines[i][j]) n++;
+                    }
+                }
+                int kind = rnd.nextInt(10);
+                b.setCell(r, c, kind == 0 ? new SurpriseCell(r, c, n)
+                        : kind == 1 ? new QuestionCell(r, c, n)
+                        : new NormalCell(r, c, n));
+            }
+        }
+        return b;
+    }
+
+    /** Every cell that starts an opening, clicked on a freshly covered board. */
+    private void clickEveryOpening(Board b, String label) {
+        int clicked = 0;
+        for (int r = 0; r < b.getRows(); r++) {
+            for (int c = 0; c < b.getCols(); c++) {
+                if (b.getOpenings().regionOf(r, c) < 0) continue;
+                coverAll(b);
+                assertSameAsCascade(b, r, c, label + " click " + r + "," + c);
+                clicked++;
+            }
+        }
+        assertTrue(clicked > 0, label + " has no openings");
+    }
+
+    @Test
+    void generatedBoards_openTheSameCellsAsTheCascade() {
+        for (int seed = 1; seed <= 20; seed++) {
+            Random rnd = new Random(seed);
+            Board b = new GameModel(10 + seed, 10, rnd).generateBoard(9 + seed % 4, 9 + seed % 5, rnd);
+            clickEveryOpening(b, "seed " + seed);
+        }
+    }
+
+    @Test
+    void specialCellsOnNumbers_openTheSameCellsAsTheCascade() {
+        for (int seed = 1; seed <= 20; seed++) {
+            Board b = handBuilt(10, 12, 14, new Random(seed));
+            clickEveryOpening(b, "seed " + seed);
+        }
+    }
+
+    @Test
+    void flaggedOrOpenCellInTheOpening_stillMatchesTheCascade() {
+        for (int seed = 1; seed <= 20; seed++) {
+            Random rnd = new Random(seed);
+            Board b = handBuilt(10, 12, 14, rnd);
+
+            for (int r = 0; r < b.getRows(); r++) {
+                for (int c = 0; c < b.getCols(); c++) {
+                    if (b.getOpenings().regionOf(r, c) < 0) continue;
+                    coverAll(b);
+
+                    // touch one other cell of the same opening first
+                    int region = b.getOpenings().regionOf(r, c);
+                    int from = b.getOpenings().begin(region), to = b.getOpenings().end(region);
+                    int i = b.getOpenings().member(from + rnd.nextInt(to - from));
+                    Cell other = b.getCell(i / b.getCols(), i % b.getCols());
+                    if (other == b.getCell(r, c)) continue;
+                    if (rnd.nextBoolean()) other.setFlag();
+                    else other.setOpen(true);
+
+                    assertSameAsCascade(b, r, c, "seed " + seed + " click " + r + "," + c);
+                }
+            }
+        }
+    }
+}
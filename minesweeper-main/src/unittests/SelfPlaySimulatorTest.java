@@ -0,0 +1,29 @@
+package unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import sim.SelfPlaySimulator;
+
+public class SelfPlaySimulatorTest {
+
+    private static String run(String policy, String difficulty) throws Exception {
+        SelfPlaySimulator sim = new SelfPlaySimulator(
+                "--games", "400", "--policy", policy, "--policy2", "random",
+                "--threads", "4", "--seed", "11");
+        return sim.results(difficulty);
+    }
+
+    @Test
+    void sameSeedAndThreads_giveIdenticalStats() throws Exception {
+        for (String difficulty : new String[]{"Easy", "Hard"}) {
+            String first = run("solver", difficulty);
+            String second = run("solver", difficulty);
+
+            assertTrue(first.contains("final score"));
+            assertEquals(first, second, difficulty);
+        }
+    }
+}
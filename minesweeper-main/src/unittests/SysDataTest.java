@@ -1,13 +1,18 @@
 package unittests;
 
+import model.GameHistoryEntry;
 import model.Question;
+import model.QuestionBank;
 import model.QuestionDifficulty;
+import model.QuestionsFileStatus;
+import model.QuestionsLoadResult;
 import model.SysData;
 import org.junit.jupiter.api.*;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,8 +22,8 @@ import static org.junit.jupiter.api.Assertions.*;
  *
  * Focus:
  * - Internal CSV handling
- * - ID assignment and reassignment logic
- * - File overwrite behavior after add/delete operations
+ * - ID assignment logic (IDs are stable)
+ * - File contents after add/delete operations
  */
 public class SysDataTest {
 
@@ -26,6 +31,16 @@ public class SysDataTest {
     private static final Path CSV_PATH =
             Paths.get(System.getProperty("user.dir"), "QuestionsCSV.csv");
 
+    // Highest ID handed out so far, kept next to the CSV by SysData
+    private static final Path MAX_ID_PATH =
+            Paths.get(System.getProperty("user.dir"), "QuestionsCSV.csv.maxid");
+
+    // Game history and its move journals (backed up like the CSV)
+    private static final Path HISTORY_PATH =
+            Paths.get(System.getProperty("user.dir"), "game_history.csv");
+    private static final Path JOURNALS_PATH =
+            Paths.get(System.getProperty("user.dir"), "game_journals.dat");
+
     // Expected CSV header (must match SysData exactly)
     private static final String HEADER =
             "ID,Question,Difficulty,A,B,C,D,Correct Answer";
@@ -33,6 +48,9 @@ public class SysDataTest {
     // Backup storage for restoring the original CSV after each test
     private byte[] backupBytes = null;
     private boolean hadOriginalFile = false;
+    private byte[] backupMaxId = null;
+    private byte[] backupHistory = null;
+    private byte[] backupJournals = null;
 
     /**
      * Runs before each test.
@@ -47,6 +65,15 @@ public class SysDataTest {
         if (hadOriginalFile) {
             backupBytes = Files.readAllBytes(CSV_PATH);
         }
+        if (Files.exists(MAX_ID_PATH)) {
+            backupMaxId = Files.readAllBytes(MAX_ID_PATH);
+        }
+        Files.deleteIfExists(MAX_ID_PATH); // a clean CSV has handed out no IDs yet
+
+        if (Files.exists(HISTORY_PATH)) backupHistory = Files.readAllBytes(HISTORY_PATH);
+        if (Files.exists(JOURNALS_PATH)) backupJournals = Files.readAllBytes(JOURNALS_PATH);
+        Files.deleteIfExists(HISTORY_PATH);
+        Files.deleteIfExists(JOURNALS_PATH);
 
         // Create a fresh CSV with header only
         Files.write(
@@ -75,15 +102,32 @@ public class SysDataTest {
             // Remove test file if none existed before
             Files.deleteIfExists(CSV_PATH);
         }
+
+        if (backupMaxId != null) {
+            Files.write(MAX_ID_PATH, backupMaxId);
+        } else {
+            Files.deleteIfExists(MAX_ID_PATH);
+        }
+
+        restore(HISTORY_PATH, backupHistory);
+        restore(JOURNALS_PATH, backupJournals);
+    }
+
+    private static void restore(Path path, byte[] bytes) throws IOException {
+        if (bytes != null) {
+            Files.write(path, bytes);
+        } else {
+            Files.deleteIfExists(path);
+        }
     }
 
     /**
      * White-box test:
-     * Verifies that deleting a question triggers ID reassignment
-     * and results in sequential IDs with no gaps.
+     * Verifies that deleting a question keeps the other questions' IDs
+     * (no renumbering).
      */
     @Test
-    void testDeleteQuestion_ReassignsIdsSequentially() {
+    void testDeleteQuestion_KeepsRemainingIds() {
 
         // Arrange: valid questions (matching UI validation rules)
         Question q1 = new Question(
@@ -116,10 +160,10 @@ public class SysDataTest {
         assertTrue(SysData.deleteQuestion(q2));
         List<Question> remaining = SysData.loadQuestions();
 
-        // Assert: size reduced and IDs reassigned sequentially
+        // Assert: size reduced and remaining IDs unchanged
         assertEquals(2, remaining.size());
         assertEquals(1, remaining.get(0).getId());
-        assertEquals(2, remaining.get(1).getId());
+        assertEquals(3, remaining.get(1).getId());
     }
 
     /**
@@ -165,4 +209,191 @@ public class SysDataTest {
         assertEquals(2, questions.get(1).getId());
         assertEquals(3, questions.get(2).getId());
     }
+
+    /**
+     * White-box test:
+     * Verifies that the ID of a deleted question is not handed out again,
+     * even after the store forgets its state (recreated file / restart).
+     */
+    @Test
+    void testDeletedHighestId_IsNotReused() {
+        Question q1 = new Question("First?", new String[]{"A", "B", "C", "D"}, 0, QuestionDifficulty.EASY);
+        Question q2 = new Question("Second?", new String[]{"A", "B", "C", "D"}, 1, QuestionDifficulty.EASY);
+        assertTrue(SysData.addQuestion(q1));
+        assertTrue(SysData.addQuestion(q2));
+
+        // Act: delete the highest ID, start over with an empty file, add again
+        assertTrue(SysData.deleteQuestion(q2));
+        assertTrue(SysData.recreateQuestionsFile());
+
+        Question q3 = new Question("Third?", new String[]{"A", "B", "C", "D"}, 2, QuestionDifficulty.EASY);
+        assertTrue(SysData.addQuestion(q3));
+
+        // Assert: a fresh ID, not q2's
+        assertEquals(3, q3.getId());
+    }
+
+    /**
+     * White-box test:
+     * An outside edit that keeps the file's length and modification time
+     * (coarse clocks on FAT / network drives) moves the records; an update
+     * must still rewrite its own record, not whatever now sits at the old offset.
+     */
+    @Test
+    void testUpdateAfterSameSizeOutsideEdit_WritesTheRightRecord() throws IOException {
+        Question q1 = new Question("First?", new String[]{"A", "B", "C", "D"}, 0, QuestionDifficulty.EASY);
+        Question q2 = new Question("Second", new String[]{"A", "B", "C", "D"}, 1, QuestionDifficulty.EASY);
+        assertTrue(SysData.addQuestion(q1));
+        assertTrue(SysData.addQuestion(q2));
+
+        // Arrange: swap the two lines by hand, then put the old timestamp back
+        List<String> lines = Files.readAllLines(CSV_PATH, StandardCharsets.UTF_8);
+        long modified = CSV_PATH.toFile().lastModified();
+        Files.write(CSV_PATH, List.of(lines.get(0), lines.get(2), lines.get(1)), StandardCharsets.UTF_8);
+        assertTrue(CSV_PATH.toFile().setLastModified(modified));
+
+        // Act
+        q1.setText("Edited?");
+        assertTrue(SysData.updateQuestion(q1));
+
+        // Assert: q1 changed, q2 untouched
+        List<Question> questions = SysData.loadQuestions();
+        assertEquals(2, questions.size());
+        for (Question q : questions) {
+            assertEquals(q.getId() == q1.getId() ? "Edited?" : "Second", q.getText());
+        }
+    }
+
+    /**
+     * Black-box test:
+     * An outside edit followed by an app write inside the watcher's debounce
+     * window - both end up in the QuestionBank.
+     */
+    @Test
+    void testExternalEditThenAppWrite_BothReachTheBank() throws Exception {
+        QuestionBank bank = QuestionBank.getInstance();
+        bank.invalidate();
+        assertTrue(bank.getQuestions().isEmpty());
+
+        SysData.watchQuestionsFile(); // once per run; later calls keep the running watcher
+        Thread.sleep(500);            // its first scan
+
+        // Act: a line added by hand, then (well within the debounce) one added by the app
+        Files.write(CSV_PATH, "7,Added outside?,Easy,A,B,C,D,A\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        Question inside = new Question("Added inside?", new String[]{"A", "B", "C", "D"}, 0, QuestionDifficulty.EASY);
+        assertTrue(SysData.addQuestion(inside));
+
+        for (int i = 0; i < 100 && bank.getQuestions().size() < 2; i++) Thread.sleep(50);
+
+        // Assert
+        List<Question> questions = bank.getQuestions();
+        assertEquals(2, questions.size());
+        assertEquals("Added outside?", questions.get(0).getText());
+        assertEquals(inside.getId(), questions.get(1).getId());
+    }
+
+    /**
+     * Black-box test:
+     * A CSV with broken rows is MALFORMED; every problem is reported at the line
+     * (and column) where its record starts, and the rows that could be read still load.
+     */
+    @Test
+    void testLoadMalformedCsv_ReportsLineAndColumn() throws IOException {
+        // Arrange
+        Files.write(CSV_PATH, (HEADER + "\n"
+                + "1,Fine?,Easy,a,b,c,d,A\n"            // line 2
+                + "2,Too few,Easy,a,b,c\n"              // line 3
+                + "x,Bad id,Easy,a,b,c,d,A\n"           // line 4
+                + "\n"                                  // line 5 (blank - skipped)
+                + "3,\"Two\nlines\",Easy,a,,c,d,E\n"     // lines 6-7
+                + "4, ,Medium,a,b,c,d,B\n"              // line 8
+                + "5,Extra,Hard,a,b,c,d,C,extra\n"      // line 9
+        ).getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        QuestionsLoadResult result = SysData.loadQuestionsWithStatus();
+
+        // Assert
+        assertEquals(QuestionsFileStatus.MALFORMED, result.status);
+        assertEquals(Arrays.asList(
+                "Line 3: Expected 8 columns but found 6",
+                "Line 4, column 1: ID is not a number",
+                "Line 6, column 5: Answer B is empty",
+                "Line 6, column 8: Correct answer must be A, B, C or D",
+                "Line 8, column 2: Question text is empty",
+                "Line 9: Expected 8 columns but found 9"),
+                result.errors.stream().map(Object::toString).toList());
+
+        List<Integer> ids = result.questions.stream().map(Question::getId).toList();
+        assertEquals(Arrays.asList(1, 3, 4, 5), ids);
+        assertEquals("Two\nlines", result.questions.get(1).getText());
+    }
+
+    /**
+     * Black-box test:
+     * A wrong header is reported on line 1, and a completely broken file
+     * reports only the first 100 problems.
+     */
+    @Test
+    void testLoadMalformedCsv_BadHeaderAndErrorCap() throws IOException {
+        // Arrange
+        StringBuilder csv = new StringBuilder("Id,Text\n");
+        for (int i = 0; i < 150; i++) csv.append("not a question\n");
+        Files.write(CSV_PATH, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        QuestionsLoadResult result = SysData.loadQuestionsWithStatus();
+
+        // Assert
+        assertTrue(result.isMalformed());
+        assertEquals(100, result.errors.size());
+        assertEquals(1, result.errors.get(0).line);
+        assertEquals(0, result.errors.get(0).column);
+        assertEquals(2, result.errors.get(1).line);
+        assertEquals(100, result.errors.get(99).line);
+        assertTrue(result.questions.isEmpty());
+    }
+
+    /**
+     * White-box test:
+     * A journal record cut short (app killed mid-write) only loses that record;
+     * the ones saved before and after it still load.
+     */
+    @Test
+    void testTornJournalRecord_OtherRecordsStillLoad() throws IOException {
+        SysData.saveJournal("game-1", new byte[]{1, 2, 3});
+        SysData.saveJournal("game-2", new byte[]{4, 5, 6, 7});
+
+        // Arrange: chop the last record in half, then keep playing
+        byte[] data = Files.readAllBytes(JOURNALS_PATH);
+        Files.write(JOURNALS_PATH, Arrays.copyOf(data, data.length - 5));
+        SysData.saveJournal("game-3", new byte[]{8, 9});
+
+        assertArrayEquals(new byte[]{1, 2, 3}, SysData.loadJournal("game-1"));
+        assertNull(SysData.loadJournal("game-2"));
+        assertArrayEquals(new byte[]{8, 9}, SysData.loadJournal("game-3"));
+    }
+
+    /**
+     * White-box test:
+     * Trimming or deleting history entries drops their journals as well.
+     */
+    @Test
+    void testTrimAndDeleteHistory_PruneJournals() {
+        for (int i = 1; i <= 3; i++) {
+            SysData.saveGame(new GameHistoryEntry("game-" + i, "Easy", "A", "B", "WIN", 10, 60));
+            SysData.saveJournal("game-" + i, new byte[]{(byte) i});
+        }
+
+        assertEquals(1, SysData.trimHistory(2));
+        assertNull(SysData.loadJournal("game-1"));
+        assertNotNull(SysData.loadJournal("game-2"));
+
+        GameHistoryEntry second = SysData.loadHistory().stream()
+                .filter(e -> e.getDateTime().equals("game-2")).findFirst().orElseThrow();
+        assertTrue(SysData.deleteHistoryEntry(second));
+        assertNull(SysData.loadJournal("game-2"));
+        assertArrayEquals(new byte[]{3}, SysData.loadJournal("game-3"));
+    }
 }
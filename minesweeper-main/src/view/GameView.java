@@ -17,7 +17,7 @@ import javafx.scene.text.FontWeight;
  * - Shared Info Panel
  * - Player 2 Board
  * - Top Title + Current Player
- * - Bottom Buttons (Restart, Exit, Return to Menu)
+ * - Bottom Buttons (Hint, Restart, Exit, Return to Menu)
  */
 public class GameView extends BorderPane {
 
@@ -44,6 +44,7 @@ public class GameView extends BorderPane {
     private final Label player2Label;
     public final Label player2MinesLeftLabel = new Label("Mines Left: 0");
 
+    public final Button hintBtn = new Button("Hint");
     public final Button restartBtn = new Button("New Game");
     public final Button exitBtn = new Button("Exit");
     public final Button backToMenuBtn = new Button("Return to Menu");
@@ -265,11 +266,12 @@ public class GameView extends BorderPane {
         HBox box = new HBox(14);
         box.setAlignment(Pos.CENTER);
 
+        styleButton(hintBtn, "#16A34A", 110);
         styleButton(restartBtn, "#2563EB", 140);
         styleButton(exitBtn, "#EF4444", 110);
         styleButton(backToMenuBtn, "#64748B", 150);
 
-        box.getChildren().addAll(restartBtn, exitBtn, backToMenuBtn);
+        box.getChildren().addAll(hintBtn, restartBtn, exitBtn, backToMenuBtn);
         bottomSection.getChildren().add(box);
     }
 
@@ -1,5 +1,6 @@
 package view;
 
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -26,6 +27,14 @@ public class HistoryView extends BorderPane {
     public final Button clearHistoryBtn = new Button("Clear History");
     public final Button trimHistoryBtn = new Button("Trim History");
     public final Button deleteSelectedBtn = new Button("Delete Selected");
+    public final Button replayBtn = new Button("Replay");
+    public final Button exportBtn = new Button("Export...");
+    public final Button importBtn = new Button("Import...");
+
+    // Background transfer progress (hidden while idle)
+    public final ProgressBar transferProgress = new ProgressBar(0);
+    public final Button cancelTransferBtn = new Button("Cancel");
+    public final HBox transferBox = new HBox(10, transferProgress, cancelTransferBtn);
 
     /**
      * Wrapper for Delete Selected button.
@@ -37,6 +46,21 @@ public class HistoryView extends BorderPane {
     public final Label statusLabel = new Label("");
     public final Label emptyLabel = new Label("No history yet.");
 
+    // Filters (applied by the controller through SysData.queryHistory)
+    public final TextField playerFilterField = new TextField();
+    public final ComboBox<String> difficultyFilter = new ComboBox<>();
+    public final ComboBox<String> resultFilter = new ComboBox<>();
+    public final DatePicker fromDatePicker = new DatePicker();
+    public final DatePicker toDatePicker = new DatePicker();
+    public final ComboBox<String> sortBox = new ComboBox<>();
+
+    // Sort options shown in sortBox (same order as HistoryQuery.Sort)
+    public static final String[] SORT_LABELS = {
+            "Newest first", "Oldest first",
+            "Highest score", "Lowest score",
+            "Shortest game", "Longest game"
+    };
+
     // Table
     public final TableView<GameHistoryEntry> table = new TableView<>();
 
@@ -69,6 +93,15 @@ public class HistoryView extends BorderPane {
             "-fx-padding: 0 14 0 14;" +
             "-fx-opacity: 0.6;";
 
+    private static final String FIELD_STYLE =
+            "-fx-background-color: #020617;" +
+            "-fx-text-fill: #E5E7EB;" +
+            "-fx-prompt-text-fill: #6B7280;" +
+            "-fx-border-color: #1E293B;" +
+            "-fx-border-radius: 8;" +
+            "-fx-background-radius: 8;" +
+            "-fx-padding: 6 10 6 10;";
+
     public HistoryView() {
         buildUI();
     }
@@ -132,22 +165,64 @@ public class HistoryView extends BorderPane {
         clearHistoryBtn.setPrefHeight(32);
         trimHistoryBtn.setPrefHeight(32);
         deleteSelectedBtn.setPrefHeight(32);
+        replayBtn.setPrefHeight(32);
+        exportBtn.setPrefHeight(32);
+        importBtn.setPrefHeight(32);
+        cancelTransferBtn.setPrefHeight(28);
 
         styleSecondary(clearHistoryBtn);
         styleSecondary(trimHistoryBtn);
         styleDanger(deleteSelectedBtn);
+        styleSecondary(replayBtn);
+        styleSecondary(exportBtn);
+        styleSecondary(importBtn);
+        styleSecondary(cancelTransferBtn);
+
+        transferProgress.setPrefWidth(260);
+        transferBox.setAlignment(Pos.CENTER_LEFT);
+        transferBox.setVisible(false);
+        transferBox.setManaged(false);
 
         deleteSelectedBtn.setDisable(true);
+        replayBtn.setDisable(true); // enabled while a row is selected
 
         // IMPORTANT: place button inside wrapper
         deleteBtnWrapper.getChildren().add(deleteSelectedBtn);
         deleteBtnWrapper.setPickOnBounds(true);
 
-        HBox actions = new HBox(10, clearHistoryBtn, trimHistoryBtn, deleteBtnWrapper);
+        Region actionsSpacer = new Region();
+        HBox.setHgrow(actionsSpacer, Priority.ALWAYS);
+
+        HBox actions = new HBox(10, clearHistoryBtn, trimHistoryBtn, deleteBtnWrapper, replayBtn,
+                actionsSpacer, exportBtn, importBtn);
         actions.setAlignment(Pos.CENTER_LEFT);
 
         statusLabel.setTextFill(Color.web("#93C5FD"));
 
+        // Filters row
+        playerFilterField.setPromptText("Search player...");
+        playerFilterField.setPrefWidth(160);
+        playerFilterField.setStyle(FIELD_STYLE);
+
+        difficultyFilter.getItems().setAll("All", "Easy", "Medium", "Hard");
+        difficultyFilter.getSelectionModel().selectFirst();
+
+        resultFilter.getItems().setAll("All", "WIN", "LOSE");
+        resultFilter.getSelectionModel().selectFirst();
+
+        fromDatePicker.setPromptText("From");
+        fromDatePicker.setPrefWidth(120);
+        toDatePicker.setPromptText("To");
+        toDatePicker.setPrefWidth(120);
+
+        sortBox.getItems().setAll(SORT_LABELS);
+        sortBox.getSelectionModel().selectFirst();
+
+        HBox filters = new HBox(8,
+                playerFilterField, difficultyFilter, resultFilter,
+                fromDatePicker, toDatePicker, sortBox);
+        filters.setAlignment(Pos.CENTER_LEFT);
+
         // Table (unchanged)
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         table.setPlaceholder(new Label("No history yet."));
@@ -164,9 +239,32 @@ public class HistoryView extends BorderPane {
         TableColumn<GameHistoryEntry, String> cP2 = new TableColumn<>("Player 2");
         cP2.setCellValueFactory(new PropertyValueFactory<>("player2Name"));
 
-        table.getColumns().setAll(cDate, cDiff, cP1, cP2);
+        TableColumn<GameHistoryEntry, String> cResult = new TableColumn<>("Result");
+        cResult.setCellValueFactory(new PropertyValueFactory<>("result"));
+
+        TableColumn<GameHistoryEntry, Integer> cScore = new TableColumn<>("Score");
+        cScore.setCellValueFactory(new PropertyValueFactory<>("finalScore"));
+
+        TableColumn<GameHistoryEntry, Integer> cLength = new TableColumn<>("Length (s)");
+        cLength.setCellValueFactory(new PropertyValueFactory<>("gameLengthSeconds"));
+
+        // complexity of the board that won (blank for losses and games recorded before it was tracked)
+        TableColumn<GameHistoryEntry, String> c3bv = new TableColumn<>("3BV");
+        c3bv.setCellValueFactory(d -> new ReadOnlyStringWrapper(
+                d.getValue().getThreeBV() == 0 ? "" : String.valueOf(d.getValue().getThreeBV())));
+
+        TableColumn<GameHistoryEntry, String> c3bvRate = new TableColumn<>("3BV/s");
+        c3bvRate.setCellValueFactory(d -> new ReadOnlyStringWrapper(
+                d.getValue().getThreeBVPerSecond() == 0 ? "" : String.format("%.2f", d.getValue().getThreeBVPerSecond())));
+
+        // sorting is done by the query (header clicks would only sort the current page)
+        for (TableColumn<GameHistoryEntry, ?> col : java.util.List.of(cDate, cDiff, cP1, cP2, cResult, cScore, cLength, c3bv, c3bvRate)) {
+            col.setSortable(false);
+        }
+
+        table.getColumns().setAll(cDate, cDiff, cP1, cP2, cResult, cScore, cLength, c3bv, c3bvRate);
 
-        VBox centerBox = new VBox(10, actions, statusLabel, table, emptyLabel);
+        VBox centerBox = new VBox(10, actions, filters, transferBox, statusLabel, table, emptyLabel);
         centerBox.setPadding(new Insets(10, 30, 20, 30));
         setCenter(centerBox);
     }
@@ -34,6 +34,15 @@ public class QuestionManagementView extends BorderPane {
     public final Button editBtn = new Button("Edit Selected");
     public final Button deleteBtn = new Button("Delete Selected");
 
+    // Filter-as-you-type search over question text and options
+    public final TextField searchField = new TextField();
+    public final Label searchCountLabel = new Label();
+
+    // JSON import progress (shown only while an import runs)
+    public final ProgressBar importProgress = new ProgressBar(0);
+    public final Button cancelImportBtn = new Button("Cancel");
+    public final HBox importBox = new HBox(10, importProgress, cancelImportBtn);
+
     /**
      * Styles for secondary action buttons.
      * 
@@ -235,7 +244,25 @@ public class QuestionManagementView extends BorderPane {
 
         table.getColumns().addAll(qCol, diffCol, correctCol);
 
-        VBox centerBox = new VBox(10, table);
+        searchField.setPromptText("Search questions and answers...");
+        searchField.setPrefHeight(34);
+        searchField.setPrefWidth(360);
+        searchField.setStyle(
+                "-fx-background-color: #020617;" +
+                        "-fx-text-fill: #E5E7EB;" +
+                        "-fx-prompt-text-fill: #6B7280;" +
+                        "-fx-border-color: #1E293B;" +
+                        "-fx-border-radius: 8;" +
+                        "-fx-background-radius: 8;"
+        );
+        searchCountLabel.setTextFill(Color.web("#9CA3AF"));
+        searchCountLabel.setFont(Font.font("Arial", 13));
+
+        HBox searchBar = new HBox(12, searchField, searchCountLabel);
+        searchBar.setAlignment(Pos.CENTER_LEFT);
+
+        VBox centerBox = new VBox(10, searchBar, table);
+        VBox.setVgrow(table, Priority.ALWAYS);
         centerBox.setPadding(new Insets(10, 30, 10, 30));
         setCenter(centerBox);
 
@@ -275,7 +302,18 @@ public class QuestionManagementView extends BorderPane {
         Tooltip.install(editWrapper, editTip);
         Tooltip.install(deleteWrapper, deleteTip);
 
-        bottom.getChildren().addAll(importJsonBtn, addBtn, editWrapper, deleteWrapper);
+        cancelImportBtn.setPrefHeight(28);
+        styleSecondary(cancelImportBtn);
+
+        importProgress.setPrefWidth(220);
+        importBox.setAlignment(Pos.CENTER_LEFT);
+        importBox.setVisible(false);
+        importBox.setManaged(false);
+
+        Region bottomSpacer = new Region();
+        HBox.setHgrow(bottomSpacer, Priority.ALWAYS);
+
+        bottom.getChildren().addAll(importBox, bottomSpacer, importJsonBtn, addBtn, editWrapper, deleteWrapper);
         setBottom(bottom);
     }
 
@@ -23,6 +23,12 @@ public class SetupView extends BorderPane {
     private RadioButton easyBtn;
     private RadioButton mediumBtn;
     private RadioButton hardBtn;
+    private CheckBox noGuessBox;
+    private ComboBox<String> aiSeatBox;
+    private ComboBox<String> aiSpeedBox;
+
+    // per aiSpeedBox entry
+    private static final long[] AI_BUDGET_MS = {250, 1000, 3000};
 
     private VBox diffInfoBox;
     private HBox diffBox;
@@ -169,7 +175,29 @@ public class SetupView extends BorderPane {
         mediumBtn.setOnAction(e -> updateDifficultyInfo("Medium"));
         hardBtn.setOnAction(e -> updateDifficultyInfo("Hard"));
 
-        form.getChildren().addAll(p1Wrap, p2Wrap, diffLabel, diffBox, diffInfoBox);
+        noGuessBox = new CheckBox("No-guess boards (always solvable by logic)");
+        noGuessBox.setFont(Font.font("Arial", FontWeight.BOLD, 13));
+        noGuessBox.setTextFill(Color.web("#E5E7EB"));
+        noGuessBox.setStyle("-fx-cursor: hand;");
+
+        Label aiLabel = new Label("Computer Partner");
+        aiLabel.setFont(Font.font("Arial", FontWeight.BOLD, 13));
+        aiLabel.setTextFill(Color.web("#E5E7EB"));
+
+        aiSeatBox = new ComboBox<>();
+        aiSeatBox.getItems().addAll("Off (two players)", "Plays Player 2", "Plays Player 1");
+        aiSeatBox.getSelectionModel().selectFirst();
+
+        // thinking time per move, see AI_BUDGET_MS
+        aiSpeedBox = new ComboBox<>();
+        aiSpeedBox.getItems().addAll("Quick", "Normal", "Careful");
+        aiSpeedBox.getSelectionModel().select(1);
+        aiSpeedBox.disableProperty().bind(aiSeatBox.getSelectionModel().selectedIndexProperty().isEqualTo(0));
+
+        HBox aiBox = new HBox(12, aiSeatBox, aiSpeedBox);
+        aiBox.setAlignment(Pos.CENTER);
+
+        form.getChildren().addAll(p1Wrap, p2Wrap, diffLabel, diffBox, diffInfoBox, noGuessBox, aiLabel, aiBox);
 
         Button startBtn = new Button("Start Game");
         startBtn.setPrefHeight(50);
@@ -304,12 +332,20 @@ public class SetupView extends BorderPane {
         String p1 = player1Field.getText() == null ? "" : player1Field.getText().trim();
         String p2 = player2Field.getText() == null ? "" : player2Field.getText().trim();
 
-        if (p1.isEmpty()) p1 = "Player 1";
-        if (p2.isEmpty()) p2 = "Player 2";
+        // 0 = nobody, otherwise the seat the computer takes
+        int aiPlayer = switch (aiSeatBox.getSelectionModel().getSelectedIndex()) {
+            case 1 -> 2;
+            case 2 -> 1;
+            default -> 0;
+        };
+
+        if (p1.isEmpty()) p1 = (aiPlayer == 1) ? "Computer" : "Player 1";
+        if (p2.isEmpty()) p2 = (aiPlayer == 2) ? "Computer" : "Player 2";
 
         String diff = easyBtn.isSelected() ? "Easy" :
                 mediumBtn.isSelected() ? "Medium" : "Hard";
 
-        mainApp.startGameFromSetup(p1, p2, diff);
+        long budget = AI_BUDGET_MS[aiSpeedBox.getSelectionModel().getSelectedIndex()];
+        mainApp.startGameFromSetup(p1, p2, diff, noGuessBox.isSelected(), aiPlayer, budget);
     }
 }